@@ -30,6 +30,7 @@ import java.util.Optional;
 import com.google.common.eventbus.EventBus;
 
 import tech.mcprison.prison.alerts.Alerts;
+import tech.mcprison.prison.cache.EconomyLedger;
 import tech.mcprison.prison.commands.CommandHandler;
 import tech.mcprison.prison.error.ErrorManager;
 import tech.mcprison.prison.integration.IntegrationManager;
@@ -682,7 +683,14 @@ public class Prison
      * called when the plugin is disabled.
      */
     public void deinit() {
+    	
+    	// Apply the balance changes that are still pending before the economy goes away:
+    	EconomyLedger.getInstance().shutdown();
+    	
         moduleManager.unregisterAll();
+        
+        // Write the log messages that are still buffered:
+        Output.get().shutdown();
     }
 
     // Getters
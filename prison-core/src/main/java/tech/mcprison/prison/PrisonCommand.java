@@ -36,6 +36,9 @@ import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
 import tech.mcprison.prison.backpacks.BackpackConverterOldPrisonBackpacks;
 import tech.mcprison.prison.backups.PrisonBackups;
 import tech.mcprison.prison.backups.PrisonBackups.BackupTypes;
+import tech.mcprison.prison.cache.EconomyLedger;
+import tech.mcprison.prison.cache.PlayerCache;
+import tech.mcprison.prison.cache.PlayerCacheFiles.PlayerCacheStorageFormat;
 import tech.mcprison.prison.cache.PlayerCachePlayerData;
 import tech.mcprison.prison.commands.Arg;
 import tech.mcprison.prison.commands.Command;
@@ -54,6 +57,7 @@ import tech.mcprison.prison.output.DisplayComponent;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.output.Output.DebugTarget;
 import tech.mcprison.prison.placeholders.PlaceholdersStats;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 import tech.mcprison.prison.troubleshoot.TroubleshootResult;
 import tech.mcprison.prison.troubleshoot.Troubleshooter;
 import tech.mcprison.prison.util.PrisonJarReporter;
@@ -1126,7 +1130,7 @@ public class PrisonCommand
     		@Arg(name = "targets", def = " ",
     				description = "Optional. Enable or disable a debugging target, or set a count down timer. " +
     					"[on, off, targets, (count-down-timer), selective, jarScan, " +
-    					"testPlayerUtil, testLocale, rankup, player=<playerName> ] " +
+    					"testPlayerUtil, testLocale, rankup, player=<playerName>, sample=<n> ] " +
     				"Use 'targets' to list all available targets.  Use 'on' or 'off' to toggle " +
     				"on and off individual targets, or 'all' targets if no target is specified. " +
     				"If any targets are enabled, then debug in general will be enabled. Selective will only " +
@@ -1136,7 +1140,10 @@ public class PrisonCommand
     				"jarScan will identify what Java version compiled the class files within the listed jars. " +
     				"If a player name is given, all debug messages that are tracked by player name will only be " +
     				"logged for that player.  Example: `/debug playerName=RoyalBlueRanger 5` will log only " +
-    				"5 debug messages for that player, then debug mode will be disabled.  "
+    				"5 debug messages for that player, then debug mode will be disabled.  " +
+    				"If a sample rate is given, then only 1 in that many block break events will " +
+    				"be traced, which keeps the cost of debugging low on busy servers.  Use `sample=1` " +
+    				"to trace every event."
     						) String targets ) {
     	
     	String playerName = null;
@@ -1159,6 +1166,22 @@ public class PrisonCommand
 			}
 		}
     	
+		String sampleStr = extractParameter("sample=", targets);
+		if ( sampleStr != null ) {
+			targets = targets.replace( sampleStr, "" );
+			String sample = sampleStr.replace( "sample=", "" ).trim();
+			
+			try {
+				Output.get().setDebugSampleRate( Integer.parseInt( sample ) );
+				
+				sender.sendMessage( "Prison Debug will trace 1 in " + 
+						Output.get().getDebugSampleRate() + " block break events." );
+			}
+			catch ( NumberFormatException e ) {
+				sender.sendMessage( "Prison Debug: Invalid sample rate: " + sample );
+			}
+		}
+    	
     	if ( targets != null && "jarScan".equalsIgnoreCase( targets ) ) {
     		
     		PrisonJarReporter pjr = new PrisonJarReporter();
@@ -1216,6 +1239,12 @@ public class PrisonCommand
     		}
     	}
     	
+    	if ( Output.get().getDroppedLogMessages() > 0 ) {
+    		message = String.format( ". Log messages dropped since the log buffer was full: %d", 
+    				Output.get().getDroppedLogMessages() );
+    		sender.sendMessage( message );
+    	}
+    	
     	String validTargets = Output.get().getDebugTargetsString();
     	message = String.format( ". Valid Targets: %s", validTargets );
     	sender.sendMessage( message );
@@ -2088,6 +2117,101 @@ public class PrisonCommand
 
     }
     
+    @Command(identifier = "prison support backup incremental", 
+    		description = "This will make an incremental backup of all Prison settings in the " +
+    				"background.  Only the files that have changed since the last incremental " +
+    				"backup are stored, and the identical contents are only stored once, in the " +
+    				"directory plugins/Prison/backups/incremental.  Like the other backups, the " +
+    				"temp files and backup files are deleted once they are included.", 
+    				onlyPlayers = false, permissions = "prison.debug" )
+    public void supportBackupIncremental( CommandSender sender, 
+    		
+    		@Wildcard(join=true)
+    		@Arg(name = "notes", description = "Optional short note to append to the backup name. Only the "
+    				+ "first 20 characters will be used.",
+    				def = "") String notes ) {
+    	
+    	PrisonBackups prisonBackup = new PrisonBackups();
+    	
+    	String message = prisonBackup.startIncrementalBackup( BackupTypes.manual, notes, sender );
+    	
+    	sender.sendMessage( message );
+    }
+    
+    @Command(identifier = "prison support backup restore", 
+    		description = "This will restore an incremental backup, in the background, to a new " +
+    				"directory within plugins/Prison/backups/incremental/restored.  Nothing within " +
+    				"Prison's settings are changed.  To use the restored files, stop the server and " +
+    				"copy them in to plugins/Prison.", 
+    				onlyPlayers = false, permissions = "prison.debug" )
+    public void supportBackupRestore( CommandSender sender, 
+    		
+    		@Arg(name = "name", description = "The name of the incremental backup to restore. " +
+    				"If not specified, then the most recent backup is restored.",
+    				def = "") String name ) {
+    	
+    	PrisonBackups prisonBackup = new PrisonBackups();
+    	
+    	String message = prisonBackup.startIncrementalRestore( name, sender );
+    	
+    	sender.sendMessage( message );
+    }
+    
+    @Command(identifier = "prison support backup prune", 
+    		description = "This will remove the old incremental backups, in the background, and " +
+    				"keeps only the most recent backups as set by backups.incremental.keep-backups " +
+    				"within config.yml.  The stored chunks that the remaining backups do not use " +
+    				"are deleted, along with the older restored directories.  This is also done " +
+    				"after each incremental backup.", 
+    				onlyPlayers = false, permissions = "prison.debug" )
+    public void supportBackupPrune( CommandSender sender ) {
+    	
+    	PrisonBackups prisonBackup = new PrisonBackups();
+    	
+    	String message = prisonBackup.startIncrementalPrune( sender );
+    	
+    	sender.sendMessage( message );
+    }
+    
+    @Command(identifier = "prison support playerCache exportJson", 
+    		description = "When the player cache is using the log storage format, this will " +
+    				"write every player within the log to their json file in the directory " +
+    				"plugins/Prison/data_storage/playerCache.", 
+    				onlyPlayers = false, permissions = "prison.debug" )
+    public void supportPlayerCacheExportJson( CommandSender sender ) {
+    	
+    	PlayerCache pCache = PlayerCache.getInstance();
+    	
+    	if ( pCache.getCacheFiles().getStorageFormat() != PlayerCacheStorageFormat.log ) {
+    		
+    		sender.sendMessage( "The player cache is already using the json storage format." );
+    		return;
+    	}
+    	
+    	PrisonTaskSubmitter.runTaskLaterAsync( () -> {
+    		
+    		int count = pCache.exportJson();
+    		
+    		sender.sendMessage( "Exported " + count + " players from the player cache log " +
+    				"to json files." );
+    	}, 0 );
+    }
+    
+    @Command(identifier = "prison support economyLedger", 
+    		description = "Shows the stats of the economy ledger, which applies the players' " +
+    				"balance changes to the economy in batches.", 
+    				onlyPlayers = false, permissions = "prison.debug" )
+    public void supportEconomyLedger( CommandSender sender ) {
+    	
+    	ChatDisplay display = new ChatDisplay("Economy Ledger:");
+    	
+    	for ( String line : EconomyLedger.getInstance().generateReport() ) {
+    		display.addText( line );
+    	}
+    	
+    	display.send( sender );
+    }
+    
     @Command(identifier = "prison support backup logs", 
     		description = "This will list Prison backup  logs that are in the file "
     				+ "`plugins/Prison/backup/versions.log`", 
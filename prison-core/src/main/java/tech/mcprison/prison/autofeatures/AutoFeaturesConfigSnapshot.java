@@ -0,0 +1,100 @@
+package tech.mcprison.prison.autofeatures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+
+/**
+ * <p>An immutable copy of the loaded auto features config, with the value of 
+ * each AutoFeatures stored in arrays that are indexed by its ordinal.  The
+ * block break events read many of the settings for every block that is 
+ * broken, so this prevents having to look up each key within the config's 
+ * map, check the type of its node, and fall back to the default value, every
+ * time a setting is read.
+ * </p>
+ * 
+ * <p>A new snapshot is compiled every time the config is loaded or changed, 
+ * and then it replaces the old one, so the snapshot never has to be locked 
+ * when it is read.
+ * </p>
+ *
+ */
+public class AutoFeaturesConfigSnapshot
+{
+	private final boolean[] booleans;
+	private final int[] integers;
+	private final double[] doubles;
+	private final String[] messages;
+	private final List<List<String>> stringLists;
+	
+	private AutoFeaturesConfigSnapshot( int size ) {
+		super();
+		
+		this.booleans = new boolean[ size ];
+		this.integers = new int[ size ];
+		this.doubles = new double[ size ];
+		this.messages = new String[ size ];
+		this.stringLists = new ArrayList<>( size );
+	}
+	
+	/**
+	 * <p>Compiles the config in to a snapshot.  Each value is resolved the same
+	 * way as the getters on the AutoFeatures enum, so if a value is not within
+	 * the config, or is the wrong type, then the default value is used.
+	 * </p>
+	 * 
+	 * @param conf
+	 * @return
+	 */
+	public static AutoFeaturesConfigSnapshot compile( Map<String, ValueNode> conf ) {
+		
+		AutoFeatures[] features = AutoFeatures.values();
+		
+		AutoFeaturesConfigSnapshot results = new AutoFeaturesConfigSnapshot( features.length );
+		
+		for ( AutoFeatures af : features ) {
+			int i = af.ordinal();
+			
+			results.booleans[i] = af.getBoolean( conf );
+			results.integers[i] = af.getInteger( conf );
+			results.doubles[i] = af.getDouble( conf );
+			results.messages[i] = af.getMessage( conf );
+			
+			results.stringLists.add( af.isStringList() ?
+					Collections.unmodifiableList( new ArrayList<>( af.getStringList( conf ) ) ) :
+					Collections.emptyList() );
+		}
+		
+		return results;
+	}
+	
+	public boolean getBoolean( AutoFeatures feature ) {
+		return booleans[ feature.ordinal() ];
+	}
+	
+	public int getInteger( AutoFeatures feature ) {
+		return integers[ feature.ordinal() ];
+	}
+	
+	public double getDouble( AutoFeatures feature ) {
+		return doubles[ feature.ordinal() ];
+	}
+	
+	public String getMessage( AutoFeatures feature ) {
+		return messages[ feature.ordinal() ];
+	}
+	
+	/**
+	 * <p>The list cannot be modified.
+	 * </p>
+	 * 
+	 * @param feature
+	 * @return
+	 */
+	public List<String> getStringList( AutoFeatures feature ) {
+		return stringLists.get( feature.ordinal() );
+	}
+}
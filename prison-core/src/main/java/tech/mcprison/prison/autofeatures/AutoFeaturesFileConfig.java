@@ -21,6 +21,13 @@ public class AutoFeaturesFileConfig {
     
     private Map<String, ValueNode> config;
     
+    /**
+     * <p>The compiled values of the config, which is what the getters use.  It is
+     * replaced, never changed, whenever the config is loaded or changed.
+     * </p>
+     */
+    private volatile AutoFeaturesConfigSnapshot snapshot;
+    
     /**
      * 
      * <p>Pertaining to canceling a block break even, or just canceling the drops, the ability to 
@@ -931,6 +938,8 @@ public class AutoFeaturesFileConfig {
 
 		dne.size();
 		
+		compileSnapshot();
+		
 //		Set<String> keys = getConfig().keySet();
 //		for ( String key : keys ) {
 //			ValueNode value = getConfig().get( key );
@@ -948,16 +957,18 @@ public class AutoFeaturesFileConfig {
 
 
 	public void reloadConfig() {
-    	// First clear the configs:
-    	getConfig().clear();
-    	
+    	// Load in to a new config, so the block break events keep using the current
+		// settings until the new ones are ready:
+		Map<String, ValueNode> newConfig = new LinkedHashMap<>();
     	
     	// Load from the config file:
     	YamlFileIO yamlFileIO = Prison.get().getPlatform().getYamlFileIO( getConfigFile() );
-		List<AutoFeatures> dne = yamlFileIO.loadYamlAutoFeatures( getConfig() );
+		List<AutoFeatures> dne = yamlFileIO.loadYamlAutoFeatures( newConfig );
 		
 		dne.size();
 		
+		setConfig( newConfig );
+		
 		// need to reload the auto features event listeners:
 		Prison.get().getPlatform().reloadAutoFeaturesEventListeners();
     }
@@ -996,6 +1007,8 @@ public class AutoFeaturesFileConfig {
 			TextNode text = TextNode.valueOf( value );
 			
 			getConfig().put( feature.getKey(), text );
+			
+			compileSnapshot();
 		}
 		
 	}
@@ -1028,6 +1041,8 @@ public class AutoFeaturesFileConfig {
 			BooleanNode bool = BooleanNode.valueOf( value  );
 			
 			getConfig().put( feature.getKey(), bool );
+			
+			compileSnapshot();
 		}
 		
 	}
@@ -1041,24 +1056,50 @@ public class AutoFeaturesFileConfig {
 	 * @return
 	 */
 	public boolean isFeatureBoolean( AutoFeatures feature ) {
-		return feature.getBoolean( getConfig() );
+		return getSnapshot().getBoolean( feature );
 	}
 	
 	public String getFeatureMessage( AutoFeatures feature ) {
-		return feature.getMessage( getConfig() );
+		return getSnapshot().getMessage( feature );
 	}
 	
 	public int getInteger( AutoFeatures feature ) {
-		return feature.getInteger( getConfig() );
+		return getSnapshot().getInteger( feature );
 	}
 	
 	public double getDouble( AutoFeatures feature ) {
-		return feature.getDouble( getConfig() );
+		return getSnapshot().getDouble( feature );
 	}
 	
+	/**
+	 * <p>The list cannot be modified.
+	 * </p>
+	 * 
+	 * @param feature
+	 * @return
+	 */
 	public List<String> getFeatureStringList( AutoFeatures feature ) {
 		
-		return feature.getStringList( getConfig() );
+		return getSnapshot().getStringList( feature );
+	}
+	
+	/**
+	 * <p>Compiles the config in to a new snapshot, and replaces the current one.
+	 * This must be called whenever the config is changed.
+	 * </p>
+	 */
+	public void compileSnapshot() {
+		this.snapshot = AutoFeaturesConfigSnapshot.compile( getConfig() );
+	}
+	
+	public AutoFeaturesConfigSnapshot getSnapshot() {
+		AutoFeaturesConfigSnapshot results = snapshot;
+		
+		if ( results == null ) {
+			compileSnapshot();
+			results = snapshot;
+		}
+		return results;
 	}
 	
 	public boolean saveConf() {
@@ -1102,6 +1143,8 @@ public class AutoFeaturesFileConfig {
 
 	public void setConfig( Map<String, ValueNode> config ) {
 		this.config = config;
+		
+		compileSnapshot();
 	}
 
 
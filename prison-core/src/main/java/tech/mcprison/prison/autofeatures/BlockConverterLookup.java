@@ -0,0 +1,152 @@
+package tech.mcprison.prison.autofeatures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import tech.mcprison.prison.autofeatures.BlockConvertersFileConfig.BlockConverterTypes;
+
+/**
+ * <p>The block converters compiled in to one hash table for each 
+ * BlockConverterTypes, so the block break events can find the block converter
+ * for each block without walking a TreeMap, and without creating a new 
+ * TreeMap for the event triggers on every block.  The block names are stored
+ * in lowercase, and the names that are looked up are only converted to 
+ * lowercase if they have an uppercase character.
+ * </p>
+ * 
+ * <p>This is not changed once it is compiled.  A new one is compiled when the
+ * block converters are reloaded.
+ * </p>
+ *
+ */
+public class BlockConverterLookup
+{
+	private final List<Map<String, CompiledBlockConverter>> tables;
+	
+	private final Set<String> eventTriggerBlockNames;
+	
+	private BlockConverterLookup() {
+		super();
+		
+		this.tables = new ArrayList<>();
+		this.eventTriggerBlockNames = new HashSet<>();
+	}
+	
+	public static BlockConverterLookup compile( BlockConvertersData bcData ) {
+		BlockConverterLookup results = new BlockConverterLookup();
+		
+		for ( BlockConverterTypes bcType : BlockConverterTypes.values() ) {
+			
+			Map<String, CompiledBlockConverter> table = new HashMap<>();
+			
+			if ( bcType == BlockConverterTypes.eventTriggers ) {
+				
+				TreeMap<String, BlockConverterEventTrigger> eventTriggers = 
+						bcData.getBlockConvertersEventTiggers();
+				
+				if ( eventTriggers != null ) {
+					for ( Map.Entry<String, BlockConverterEventTrigger> entry : eventTriggers.entrySet() ) {
+						
+						table.put( entry.getKey().toLowerCase(), 
+								new CompiledBlockConverter( entry.getValue() ) );
+					}
+				}
+			}
+			else {
+				
+				TreeMap<String, BlockConverter> bConverters = bcData.getBlockConverters() == null ? 
+								null : bcData.getBlockConverters().get( bcType );
+				
+				if ( bConverters != null ) {
+					for ( Map.Entry<String, BlockConverter> entry : bConverters.entrySet() ) {
+						
+						table.put( entry.getKey().toLowerCase(), 
+								new CompiledBlockConverter( entry.getValue() ) );
+					}
+				}
+			}
+			
+			results.tables.add( Collections.unmodifiableMap( table ) );
+		}
+		
+		if ( bcData.getBlockConvertersEventTiggers() != null ) {
+			
+			for ( BlockConverterEventTrigger et : bcData.getBlockConvertersEventTiggers().values() ) {
+				
+				if ( et.isEnabled() && et.getKeyBlockName() != null && et.getOptions() != null ) {
+					
+					for ( BlockConverterOptionEventTrigger eventTrigger : et.getOptions() ) {
+						if ( eventTrigger.isIgnoreBlockInExplosionEvents() ) {
+							
+							results.eventTriggerBlockNames.add( et.getKeyBlockName().toLowerCase() );
+							break;
+						}
+					}
+				}
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Finds the block converter for the block name, ignoring case.
+	 * </p>
+	 * 
+	 * @param blockName
+	 * @param bcType
+	 * @return The block converter, or null if there is not one.
+	 */
+	public CompiledBlockConverter get( String blockName, BlockConverterTypes bcType ) {
+		
+		if ( blockName == null || bcType == null ) {
+			return null;
+		}
+		
+		return tables.get( bcType.ordinal() ).get( toKey( blockName ) );
+	}
+	
+	/**
+	 * <p>If the block is an event trigger that should be removed from the 
+	 * explosion events.
+	 * </p>
+	 * 
+	 * @param blockName
+	 * @return
+	 */
+	public boolean isEventTriggerBlockName( String blockName ) {
+		return blockName != null && eventTriggerBlockNames.contains( toKey( blockName ) );
+	}
+	
+	public Set<String> getEventTriggerBlockNames() {
+		return Collections.unmodifiableSet( eventTriggerBlockNames );
+	}
+	
+	public int size( BlockConverterTypes bcType ) {
+		return tables.get( bcType.ordinal() ).size();
+	}
+	
+	/**
+	 * <p>The block names are almost always lowercase already, so this only
+	 * creates a new string when it has to.
+	 * </p>
+	 * 
+	 * @param blockName
+	 * @return
+	 */
+	private static String toKey( String blockName ) {
+		
+		for ( int i = 0; i < blockName.length(); i++ ) {
+			if ( Character.isUpperCase( blockName.charAt( i ) ) ) {
+				return blockName.toLowerCase();
+			}
+		}
+		return blockName;
+	}
+}
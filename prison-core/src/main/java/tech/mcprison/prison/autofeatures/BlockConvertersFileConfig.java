@@ -1,13 +1,11 @@
 package tech.mcprison.prison.autofeatures;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeMap;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+import tech.mcprison.prison.cache.PlayerPermissionCache;
 import tech.mcprison.prison.file.JsonFileIO;
 import tech.mcprison.prison.internal.ItemStack;
 import tech.mcprison.prison.internal.Player;
@@ -22,7 +20,13 @@ public class BlockConvertersFileConfig {
 	
 	private transient BlockConvertersData bcData;
 	
-	private transient List<String> eventTriggerBlockNames;
+	/**
+	 * <p>The block converters compiled for the block break events.  This is 
+	 * replaced whenever the block converters are reloaded.
+	 * </p>
+	 */
+	private transient volatile BlockConverterLookup lookup;
+	
 //	private TreeMap<BlockConverterTypes, TreeMap<String, BlockConverter>> blockConverters;
 //	private TreeMap<String, BlockConverterEventTrigger> blockConvertersEventTiggers;
 
@@ -44,8 +48,6 @@ public class BlockConvertersFileConfig {
 		
 		this.bcData = new BlockConvertersData();
 		
-		this.eventTriggerBlockNames = null;
-		
 //		this.blockConverters = new TreeMap<>();
 //		this.blockConvertersEventTiggers = new TreeMap<>();
 //		
@@ -73,7 +75,8 @@ public class BlockConvertersFileConfig {
 
 		if ( blockName != null && blockQuantity >= 1 ) {
 			
-			BlockConverter bc = getBlockConverter( player, blockName, bcType );
+			CompiledBlockConverter compiled = getCompiledBlockConverter( player, blockName, bcType );
+			BlockConverter bc = compiled == null ? null : compiled.getBlockConverter();
 			
 			if ( bc != null && blockQuantity >= bc.getKeyQuantity() ) {
 				
@@ -84,8 +87,8 @@ public class BlockConvertersFileConfig {
 
 					results.setBlockConverter( bc );
 					
-					// getBlockConverterOutputs applies chance, perms, etc...
-					List<BlockConverterOutput> outputs = getBlockConverterOutputs( player, bc );
+					// selectOutputs applies chance, perms, etc...
+					List<BlockConverterOutput> outputs = compiled.selectOutputs( player );
 					
 					results.setResultsQuantityConsumed( bc.getKeyQuantity() * multiplier );
 					
@@ -128,23 +131,23 @@ public class BlockConvertersFileConfig {
 	 */
 	public BlockConverter getBlockConverter( Player player, String blockName, 
 			BlockConverterTypes bcType ) {
-		BlockConverter results = null;
+		
+		CompiledBlockConverter compiled = getCompiledBlockConverter( player, blockName, bcType );
+		
+		return compiled == null ? null : compiled.getBlockConverter();
+	}
+	
+	private CompiledBlockConverter getCompiledBlockConverter( Player player, String blockName, 
+			BlockConverterTypes bcType ) {
+		CompiledBlockConverter results = null;
 		
 		if ( player != null && blockName != null && bcType != null ) {
 			
-			BlockConverter temp = getBlockConverter( blockName, bcType );
+			CompiledBlockConverter temp = getLookup().get( blockName, bcType );
 			
-			if ( temp != null && temp.getPermissions().size() == 0 ) {
+			if ( temp != null && temp.isAccessible( player ) ) {
 				results = temp;
 			}
-			else if ( temp != null ) {
-				for (String perm : temp.getPermissions() ) {
-					if ( player.hasPermission( perm ) ) {
-						results = temp;
-						break;
-					}
-				}
-			}
 		}
 		
 		return results;
@@ -161,82 +164,22 @@ public class BlockConvertersFileConfig {
 	 * @return
 	 */
 	public BlockConverter getBlockConverter( String blockName, BlockConverterTypes bcType ) {
-		BlockConverter results = null;
 		
-		if ( blockName != null && bcType != null ) {
-			
-			TreeMap<String, BlockConverter> bConverters = null;
-			
-			String key = blockName.toLowerCase();
-			
-			if ( bcType == BlockConverterTypes.eventTriggers ) {
-				bConverters = getBcData().getBlockConvertersEventTiggers( key );
-			}
-			else {
-				
-				bConverters = getBcData().getBlockConverters().get(bcType);
-			}
-			
-			if ( bConverters.containsKey( key ) ) {
-				results = bConverters.get( key );
-			}
-		}
+		CompiledBlockConverter compiled = getLookup().get( blockName, bcType );
 		
-		return results;
+		return compiled == null ? null : compiled.getBlockConverter();
 	}
 	
-	
 	/**
-	 * <p>Based upon the block converter, extract all valid outputs for this player.
+	 * <p>If the block is an event trigger that should be removed from the 
+	 * explosion events.  The block name is not case sensitive.
 	 * </p>
 	 * 
-	 * @param player
-	 * @param bc
+	 * @param blockName
 	 * @return
 	 */
-	private List<BlockConverterOutput> getBlockConverterOutputs(Player player, BlockConverter bc) {
-		
-		List<BlockConverterOutput> outputs = new ArrayList<>();
-		
-		if ( bc.getOutputs() != null ) {
-			
-			for ( BlockConverterOutput bcOutput : bc.getOutputs() ) {
-				
-				if ( bcOutput.isEnabled() ) { 
-					
-					// If chance, and the random number is greater than the chance, then skip this output:
-					if ( bcOutput.getChance() != null && 
-							bcOutput.getChance().doubleValue() > (Math.random() * 100d ) ) {
-						continue;
-					}
-					
-					// Confirm the player has perms:
-					if ( bcOutput.getPermissions() != null ) {
-						
-						boolean hasPerm = false;
-						for (String perm : bcOutput.getPermissions() ) {
-							if ( player.hasPermission( perm ) ) {
-								hasPerm = true;
-								break;
-							}
-						}
-						
-						// If player does not have perms to use this output, then skip this output:
-						if ( !hasPerm ) {
-							continue;
-						}
-						
-					}
-					
-					// Return the selected output:
-					outputs.add( bcOutput );
-				}
-				
-			}
-		}
-		
-		
-		return outputs;
+	public boolean isEventTriggerBlockName( String blockName ) {
+		return getLookup().isEventTriggerBlockName( blockName );
 	}
 	
 	/**
@@ -282,8 +225,8 @@ public class BlockConvertersFileConfig {
 	private boolean initialConfig() {
 		boolean dirty = false;
 		
-		// Set to null so it will auto reload on next access:
-		setEventTriggerBlockNames( null );
+		// Set to null so it will be compiled again on next access:
+		setLookup( null );
 		
 		BlockConvertersInitializer initializer = new BlockConvertersInitializer();
 		
@@ -336,6 +279,8 @@ public class BlockConvertersFileConfig {
 				saveToJson();
 			}
 		}
+		
+		setLookup( BlockConverterLookup.compile( getBcData() ) );
 
 	}
 	
@@ -370,6 +315,22 @@ public class BlockConvertersFileConfig {
 	}
 	public void setBcData(BlockConvertersData bcData) {
 		this.bcData = bcData;
+		
+		// Compile it again on the next lookup:
+		this.lookup = null;
+	}
+
+	public BlockConverterLookup getLookup() {
+		BlockConverterLookup results = lookup;
+		
+		if ( results == null ) {
+			results = BlockConverterLookup.compile( getBcData() );
+			lookup = results;
+		}
+		return results;
+	}
+	public void setLookup( BlockConverterLookup lookup ) {
+		this.lookup = lookup;
 	}
 
 	/**
@@ -394,64 +355,4 @@ public class BlockConvertersFileConfig {
 		return eventTriggers;
 	}
 	
-	
-	
-	
-	public List<String> getEventTriggerBlockNames() {
-		
-		if ( eventTriggerBlockNames == null ) {
-			eventTriggerBlockNames = findEventTriggerBlockNames();
-		}
-		return eventTriggerBlockNames;
-	}
-
-	public void setEventTriggerBlockNames(List<String> eventTriggerBlockNames) {
-		this.eventTriggerBlockNames = eventTriggerBlockNames;
-	}
-
-	/**
-	 * <p>This function gets all of the blocks within the BlockConverterEventTriggers that should be
-	 * ignored, and removed, from explosion events, or multi-block events.  If this feature is 
-	 * enabled, then the only way to break those blocks, or to trigger those plugins that 
-	 * should handle those blocks, is by direct block breakage, and not explosion events. 
-	 * </p>
-	 * 
-	 * <p>The list of blocks, should not be impacted by player's permissions because if they are, then
-	 * those who do not have access to those blocks, would then be able to break those blocks, or at least
-	 * through explosion events.
-	 * </p>
-	 * 
-	 * @param rPlayer
-	 * @return
-	 */
-	private List<String> findEventTriggerBlockNames() {
-		List<String> blockNames = new ArrayList<>();
-		
-		TreeMap<String, BlockConverterEventTrigger> eventTriggers = getBcData().getBlockConvertersEventTiggers();
-		
-		Set<String> keys = eventTriggers.keySet();
-		for (String key : keys) {
-			BlockConverterEventTrigger et = eventTriggers.get(key);
-			
-			String blockName = et.getKeyBlockName().toLowerCase();
-			
-			// Confirm the BlockConverter is active:
-			if ( et.isEnabled() ) {
-				
-				for ( BlockConverterOptionEventTrigger eventTrigger : et.getOptions() ) {
-					if ( eventTrigger.isIgnoreBlockInExplosionEvents() ) {
-						
-						if ( !blockNames.contains(blockName) ) {
-							
-							blockNames.add( blockName );
-							break;
-						}
-					}
-				}
-			}
-		}
-		
-		return blockNames;
-	}
-	
 }
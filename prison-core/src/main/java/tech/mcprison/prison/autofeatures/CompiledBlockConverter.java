@@ -0,0 +1,195 @@
+package tech.mcprison.prison.autofeatures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import tech.mcprison.prison.cache.PlayerPermissionCache;
+import tech.mcprison.prison.internal.Player;
+
+/**
+ * <p>A BlockConverter that has been prepared for the block break events.  The
+ * permissions are stored in arrays, the outputs that are disabled are 
+ * removed, and the outputs that use the same permissions are put in the same
+ * permission group, so each group only has to be checked once for a player.
+ * </p>
+ * 
+ * <p>The outputs that a player can get are kept with the player's permission
+ * snapshot, so they are only worked out again when the player's permissions
+ * change.  Only the chance of each output is rolled for every block.
+ * </p>
+ *
+ */
+public class CompiledBlockConverter
+{
+	private static final BlockConverterOutput[] NO_OUTPUTS = new BlockConverterOutput[0];
+	
+	private final BlockConverter blockConverter;
+	
+	/**
+	 * <p>If empty, then every player can use the block converter.
+	 * </p>
+	 */
+	private final String[] permissions;
+	
+	private final BlockConverterOutput[] outputs;
+	
+	/**
+	 * <p>The index of each output's permission group, or -1 if the output has no
+	 * permissions list, so every player can get it.
+	 * </p>
+	 */
+	private final int[] outputGroups;
+	private final String[][] permissionGroups;
+	
+	public CompiledBlockConverter( BlockConverter blockConverter ) {
+		super();
+		
+		this.blockConverter = blockConverter;
+		
+		this.permissions = blockConverter.getPermissions() == null ? 
+				new String[0] : blockConverter.getPermissions().toArray( new String[0] );
+		
+		List<BlockConverterOutput> enabled = new ArrayList<>();
+		if ( blockConverter.getOutputs() != null ) {
+			for ( BlockConverterOutput output : blockConverter.getOutputs() ) {
+				if ( output.isEnabled() ) {
+					enabled.add( output );
+				}
+			}
+		}
+		
+		this.outputs = enabled.toArray( NO_OUTPUTS );
+		this.outputGroups = new int[ outputs.length ];
+		
+		List<String[]> groups = new ArrayList<>();
+		
+		for ( int i = 0; i < outputs.length; i++ ) {
+			BlockConverterOutput output = outputs[i];
+			
+			if ( output.getPermissions() == null ) {
+				outputGroups[i] = -1;
+			}
+			else {
+				String[] perms = output.getPermissions().toArray( new String[0] );
+				
+				int group = -1;
+				for ( int g = 0; g < groups.size() && group == -1; g++ ) {
+					if ( Arrays.equals( groups.get( g ), perms ) ) {
+						group = g;
+					}
+				}
+				if ( group == -1 ) {
+					group = groups.size();
+					groups.add( perms );
+				}
+				outputGroups[i] = group;
+			}
+		}
+		
+		this.permissionGroups = groups.toArray( new String[0][] );
+	}
+	
+	/**
+	 * <p>If the player has any of the block converter's permissions, or if the
+	 * block converter does not have any permissions.
+	 * </p>
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public boolean isAccessible( Player player ) {
+		return permissions.length == 0 || 
+				hasAnyPermission( PlayerPermissionCache.getInstance(), player, permissions );
+	}
+	
+	/**
+	 * <p>The outputs that the player has the permissions for, before the chance
+	 * of each one is rolled.  This is kept with the player's permission 
+	 * snapshot.
+	 * </p>
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public BlockConverterOutput[] getPermittedOutputs( Player player ) {
+		
+		PlayerPermissionCache permCache = PlayerPermissionCache.getInstance();
+		
+		return permCache.getDerived( player, this, 
+				key -> findPermittedOutputs( permCache, player ) );
+	}
+	
+	private BlockConverterOutput[] findPermittedOutputs( PlayerPermissionCache permCache, Player player ) {
+		
+		boolean[] groups = new boolean[ permissionGroups.length ];
+		for ( int g = 0; g < groups.length; g++ ) {
+			groups[g] = hasAnyPermission( permCache, player, permissionGroups[g] );
+		}
+		
+		List<BlockConverterOutput> results = new ArrayList<>();
+		
+		for ( int i = 0; i < outputs.length; i++ ) {
+			if ( outputGroups[i] == -1 || groups[ outputGroups[i] ] ) {
+				results.add( outputs[i] );
+			}
+		}
+		
+		return results.toArray( NO_OUTPUTS );
+	}
+	
+	/**
+	 * <p>Selects the outputs for one conversion.  The player must have the 
+	 * permissions for each output, and if an output has a chance, and the roll
+	 * is less than the chance, then it is skipped.
+	 * </p>
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public List<BlockConverterOutput> selectOutputs( Player player ) {
+		
+		BlockConverterOutput[] permitted = getPermittedOutputs( player );
+		
+		List<BlockConverterOutput> results = new ArrayList<>( permitted.length );
+		
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		
+		for ( BlockConverterOutput output : permitted ) {
+			
+			Double chance = output.getChance();
+			
+			// If chance, and the random number is greater than the chance, then skip this output:
+			if ( chance != null && chance.doubleValue() > (random.nextDouble() * 100d ) ) {
+				continue;
+			}
+			
+			results.add( output );
+		}
+		
+		return results;
+	}
+	
+	private boolean hasAnyPermission( PlayerPermissionCache permCache, Player player, String[] perms ) {
+		
+		for ( String perm : perms ) {
+			if ( permCache.hasPermission( player, perm ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	public BlockConverter getBlockConverter() {
+		return blockConverter;
+	}
+	
+	public int getOutputCount() {
+		return outputs.length;
+	}
+	
+	public int getPermissionGroupCount() {
+		return permissionGroups.length;
+	}
+}
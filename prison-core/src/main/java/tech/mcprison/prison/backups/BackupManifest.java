@@ -0,0 +1,214 @@
+package tech.mcprison.prison.backups;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>The list of files that are within one incremental backup.  For each
+ * file, this has its path relative to prison's data folder, its size, its
+ * last modified time, a hash of its contents, and the hashes of the chunks
+ * that its contents are stored in.  The chunks are stored by the
+ * IncrementalBackupStore, and are shared by all of the backups, so a file
+ * that has not changed since the prior backup only adds one line to the
+ * manifest.
+ * </p>
+ *
+ * <p>The manifest is a text file with a header line, and then one line per
+ * file, with the fields separated by tabs, and the chunk hashes separated
+ * by commas.
+ * </p>
+ *
+ */
+public class BackupManifest
+{
+	public static final String MANIFEST_HEADER = "# prison-incremental-backup v1";
+
+	private static final String FIELD_SEPARATOR = "\t";
+	private static final String CHUNK_SEPARATOR = ",";
+
+	private final String name;
+
+	private final Map<String, BackupManifestEntry> entries;
+
+	public static class BackupManifestEntry
+	{
+		private final String path;
+		private final long size;
+		private final long lastModified;
+		private final String fileHash;
+		private final List<String> chunks;
+
+		public BackupManifestEntry( String path, long size, long lastModified,
+						String fileHash, List<String> chunks ) {
+			super();
+
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.fileHash = fileHash;
+			this.chunks = Collections.unmodifiableList( new ArrayList<>( chunks ) );
+		}
+
+		/**
+		 * <p>A file is assumed to be unchanged if its size and last modified
+		 * time are the same, so it does not have to be read again.
+		 * </p>
+		 *
+		 * @param file
+		 * @return
+		 */
+		public boolean isUnchanged( File file ) {
+			return file.length() == size && file.lastModified() == lastModified;
+		}
+
+		public String getPath() {
+			return path;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		public String getFileHash() {
+			return fileHash;
+		}
+
+		public List<String> getChunks() {
+			return chunks;
+		}
+	}
+
+	public BackupManifest( String name ) {
+		super();
+
+		this.name = name;
+		this.entries = new TreeMap<>();
+	}
+
+	public void add( BackupManifestEntry entry ) {
+		entries.put( entry.getPath(), entry );
+	}
+
+	public BackupManifestEntry get( String path ) {
+		return entries.get( path );
+	}
+
+	public Collection<BackupManifestEntry> getEntries() {
+		return entries.values();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getTotalSize() {
+		long total = 0;
+
+		for ( BackupManifestEntry entry : entries.values() ) {
+			total += entry.getSize();
+		}
+
+		return total;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * <p>Writes the manifest to a temp file first, and then replaces the
+	 * manifest file with it, so a manifest is either complete, or does not
+	 * exist.
+	 * </p>
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write( File file ) throws IOException {
+		File tempFile = new File( file.getParentFile(), file.getName() + ".tmp" );
+
+		try ( BufferedWriter writer = Files.newBufferedWriter( tempFile.toPath(), StandardCharsets.UTF_8 ) ) {
+
+			writer.write( MANIFEST_HEADER );
+			writer.newLine();
+
+			for ( BackupManifestEntry entry : entries.values() ) {
+
+				writer.write( entry.getPath() );
+				writer.write( FIELD_SEPARATOR );
+				writer.write( Long.toString( entry.getSize() ) );
+				writer.write( FIELD_SEPARATOR );
+				writer.write( Long.toString( entry.getLastModified() ) );
+				writer.write( FIELD_SEPARATOR );
+				writer.write( entry.getFileHash() );
+				writer.write( FIELD_SEPARATOR );
+				writer.write( String.join( CHUNK_SEPARATOR, entry.getChunks() ) );
+				writer.newLine();
+			}
+		}
+
+		Files.move( tempFile.toPath(), file.toPath(),
+				StandardCopyOption.REPLACE_EXISTING );
+	}
+
+	public static BackupManifest read( String name, File file ) throws IOException {
+		BackupManifest manifest = new BackupManifest( name );
+
+		try ( BufferedReader reader = Files.newBufferedReader( file.toPath(), StandardCharsets.UTF_8 ) ) {
+
+			String line = reader.readLine();
+
+			if ( !MANIFEST_HEADER.equals( line ) ) {
+				throw new IOException( "Not a prison backup manifest: " + file.getAbsolutePath() );
+			}
+
+			while ( (line = reader.readLine()) != null ) {
+
+				if ( line.isEmpty() ) {
+					continue;
+				}
+
+				String[] fields = line.split( FIELD_SEPARATOR, -1 );
+
+				if ( fields.length != 5 ) {
+					throw new IOException( "Invalid line in the backup manifest " +
+							file.getAbsolutePath() + ": " + line );
+				}
+
+				List<String> chunks = new ArrayList<>();
+				for ( String chunk : fields[4].split( CHUNK_SEPARATOR ) ) {
+					if ( !chunk.isEmpty() ) {
+						chunks.add( chunk );
+					}
+				}
+
+				try {
+					manifest.add( new BackupManifestEntry( fields[0],
+							Long.parseLong( fields[1] ), Long.parseLong( fields[2] ),
+							fields[3], chunks ) );
+				}
+				catch ( NumberFormatException e ) {
+					throw new IOException( "Invalid line in the backup manifest " +
+							file.getAbsolutePath() + ": " + line, e );
+				}
+			}
+		}
+
+		return manifest;
+	}
+}
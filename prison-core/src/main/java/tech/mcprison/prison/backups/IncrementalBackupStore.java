@@ -0,0 +1,541 @@
+package tech.mcprison.prison.backups;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import tech.mcprison.prison.backups.BackupManifest.BackupManifestEntry;
+
+/**
+ * <p>Stores incremental backups of prison's data folder.  Each file's
+ * contents are split in to chunks, and each chunk is stored once, compressed,
+ * in a file that is named by the SHA-256 hash of its contents.  A backup is
+ * then only a manifest that lists each file and the chunks it is made of.
+ * </p>
+ *
+ * <p>When a backup is made, the manifest of the prior backup is used to find
+ * the files that have not changed, by their size and last modified time, so
+ * those files are not even read.  The files that have changed are read and
+ * hashed, and only the chunks that are not already stored are written.  So
+ * after the first backup, a backup only stores the files that were changed
+ * since the one before it, and identical files, such as the player files
+ * that have the same contents, are only stored once.
+ * </p>
+ *
+ * <p>The reads and writes can be throttled to a max number of bytes per
+ * second, so a backup that is ran in the background does not compete with
+ * the server for the disk.
+ * </p>
+ *
+ * <p>Old backups are removed by prune(), which keeps only the most recent
+ * backups, and then deletes the chunks that none of the remaining manifests
+ * use.  The chunks that are used are found by reading all of the remaining
+ * manifests first, so if any of them cannot be read, then no chunks are
+ * deleted.
+ * </p>
+ *
+ * <p>The store's layout is:
+ * </p>
+ * <ul>
+ *   <li><b>manifests/</b>: One manifest file per backup.</li>
+ *   <li><b>chunks/xx/</b>: The chunks, where xx is the first two characters
+ *   		of the chunk's hash.</li>
+ * </ul>
+ *
+ */
+public class IncrementalBackupStore
+{
+	public static final String MANIFESTS_DIRECTORY = "manifests";
+	public static final String CHUNKS_DIRECTORY = "chunks";
+
+	public static final String MANIFEST_SUFFIX = ".manifest";
+	public static final String CHUNK_SUFFIX = ".gz";
+
+	public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final File storeDirectory;
+	private final File manifestsDirectory;
+	private final File chunksDirectory;
+
+	private final int chunkSize;
+	private final long maxBytesPerSecond;
+
+	private int filesChanged = 0;
+	private int filesUnchanged = 0;
+	private int chunksWritten = 0;
+	private int chunksReused = 0;
+
+	private long bytesRead = 0;
+	private long bytesWritten = 0;
+
+	private int manifestsRemoved = 0;
+	private int chunksRemoved = 0;
+	private long bytesRemoved = 0;
+
+	private long throttleStartNanos = 0;
+	private long throttleBytes = 0;
+	private long throttleSleepMs = 0;
+
+	private final List<File> filesWithErrors;
+
+	public IncrementalBackupStore( File storeDirectory, int chunkSize, long maxBytesPerSecond ) {
+		super();
+
+		this.storeDirectory = storeDirectory;
+		this.manifestsDirectory = new File( storeDirectory, MANIFESTS_DIRECTORY );
+		this.chunksDirectory = new File( storeDirectory, CHUNKS_DIRECTORY );
+
+		this.chunkSize = chunkSize < 1 ? DEFAULT_CHUNK_SIZE : chunkSize;
+		this.maxBytesPerSecond = maxBytesPerSecond;
+
+		this.filesWithErrors = new ArrayList<>();
+	}
+
+	/**
+	 * <p>Returns the names of the backups within this store, oldest first.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public List<String> getManifestNames() {
+		List<String> results = new ArrayList<>();
+
+		File[] files = manifestsDirectory.listFiles(
+						( dir, name ) -> name.endsWith( MANIFEST_SUFFIX ) );
+
+		if ( files != null ) {
+
+			List<File> manifests = new ArrayList<>();
+			Collections.addAll( manifests, files );
+			manifests.sort( ( f1, f2 ) -> f1.lastModified() != f2.lastModified() ?
+							Long.compare( f1.lastModified(), f2.lastModified() ) :
+							f1.getName().compareTo( f2.getName() ) );
+
+			for ( File file : manifests ) {
+				String name = file.getName();
+				results.add( name.substring( 0, name.length() - MANIFEST_SUFFIX.length() ) );
+			}
+		}
+
+		return results;
+	}
+
+	public File getManifestFile( String name ) {
+		return new File( manifestsDirectory, name + MANIFEST_SUFFIX );
+	}
+
+	public BackupManifest loadManifest( String name ) throws IOException {
+		return BackupManifest.read( name, getManifestFile( name ) );
+	}
+
+	/**
+	 * <p>Returns the manifest of the most recent backup, or null if there are
+	 * none.
+	 * </p>
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public BackupManifest loadLatestManifest() throws IOException {
+		List<String> names = getManifestNames();
+
+		return names.isEmpty() ? null : loadManifest( names.get( names.size() - 1 ) );
+	}
+
+	/**
+	 * <p>Backs up the files, which must all be within the source directory.
+	 * The files that are unchanged since the previous backup are not read,
+	 * and only the chunks that are not already stored are written.  The
+	 * files that cannot be read are added to the files with errors, and are
+	 * not in the manifest.  The manifest is written last, so if the backup
+	 * fails part way, the prior backups are not affected.
+	 * </p>
+	 *
+	 * @param name The name of the new backup.
+	 * @param sourceDirectory
+	 * @param files
+	 * @param previous The prior backup's manifest, or null for a full backup.
+	 * @return The manifest of the new backup.
+	 * @throws IOException If the manifest cannot be written.
+	 */
+	public BackupManifest backup( String name, Path sourceDirectory, List<File> files,
+					BackupManifest previous ) throws IOException {
+
+		manifestsDirectory.mkdirs();
+		chunksDirectory.mkdirs();
+
+		startThrottle();
+
+		BackupManifest manifest = new BackupManifest( name );
+
+		byte[] buffer = new byte[ chunkSize ];
+
+		for ( File file : files ) {
+
+			String path = sourceDirectory.relativize( file.toPath() ).toString()
+									.replace( File.separatorChar, '/' );
+
+			BackupManifestEntry prior = previous == null ? null : previous.get( path );
+
+			if ( prior != null && prior.isUnchanged( file ) ) {
+
+				manifest.add( prior );
+				filesUnchanged++;
+				continue;
+			}
+
+			try {
+				manifest.add( backupFile( path, file, buffer ) );
+				filesChanged++;
+			}
+			catch ( IOException e ) {
+				filesWithErrors.add( file );
+			}
+		}
+
+		manifest.write( getManifestFile( name ) );
+
+		return manifest;
+	}
+
+	private BackupManifestEntry backupFile( String path, File file, byte[] buffer )
+			throws IOException {
+
+		// Read these before the contents, so if the file is changed while it
+		// is being read, the next backup will see that it has changed:
+		long size = file.length();
+		long lastModified = file.lastModified();
+
+		MessageDigest fileDigest = newDigest();
+		List<String> chunks = new ArrayList<>();
+
+		try ( InputStream in = Files.newInputStream( file.toPath() ) ) {
+
+			int length;
+			while ( (length = readChunk( in, buffer )) > 0 ) {
+
+				fileDigest.update( buffer, 0, length );
+
+				MessageDigest chunkDigest = newDigest();
+				chunkDigest.update( buffer, 0, length );
+				String chunkHash = toHex( chunkDigest.digest() );
+
+				File chunkFile = getChunkFile( chunkHash );
+
+				if ( chunkFile.exists() ) {
+					chunksReused++;
+				}
+				else {
+					writeChunk( chunkFile, buffer, length );
+					chunksWritten++;
+				}
+
+				chunks.add( chunkHash );
+
+				bytesRead += length;
+				throttle( length );
+			}
+		}
+
+		return new BackupManifestEntry( path, size, lastModified,
+						toHex( fileDigest.digest() ), chunks );
+	}
+
+	private int readChunk( InputStream in, byte[] buffer ) throws IOException {
+		int total = 0;
+
+		int length;
+		while ( total < buffer.length &&
+				(length = in.read( buffer, total, buffer.length - total )) != -1 ) {
+			total += length;
+		}
+
+		return total;
+	}
+
+	private void writeChunk( File chunkFile, byte[] buffer, int length ) throws IOException {
+		chunkFile.getParentFile().mkdirs();
+
+		File tempFile = new File( chunkFile.getParentFile(), chunkFile.getName() + ".tmp" );
+
+		try ( OutputStream out = new GZIPOutputStream( Files.newOutputStream( tempFile.toPath() ) ) ) {
+			out.write( buffer, 0, length );
+		}
+
+		bytesWritten += tempFile.length();
+
+		Files.move( tempFile.toPath(), chunkFile.toPath(), StandardCopyOption.REPLACE_EXISTING );
+	}
+
+	/**
+	 * <p>Restores all of the files within the backup in to the target
+	 * directory, as a normal folder tree.  Each file's contents are checked
+	 * against its hash, and the files that cannot be restored, such as if a
+	 * chunk is missing, are skipped and returned.
+	 * </p>
+	 *
+	 * @param manifest
+	 * @param targetDirectory
+	 * @return The paths of the files that could not be restored.
+	 */
+	public List<String> restore( BackupManifest manifest, File targetDirectory ) {
+		List<String> errors = new ArrayList<>();
+
+		startThrottle();
+
+		byte[] buffer = new byte[ chunkSize ];
+
+		for ( BackupManifestEntry entry : manifest.getEntries() ) {
+
+			File targetFile = new File( targetDirectory, entry.getPath() );
+
+			// Never write outside of the target directory:
+			if ( !targetFile.toPath().normalize().startsWith( targetDirectory.toPath().normalize() ) ) {
+				errors.add( entry.getPath() );
+				continue;
+			}
+
+			try {
+				restoreFile( entry, targetFile, buffer );
+			}
+			catch ( IOException e ) {
+				errors.add( entry.getPath() );
+			}
+		}
+
+		return errors;
+	}
+
+	private void restoreFile( BackupManifestEntry entry, File targetFile, byte[] buffer )
+			throws IOException {
+
+		targetFile.getParentFile().mkdirs();
+
+		MessageDigest fileDigest = newDigest();
+
+		try ( OutputStream out = Files.newOutputStream( targetFile.toPath() ) ) {
+
+			for ( String chunkHash : entry.getChunks() ) {
+
+				try ( InputStream in = new GZIPInputStream(
+									Files.newInputStream( getChunkFile( chunkHash ).toPath() ) ) ) {
+
+					int length;
+					while ( (length = in.read( buffer )) != -1 ) {
+
+						fileDigest.update( buffer, 0, length );
+						out.write( buffer, 0, length );
+
+						throttle( length );
+					}
+				}
+			}
+		}
+
+		targetFile.setLastModified( entry.getLastModified() );
+
+		if ( !toHex( fileDigest.digest() ).equals( entry.getFileHash() ) ) {
+			throw new IOException( "The restored file does not match its hash: " + entry.getPath() );
+		}
+	}
+
+	/**
+	 * <p>Removes all but the most recent backups, and then deletes the chunks
+	 * that are not used by any of the remaining backups.  This must not be ran
+	 * while a backup is being made, since the new backup may be reusing a
+	 * chunk that none of the manifests use yet.
+	 * </p>
+	 *
+	 * @param keepBackups The number of backups to keep.  If less than one,
+	 * 			then all of the backups are kept, and only the unused chunks
+	 * 			are deleted.
+	 * @return The names of the backups that were removed.
+	 * @throws IOException If a remaining manifest cannot be read, in which
+	 * 			case no chunks are deleted.
+	 */
+	public List<String> prune( int keepBackups ) throws IOException {
+		List<String> results = new ArrayList<>();
+
+		List<String> names = getManifestNames();
+
+		if ( keepBackups > 0 && names.size() > keepBackups ) {
+
+			for ( String name : names.subList( 0, names.size() - keepBackups ) ) {
+
+				Files.deleteIfExists( getManifestFile( name ).toPath() );
+				results.add( name );
+				manifestsRemoved++;
+			}
+		}
+
+		// Mark all of the chunks that are still used:
+		Set<String> usedChunks = new HashSet<>();
+
+		for ( String name : getManifestNames() ) {
+
+			for ( BackupManifestEntry entry : loadManifest( name ).getEntries() ) {
+				usedChunks.addAll( entry.getChunks() );
+			}
+		}
+
+		// Then sweep the chunks that are not used, and any temp files that were
+		// left by a backup that did not finish:
+		File[] chunkDirectories = chunksDirectory.listFiles( File::isDirectory );
+
+		if ( chunkDirectories != null ) {
+
+			for ( File chunkDirectory : chunkDirectories ) {
+
+				File[] chunkFiles = chunkDirectory.listFiles( File::isFile );
+
+				if ( chunkFiles == null ) {
+					continue;
+				}
+
+				for ( File chunkFile : chunkFiles ) {
+
+					String fileName = chunkFile.getName();
+
+					if ( fileName.endsWith( CHUNK_SUFFIX ) && usedChunks.contains(
+							fileName.substring( 0, fileName.length() - CHUNK_SUFFIX.length() ) ) ) {
+						continue;
+					}
+
+					long length = chunkFile.length();
+
+					if ( chunkFile.delete() ) {
+						chunksRemoved++;
+						bytesRemoved += length;
+					}
+				}
+
+				// Only removed if it is now empty:
+				chunkDirectory.delete();
+			}
+		}
+
+		return results;
+	}
+
+	public File getChunkFile( String chunkHash ) {
+		return new File( new File( chunksDirectory, chunkHash.substring( 0, 2 ) ),
+						chunkHash + CHUNK_SUFFIX );
+	}
+
+	private void startThrottle() {
+		throttleStartNanos = System.nanoTime();
+		throttleBytes = 0;
+	}
+
+	/**
+	 * <p>If more bytes have been read or written than are allowed for the
+	 * time that has passed, then this sleeps until they are within the limit.
+	 * </p>
+	 *
+	 * @param bytes
+	 */
+	private void throttle( long bytes ) {
+		if ( maxBytesPerSecond <= 0 ) {
+			return;
+		}
+
+		throttleBytes += bytes;
+
+		long allowedMs = throttleBytes * 1000 / maxBytesPerSecond;
+		long elapsedMs = (System.nanoTime() - throttleStartNanos) / 1000000;
+
+		if ( allowedMs > elapsedMs ) {
+			try {
+				Thread.sleep( allowedMs - elapsedMs );
+				throttleSleepMs += allowedMs - elapsedMs;
+			}
+			catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance( "SHA-256" );
+		}
+		catch ( NoSuchAlgorithmException e ) {
+			// Every java runtime is required to support SHA-256:
+			throw new IllegalStateException( e );
+		}
+	}
+
+	private static String toHex( byte[] bytes ) {
+		char[] chars = new char[ bytes.length * 2 ];
+
+		for ( int i = 0; i < bytes.length; i++ ) {
+			chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+			chars[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+		}
+
+		return new String( chars );
+	}
+
+	public File getStoreDirectory() {
+		return storeDirectory;
+	}
+
+	public int getFilesChanged() {
+		return filesChanged;
+	}
+
+	public int getFilesUnchanged() {
+		return filesUnchanged;
+	}
+
+	public int getChunksWritten() {
+		return chunksWritten;
+	}
+
+	public int getChunksReused() {
+		return chunksReused;
+	}
+
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	public int getManifestsRemoved() {
+		return manifestsRemoved;
+	}
+
+	public int getChunksRemoved() {
+		return chunksRemoved;
+	}
+
+	public long getBytesRemoved() {
+		return bytesRemoved;
+	}
+
+	public long getThrottleSleepMs() {
+		return throttleSleepMs;
+	}
+
+	public List<File> getFilesWithErrors() {
+		return filesWithErrors;
+	}
+}
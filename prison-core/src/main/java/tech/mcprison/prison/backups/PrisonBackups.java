@@ -8,14 +8,22 @@ import java.nio.file.StandardOpenOption;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.cache.CoreCacheFiles;
 import tech.mcprison.prison.file.ZipFileIO;
+import tech.mcprison.prison.internal.CommandSender;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 import tech.mcprison.prison.util.PrisonStatsUtil;
+import tech.mcprison.prison.util.Text;
 
 public class PrisonBackups {
 
@@ -26,6 +34,17 @@ public class PrisonBackups {
 	public static final String VERSIONS_FILE_VERSION_PREFIX = "New_Prison_Version:";
 	public static final String VERSIONS_FILE_BACKUP_MADE_PREFIX = "Backup:";
 	
+	public static final String INCREMENTAL_DIRECTORY_NAME = "incremental";
+	public static final String INCREMENTAL_RESTORED_DIRECTORY_NAME = "restored";
+	public static final String INCREMENTAL_STATS_SUFFIX = "_stats.txt";
+	
+	/**
+	 * <p>Only one incremental backup, or restore, can run at a time since 
+	 * they share the same chunk store.
+	 * </p>
+	 */
+	private static final AtomicBoolean incrementalRunning = new AtomicBoolean( false );
+	
 	
 	private File backupDirectory = null;
 	private Date backupStartDate;
@@ -41,6 +60,18 @@ public class PrisonBackups {
 	private ArrayList<File> filesToDelete;
 	private ArrayList<File> filesWithErrors;
 	
+	private boolean incremental = false;
+	private IncrementalBackupStore incrementalStore;
+	
+	/**
+	 * <p>The size of the files that were backed up, and how many bytes it took
+	 * to store them.  For a zip file, this is the compressed size, and for an
+	 * incremental backup, this is only the size of the new chunks.
+	 * </p>
+	 */
+	private long bytesSource = 0L;
+	private long bytesStored = 0L;
+	
 	private DecimalFormat dFmt;
 	private SimpleDateFormat sdFmt = new SimpleDateFormat( "yyyy-MM-dd_kk-mm" );
 	private SimpleDateFormat sdsFmt = new SimpleDateFormat( "yyyy-MM-dd kk:mm:ss.SSS" );
@@ -189,6 +220,10 @@ public class PrisonBackups {
 		this.filesToDelete.clear();
 		this.filesWithErrors.clear();
 		
+		this.incremental = false;
+		this.bytesSource = 0L;
+		this.bytesStored = 0L;
+		
 		this.zipFile = getNewBackupFile( backupType, notes );
 		
 		// Gather all files:
@@ -207,15 +242,29 @@ public class PrisonBackups {
 				zipFile,
 				this );
 		
+		return finishBackup( zipFile, zipFile.length() );
+	}
+	
+	/**
+	 * <p>Logs the files that could not be backed up, deletes the temp files
+	 * that are now within the backup, and records the backup in the versions 
+	 * file.
+	 * </p>
+	 * 
+	 * @param backupFile The zip file, or the incremental backup's manifest.
+	 * @param size
+	 * @return The backup status message.
+	 */
+	private String finishBackup( File backupFile, long size ) {
 		
-		// Print out the list of errors from generating the zip file:
+		// Print out the list of errors from generating the backup:
 		for ( File file : filesWithErrors ) {
 			
 			Path targetFile = Prison.get().getDataFolder().toPath().relativize( file.toPath() );
 			
 			String message = String.format( 
 					"PrisonBackups: Error trying to add file Prison backup file: %s  %s", 
-					zipFile.getAbsolutePath(), 
+					backupFile.getAbsolutePath(), 
 					targetFile.toString()
 					);
 			Output.get().logError( message );
@@ -225,6 +274,11 @@ public class PrisonBackups {
 		// Delete the files that should be deleted:
 		for ( File file : filesToDelete ) {
 			
+			// If it was not backed up, then it must not be deleted:
+			if ( filesWithErrors.contains( file ) ) {
+				continue;
+			}
+			
 			try {
 				Files.delete( file.toPath() );
 			} 
@@ -234,7 +288,7 @@ public class PrisonBackups {
 						"PrisonBackups: Error trying to delete a temp file in prison which was " +
 						"backed in: %s   " +
 						"Temp file: %s  [%s]", 
-						zipFile.getAbsoluteFile(), 
+						backupFile.getAbsoluteFile(), 
 						file.getAbsolutePath(),
 						e.getMessage()
 						);
@@ -243,12 +297,11 @@ public class PrisonBackups {
 			}
 		}
 		
-		long size = zipFile.length();
 		double sizeKb = size / 1024.0;
 		
 		String message = String.format( 
 				"Backup status: %s  %s KB   files: %d   temp files purged: %d   errors: %d",
-				zipFile.getAbsolutePath(),
+				backupFile.getAbsolutePath(),
 				dFmt.format( sizeKb ),
 				filesToBackup.size(),
 				filesToDelete.size(),
@@ -256,11 +309,365 @@ public class PrisonBackups {
 				
 				);
 		
+		if ( isIncremental() ) {
+			message += String.format( "   unchanged: %d   saved: %s KB   %s ms", 
+					incrementalStore.getFilesUnchanged(),
+					dFmt.format( getBytesSaved() / 1024.0 ),
+					dFmt.format( ( System.nanoTime() - getStartTimeNanos() ) / 1000000.0d ) );
+		}
+		
 		writeCurrentBackupInfoToVersionsFile( message );
 		
 		return message;
 	}
 	
+	/**
+	 * <p>Starts an incremental backup in the background, and returns right 
+	 * away.  Only the files that have changed since the last incremental 
+	 * backup are read and stored.  See IncrementalBackupStore.
+	 * </p>
+	 * 
+	 * <p>The report data for the stats file is gathered before the backup is 
+	 * started, on the caller's thread, since they read prison's settings.  
+	 * When the backup is finished, the status is logged, and sent to the 
+	 * sender if there is one.
+	 * </p>
+	 * 
+	 * @param backupType
+	 * @param notes
+	 * @param sender Can be null.
+	 * @return The message stating if the backup was started.
+	 */
+	public String startIncrementalBackup( BackupTypes backupType, String notes, CommandSender sender ) {
+		
+		if ( !incrementalRunning.compareAndSet( false, true ) ) {
+			return "An incremental backup, or restore, is already running. Try again once it is finished.";
+		}
+		
+		this.backupStartDate = new Date();
+		this.startTimeNanos = System.nanoTime();
+		
+		// Reset collections:
+		this.filesBackups.clear();
+		this.filesToBackup.clear();
+		this.filesToDelete.clear();
+		this.filesWithErrors.clear();
+		
+		this.incremental = true;
+		this.bytesSource = 0L;
+		this.bytesStored = 0L;
+		
+		String name;
+		try {
+			this.incrementalStore = newIncrementalBackupStore();
+			
+			name = getNewBackupFile( backupType, notes ).getName().replace( ".zip", "" );
+			this.zipFilePrefix = name;
+			this.zipFile = incrementalStore.getManifestFile( name );
+			
+			final String reportsData = 
+					backupReportVersionData().toString() +
+					backupReportConfigsData().toString() +
+					backupReportRanksData().toString() +
+					backupReportMinesData().toString() +
+					backupReportListenersData().toString();
+			
+			PrisonTaskSubmitter.runTaskLaterAsync( () -> {
+				
+				try {
+					String message = runIncrementalBackup( name, reportsData );
+					
+					Output.get().logInfo( message );
+					if ( sender != null ) {
+						sender.sendMessage( message );
+					}
+				}
+				finally {
+					incrementalRunning.set( false );
+				}
+			}, 0 );
+		}
+		catch ( RuntimeException e ) {
+			incrementalRunning.set( false );
+			throw e;
+		}
+		
+		return "Started the incremental backup " + name + " in the background.";
+	}
+	
+	private String runIncrementalBackup( String name, String reportsData ) {
+		String message = null;
+		
+		// Gather all files:
+		gatherFiles( Prison.get().getDataFolder() );
+		
+		BackupManifest previous = null;
+		try {
+			previous = incrementalStore.loadLatestManifest();
+		}
+		catch ( IOException e ) {
+			Output.get().logWarn( "PrisonBackups: Unable to read the last incremental backup, " +
+					"so all files will be backed up: " + e.getMessage() );
+		}
+		
+		try {
+			BackupManifest manifest = incrementalStore.backup( name, getSourceDirectoryPath(), 
+											filesToBackup, previous );
+			
+			this.filesWithErrors.addAll( incrementalStore.getFilesWithErrors() );
+			this.bytesSource = manifest.getTotalSize();
+			this.bytesStored = incrementalStore.getBytesWritten();
+			
+			// The same stats that are added to a zip file:
+			File statsFile = new File( zipFile.getParentFile(), name + INCREMENTAL_STATS_SUFFIX );
+			String stats = backupReport01() + reportsData + backupReportListTemporalFiles();
+			
+			Files.write( statsFile.toPath(), Text.stripColor( stats ).getBytes() );
+			
+			message = finishBackup( zipFile, this.bytesStored );
+		}
+		catch ( IOException e ) {
+			message = String.format( 
+					"PrisonBackups: Error trying to make the incremental backup %s  [%s]", 
+					name, e.getMessage() );
+			
+			Output.get().logError( message );
+			
+			return message;
+		}
+		
+		// Apply the retention settings now, while no other backup can run:
+		Output.get().logInfo( pruneIncrementalBackups( incrementalStore ) );
+		
+		return message;
+	}
+	
+	/**
+	 * <p>Removes the old incremental backups in the background, and the
+	 * chunks that are not used by the backups that remain.  This is also done
+	 * after each incremental backup.
+	 * </p>
+	 * 
+	 * @param sender Can be null.
+	 * @return The message stating if the prune was started.
+	 */
+	public String startIncrementalPrune( CommandSender sender ) {
+		
+		if ( !incrementalRunning.compareAndSet( false, true ) ) {
+			return "An incremental backup, or restore, is already running. Try again once it is finished.";
+		}
+		
+		PrisonTaskSubmitter.runTaskLaterAsync( () -> {
+			
+			String message = null;
+			try {
+				message = pruneIncrementalBackups( newIncrementalBackupStore() );
+				
+				Output.get().logInfo( message );
+			}
+			finally {
+				incrementalRunning.set( false );
+			}
+			
+			if ( sender != null ) {
+				sender.sendMessage( message );
+			}
+		}, 0 );
+		
+		return "Started removing the old incremental backups in the background.";
+	}
+	
+	/**
+	 * <p>Keeps only the most recent backups.incremental.keep-backups backups,
+	 * along with their stats files, and deletes the chunks that the remaining
+	 * backups do not use.  Only the most recent 
+	 * backups.incremental.keep-restored restored folders are kept.  This must
+	 * only be called while holding incrementalRunning, since a backup that is
+	 * running may be reusing chunks that no manifest uses yet.
+	 * </p>
+	 * 
+	 * @param store
+	 * @return The message with the results.
+	 */
+	private String pruneIncrementalBackups( IncrementalBackupStore store ) {
+		String message = null;
+		
+		int keepBackups = Prison.get().getPlatform().getConfigInt( 
+						"backups.incremental.keep-backups", 10 );
+		int keepRestored = Prison.get().getPlatform().getConfigInt( 
+						"backups.incremental.keep-restored", 1 );
+		
+		long start = System.nanoTime();
+		
+		try {
+			List<String> removed = store.prune( keepBackups );
+			
+			for ( String name : removed ) {
+				File statsFile = new File( store.getManifestFile( name ).getParentFile(), 
+								name + INCREMENTAL_STATS_SUFFIX );
+				
+				Files.deleteIfExists( statsFile.toPath() );
+			}
+			
+			int restoredRemoved = pruneRestoredDirectories( 
+					new File( store.getStoreDirectory(), INCREMENTAL_RESTORED_DIRECTORY_NAME ), 
+					keepRestored );
+			
+			message = String.format( 
+					"PrisonBackups: Removed %d old incremental backups, %d unused chunks (%s KB), " +
+					"and %d restored folders.  %s ms", 
+					removed.size(), store.getChunksRemoved(), 
+					dFmt.format( store.getBytesRemoved() / 1024.0 ), 
+					restoredRemoved,
+					dFmt.format( ( System.nanoTime() - start ) / 1000000.0d ) );
+		}
+		catch ( IOException e ) {
+			message = String.format( 
+					"PrisonBackups: Error trying to remove the old incremental backups. " +
+					"No chunks were deleted.  [%s]", e.getMessage() );
+			
+			Output.get().logError( message );
+		}
+		
+		return message;
+	}
+	
+	/**
+	 * <p>Deletes all but the most recent restored folders.
+	 * </p>
+	 * 
+	 * @param restoredDirectory
+	 * @param keep If less than one, then all of them are kept.
+	 * @return The number of restored folders that were deleted.
+	 * @throws IOException
+	 */
+	private int pruneRestoredDirectories( File restoredDirectory, int keep ) 
+			throws IOException {
+		int results = 0;
+		
+		File[] restored = restoredDirectory.listFiles( File::isDirectory );
+		
+		if ( keep < 1 || restored == null || restored.length <= keep ) {
+			return results;
+		}
+		
+		List<File> directories = new ArrayList<>();
+		Collections.addAll( directories, restored );
+		directories.sort( Comparator.comparingLong( File::lastModified ) );
+		
+		for ( File directory : directories.subList( 0, directories.size() - keep ) ) {
+			
+			try ( Stream<Path> paths = Files.walk( directory.toPath() ) ) {
+				
+				// Delete the files before the folders that hold them:
+				List<Path> deletes = paths.sorted( Comparator.reverseOrder() )
+										.collect( Collectors.toList() );
+				
+				for ( Path path : deletes ) {
+					Files.deleteIfExists( path );
+				}
+			}
+			
+			results++;
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Restores an incremental backup in the background, in to a new 
+	 * folder within the backups directory, as a normal folder tree.  The 
+	 * files can then be copied in to prison's data folder while the server 
+	 * is stopped.  If the name is empty, then the most recent backup is 
+	 * restored.
+	 * </p>
+	 * 
+	 * @param name
+	 * @param sender Can be null.
+	 * @return The message stating if the restore was started.
+	 */
+	public String startIncrementalRestore( String name, CommandSender sender ) {
+		
+		IncrementalBackupStore store = newIncrementalBackupStore();
+		List<String> names = store.getManifestNames();
+		
+		if ( name == null || name.trim().isEmpty() ) {
+			
+			if ( names.isEmpty() ) {
+				return "There are no incremental backups to restore.";
+			}
+			name = names.get( names.size() - 1 );
+		}
+		else if ( !names.contains( name.trim() ) ) {
+			return String.format( "The incremental backup %s does not exist. Available backups: %s", 
+					name, String.join( ", ", names ) );
+		}
+		
+		if ( !incrementalRunning.compareAndSet( false, true ) ) {
+			return "An incremental backup, or restore, is already running. Try again once it is finished.";
+		}
+		
+		final String backupName = name.trim();
+		final File targetDirectory = new File( new File( store.getStoreDirectory(), 
+							INCREMENTAL_RESTORED_DIRECTORY_NAME ), backupName );
+		
+		PrisonTaskSubmitter.runTaskLaterAsync( () -> {
+			
+			String message = null;
+			try {
+				long start = System.nanoTime();
+				
+				BackupManifest manifest = store.loadManifest( backupName );
+				List<String> errors = store.restore( manifest, targetDirectory );
+				
+				for ( String error : errors ) {
+					Output.get().logError( "PrisonBackups: Unable to restore the file " + error );
+				}
+				
+				message = String.format( 
+						"Restored the incremental backup %s to %s   files: %d   errors: %d   %s ms", 
+						backupName, targetDirectory.getAbsolutePath(),
+						manifest.size() - errors.size(), errors.size(),
+						dFmt.format( ( System.nanoTime() - start ) / 1000000.0d ) );
+				
+				Output.get().logInfo( message );
+			}
+			catch ( IOException e ) {
+				message = String.format( 
+						"PrisonBackups: Error trying to restore the incremental backup %s  [%s]", 
+						backupName, e.getMessage() );
+				
+				Output.get().logError( message );
+			}
+			finally {
+				incrementalRunning.set( false );
+			}
+			
+			if ( sender != null ) {
+				sender.sendMessage( message );
+			}
+		}, 0 );
+		
+		return String.format( "Started restoring the incremental backup %s to %s", 
+							backupName, targetDirectory.getAbsolutePath() );
+	}
+	
+	private IncrementalBackupStore newIncrementalBackupStore() {
+		
+		int chunkSizeKb = Prison.get().getPlatform().getConfigInt( 
+						"backups.incremental.chunk-size-kb", 
+						IncrementalBackupStore.DEFAULT_CHUNK_SIZE / 1024 );
+		long maxKbPerSecond = Prison.get().getPlatform().getConfigLong( 
+						"backups.incremental.max-kb-per-second", 8192 );
+		
+		return new IncrementalBackupStore( getIncrementalDirectoryFile(), 
+						chunkSizeKb * 1024, maxKbPerSecond * 1024 );
+	}
+	
+	public File getIncrementalDirectoryFile() {
+		return new File( getBackupDirectoryFile(), INCREMENTAL_DIRECTORY_NAME );
+	}
+	
 	
 	public String backupReport01() {
 		
@@ -273,14 +680,21 @@ public class PrisonBackups {
 		
 		
 		
+		double sourceKb = getBytesSource() / 1024.0;
+		double storedKb = getBytesStored() / 1024.0;
+		double savedPercent = getBytesSource() == 0 ? 0 : 
+						getBytesSaved() * 100.0 / getBytesSource();
+		
 		String msg1 = String.format(
-				"Prison backup:\n" +
+				"Prison backup:  %s\n" +
 				"  Started:  %s \n" +
 				"  Compleated: %s    %s ms \n" +
 				"  %s   \n" +
 				"  files backed up: %d  \n" +
 				"  temp files: %d   (deleted) \n" + 
-				"  Errors: %d \n\n",
+				"  Errors: %d \n" +
+				"  Elapsed: %s ms   Source: %s KB   Stored: %s KB   Saved: %s KB (%s%%) \n",
+				( isIncremental() ? "incremental" : "full" ),
 				sdsFmt.format( getBackupStartDate() ),
 				sdsFmt.format( new Date() ),
 				dFmt.format( runTimeMs ),
@@ -288,9 +702,28 @@ public class PrisonBackups {
 //				dFmt.format( sizeKb ),
 				filesBackups.size(),
 				filesToDelete.size(),
-				filesWithErrors.size()
+				filesWithErrors.size(),
+				dFmt.format( runTimeMs ),
+				dFmt.format( sourceKb ),
+				dFmt.format( storedKb ),
+				dFmt.format( sourceKb - storedKb ),
+				dFmt.format( savedPercent )
 				);
 		
+		if ( isIncremental() ) {
+			msg1 += String.format( 
+					"  Unchanged files: %d   Changed files: %d   Chunks written: %d   " +
+					"Chunks reused: %d   Throttled: %d ms \n",
+					incrementalStore.getFilesUnchanged(),
+					incrementalStore.getFilesChanged(),
+					incrementalStore.getChunksWritten(),
+					incrementalStore.getChunksReused(),
+					incrementalStore.getThrottleSleepMs()
+					);
+		}
+		
+		msg1 += "\n";
+		
 		return msg1;
 	}
 	
@@ -423,7 +856,11 @@ public class PrisonBackups {
 			
 			if ( file.isDirectory() ) {
 				
-				gatherFiles( file );
+				// The incremental backups are never included within a backup:
+				if ( !file.equals( getIncrementalDirectoryFile() ) ) {
+					
+					gatherFiles( file );
+				}
 			}
 
 			else if ( file.isFile() ) {
@@ -534,6 +971,28 @@ public class PrisonBackups {
 	}
 
 
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public long getBytesSource() {
+		return bytesSource;
+	}
+	public void setBytesSource( long bytesSource ) {
+		this.bytesSource = bytesSource;
+	}
+
+	public long getBytesStored() {
+		return bytesStored;
+	}
+	public void setBytesStored( long bytesStored ) {
+		this.bytesStored = bytesStored;
+	}
+	
+	public long getBytesSaved() {
+		return bytesSource - bytesStored;
+	}
+
 	public File getBackupDirectory() {
 		return backupDirectory;
 	}
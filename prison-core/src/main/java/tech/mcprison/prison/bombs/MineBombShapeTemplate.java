@@ -0,0 +1,199 @@
+package tech.mcprison.prison.bombs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tech.mcprison.prison.bombs.MineBombs.ExplosionOrientation;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>The shape of an explosion, stored as the offsets of each block relative to
+ * the center of the explosion.  A template is calculated once for each
+ * combination of shape, radius, inner radius, and orientation, and then it is
+ * only translated to the location of each explosion, so the distance checks
+ * do not have to be repeated every time a bomb goes off.
+ * </p>
+ *
+ * <p>The offsets are packed in to one int array as x, y, and z for each block,
+ * and they are in the same order as the blocks were calculated before there
+ * were templates.
+ * </p>
+ *
+ */
+public class MineBombShapeTemplate
+{
+	private final int[] offsets;
+
+	/**
+	 * <p>If true, then no blocks below y of zero are included when the template
+	 * is translated.
+	 * </p>
+	 */
+	private final boolean aboveZeroOnly;
+
+	private MineBombShapeTemplate( int[] offsets, int size, boolean aboveZeroOnly ) {
+		super();
+
+		this.offsets = new int[ size * 3 ];
+		System.arraycopy( offsets, 0, this.offsets, 0, size * 3 );
+
+		this.aboveZeroOnly = aboveZeroOnly;
+	}
+
+	/**
+	 * <p>Calculates the template of a sphere, or part of a sphere.  If the
+	 * orientation is on an axis, then it is a disk, or a ring if it is hollow,
+	 * that is perpendicular to that axis.  If it is hollow and the radiusInner
+	 * is zero, then the shell is one block thick.
+	 * </p>
+	 *
+	 * @param radius
+	 * @param hollow
+	 * @param radiusInner
+	 * @param orientation
+	 * @return
+	 */
+	public static MineBombShapeTemplate sphere( int radius, boolean hollow,
+					int radiusInner, ExplosionOrientation orientation ) {
+
+		int width = radius * 2 + 1;
+		int[] offsets = new int[ width * width * width * 3 ];
+		int size = 0;
+
+		if ( radius > 0 ) {
+
+			boolean xOri = orientation == ExplosionOrientation.x_axis;
+			boolean yOri = orientation == ExplosionOrientation.y_axis;
+			boolean zOri = orientation == ExplosionOrientation.z_axis;
+
+			int radiusSqr = radius * radius;
+
+			// If the radiusInner is not specified (== 0), then subtract one from radius.
+			int radiusHSqr = radiusInner == 0 ?
+					((radius - 1) * (radius - 1)) :
+						(radiusInner * radiusInner);
+
+			for ( int x = (xOri ? 0 : -radius) ; x <= (xOri ? 0 : radius) ; x++ ) {
+				for ( int y = (yOri ? 0 : -radius) ; y <= (yOri ? 0 : radius) ; y++ ) {
+					for ( int z = (zOri ? 0 : -radius) ; z <= (zOri ? 0 : radius) ; z++ ) {
+
+						int distSqr = x * x + y * y + z * z;
+
+						if ( distSqr <= radiusSqr &&
+								(!hollow || distSqr >= radiusHSqr ) ) {
+
+							offsets[size * 3] = x;
+							offsets[size * 3 + 1] = y;
+							offsets[size * 3 + 2] = z;
+							size++;
+						}
+					}
+				}
+			}
+		}
+
+		return new MineBombShapeTemplate( offsets, size, false );
+	}
+
+	/**
+	 * <p>Calculates the template of a cube.  The cube starts one block above the
+	 * center and extends down by twice the radius, so the player is not
+	 * standing on what is left of the top layer.  No blocks below y of zero
+	 * are included.
+	 * </p>
+	 *
+	 * @param radius
+	 * @return
+	 */
+	public static MineBombShapeTemplate cube( int radius ) {
+
+		int width = radius * 2 + 1;
+		int[] offsets = new int[ width * width * width * 3 ];
+		int size = 0;
+
+		if ( radius > 0 ) {
+
+			for ( int x = -radius ; x <= radius ; x++ ) {
+				for ( int y = 1; y >= 1 - (radius * 2) ; y-- ) {
+					for ( int z = -radius ; z <= radius ; z++ ) {
+
+						offsets[size * 3] = x;
+						offsets[size * 3 + 1] = y;
+						offsets[size * 3 + 2] = z;
+						size++;
+					}
+				}
+			}
+		}
+
+		return new MineBombShapeTemplate( offsets, size, true );
+	}
+
+	/**
+	 * <p>Translates the template to the center, and only includes the blocks
+	 * that are within the clip bounds, if the clip is not null.
+	 * </p>
+	 *
+	 * @param center
+	 * @param clip The mine's bounds, or null to include all of the blocks.
+	 * @return
+	 */
+	public List<Location> translate( Location center, Bounds clip ) {
+		List<Location> results = new ArrayList<>( size() );
+
+		if ( center == null ) {
+			return results;
+		}
+
+		int cenX = center.getBlockX();
+		int cenY = center.getBlockY();
+		int cenZ = center.getBlockZ();
+
+		int xMin = Integer.MIN_VALUE;
+		int xMax = Integer.MAX_VALUE;
+		int yMin = aboveZeroOnly ? 0 : Integer.MIN_VALUE;
+		int yMax = Integer.MAX_VALUE;
+		int zMin = Integer.MIN_VALUE;
+		int zMax = Integer.MAX_VALUE;
+
+		if ( clip != null ) {
+			xMin = clip.getxBlockMin();
+			xMax = clip.getxBlockMax();
+			yMin = Math.max( yMin, clip.getyBlockMin() );
+			yMax = clip.getyBlockMax();
+			zMin = clip.getzBlockMin();
+			zMax = clip.getzBlockMax();
+		}
+
+		for ( int i = 0; i < offsets.length; i += 3 ) {
+
+			int x = cenX + offsets[i];
+			int y = cenY + offsets[i + 1];
+			int z = cenZ + offsets[i + 2];
+
+			if ( x >= xMin && x <= xMax &&
+					y >= yMin && y <= yMax &&
+					z >= zMin && z <= zMax ) {
+
+				results.add( new Location( center.getWorld(), x, y, z ) );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>The number of blocks within the template.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public int size() {
+		return offsets.length / 3;
+	}
+
+	public boolean isAboveZeroOnly() {
+		return aboveZeroOnly;
+	}
+}
@@ -3,13 +3,16 @@ package tech.mcprison.prison.bombs;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.file.JsonFileIO;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.output.LogLevel;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.util.Bounds;
 import tech.mcprison.prison.util.Location;
 import tech.mcprison.prison.util.Text;
 
@@ -25,6 +28,13 @@ public class MineBombs
 	
 	private MineBombsConfigData configData;
 	
+	/**
+	 * <p>The explosion shape templates, which are keyed on the shape, radius, 
+	 * hollow, inner radius, and orientation.
+	 * </p>
+	 */
+	private final Map<String, MineBombShapeTemplate> shapeTemplates;
+	
 	
 	
 	public enum ExplosionShape {
@@ -85,6 +95,8 @@ public class MineBombs
 		
 		this.configData = new MineBombsConfigData();
 		
+		this.shapeTemplates = new ConcurrentHashMap<>();
+		
 		loadConfigJson();
 		
 		validateMineBombs();
@@ -440,6 +452,10 @@ public class MineBombs
 				}
 			}
 			
+			// Precalculate the explosion's shape so it is ready for the first explosion:
+			if ( bomb.getRadius() > 0 ) {
+				getShapeTemplate( bomb );
+			}
 		}
 		
 		
@@ -484,72 +500,117 @@ public class MineBombs
 	
 	public List<Location> calculateSphere( Location loc, int radius, boolean hollow, 
 				int radiusInner, ExplosionOrientation explosionOrientation ) {
-		List<Location> results = new ArrayList<>();
 		
-		if ( loc != null && radius > 0 ) {
-			int cenX = loc.getBlockX();
-			int cenY = loc.getBlockY();
-			int cenZ = loc.getBlockZ();
-			
-			boolean xOri = explosionOrientation == ExplosionOrientation.x_axis;
-			boolean yOri = explosionOrientation == ExplosionOrientation.y_axis;
-			boolean zOri = explosionOrientation == ExplosionOrientation.z_axis;
-
-			double radiusSqr = radius * radius;
-			
-			// If the radiusInner is not specified (== 0), then subtract one from radius.
-			double radiusHSqr = radiusInner == 0 ?
-									((radius - 1) * (radius - 1)) : 
-										(radiusInner * radiusInner);
-			
-			for ( int x = (xOri ? cenX : cenX - radius) ; x <= (xOri ? cenX : cenX + radius) ; x++ ) {
-				double xSqr = (cenX - x) * (cenX - x);
-				
-				for ( int y = (yOri ? cenY : cenY - radius) ; y <= (yOri ? cenY : cenY + radius) ; y++ ) {
-					double ySqr = (cenY - y) * (cenY - y);
-					
-					for ( int z = (zOri ? cenZ : cenZ - radius) ; z <= (zOri ? cenZ : cenZ + radius) ; z++ ) {
-						double zSqr = (cenZ - z) * (cenZ - z);
-						
-						double distSqr = xSqr + ySqr + zSqr;
-						
-						if ( distSqr <= radiusSqr &&
-								(!hollow || 
-								 hollow && distSqr >= radiusHSqr )) {
-							
-							Location l = new Location( loc.getWorld(), x, y, z );
-							results.add( l );
-						}
-					}
-				}
-			}
-		}
-		return results;
+		return getSphereTemplate( radius, hollow, radiusInner, explosionOrientation )
+						.translate( loc, null );
 	}
 	
 	
 	public List<Location> calculateCube( Location loc, int radius ) {
-		List<Location> results = new ArrayList<>();
 		
-		if ( loc != null && radius > 0 ) {
-			int cenX = loc.getBlockX();
-			int cenY = loc.getBlockY();
-			int cenZ = loc.getBlockZ();
-						
-			for ( int x = cenX - radius ; x <= cenX + radius ; x++ ) {
-				for ( int y = cenY + 1; y >= 0 && y >= cenY + 1 - (radius * 2) ; y-- ) {
-					for ( int z = cenZ - radius ; z <= cenZ + radius ; z++ ) {
-						
-						Location l = new Location( loc.getWorld(), x, y, z );
-						results.add( l );
-						
-					}
-				}
-			}
+		return getCubeTemplate( radius ).translate( loc, null );
+	}
+	
+	/**
+	 * <p>Calculates all of the locations that are included in the bomb's 
+	 * explosion.  If the clip is not null, such as the mine's bounds, then 
+	 * only the locations that are within it are included.
+	 * </p>
+	 * 
+	 * @param bomb
+	 * @param loc
+	 * @param clip
+	 * @return
+	 */
+	public List<Location> calculateExplosion( MineBombData bomb, Location loc, Bounds clip ) {
+		
+		return getShapeTemplate( bomb ).translate( loc, clip );
+	}
+	
+	/**
+	 * <p>Returns the template for the bomb's explosion shape.  The templates
+	 * are calculated the first time they are used, or when the bombs are 
+	 * validated, and then they are reused for every explosion.
+	 * </p>
+	 * 
+	 * @param bomb
+	 * @return
+	 */
+	public MineBombShapeTemplate getShapeTemplate( MineBombData bomb ) {
+		MineBombShapeTemplate results = null;
+		
+		ExplosionShape shape = ExplosionShape.fromString( bomb.getExplosionShape() );
+		
+		switch ( shape )
+		{
+			case cube:
+				results = getCubeTemplate( bomb.getRadius() );
+				break;
+				
+			case ring_x:
+				results = getSphereTemplate( bomb.getRadius(), true, bomb.getRadiusInner(), 
+										ExplosionOrientation.x_axis );
+				break;
+			case ring_y:
+				results = getSphereTemplate( bomb.getRadius(), true, bomb.getRadiusInner(), 
+										ExplosionOrientation.y_axis );
+				break;
+			case ring_z:
+				results = getSphereTemplate( bomb.getRadius(), true, bomb.getRadiusInner(), 
+										ExplosionOrientation.z_axis );
+				break;
+				
+			case disk_x:
+				results = getSphereTemplate( bomb.getRadius(), false, 0, 
+										ExplosionOrientation.x_axis );
+				break;
+			case disk_y:
+				results = getSphereTemplate( bomb.getRadius(), false, 0, 
+										ExplosionOrientation.y_axis );
+				break;
+			case disk_z:
+				results = getSphereTemplate( bomb.getRadius(), false, 0, 
+										ExplosionOrientation.z_axis );
+				break;
+				
+			case sphereHollow:
+				results = getSphereTemplate( bomb.getRadius(), true, bomb.getRadiusInner(), 
+										ExplosionOrientation.full );
+				break;
+				
+			case sphere:
+			default:
+				results = getSphereTemplate( bomb.getRadius(), false, 0, 
+										ExplosionOrientation.full );
+				break;
 		}
+		
 		return results;
 	}
 	
+	public MineBombShapeTemplate getSphereTemplate( int radius, boolean hollow, 
+				int radiusInner, ExplosionOrientation explosionOrientation ) {
+		
+		// The inner radius is only used when it is hollow:
+		int inner = hollow ? radiusInner : 0;
+		
+		String key = "sphere:" + radius + ":" + hollow + ":" + inner + ":" + explosionOrientation.name();
+		
+		return shapeTemplates.computeIfAbsent( key, 
+				k -> MineBombShapeTemplate.sphere( radius, hollow, inner, explosionOrientation ) );
+	}
+	
+	public MineBombShapeTemplate getCubeTemplate( int radius ) {
+		
+		String key = "cube:" + radius;
+		
+		return shapeTemplates.computeIfAbsent( key, k -> MineBombShapeTemplate.cube( radius ) );
+	}
+	
+	public int getShapeTemplateCount() {
+		return shapeTemplates.size();
+	}
+	
 	
 	public List<Location> calculateCube( Location loc1, Location loc2 ) {
 		List<Location> results = new ArrayList<>();
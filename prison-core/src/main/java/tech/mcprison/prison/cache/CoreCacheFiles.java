@@ -30,6 +30,7 @@ public abstract class CoreCacheFiles {
 	private File cacheDirectory = null;
 	
 	private Gson gson = null;
+	private Gson gsonCompact = null;
 	private TreeMap<String, File> playerFiles;
 
 	
@@ -57,6 +58,20 @@ public abstract class CoreCacheFiles {
 		return gson;
 	}
 
+	/**
+	 * <p>This Gson engine does not use pretty printing, so the data is as small
+	 * as possible when it does not need to be human readable.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected Gson getGsonCompact() {
+		if ( gsonCompact == null ) {
+			gsonCompact = new GsonBuilder().create();
+		}
+		return gsonCompact;
+	}
+
 	protected void renamePlayerFileToBU(File playerFile) {
 		String buFileName = FILE_PREFIX_BACKUP + 
 					playerFile.getName().replace( FILE_SUFFIX_TEMP, FILE_SUFFIX_BACKUP );
@@ -215,8 +230,10 @@ public abstract class CoreCacheFiles {
 			File playerFile = cacheData.getPlayerFile();
 			File outTemp = createTempFile( playerFile );
 			
-			if ( !getPlayerFiles().containsKey( playerFile.getName() )) {
-				getPlayerFiles().put( playerFile.getName(), playerFile );
+			synchronized ( this ) {
+				if ( !getPlayerFiles().containsKey( playerFile.getName() )) {
+					getPlayerFiles().put( playerFile.getName(), playerFile );
+				}
 			}
 			
 			boolean success = false;
@@ -276,7 +293,7 @@ public abstract class CoreCacheFiles {
 		return new File( getPlayerFilePath(), playerFileName );
 	}
 
-	protected TreeMap<String, File> getPlayerFiles() {
+	protected synchronized TreeMap<String, File> getPlayerFiles() {
 		// load the player's files:
 		if ( playerFiles == null ) {
 			
@@ -347,11 +364,13 @@ public abstract class CoreCacheFiles {
 	 * @param player
 	 * @return
 	 */
-	private String getPlayerFileName( Player player ) {
-		String UUIDString = player.getUUID().toString();
+	protected String getPlayerFileName( Player player ) {
+		return getPlayerFileName( player.getUUID().toString(), player.getName() );
+	}
+	protected String getPlayerFileName( String UUIDString, String playerName ) {
 		String uuidFragment = getFileNamePrefix( UUIDString );
 		
-		return uuidFragment + "_" + player.getName() + FILE_SUFFIX_JSON;
+		return uuidFragment + "_" + playerName + FILE_SUFFIX_JSON;
 	}
 	
 	/**
@@ -381,7 +400,7 @@ public abstract class CoreCacheFiles {
 	 * @param playerFileName
 	 * @return
 	 */
-	private File getCachedFileMatch( String playerFileName )
+	protected synchronized File getCachedFileMatch( String playerFileName )
 	{
 		File results = null;
 		
@@ -0,0 +1,776 @@
+package tech.mcprison.prison.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.PrisonAPI;
+import tech.mcprison.prison.integration.EconomyCurrencyIntegration;
+import tech.mcprison.prison.integration.EconomyIntegration;
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>The EconomyLedger sits in front of the economy integrations for all of 
+ * the currencies, so the players' balances are not changed within the 
+ * economy plugins every time they are paid, such as when autosell pays them
+ * for every block.  The changes are added up for each player's currency, and
+ * are applied to the economy in one batch on a regular interval, which is 
+ * the setting ranks.player-economy-cache-update-delay-ticks.
+ * </p>
+ * 
+ * <p>Every change is also queued for the journal, and the queue is written 
+ * and forced to the journal file every economy-ledger.journal-commit-ticks, 
+ * which is much shorter than the batch interval.  So if the server crashes 
+ * before the changes are applied, then they are recovered and applied when 
+ * the server starts up again.  Only the changes that were made within the 
+ * last commit interval are lost with a crash.  If the server stops while a 
+ * player's change is being applied, then that one change may be applied 
+ * twice, since the economy plugins cannot tell the ledger if they already 
+ * have it.
+ * </p>
+ * 
+ * <p>The player's default balance is given to the TopN balances leaderboard
+ * after its changes are applied with each batch, but not with every change 
+ * or read.
+ * </p>
+ * 
+ * <p>Only the player's own account is locked while a change is made, so the
+ * changes for different players never wait on each other.  A change that 
+ * cannot be applied is tried again with the next batch, up to 
+ * economy-ledger.max-apply-attempts times, and then it is logged and 
+ * discarded.
+ * </p>
+ * 
+ * <p>The balances are read from the economy no more than once for every
+ * economy-ledger.max-balance-age-ms, and the changes that have not been 
+ * applied yet are always included in the balance.  The balance may not
+ * include changes that were made by other plugins within that time.
+ * </p>
+ *
+ */
+public class EconomyLedger
+{
+	public static final String LEDGER_ENABLED_CONFIG_NAME = "economy-ledger.enabled";
+	public static final String LEDGER_JOURNAL_CONFIG_NAME = "economy-ledger.journal";
+	public static final String LEDGER_MAX_BALANCE_AGE_CONFIG_NAME = "economy-ledger.max-balance-age-ms";
+	public static final String LEDGER_FLUSH_DELAY_CONFIG_NAME = "ranks.player-economy-cache-update-delay-ticks";
+	public static final String LEDGER_MAX_APPLY_ATTEMPTS_CONFIG_NAME = "economy-ledger.max-apply-attempts";
+	public static final String LEDGER_JOURNAL_COMMIT_TICKS_CONFIG_NAME = "economy-ledger.journal-commit-ticks";
+	
+	public static final long LEDGER_MAX_BALANCE_AGE_VALUE = 1000;
+	public static final long LEDGER_FLUSH_DELAY_VALUE = 60;
+	public static final int LEDGER_MAX_APPLY_ATTEMPTS_VALUE = 20;
+	public static final long LEDGER_JOURNAL_COMMIT_TICKS_VALUE = 2;
+	
+	/**
+	 * <p>Idle accounts that have not had a change, or a balance read from the
+	 * economy, for this long are removed after each flush.
+	 * </p>
+	 */
+	public static final long LEDGER_IDLE_ACCOUNT_MS = 60000;
+	
+	public static final String FILE_ECONOMY_LEDGER_JOURNAL = "data_storage/economyLedger.journal";
+	
+	private static EconomyLedger instance;
+	
+	private final Map<String, EconomyLedgerAccount> accounts;
+	
+	private Boolean enabled = null;
+	private long maxBalanceAgeMs = -1;
+	private int maxApplyAttempts = -1;
+	
+	private EconomyLedgerJournal journal;
+	private boolean journalChecked = false;
+	
+	private final Object flushLock = new Object();
+	
+	private volatile boolean started = false;
+	private int taskId = 0;
+	private int journalTaskId = 0;
+	
+	private long flushCount = 0;
+	private long flushChanges = 0;
+	private long flushFailures = 0;
+	private long flushDiscarded = 0;
+	private long flushNanosTotal = 0;
+	private long flushNanosLast = 0;
+	private long flushNanosMax = 0;
+	
+	private long balanceReads = 0;
+	private long balanceEconomyReads = 0;
+	
+	protected EconomyLedger() {
+		super();
+		
+		this.accounts = new ConcurrentHashMap<>();
+	}
+	
+	public static EconomyLedger getInstance() {
+		if ( instance == null ) {
+			synchronized ( EconomyLedger.class ) {
+				if ( instance == null ) {
+					instance = new EconomyLedger();
+				}
+			}
+		}
+		return instance;
+	}
+	
+	/**
+	 * <p>Recovers the changes that were not applied before the server last 
+	 * stopped, and starts the task that applies the changes.  This must be
+	 * called after the economy integrations have been loaded.  If it is not 
+	 * called, then it will be started the first time a balance is changed.
+	 * </p>
+	 */
+	public synchronized void start() {
+		
+		if ( started || !isEnabled() ) {
+			return;
+		}
+		started = true;
+		
+		EconomyLedgerJournal journal = getJournal();
+		if ( journal != null ) {
+			
+			try {
+				Map<String, Double> recovered = journal.recover();
+				
+				for ( Map.Entry<String, Double> change : recovered.entrySet() ) {
+					
+					String[] key = change.getKey().split( "\t", -1 );
+					UUID playerUuid = UUID.fromString( key[0] );
+					String currency = key[1].isEmpty() ? null : key[1];
+					
+					// Do not journal them again, since they are still in the flushing file:
+					addPending( playerUuid, currency, null, change.getValue(), null );
+				}
+				
+				if ( recovered.size() > 0 ) {
+					Output.get().logInfo( "EconomyLedger: Recovered the balance changes for %d player " +
+							"currencies that were not applied before the server stopped.", recovered.size() );
+				}
+			}
+			catch ( IOException | IllegalArgumentException e ) {
+				
+				// The journal files still hold the changes that were not recovered,
+				// so they must not be rotated or deleted.  The journal is not used
+				// until the server is restarted, and the recovery is tried again:
+				this.journal = null;
+				
+				Output.get().logError( "EconomyLedger: Unable to recover the journal " + 
+						journal.getFlushingFile().getAbsolutePath() + ".  The journal is " +
+						"disabled, and its files are kept so they can be recovered when " +
+						"the server is restarted: " + e.getMessage(), e );
+			}
+		}
+		
+		long delayTicks = Math.max( 1, Prison.get().getPlatform().getConfigLong( 
+				LEDGER_FLUSH_DELAY_CONFIG_NAME, LEDGER_FLUSH_DELAY_VALUE ) );
+		
+		taskId = PrisonTaskSubmitter.runTaskTimerAsync( this::flush, delayTicks, delayTicks );
+		
+		// The journal is committed on its own short interval, so the changes do
+		// not wait for the next batch to be safe from a crash:
+		if ( this.journal != null ) {
+			
+			long commitTicks = Math.max( 1, Prison.get().getPlatform().getConfigLong( 
+					LEDGER_JOURNAL_COMMIT_TICKS_CONFIG_NAME, LEDGER_JOURNAL_COMMIT_TICKS_VALUE ) );
+			
+			journalTaskId = PrisonTaskSubmitter.runTaskTimerAsync( this::commitJournal, 
+					commitTicks, commitTicks );
+		}
+	}
+	
+	/**
+	 * <p>Writes the queued journal records, and forces them to the disk.
+	 * </p>
+	 */
+	protected void commitJournal() {
+		
+		EconomyLedgerJournal journal = getJournal();
+		
+		if ( journal != null ) {
+			try {
+				journal.writeQueued();
+			}
+			catch ( IOException e ) {
+				Output.get().logError( "EconomyLedger: Unable to write to the journal: " + 
+						e.getMessage(), e );
+			}
+		}
+	}
+	
+	/**
+	 * <p>Applies all of the changes and closes the journal.  This is called when
+	 * the server is shutting down.
+	 * </p>
+	 */
+	public void shutdown() {
+		
+		if ( taskId != 0 ) {
+			PrisonTaskSubmitter.cancelTask( taskId );
+			taskId = 0;
+		}
+		
+		if ( journalTaskId != 0 ) {
+			PrisonTaskSubmitter.cancelTask( journalTaskId );
+			journalTaskId = 0;
+		}
+		
+		flush();
+		
+		if ( journal != null ) {
+			try {
+				journal.close();
+			}
+			catch ( IOException e ) {
+				Output.get().logError( "EconomyLedger: Unable to close the journal: " + e.getMessage(), e );
+			}
+		}
+		
+		started = false;
+	}
+	
+	private String normalizeCurrency( String currency ) {
+		return currency == null || currency.trim().isEmpty() || 
+				"default".equalsIgnoreCase( currency ) ? null : currency;
+	}
+	
+	private EconomyLedgerAccount getAccount( UUID playerUuid, String currency ) {
+		String key = EconomyLedgerJournal.key( playerUuid, 
+						currency == null ? null : currency.toLowerCase() );
+		
+		return accounts.computeIfAbsent( key, k -> new EconomyLedgerAccount( playerUuid, currency ) );
+	}
+	
+	private EconomyLedgerAccount getAccount( Player player, String currency ) {
+		EconomyLedgerAccount account = getAccount( player.getUUID(), currency );
+		
+		account.setPlayer( player );
+		
+		return account;
+	}
+	
+	/**
+	 * <p>Adds the amount to the player's balance for the currency.  The amount
+	 * may be negative.  The change will be applied to the economy with the next
+	 * batch.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param currency The currency, or null for the default currency.
+	 * @param amount
+	 * @return True if the change was accepted.
+	 */
+	public boolean addBalance( Player player, String currency, double amount ) {
+		boolean results = false;
+		
+		currency = normalizeCurrency( currency );
+		
+		if ( !isEnabled() ) {
+			return applyToEconomy( player, currency, amount );
+		}
+		
+		if ( !started ) {
+			start();
+		}
+		
+		if ( amount == 0 ) {
+			return true;
+		}
+		
+		addPending( player.getUUID(), currency, player, amount, getJournal() );
+		
+		results = true;
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Adds the amount to the account's pending amount, and journals it if 
+	 * the journal is not null.  Only this account is locked, so its journal 
+	 * records stay in the same order as its changes.  If the account was 
+	 * retired by removeIdleAccounts() after it was taken from the map, then
+	 * the change is added to a new account instead, since a retired account is
+	 * never applied.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param currency The currency, or null for the default currency.
+	 * @param player The player, or null if it is not known.
+	 * @param amount
+	 * @param journal The journal, or null if the change must not be journaled.
+	 */
+	void addPending( UUID playerUuid, String currency, Player player, 
+					double amount, EconomyLedgerJournal journal ) {
+		
+		while ( true ) {
+			
+			EconomyLedgerAccount account = player == null ?
+					getAccount( playerUuid, currency ) : getAccount( player, currency );
+			
+			synchronized ( account ) {
+				
+				if ( !account.isRetired() ) {
+					
+					if ( journal != null ) {
+						journal.append( account.getPlayerUuid(), account.getCurrency(), amount );
+					}
+					account.addPending( amount );
+					
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>Gets the player's balance for the currency, including the changes 
+	 * that have not been applied yet.  The balance is only read from the 
+	 * economy if it was last read more than the max balance age ago.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param currency The currency, or null for the default currency.
+	 * @return
+	 */
+	public double getBalance( Player player, String currency ) {
+		double results = 0;
+		
+		currency = normalizeCurrency( currency );
+		
+		if ( !isEnabled() ) {
+			return getEconomyBalance( player, currency );
+		}
+		
+		balanceReads++;
+		
+		EconomyLedgerAccount account = getAccount( player, currency );
+		
+		long now = System.currentTimeMillis();
+		
+		if ( account.isBalanceStale( now, getMaxBalanceAgeMs() ) ) {
+			
+			if ( !hasEconomy( currency ) ) {
+				return results;
+			}
+			
+			balanceEconomyReads++;
+			account.refreshBalance( getEconomyBalance( player, currency ), now );
+		}
+		
+		results = account.getTotalBalance();
+		
+		return results;
+	}
+	
+	/**
+	 * <p>The changes that have not been applied to the economy yet.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param currency
+	 * @return
+	 */
+	public double getPending( Player player, String currency ) {
+		EconomyLedgerAccount account = accounts.get( 
+				EconomyLedgerJournal.key( player.getUUID(), 
+						normalizeCurrency( currency ) == null ? null : currency.toLowerCase() ) );
+		
+		return account == null ? 0 : account.getPending();
+	}
+	
+	/**
+	 * <p>When the balance has been changed directly within the economy, this 
+	 * keeps the cached balance in step with it.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param currency
+	 * @param amount
+	 */
+	public void adjustCachedBalance( Player player, String currency, double amount ) {
+		
+		EconomyLedgerAccount account = accounts.get( 
+				EconomyLedgerJournal.key( player.getUUID(), 
+						normalizeCurrency( currency ) == null ? null : currency.toLowerCase() ) );
+		
+		if ( account != null ) {
+			account.adjustBalance( amount );
+		}
+	}
+	
+	/**
+	 * <p>Applies all of the pending changes to the economies.  The changes that
+	 * cannot be applied, such as when the economy is not available, are kept
+	 * for the next flush, until they have failed max-apply-attempts times.
+	 * </p>
+	 */
+	public void flush() {
+		
+		synchronized ( flushLock ) {
+			
+			long start = System.nanoTime();
+			
+			EconomyLedgerJournal journal = getJournal();
+			
+			boolean rotated = false;
+			if ( journal != null ) {
+				try {
+					journal.rotate();
+					rotated = true;
+				}
+				catch ( IOException e ) {
+					Output.get().logError( "EconomyLedger: Unable to rotate the journal: " + 
+							e.getMessage(), e );
+				}
+			}
+			
+			int changes = 0;
+			int failures = 0;
+			
+			for ( EconomyLedgerAccount account : accounts.values() ) {
+				
+				if ( account.getPending() != 0 ) {
+					
+					changes++;
+					if ( !applyAccount( account, journal ) ) {
+						failures++;
+					}
+				}
+			}
+			
+			// Every account that was in the flushing file now has a set record 
+			// in the journal, so the flushing file is no longer needed:
+			if ( rotated ) {
+				try {
+					journal.flushFinished();
+				}
+				catch ( IOException e ) {
+					Output.get().logError( "EconomyLedger: Unable to finish the journal: " + 
+							e.getMessage(), e );
+				}
+			}
+			
+			removeIdleAccounts( System.currentTimeMillis(), LEDGER_IDLE_ACCOUNT_MS );
+			
+			long nanos = System.nanoTime() - start;
+			
+			flushCount++;
+			flushChanges += changes - failures;
+			flushFailures += failures;
+			flushNanosTotal += nanos;
+			flushNanosLast = nanos;
+			flushNanosMax = Math.max( flushNanosMax, nanos );
+		}
+	}
+	
+	/**
+	 * <p>Applies the pending changes for one player's currency right away, in 
+	 * the calling thread.  This is used when the balance must be exact within
+	 * the economy, such as before a rankup charges the player directly through
+	 * the economy.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param currency The currency, or null for the default currency.
+	 * @return False if the pending changes could not be applied.
+	 */
+	public boolean flushPlayer( Player player, String currency ) {
+		boolean results = true;
+		
+		currency = normalizeCurrency( currency );
+		
+		if ( !isEnabled() ) {
+			return results;
+		}
+		
+		EconomyLedgerAccount account = accounts.get( 
+				EconomyLedgerJournal.key( player.getUUID(), 
+						currency == null ? null : currency.toLowerCase() ) );
+		
+		if ( account != null ) {
+			
+			account.setPlayer( player );
+			
+			EconomyLedgerJournal journal = getJournal();
+			
+			results = applyAccount( account, journal );
+			
+			if ( journal != null ) {
+				try {
+					journal.writeQueued();
+				}
+				catch ( IOException e ) {
+					Output.get().logError( "EconomyLedger: Unable to write to the journal: " + 
+							e.getMessage(), e );
+				}
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Takes the account's pending amount and applies it to the economy.  The
+	 * apply lock waits for the ledger's flush if it is applying this account 
+	 * at the same time, so the amount that is in flight has landed before this
+	 * returns.  The amount that is still not applied afterwards is journaled 
+	 * as a set record, which replaces all of the account's earlier records.
+	 * </p>
+	 * 
+	 * @param account
+	 * @param journal
+	 * @return False if the pending amount could not be applied.
+	 */
+	private boolean applyAccount( EconomyLedgerAccount account, EconomyLedgerJournal journal ) {
+		boolean success = true;
+		
+		synchronized ( account.getApplyLock() ) {
+			
+			double amount;
+			synchronized ( account ) {
+				amount = account.takePending();
+			}
+			
+			if ( amount == 0 ) {
+				return success;
+			}
+			
+			Player player = account.getPlayer();
+			if ( player == null ) {
+				player = Prison.get().getPlatform().getOfflinePlayer( account.getPlayerUuid() ).orElse( null );
+				account.setPlayer( player );
+			}
+			
+			success = player != null && 
+					applyToEconomy( player, account.getCurrency(), amount );
+			
+			synchronized ( account ) {
+				
+				if ( success || account.getFailedAttempts() + 1 < getMaxApplyAttempts() ) {
+					
+					account.applied( success );
+				}
+				else {
+					account.discard();
+					flushDiscarded++;
+					
+					Output.get().logError( String.format( 
+							"EconomyLedger: Unable to apply the balance change of %s %s for " +
+							"the player %s after %d attempts.  The change has been discarded.", 
+							Double.toString( amount ),
+							account.getCurrency() == null ? "(default currency)" : account.getCurrency(),
+							player == null ? account.getPlayerUuid().toString() : 
+								player.getName() + " (" + account.getPlayerUuid() + ")",
+							getMaxApplyAttempts() ) );
+				}
+				
+				if ( journal != null ) {
+					journal.appendSet( account.getPlayerUuid(), account.getCurrency(), account.getPending() );
+				}
+			}
+			
+			// The balance is only known if it has been read from the economy:
+			if ( success && account.getCurrency() == null && account.getBalanceRefreshedMs() > 0 ) {
+				
+				TopNStatsSingleton.getInstance().updateBalance( account.getPlayerUuid().toString(), 
+						player.getName(), account.getTotalBalance() );
+			}
+		}
+		
+		return success;
+	}
+	
+	/**
+	 * <p>Removes the accounts that have nothing to apply, and have not been 
+	 * written to for the idle time.  Each account is checked and retired while
+	 * holding its lock, within the map's computeIfPresent(), so a change cannot
+	 * be added to it after it has been removed.
+	 * </p>
+	 * 
+	 * @param nowMs
+	 * @param idleMs
+	 */
+	void removeIdleAccounts( long nowMs, long idleMs ) {
+		
+		for ( String key : accounts.keySet() ) {
+			
+			accounts.computeIfPresent( key, (k, account) -> {
+				
+				synchronized ( account ) {
+					
+					if ( account.isIdle( nowMs, idleMs ) ) {
+						account.retire();
+						return null;
+					}
+				}
+				return account;
+			});
+		}
+	}
+	
+	/**
+	 * <p>The total of the pending amounts of all of the accounts.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	double getPendingTotal() {
+		double results = 0;
+		
+		for ( EconomyLedgerAccount account : accounts.values() ) {
+			results += account.getPending();
+		}
+		
+		return results;
+	}
+	
+	private boolean hasEconomy( String currency ) {
+		return currency == null ? 
+				PrisonAPI.getIntegrationManager().getEconomy() != null :
+				PrisonAPI.getIntegrationManager().getEconomyForCurrency( currency ) != null;
+	}
+	
+	private double getEconomyBalance( Player player, String currency ) {
+		double results = 0;
+		
+		if ( currency == null ) {
+			EconomyIntegration economy = PrisonAPI.getIntegrationManager().getEconomy();
+			
+			if ( economy != null ) {
+				results = economy.getBalance( player );
+			}
+		}
+		else {
+			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
+					.getEconomyForCurrency( currency );
+			
+			if ( currencyEcon != null ) {
+				results = currencyEcon.getBalance( player, currency );
+			}
+		}
+		
+		return results;
+	}
+	
+	private boolean applyToEconomy( Player player, String currency, double amount ) {
+		boolean results = false;
+		
+		try {
+			if ( currency == null ) {
+				EconomyIntegration economy = PrisonAPI.getIntegrationManager().getEconomy();
+				
+				if ( economy != null ) {
+					results = economy.addBalance( player, amount );
+				}
+			}
+			else {
+				EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
+						.getEconomyForCurrency( currency );
+				
+				if ( currencyEcon != null ) {
+					results = amount >= 0 ?
+							currencyEcon.addBalance( player, amount, currency ) :
+							currencyEcon.removeBalance( player, -1 * amount, currency );
+				}
+			}
+		}
+		catch ( Exception e ) {
+			Output.get().logError( "EconomyLedger: Unable to update the balance of " + 
+					player.getName() + ": " + e.getMessage(), e );
+		}
+		
+		return results;
+	}
+	
+	public List<String> generateReport() {
+		List<String> results = new ArrayList<>();
+		
+		DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
+		DecimalFormat dFmt = Prison.get().getDecimalFormatDouble();
+		
+		double avgMs = flushCount == 0 ? 0 : flushNanosTotal / (double) flushCount / 1000000.0d;
+		
+		results.add( String.format( "&3Economy Ledger: &7%s  &3Journal: &7%s  &3Accounts: &7%s  " +
+				"&3Max Balance Age ms: &7%s", 
+				Boolean.toString( isEnabled() ), 
+				Boolean.toString( getJournal() != null ),
+				iFmt.format( accounts.size() ),
+				iFmt.format( getMaxBalanceAgeMs() ) ) );
+		
+		results.add( String.format( "  &3Flushes: &7%s  &3Changes Applied: &7%s  &3Failures: &7%s  " +
+				"&3Discarded: &7%s", 
+				iFmt.format( flushCount ), iFmt.format( flushChanges ), iFmt.format( flushFailures ),
+				iFmt.format( flushDiscarded ) ) );
+		
+		results.add( String.format( "  &3Flush ms: &3Last: &7%s  &3Avg: &7%s  &3Max: &7%s", 
+				dFmt.format( flushNanosLast / 1000000.0d ), 
+				dFmt.format( avgMs ), 
+				dFmt.format( flushNanosMax / 1000000.0d ) ) );
+		
+		results.add( String.format( "  &3Balance Reads: &7%s  &3Read from Economy: &7%s  " +
+				"&3Journal bytes: &7%s", 
+				iFmt.format( balanceReads ), iFmt.format( balanceEconomyReads ),
+				iFmt.format( getJournal() == null ? 0 : getJournal().getBytesWritten() ) ) );
+		
+		return results;
+	}
+	
+	protected EconomyLedgerJournal getJournal() {
+		if ( !journalChecked ) {
+			
+			if ( Prison.get().getPlatform().getConfigBooleanTrue( LEDGER_JOURNAL_CONFIG_NAME ) ) {
+				
+				journal = new EconomyLedgerJournal( 
+						new File( Prison.get().getDataFolder(), FILE_ECONOMY_LEDGER_JOURNAL ) );
+			}
+			journalChecked = true;
+		}
+		return journal;
+	}
+	
+	public boolean isEnabled() {
+		if ( enabled == null ) {
+			enabled = Prison.get().getPlatform().getConfigBooleanTrue( LEDGER_ENABLED_CONFIG_NAME );
+		}
+		return enabled;
+	}
+	
+	public long getMaxBalanceAgeMs() {
+		if ( maxBalanceAgeMs < 0 ) {
+			maxBalanceAgeMs = Prison.get().getPlatform().getConfigLong( 
+					LEDGER_MAX_BALANCE_AGE_CONFIG_NAME, LEDGER_MAX_BALANCE_AGE_VALUE );
+		}
+		return maxBalanceAgeMs;
+	}
+	
+	public int getMaxApplyAttempts() {
+		if ( maxApplyAttempts < 0 ) {
+			maxApplyAttempts = Math.max( 1, Prison.get().getPlatform().getConfigInt( 
+					LEDGER_MAX_APPLY_ATTEMPTS_CONFIG_NAME, LEDGER_MAX_APPLY_ATTEMPTS_VALUE ) );
+		}
+		return maxApplyAttempts;
+	}
+	
+	public long getFlushCount() {
+		return flushCount;
+	}
+
+	public long getFlushNanosLast() {
+		return flushNanosLast;
+	}
+
+	public long getFlushNanosMax() {
+		return flushNanosMax;
+	}
+}
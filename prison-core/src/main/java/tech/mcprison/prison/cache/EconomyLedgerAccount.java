@@ -0,0 +1,255 @@
+package tech.mcprison.prison.cache;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tech.mcprison.prison.internal.Player;
+
+/**
+ * <p>One player's currency within the EconomyLedger.  The changes to the 
+ * balance are added to the pending amount with compare and set, and the 
+ * ledger takes the whole pending amount when it applies the changes to the 
+ * economy.
+ * </p>
+ * 
+ * <p>The balance is the last balance that was read from the economy, plus 
+ * the changes that the ledger has applied since then.
+ * </p>
+ * 
+ * <p>The account's own lock is held while a change is journaled and added to
+ * the pending amount, so the journal records for one account are always in 
+ * the same order as its changes.  The apply lock is held while the pending 
+ * amount is applied to the economy, so only one thread applies an account at
+ * a time.
+ * </p>
+ * 
+ * <p>When the ledger removes an idle account, it retires the account while 
+ * holding its lock.  A change must not be added to a retired account, since 
+ * it would never be applied, so it is added to a new account instead.
+ * </p>
+ *
+ */
+public class EconomyLedgerAccount
+{
+	private final UUID playerUuid;
+	
+	/**
+	 * <p>The currency, or null for the default currency.
+	 * </p>
+	 */
+	private final String currency;
+	
+	private volatile Player player;
+	
+	/**
+	 * <p>The pending amount, stored as the bits of a double so it can be updated
+	 * with compare and set.
+	 * </p>
+	 */
+	private final AtomicLong pending;
+	
+	/**
+	 * <p>The amount that the ledger has taken from pending, and is applying to 
+	 * the economy right now.
+	 * </p>
+	 */
+	private volatile double inFlight = 0;
+	
+	private volatile double balance = 0;
+	private volatile long balanceRefreshedMs = 0;
+	
+	/**
+	 * <p>The last time that a change was added, or the balance was read from
+	 * the economy.
+	 * </p>
+	 */
+	private volatile long lastWriteMs;
+	
+	private boolean retired = false;
+	
+	private final Object applyLock = new Object();
+	
+	/**
+	 * <p>The number of times in a row that the in flight amount could not be
+	 * applied to the economy.
+	 * </p>
+	 */
+	private int failedAttempts = 0;
+	
+	public EconomyLedgerAccount( UUID playerUuid, String currency ) {
+		super();
+		
+		this.playerUuid = playerUuid;
+		this.currency = currency;
+		
+		this.pending = new AtomicLong( Double.doubleToRawLongBits( 0d ) );
+		
+		this.lastWriteMs = System.currentTimeMillis();
+	}
+	
+	public void addPending( double amount ) {
+		
+		lastWriteMs = System.currentTimeMillis();
+		
+		long current;
+		long updated;
+		do {
+			current = pending.get();
+			updated = Double.doubleToRawLongBits( Double.longBitsToDouble( current ) + amount );
+		}
+		while ( !pending.compareAndSet( current, updated ) );
+	}
+	
+	public double getPending() {
+		return Double.longBitsToDouble( pending.get() );
+	}
+	
+	/**
+	 * <p>Takes all of the pending amount, so it can be applied to the economy.
+	 * The amount is held as in flight until the ledger calls applied().
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public double takePending() {
+		double amount = Double.longBitsToDouble( 
+				pending.getAndSet( Double.doubleToRawLongBits( 0d ) ) );
+		
+		inFlight = amount;
+		
+		return amount;
+	}
+	
+	/**
+	 * <p>The in flight amount has been applied to the economy, so it is now 
+	 * part of the balance.  If it was not applied, then it is added back to
+	 * the pending amount.
+	 * </p>
+	 * 
+	 * @param success
+	 */
+	public synchronized void applied( boolean success ) {
+		double amount = inFlight;
+		
+		if ( success ) {
+			balance += amount;
+			failedAttempts = 0;
+		}
+		else {
+			addPending( amount );
+			failedAttempts++;
+		}
+		
+		inFlight = 0;
+	}
+	
+	/**
+	 * <p>The in flight amount could not be applied, and will not be tried again.
+	 * </p>
+	 * 
+	 * @return The amount that was discarded.
+	 */
+	public synchronized double discard() {
+		double amount = inFlight;
+		
+		inFlight = 0;
+		failedAttempts = 0;
+		
+		return amount;
+	}
+	
+	/**
+	 * <p>The balance including the changes that have not been applied yet.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public double getTotalBalance() {
+		return balance + inFlight + getPending();
+	}
+	
+	public boolean isBalanceStale( long nowMs, long maxAgeMs ) {
+		return nowMs - balanceRefreshedMs > maxAgeMs;
+	}
+	
+	public synchronized void refreshBalance( double balance, long nowMs ) {
+		this.balance = balance;
+		this.balanceRefreshedMs = nowMs;
+		this.lastWriteMs = nowMs;
+	}
+	
+	/**
+	 * <p>The balance was changed directly within the economy, so update the 
+	 * cached balance to match.
+	 * </p>
+	 * 
+	 * @param amount
+	 */
+	public synchronized void adjustBalance( double amount ) {
+		balance += amount;
+	}
+	
+	public boolean isIdle() {
+		return getPending() == 0 && inFlight == 0;
+	}
+	
+	/**
+	 * <p>Returns true if there is nothing to apply, and nothing has been 
+	 * written to the account for the idle time.
+	 * </p>
+	 * 
+	 * @param nowMs
+	 * @param idleMs
+	 * @return
+	 */
+	public boolean isIdle( long nowMs, long idleMs ) {
+		return isIdle() && nowMs - lastWriteMs >= idleMs;
+	}
+	
+	/**
+	 * <p>The account has been removed from the ledger.  This must be called
+	 * while holding the account's lock.
+	 * </p>
+	 */
+	public synchronized void retire() {
+		retired = true;
+	}
+	public synchronized boolean isRetired() {
+		return retired;
+	}
+	
+	public long getLastWriteMs() {
+		return lastWriteMs;
+	}
+
+	public synchronized int getFailedAttempts() {
+		return failedAttempts;
+	}
+	
+	public Object getApplyLock() {
+		return applyLock;
+	}
+
+	public UUID getPlayerUuid() {
+		return playerUuid;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public Player getPlayer() {
+		return player;
+	}
+	public void setPlayer( Player player ) {
+		this.player = player;
+	}
+	
+	public double getBalance() {
+		return balance;
+	}
+	
+	public long getBalanceRefreshedMs() {
+		return balanceRefreshedMs;
+	}
+}
@@ -0,0 +1,312 @@
+package tech.mcprison.prison.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>The journal of the balance changes that are held within the 
+ * EconomyLedger, but have not been applied to the economy yet.  The changes
+ * are added to a queue without any locks, and the queue is written to the 
+ * journal file in one buffered write, and forced to the disk, by 
+ * writeQueued().  The ledger calls it on its own short commit interval, so 
+ * all of the changes that were queued within that interval are committed
+ * together, and also with every flush.  Before the ledger applies the 
+ * changes, the journal is rotated to the flushing file.
+ * </p>
+ * 
+ * <p>After a player's currency has been applied, the ledger appends a set 
+ * record with the amount that is still not applied, which is usually zero.
+ * Since the records for one player's currency are always queued under that
+ * account's lock, the set record replaces all of the changes before it, no
+ * matter which file they are in.  So once the ledger has appended a set 
+ * record for every currency that it took from the flushing file, the 
+ * flushing file is no longer needed.
+ * </p>
+ * 
+ * <p>If the server stops before the changes are applied, then the flushing
+ * file and the journal are read in order and the changes after the last set
+ * record of each player's currency are recovered at the next startup.
+ * </p>
+ * 
+ * <p>Each record is one line of text:
+ * </p>
+ * <pre>
+ *   D  uuid  currency  amount     A balance change.
+ *   S  uuid  currency  amount     The amount that is not applied yet.
+ *   A  uuid  currency             The changes were applied.  Same as S with 0.
+ * </pre>
+ * 
+ * <p>The fields are separated by tabs, and the default currency is empty.  
+ * A line that was not completely written is ignored.
+ * </p>
+ *
+ */
+public class EconomyLedgerJournal
+{
+	public static final String FLUSHING_SUFFIX = ".flushing";
+	
+	private final File journalFile;
+	private final File flushingFile;
+	
+	private final Queue<String> queue;
+	
+	private FileOutputStream journalOut;
+	private OutputStream journal;
+	
+	private long bytesWritten = 0;
+	
+	public EconomyLedgerJournal( File journalFile ) {
+		super();
+		
+		this.journalFile = journalFile;
+		this.flushingFile = new File( journalFile.getParentFile(), journalFile.getName() + FLUSHING_SUFFIX );
+		
+		this.queue = new ConcurrentLinkedQueue<>();
+	}
+	
+	/**
+	 * <p>The key for a player's currency.  The currency is null for the 
+	 * default currency.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param currency
+	 * @return
+	 */
+	public static String key( UUID playerUuid, String currency ) {
+		return playerUuid.toString() + "\t" + (currency == null ? "" : currency);
+	}
+	
+	/**
+	 * <p>Reads the changes that were not applied before the server stopped.  
+	 * The journal is first rotated in to the flushing file, and the changes 
+	 * are totaled for each player's currency.  The recovered changes must be 
+	 * put back in to the ledger without being journaled again, since they are
+	 * still within the flushing file until the next flush applies them.  That 
+	 * way they are never recovered twice, even if the server stops again 
+	 * before the next flush.
+	 * </p>
+	 * 
+	 * @return The total of the changes, by key().
+	 * @throws IOException
+	 */
+	public synchronized Map<String, Double> recover() 
+			throws IOException {
+		
+		Map<String, Double> results = new LinkedHashMap<>();
+		
+		rotate();
+		
+		readFile( flushingFile, results );
+		
+		// Currencies that were set to zero do not need to be recovered:
+		results.values().removeIf( amount -> amount == 0 );
+		
+		return results;
+	}
+	
+	private void readFile( File file, Map<String, Double> results ) 
+			throws IOException {
+		
+		if ( !file.exists() ) {
+			return;
+		}
+		
+		try ( BufferedReader reader = Files.newBufferedReader( file.toPath(), StandardCharsets.UTF_8 ) ) {
+			
+			String line;
+			while ( (line = reader.readLine()) != null ) {
+				
+				String[] parts = line.split( "\t", -1 );
+				
+				try {
+					if ( parts.length == 4 && "D".equals( parts[0] ) ) {
+						
+						String key = key( UUID.fromString( parts[1] ), 
+										parts[2].isEmpty() ? null : parts[2] );
+						double amount = Double.parseDouble( parts[3] );
+						
+						results.merge( key, amount, Double::sum );
+					}
+					else if ( parts.length == 4 && "S".equals( parts[0] ) ) {
+						
+						String key = key( UUID.fromString( parts[1] ), 
+								parts[2].isEmpty() ? null : parts[2] );
+						double amount = Double.parseDouble( parts[3] );
+						
+						// Replaces all of the changes before this:
+						results.put( key, amount );
+					}
+					else if ( parts.length == 3 && "A".equals( parts[0] ) ) {
+						
+						String key = key( UUID.fromString( parts[1] ), 
+										parts[2].isEmpty() ? null : parts[2] );
+						
+						// All of the changes before this were applied:
+						results.put( key, 0d );
+					}
+				}
+				catch ( IllegalArgumentException e ) {
+					// An incomplete line, so ignore it.
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>Queues a change.  It is written to the journal file with the next
+	 * writeQueued(), which the ledger calls on its commit interval.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param currency
+	 * @param amount
+	 */
+	public void append( UUID playerUuid, String currency, double amount ) {
+		
+		queue.add( "D\t" + key( playerUuid, currency ) + "\t" + Double.toString( amount ) + "\n" );
+	}
+	
+	/**
+	 * <p>Queues the amount that is still not applied for a player's currency.
+	 * This replaces all of the changes that were queued before it for that 
+	 * currency, so it must be queued while holding the account's lock.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param currency
+	 * @param unapplied
+	 */
+	public void appendSet( UUID playerUuid, String currency, double unapplied ) {
+		
+		queue.add( "S\t" + key( playerUuid, currency ) + "\t" + Double.toString( unapplied ) + "\n" );
+	}
+	
+	/**
+	 * <p>Writes all of the queued records to the journal file in one buffered
+	 * write, and then forces them to the disk so they survive a crash.
+	 * </p>
+	 * 
+	 * @return The number of records that were written.
+	 * @throws IOException
+	 */
+	public synchronized int writeQueued() 
+			throws IOException {
+		int count = 0;
+		
+		if ( queue.isEmpty() ) {
+			return count;
+		}
+		
+		if ( journal == null ) {
+			journalFile.getParentFile().mkdirs();
+			journalOut = new FileOutputStream( journalFile, true );
+			journal = new BufferedOutputStream( journalOut );
+		}
+		
+		String line;
+		while ( (line = queue.poll()) != null ) {
+			
+			byte[] bytes = line.getBytes( StandardCharsets.UTF_8 );
+			
+			journal.write( bytes );
+			bytesWritten += bytes.length;
+			count++;
+		}
+		
+		journal.flush();
+		journalOut.getChannel().force( false );
+		
+		return count;
+	}
+	
+	/**
+	 * <p>Moves the journal to the flushing file, so the changes that are made 
+	 * while the ledger is applying the changes are written to a new journal.  
+	 * The queued records are written first, so they are in the flushing file.
+	 * If there is already a flushing file, because the last flush did not 
+	 * finish, then it is kept and the journal is appended to it.
+	 * </p>
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void rotate() 
+			throws IOException {
+		
+		writeQueued();
+		
+		if ( journal != null ) {
+			journal.close();
+			journal = null;
+			journalOut = null;
+		}
+		
+		if ( journalFile.exists() ) {
+			
+			if ( flushingFile.exists() ) {
+				
+				try ( OutputStream out = new FileOutputStream( flushingFile, true ) ) {
+					Files.copy( journalFile.toPath(), out );
+				}
+				Files.delete( journalFile.toPath() );
+			}
+			else {
+				Files.move( journalFile.toPath(), flushingFile.toPath(), 
+						StandardCopyOption.REPLACE_EXISTING );
+			}
+		}
+	}
+	
+	/**
+	 * <p>The ledger has applied the changes that were in the flushing file, 
+	 * and has queued a set record for each of them, so the flushing file is 
+	 * no longer needed.  The set records are written before the flushing file
+	 * is deleted.
+	 * </p>
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void flushFinished() 
+			throws IOException {
+		
+		writeQueued();
+		
+		Files.deleteIfExists( flushingFile.toPath() );
+	}
+	
+	public synchronized void close() 
+			throws IOException {
+		
+		writeQueued();
+		
+		if ( journal != null ) {
+			journal.close();
+			journal = null;
+			journalOut = null;
+		}
+	}
+	
+	public File getJournalFile() {
+		return journalFile;
+	}
+
+	public File getFlushingFile() {
+		return flushingFile;
+	}
+
+	public synchronized long getBytesWritten() {
+		return bytesWritten;
+	}
+}
@@ -1,17 +1,26 @@
 package tech.mcprison.prison.cache;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
+import tech.mcprison.prison.placeholders.PlaceholderValueCache;
 import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 
 
@@ -25,6 +34,9 @@ public class PlayerCache {
 	public static final int PLAYER_CACHE_TIME_TO_LIVE_VALUE_SEC = 30 * 60; // 30 mins
 	public static final long PLAYER_CACHE_TIME_TO_LIVE_VALUE_MS = 30 * 60 * 1000; // 30 mins
 	
+	public static final String PLAYER_CACHE_PRELOAD_TIME_TO_LIVE_CONFIG_NAME = "player-cache.preload-time-to-live-sec";
+	public static final int PLAYER_CACHE_PRELOAD_TIME_TO_LIVE_VALUE_SEC = 120; // 2 mins
+	
 	public static final String PLAYER_CACHE_UPDATE_PLAYER_STATS_CONFIG_NAME = "player-cache.update-player-stats-sec";
 	public static final int PLAYER_CACHE_UPDATE_PLAYER_STATS_SEC = 30; // 30 Sec
 	
@@ -45,10 +57,19 @@ public class PlayerCache {
 	
 	private Map<PlayerCacheRunnable, PlayerCachePlayerData> tasks;
 	
+	/**
+	 * <p>The players that are being loaded, so there is only one load for 
+	 * each player at a time.
+	 * </p>
+	 */
+	private Map<String, CompletableFuture<PlayerCachePlayerData>> loading;
+	
 	private PlayerCacheRunnable saveAllTask;
 	
 	private PlayerCacheRunnable checkTimersTask;
 	
+	private PlayerCacheWriteBehind writeBehind;
+	
 	
 	private PlayerCache() {
 		super();
@@ -57,6 +78,8 @@ public class PlayerCache {
 		
 		this.tasks = Collections.synchronizedMap( new HashMap<>() );
 		
+		this.loading = new ConcurrentHashMap<>();
+		
 		this.cacheFiles = new PlayerCacheFiles();
 		
 		
@@ -87,6 +110,16 @@ public class PlayerCache {
 		saveAllTask = submitCacheRefresh();
 		
 		checkTimersTask = submitCacheUpdatePlayerStats();
+		
+		if ( Prison.get().getPlatform().getConfigBooleanTrue( 
+				PlayerCacheWriteBehind.PLAYER_CACHE_WRITE_BEHIND_CONFIG_NAME ) ) {
+			
+			long delayTicks = Prison.get().getPlatform().getConfigLong( 
+					PlayerCacheWriteBehind.PLAYER_CACHE_WRITE_BEHIND_DELAY_CONFIG_NAME, 
+					PlayerCacheWriteBehind.PLAYER_CACHE_WRITE_BEHIND_DELAY_VALUE_TICKS );
+			
+			writeBehind = new PlayerCacheWriteBehind( getCacheFiles(), getStats(), delayTicks );
+		}
 
 	}
 	
@@ -128,9 +161,18 @@ public class PlayerCache {
 		PrisonTaskSubmitter.cancelTask( checkTimersTask.getTaskId() );
 
 		
+		// Save the players that have left, but have not been saved yet:
+		if ( writeBehind != null ) {
+			
+			PrisonTaskSubmitter.cancelTask( writeBehind.getTaskId() );
+			writeBehind.flush();
+		}
+		
 		// save all dirty cache items and purge cache:
 		if ( getPlayers().size() > 0 ) {
 
+			List<PlayerCachePlayerData> batch = new ArrayList<>();
+
 
 			Set<String> keys = getPlayers().keySet();
 
@@ -149,9 +191,9 @@ public class PlayerCache {
 						// Since the disable function has been called, we can only assume the
 						// server is shutting down.  We need to save dirty player caches, but
 						// they must be done in-line so the shutdown process will wait for all
-						// players to be saved.
+						// players to be saved.  They are all saved together after this loop.
 						
-						getCacheFiles().toJsonFile( playerData );
+						batch.add( playerData );
 						
 						if ( playerData.getTask() != null ) {
 							
@@ -166,6 +208,13 @@ public class PlayerCache {
 				}
 			}
 			
+			try {
+				saveBatch( batch );
+			}
+			catch ( IOException e ) {
+				Output.get().logError( "PlayerCache: Unable to save " + batch.size() + 
+						" players while shutting down: " + e.getMessage(), e );
+			}
 		}
 		
 		// Cancel and flush any uncompleted tasks that are scheduled to run:
@@ -201,7 +250,7 @@ public class PlayerCache {
 		}
 		
 		// Shutdown the connections:
-		
+		getCacheFiles().close();
 	}
 
 	
@@ -215,7 +264,74 @@ public class PlayerCache {
 				getPlayers().put( playerData.getPlayerUuid(), playerData );
 			}
 			
+			playerData.updateTopNStats();
+		}
+	}
+	
+	/**
+	 * <p>Saves the player.  If write-behind is enabled, then the player is 
+	 * saved with the next batch, otherwise it is saved now, in this thread.
+	 * </p>
+	 * 
+	 * @param playerData
+	 */
+	public void savePlayerData( PlayerCachePlayerData playerData ) {
+		
+		if ( writeBehind != null ) {
+			writeBehind.enqueue( playerData );
+		}
+		else if ( playerData != null ) {
+			
+			try {
+				getCacheFiles().save( playerData );
+				getStats().incrementSaveBatch( 1 );
+			}
+			catch ( IOException e ) {
+				
+				// Put the player back in the cache, marked as dirty, so they
+				// are saved by the next save all players task:
+				playerData.setDirty( true );
+				
+				synchronized ( getPlayers() ) {
+					getPlayers().putIfAbsent( playerData.getPlayerUuid(), playerData );
+				}
+				
+				Output.get().logError( "PlayerCache: Unable to save the player " + 
+						playerData.getPlayerName() + ". Will try again with the " +
+						"next save of all players. " + e.getMessage(), e );
+			}
+		}
+	}
+	
+	/**
+	 * <p>Saves all of the players together, in this thread.  If they cannot
+	 * be saved, then the IOException is thrown, so the caller can keep them.
+	 * </p>
+	 * 
+	 * @param players
+	 * @throws IOException
+	 */
+	public void saveBatch( List<PlayerCachePlayerData> players ) 
+			throws IOException {
+		
+		getCacheFiles().saveBatch( players );
+		getStats().incrementSaveBatch( players.size() );
+	}
+	
+	/**
+	 * <p>Writes all of the players that are stored in the player cache log
+	 * to their json files.
+	 * </p>
+	 * 
+	 * @return The number of players that were exported.
+	 */
+	public int exportJson() {
+		
+		if ( writeBehind != null ) {
+			writeBehind.flush();
 		}
+		
+		return getCacheFiles().exportJson();
 	}
 	
 	public PlayerCachePlayerData removePlayerData( PlayerCachePlayerData playerData ) {
@@ -227,6 +343,8 @@ public class PlayerCache {
 				
 				removed = getPlayers().remove( playerData.getPlayerUuid() );
 			}
+			
+			TopNStatsSingleton.getInstance().remove( playerData.getPlayerUuid() );
 		}
 		return removed;
 	}
@@ -266,7 +384,11 @@ public class PlayerCache {
 	
 	/**
 	 * <p>This returns the cached player object.  If they have not been loaded
-	 * yet, then this will load the player object while waiting for it.
+	 * yet, then this will load the player object while waiting for it.  If 
+	 * the player is already being loaded by another thread, then this waits 
+	 * for that load to finish.  Either way, this is counted as a synchronous 
+	 * load fallback, which should not happen if the players are preloaded
+	 * when they log in.
 	 * </p>
 	 * 
 	 * <p>This used to return a null while submitting a loadPlayer task.
@@ -295,18 +417,22 @@ public class PlayerCache {
 			}
 			else if ( loadIfNotInCache ) {
 				
-				// Load the player's existing balance:
-				playerData = getCacheFiles().fromJson( player );
+				getStats().incrementSyncLoadFallback();
+				
+				// Load the player's existing balance, in this thread, unless another
+				// thread is already loading them:
+				try {
+					playerData = loadPlayerData( playerUuid, player.getName(), player, true ).join();
+				}
+				catch ( CompletionException e ) {
+					Output.get().logError( "PlayerCache: Unable to load player " + 
+							player.getName() + ": " + e.getMessage(), e.getCause() );
+				}
 				
 				// NOTE: playerData.isOnline() is dynamic and tied back to the Player object.
 				//       So if they are offline, an OfflinePlayer, then it will automatically
 				//       track that.  Also if the PlayerData object does not have a reference
 				///      to Player, then it's automatically considered offline.
-				
-				// Save it to the cache:
-				addPlayerData( playerData );
-//			runLoadPlayerNow( player );
-//			submitAsyncLoadPlayer( player );
 			}
 			
 			if ( playerData != null  ) {
@@ -322,20 +448,175 @@ public class PlayerCache {
 		
 		return playerData;
 	}
-
-
-	protected void submitAsyncLoadPlayer( Player player ) {
 	
-		if ( player != null ) {
+	/**
+	 * <p>This never waits for the player to be loaded.  If the player is not 
+	 * in the cache, then the player is loaded asynchronously, and a null is 
+	 * returned.  The functions that use this must treat a null as the default 
+	 * view of the player, where all of their stats are zero, until they have 
+	 * been loaded.
+	 * </p>
+	 * 
+	 * @param player
+	 * @return
+	 */
+	private PlayerCachePlayerData getPlayerView( Player player ) {
+		PlayerCachePlayerData playerData = getPlayer( player, false );
+		
+		if ( playerData == null && player != null && player.getUUID() != null ) {
 			
-			PlayerCacheLoadPlayerTask task = new PlayerCacheLoadPlayerTask( player );
+			// The lookup has already been counted, so load them without looking
+			// them up a second time:
+			loadPlayerAsync( player );
+		}
+		
+		return playerData;
+	}
+	
+	/**
+	 * <p>Returns the cached player when they have been loaded.  If they are
+	 * already in the cache, then the returned future is already completed.
+	 * Otherwise they are loaded asynchronously.
+	 * </p>
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public CompletableFuture<PlayerCachePlayerData> getPlayerAsync( Player player ) {
+		
+		PlayerCachePlayerData playerData = getPlayer( player, false );
+		
+		if ( playerData != null || player == null || player.getUUID() == null ) {
+			return CompletableFuture.completedFuture( playerData );
+		}
+		
+		return loadPlayerAsync( player );
+	}
+	
+	private CompletableFuture<PlayerCachePlayerData> loadPlayerAsync( Player player ) {
+		
+		return loadPlayerData( player.getUUID().toString(), player.getName(), player, false )
+				.thenApply( pData -> {
+					
+					if ( pData != null && 
+							(pData.getPlayer() == null || !pData.getPlayer().equals( player )) ) {
+						
+						pData.setPlayer( player );
+					}
+					return pData;
+				});
+	}
+	
+	/**
+	 * <p>This is called while the player is logging in, before they have joined
+	 * the server, so their data is loaded before anything needs it.  This is 
+	 * ran on the async login thread, so the player is loaded in that thread.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param playerName
+	 */
+	public void preloadPlayer( UUID playerUuid, String playerName ) {
+		
+		if ( playerUuid != null && !getPlayers().containsKey( playerUuid.toString() ) ) {
 			
-			// Submit task to run right away:
-			int taskId = PrisonTaskSubmitter.runTaskLaterAsync( task, 0 );
-			task.setTaskId( taskId );
+			getStats().incrementPreloadPlayer();
+			
+			loadPlayerData( playerUuid.toString(), playerName, null, true );
 		}
 	}
 	
+	/**
+	 * <p>Returns the future for the player's load.  If the player is not already
+	 * being loaded, then the load is started, either within this thread, or 
+	 * in an async task.  There is only ever one load for a player at a time, 
+	 * so every caller that needs the player while they are being loaded gets 
+	 * the same future.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param playerName
+	 * @param player This may be null if the player has not joined yet.
+	 * @param inline If true, then the load is ran within this thread.
+	 * @return
+	 */
+	private CompletableFuture<PlayerCachePlayerData> loadPlayerData( String playerUuid, 
+						String playerName, Player player, boolean inline ) {
+		
+		CompletableFuture<PlayerCachePlayerData> newFuture = new CompletableFuture<>();
+		
+		CompletableFuture<PlayerCachePlayerData> future = 
+								getLoading().putIfAbsent( playerUuid, newFuture );
+		
+		if ( future == null ) {
+			future = newFuture;
+			
+			Runnable load = () -> completeLoad( playerUuid, playerName, player, newFuture );
+			
+			if ( inline ) {
+				load.run();
+			}
+			else {
+				getStats().incrementAsyncLoad();
+				
+				PrisonTaskSubmitter.runTaskLaterAsync( load, 0 );
+			}
+		}
+		
+		return future;
+	}
+	
+	/**
+	 * <p>Loads the player's data from storage, adds it to the cache, and then
+	 * completes the future.  If the player left, and has not been saved yet, 
+	 * then that data is used since what is stored is older.  The player is 
+	 * added to the cache before they are removed from the loading map, so 
+	 * they can always be found in one or the other.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param playerName
+	 * @param player
+	 * @param future
+	 */
+	private void completeLoad( String playerUuid, String playerName, Player player, 
+						CompletableFuture<PlayerCachePlayerData> future ) {
+		try {
+			PlayerCachePlayerData playerData = null;
+			
+			synchronized ( getPlayers() ) {
+				playerData = getPlayers().get( playerUuid );
+			}
+			
+			if ( playerData == null && writeBehind != null ) {
+				playerData = writeBehind.getPending( playerUuid );
+			}
+			
+			if ( playerData == null ) {
+				playerData = getCacheFiles().load( playerUuid, playerName, player );
+			}
+			
+			if ( playerData != null && player != null && playerData.getPlayer() == null ) {
+				playerData.setPlayer( player );
+			}
+			
+			addPlayerData( playerData );
+			
+			future.complete( playerData );
+		}
+		catch ( Exception e ) {
+			future.completeExceptionally( e );
+		}
+		finally {
+			getLoading().remove( playerUuid, future );
+		}
+	}
+	
+	protected void submitAsyncLoadPlayer( Player player ) {
+	
+		getPlayerAsync( player );
+	}
+	
 	
 //	/**
 //	 * <p>This loads the player cache object inline.  It does not run it as a 
@@ -363,6 +644,9 @@ public class PlayerCache {
 	
 	protected void submitAsyncUnloadPlayer( Player player ) {
 		
+		// The player's cached placeholder values are no longer needed:
+		PlaceholderValueCache.getInstance().removePlayer( player.getUUID() );
+		
 		PlayerCachePlayerData playerData = getPlayer( player, false );
 		
 		if ( playerData != null ) {
@@ -441,6 +725,10 @@ public class PlayerCache {
 		
 		playerData.addBlock( mine, blockName, quantity );
 		
+		// Only the placeholders for the player's block counts have changed:
+		PlaceholderValueCache.getInstance().invalidatePlayer( player.getUUID(), 
+				PlaceholderFlags.PLAYERBLOCKS, PlaceholderFlags.MINEPLAYERS );
+		
 		if ( player.isMinecraftStatisticsEnabled() ) {
 			
 			player.incrementMinecraftStatsMineBlock( player, blockName, quantity );
@@ -468,7 +756,7 @@ public class PlayerCache {
 	public double getPlayerEarningsPerMinute( Player player ) {
 		double earningsPerMinute = 0;
 		
-		PlayerCachePlayerData playerData = getPlayer( player );
+		PlayerCachePlayerData playerData = getPlayerView( player );
 		
 		if ( playerData != null ) {
 			earningsPerMinute = playerData.getAverageEarningsPerMinute();
@@ -481,7 +769,7 @@ public class PlayerCache {
 	{
 		long blocksTotal = 0;
 		
-		PlayerCachePlayerData playerData = getPlayer( player );
+		PlayerCachePlayerData playerData = getPlayerView( player );
 		
 		if ( playerData != null ) {
 			blocksTotal = playerData.getBlocksTotal();
@@ -493,7 +781,7 @@ public class PlayerCache {
 	{
 		long blocksTotalByMine = 0;
 		
-		PlayerCachePlayerData playerData = getPlayer( player );
+		PlayerCachePlayerData playerData = getPlayerView( player );
 		
 		if ( playerData != null && mineName != null && playerData.getBlocksByMine() != null &&
 				playerData.getBlocksByMine().containsKey( mineName ) ) {
@@ -507,7 +795,7 @@ public class PlayerCache {
 	{
 		long blocksTotalByBlockType = 0;
 		
-		PlayerCachePlayerData playerData = getPlayer( player );
+		PlayerCachePlayerData playerData = getPlayerView( player );
 		
 		if ( playerData != null && blockType != null && playerData.getBlocksByType() != null &&
 				playerData.getBlocksByType().containsKey( blockType ) ) {
@@ -579,5 +867,13 @@ public class PlayerCache {
 		return tasks;
 	}
 
+	protected Map<String, CompletableFuture<PlayerCachePlayerData>> getLoading() {
+		return loading;
+	}
+
+	public PlayerCacheWriteBehind getWriteBehind() {
+		return writeBehind;
+	}
+
 
 }
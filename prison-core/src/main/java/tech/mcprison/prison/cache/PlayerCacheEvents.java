@@ -6,6 +6,7 @@ import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.events.player.PlayerJoinEvent;
 import tech.mcprison.prison.internal.events.player.PlayerKickEvent;
+import tech.mcprison.prison.internal.events.player.PlayerPreLoginEvent;
 import tech.mcprison.prison.internal.events.player.PlayerQuitEvent;
 
 /**
@@ -47,9 +48,23 @@ public class PlayerCacheEvents
 //                new SpigotPlayer(e.getPlayer()), e.getReason()));
 //    }
     
+    /**
+     * <p>This is ran on the async login thread, so the player's cache is loaded
+     * before they join, and nothing has to wait for it to load.
+     * </p>
+     * 
+     * @param event
+     */
+    @Subscribe
+    public void onPlayerPreLogin(PlayerPreLoginEvent event) {
+    	
+    	PlayerCache.getInstance().preloadPlayer( event.getPlayerUuid(), event.getPlayerName() );
+    }
+    
     @Subscribe
     public void onPlayerJoin(PlayerJoinEvent event) {
     	
+    	// If the player was preloaded, then this only attaches the Player:
     	Player player = event.getPlayer();
     	PlayerCache.getInstance().submitAsyncLoadPlayer( player );
     }
@@ -1,20 +1,40 @@
 package tech.mcprison.prison.cache;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.JsonParseException;
+
+import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.output.Output;
 
 /**
  * <p>This class is intended to be kept online and active for the full
- * life of the server.  It is intended to be used for the source point 
+ * life of the server.  It is intended to be used for the source point
  * for accessing the PlayerCache files and directory.  Plus this class
  * is intended to manage the ORM (Java Objects to json files).
  * </p>
- * 
- * <p>It should be noted that the loading and saving of the Player's 
- * data should always be done asynchronously.  This class makes no 
+ *
+ * <p>It should be noted that the loading and saving of the Player's
+ * data should always be done asynchronously.  This class makes no
  * attempt to control that aspect, but it is intended that these functions
  * will be used through an asyc thread.
  * </p>
- * 
+ *
+ * <p>The players can either be stored as one json file per player, which is
+ * the default, or in one append-only log for all players, which is selected
+ * with the config setting player-cache.storage.format.  When using the log,
+ * the players that have a json file, but are not yet in the log, are loaded
+ * from their json file and will be added to the log the next time they are
+ * saved.  The log can be exported back to the json files at any time.
+ * </p>
+ *
  * @author RoyalBlueRanger
  *
  */
@@ -22,18 +42,277 @@ public class PlayerCacheFiles
 	extends CoreCacheFiles
 {
 	public static final String FILE_PLAYER_CACHE_PATH = "data_storage/playerCache";
-	
-	
+
+	public static final String FILE_PLAYER_CACHE_LOG = "playerCache.dat";
+
+	public static final String PLAYER_CACHE_STORAGE_FORMAT_CONFIG_NAME = "player-cache.storage.format";
+	public static final String PLAYER_CACHE_COMPACTION_RATIO_CONFIG_NAME = "player-cache.storage.compaction-ratio";
+	public static final String PLAYER_CACHE_COMPACTION_MIN_BYTES_CONFIG_NAME = "player-cache.storage.compaction-min-bytes";
+
+	public static final double PLAYER_CACHE_COMPACTION_RATIO_VALUE = 2.0d;
+	public static final long PLAYER_CACHE_COMPACTION_MIN_BYTES_VALUE = 1024 * 1024;
+
+	public enum PlayerCacheStorageFormat {
+		json,
+		log;
+
+		public static PlayerCacheStorageFormat fromString( String format ) {
+			PlayerCacheStorageFormat results = json;
+
+			for ( PlayerCacheStorageFormat value : values() ) {
+				if ( value.name().equalsIgnoreCase( format ) ) {
+					results = value;
+					break;
+				}
+			}
+
+			return results;
+		}
+	}
+
+	private PlayerCacheStorageFormat storageFormat = null;
+
+	private PlayerCacheLogStore logStore = null;
+
+
 	public PlayerCacheFiles() {
 		super( FILE_PLAYER_CACHE_PATH );
-		
+
 	}
 
 	public PlayerCachePlayerData fromJson( Player player ) {
 		
-		CoreCacheData results = fromJson( player, PlayerCachePlayerData.class );
-		
-		return (PlayerCachePlayerData) results;
+		return load( player.getUUID().toString(), player.getName(), player );
+	}
+
+	/**
+	 * <p>Loads the player.  When using the log, and they are not in the log, 
+	 * then their json file is used if they have one.  If they do not have any
+	 * saved data, then they are a new player and they are saved.
+	 * </p>
+	 * 
+	 * <p>The Player may be null, such as when the player is preloaded while 
+	 * they are logging in.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 * @param playerName
+	 * @param player
+	 * @return
+	 */
+	public PlayerCachePlayerData load( String playerUuid, String playerName, Player player ) {
+		PlayerCachePlayerData results = null;
+
+		File playerFile = getCachedFileMatch( getPlayerFileName( playerUuid, playerName ) );
+
+		if ( getStorageFormat() == PlayerCacheStorageFormat.log ) {
+			
+			results = fromLog( playerUuid, playerFile );
+		}
+
+		if ( results == null && playerFile.exists() ) {
+
+			results = (PlayerCachePlayerData) fromJsonFile( playerFile, PlayerCachePlayerData.class );
+		}
+
+		if ( results == null ) {
+			results = player == null ? 
+					new PlayerCachePlayerData( playerUuid, playerName, playerFile ) :
+					new PlayerCachePlayerData( player, playerFile );
+
+			// Then save it:
+			try {
+				save( results );
+			}
+			catch ( IOException e ) {
+				// Keep it dirty so it is saved with the next save of all players:
+				results.setDirty( true );
+				
+				Output.get().logError( "PlayerCache: Unable to save the new player " + 
+						playerName + ": " + e.getMessage(), e );
+			}
+		}
+
+		return results;
 	}
-	
+
+	private PlayerCachePlayerData fromLog( String playerUuid, File playerFile ) {
+		PlayerCachePlayerData results = null;
+
+		try {
+			byte[] payload = getLogStore().read( playerUuid );
+
+			if ( payload != null ) {
+
+				results = getGsonCompact().fromJson(
+						new String( payload, StandardCharsets.UTF_8 ), PlayerCachePlayerData.class );
+
+				if ( results != null && playerFile != null ) {
+					results.setPlayerFile( playerFile );
+				}
+			}
+		}
+		catch ( IOException | JsonParseException e ) {
+			Output.get().logError( "PlayerCache: Unable to read the player " + playerUuid +
+					" from the player cache log: " + e.getMessage(), e );
+		}
+
+		return results;
+	}
+
+	public void save( PlayerCachePlayerData playerData ) 
+			throws IOException {
+		if ( playerData != null ) {
+			saveBatch( Collections.singletonList( playerData ) );
+		}
+	}
+
+	/**
+	 * <p>Saves all of the players.  When using the log, all of the players are
+	 * written to the log in one batch, and then the log is compacted if it has
+	 * grown too large.  Otherwise, each player is saved to their json file.
+	 * </p>
+	 *
+	 * <p>If the log cannot be written, then the IOException is thrown so the
+	 * caller can keep the players and save them again later.
+	 * </p>
+	 *
+	 * @param players
+	 * @throws IOException
+	 */
+	public void saveBatch( Collection<PlayerCachePlayerData> players ) 
+			throws IOException {
+
+		if ( players.isEmpty() ) {
+			return;
+		}
+
+		if ( getStorageFormat() == PlayerCacheStorageFormat.log ) {
+
+			Map<String, byte[]> records = new LinkedHashMap<>();
+
+			for ( PlayerCachePlayerData playerData : players ) {
+
+				records.put( playerData.getPlayerUuid(),
+						getGsonCompact().toJson( playerData ).getBytes( StandardCharsets.UTF_8 ) );
+			}
+
+			PlayerCacheLogStore store = getLogStore();
+
+			store.append( records );
+
+			try {
+				if ( store.isCompactionNeeded( getConfigCompactionRatio(), getConfigCompactionMinBytes() ) ) {
+					store.compact();
+				}
+			}
+			catch ( IOException e ) {
+				// The records were already appended, so they are safe.  The
+				// compaction will be tried again after the next batch:
+				Output.get().logError( "PlayerCache: Unable to compact the player cache log: " +
+						e.getMessage(), e );
+			}
+		}
+		else {
+
+			for ( PlayerCachePlayerData playerData : players ) {
+				toJsonFile( playerData );
+			}
+		}
+	}
+
+	/**
+	 * <p>Writes every player that is within the log to their json file, so the
+	 * data can be used by anything that still reads the json files, or so the
+	 * storage format can be switched back to json.
+	 * </p>
+	 *
+	 * @return The number of players that were exported.
+	 */
+	public int exportJson() {
+		int count = 0;
+
+		if ( getStorageFormat() == PlayerCacheStorageFormat.log ) {
+
+			for ( String playerUuid : getLogStore().keys() ) {
+
+				PlayerCachePlayerData playerData = fromLog( playerUuid, null );
+
+				if ( playerData != null ) {
+
+					File playerFile = getCachedFileMatch(
+							getPlayerFileName( playerUuid, playerData.getPlayerName() ) );
+					playerData.setPlayerFile( playerFile );
+
+					toJsonFile( playerData );
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	public void close() {
+		if ( logStore != null ) {
+			try {
+				logStore.close();
+			}
+			catch ( IOException e ) {
+				Output.get().logError( "PlayerCache: Unable to close the player cache log: " +
+						e.getMessage(), e );
+			}
+		}
+	}
+
+	public synchronized PlayerCacheLogStore getLogStore() {
+		if ( logStore == null ) {
+			logStore = new PlayerCacheLogStore( new File( getPlayerFilePath(), FILE_PLAYER_CACHE_LOG ) );
+			
+			try {
+				logStore.open();
+				
+				if ( logStore.getInvalidFile() != null ) {
+					Output.get().logWarn( "PlayerCache: The player cache log was not valid, " +
+							"so it was renamed and a new log was started: " + 
+							logStore.getInvalidFile().getAbsolutePath() );
+				}
+				if ( logStore.getTruncatedBytes() > 0 ) {
+					Output.get().logWarn( String.format( 
+							"PlayerCache: Found %d bytes that were not a complete record at " +
+							"the end of the player cache log. They were removed: %s", 
+							logStore.getTruncatedBytes(), 
+							logStore.getLogFile().getAbsolutePath() ) );
+				}
+			}
+			catch ( IOException e ) {
+				Output.get().logError( "PlayerCache: Unable to open the player cache log: " + 
+						e.getMessage(), e );
+			}
+		}
+		return logStore;
+	}
+
+	public PlayerCacheStorageFormat getStorageFormat() {
+		if ( storageFormat == null ) {
+			storageFormat = PlayerCacheStorageFormat.fromString(
+					Prison.get().getPlatform().getConfigString(
+							PLAYER_CACHE_STORAGE_FORMAT_CONFIG_NAME, PlayerCacheStorageFormat.json.name() ) );
+		}
+		return storageFormat;
+	}
+	public void setStorageFormat( PlayerCacheStorageFormat storageFormat ) {
+		this.storageFormat = storageFormat;
+	}
+
+	private double getConfigCompactionRatio() {
+		return Prison.get().getPlatform().getConfigDouble(
+				PLAYER_CACHE_COMPACTION_RATIO_CONFIG_NAME, PLAYER_CACHE_COMPACTION_RATIO_VALUE );
+	}
+
+	private long getConfigCompactionMinBytes() {
+		return Prison.get().getPlatform().getConfigLong(
+				PLAYER_CACHE_COMPACTION_MIN_BYTES_CONFIG_NAME, PLAYER_CACHE_COMPACTION_MIN_BYTES_VALUE );
+	}
+
 }
@@ -0,0 +1,487 @@
+package tech.mcprison.prison.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * <p>This is a single, append-only file that holds the saved data for all of
+ * the players.  Each save appends a new record for the player, and the latest
+ * record for each player is the one that is used.  A batch of players is
+ * written with one write and one sync to the disk, instead of a temp file,
+ * a delete, and a rename for each player.
+ * </p>
+ *
+ * <p>The file starts with a header of a magic number and a version.  Each
+ * record has a record marker, the length and the UTF-8 bytes of the key, the
+ * length and the bytes of the payload, and a CRC32 of the key and payload.
+ * When the file is opened, all of the records are scanned to build an index
+ * of where the latest record for each key is located.  If the last record is
+ * incomplete, or its CRC does not match, such as if the server was killed
+ * while writing, then the file is truncated at the end of the last good
+ * record, and the number of bytes that were removed are tracked so the
+ * caller can report them.
+ * </p>
+ *
+ * <p>Since the old records are never overwritten, the file will grow over
+ * time.  When the file is larger than the live records by the compaction
+ * ratio, then it can be compacted, which writes only the latest records to
+ * a new file that then replaces the old file.
+ * </p>
+ *
+ */
+public class PlayerCacheLogStore
+{
+	public static final int FILE_MAGIC = 0x50434C47; // PCLG
+	public static final int FILE_VERSION = 1;
+	public static final int FILE_HEADER_SIZE = 8;
+
+	public static final int RECORD_MAGIC = 0x52454331; // REC1
+
+	/**
+	 * <p>The record marker, the key length, the payload length, and the CRC.
+	 * </p>
+	 */
+	public static final int RECORD_OVERHEAD = 4 + 2 + 4 + 4;
+
+	public static final String FILE_SUFFIX_COMPACT = ".compact";
+
+	private final File logFile;
+
+	private RandomAccessFile raf;
+
+	/**
+	 * <p>The key maps to the offset of the payload, the length of the payload,
+	 * and the length of the whole record.
+	 * </p>
+	 */
+	private final Map<String, long[]> index;
+
+	private long liveBytes = 0;
+
+	private int compactions = 0;
+
+	private long truncatedBytes = 0;
+	private File invalidFile = null;
+
+	public PlayerCacheLogStore( File logFile ) {
+		super();
+
+		this.logFile = logFile;
+
+		this.index = new HashMap<>();
+	}
+
+	/**
+	 * <p>Opens the log file, or creates it if it does not exist, and builds the
+	 * index from the records within the file.
+	 * </p>
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void open()
+			throws IOException {
+
+		if ( raf != null ) {
+			return;
+		}
+
+		index.clear();
+		liveBytes = 0;
+
+		if ( logFile.getParentFile() != null ) {
+			logFile.getParentFile().mkdirs();
+		}
+
+		raf = new RandomAccessFile( logFile, "rw" );
+
+		if ( raf.length() < FILE_HEADER_SIZE ) {
+			writeHeader( raf );
+		}
+		else if ( raf.readInt() != FILE_MAGIC || raf.readInt() != FILE_VERSION ) {
+
+			// This is not a file that can be read, so keep it and start a new one:
+			raf.close();
+			raf = null;
+
+			File invalid = new File( logFile.getParentFile(),
+					CoreCacheFiles.FILE_PREFIX_BACKUP + logFile.getName() +
+					CoreCacheFiles.FILE_SUFFIX_BACKUP );
+			logFile.renameTo( invalid );
+
+			invalidFile = invalid;
+
+			raf = new RandomAccessFile( logFile, "rw" );
+			writeHeader( raf );
+		}
+		else {
+			scan();
+		}
+	}
+
+	private void writeHeader( RandomAccessFile file )
+			throws IOException {
+		file.setLength( 0 );
+		file.seek( 0 );
+		file.writeInt( FILE_MAGIC );
+		file.writeInt( FILE_VERSION );
+	}
+
+	/**
+	 * <p>Reads all of the records to find the latest record for each key.  This
+	 * stops at the first record that is incomplete or does not pass the CRC
+	 * check, and the file is truncated at that point.
+	 * </p>
+	 *
+	 * @throws IOException
+	 */
+	private void scan()
+			throws IOException {
+
+		long length = raf.length();
+		long position = FILE_HEADER_SIZE;
+
+		CRC32 crc = new CRC32();
+
+		while ( position + RECORD_OVERHEAD <= length ) {
+
+			raf.seek( position );
+
+			if ( raf.readInt() != RECORD_MAGIC ) {
+				break;
+			}
+
+			int keyLength = raf.readUnsignedShort();
+
+			if ( position + RECORD_OVERHEAD + keyLength > length ) {
+				break;
+			}
+
+			byte[] key = new byte[keyLength];
+			raf.readFully( key );
+
+			int payloadLength = raf.readInt();
+			long recordLength = RECORD_OVERHEAD + keyLength + (long) payloadLength;
+
+			if ( payloadLength < 0 || position + recordLength > length ) {
+				break;
+			}
+
+			long payloadOffset = raf.getFilePointer();
+
+			byte[] payload = new byte[payloadLength];
+			raf.readFully( payload );
+
+			crc.reset();
+			crc.update( key );
+			crc.update( payload );
+
+			if ( raf.readInt() != (int) crc.getValue() ) {
+				break;
+			}
+
+			index( new String( key, StandardCharsets.UTF_8 ),
+					payloadOffset, payloadLength, recordLength );
+
+			position += recordLength;
+		}
+
+		if ( position < length ) {
+
+			truncatedBytes += length - position;
+
+			raf.setLength( position );
+		}
+	}
+
+	private void index( String key, long payloadOffset, int payloadLength, long recordLength ) {
+
+		long[] prior = index.put( key, new long[] { payloadOffset, payloadLength, recordLength } );
+
+		if ( prior != null ) {
+			liveBytes -= prior[2];
+		}
+		liveBytes += recordLength;
+	}
+
+	/**
+	 * <p>Appends all of the records to the end of the log with one write, and
+	 * then forces them to the disk once for the whole batch.  If the write or
+	 * the force fails, such as when the disk is full, then the log is 
+	 * truncated back to where the batch started, so a partial batch does not 
+	 * hide the records that are appended after it.
+	 * </p>
+	 *
+	 * @param records The key and payload for each record.
+	 * @return The number of bytes that were written.
+	 * @throws IOException
+	 */
+	public synchronized long append( Map<String, byte[]> records )
+			throws IOException {
+
+		open();
+
+		if ( records.isEmpty() ) {
+			return 0;
+		}
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( baos );
+
+		CRC32 crc = new CRC32();
+
+		// The offset of each payload within the batch, so they can be indexed
+		// after the batch has been written:
+		Map<String, long[]> batchIndex = new HashMap<>();
+
+		for ( Map.Entry<String, byte[]> record : records.entrySet() ) {
+
+			byte[] key = record.getKey().getBytes( StandardCharsets.UTF_8 );
+			byte[] payload = record.getValue();
+
+			crc.reset();
+			crc.update( key );
+			crc.update( payload );
+
+			out.writeInt( RECORD_MAGIC );
+			out.writeShort( key.length );
+			out.write( key );
+			out.writeInt( payload.length );
+
+			long payloadOffset = out.size();
+			out.write( payload );
+			out.writeInt( (int) crc.getValue() );
+
+			batchIndex.put( record.getKey(), new long[] { payloadOffset, payload.length,
+							RECORD_OVERHEAD + key.length + (long) payload.length } );
+		}
+
+		out.flush();
+
+		long start = raf.length();
+
+		try {
+			raf.seek( start );
+			writeBatch( raf, baos.toByteArray() );
+		}
+		catch ( IOException e ) {
+			try {
+				raf.setLength( start );
+			}
+			catch ( IOException e2 ) {
+				e.addSuppressed( e2 );
+			}
+			throw e;
+		}
+
+		for ( Map.Entry<String, long[]> entry : batchIndex.entrySet() ) {
+			long[] location = entry.getValue();
+
+			index( entry.getKey(), start + location[0], (int) location[1], location[2] );
+		}
+
+		return baos.size();
+	}
+
+	/**
+	 * <p>Writes the batch at the file's current position, and forces it to 
+	 * the disk.
+	 * </p>
+	 *
+	 * @param file
+	 * @param batch
+	 * @throws IOException
+	 */
+	protected void writeBatch( RandomAccessFile file, byte[] batch )
+			throws IOException {
+		file.write( batch );
+		file.getChannel().force( false );
+	}
+
+	/**
+	 * <p>Returns the payload of the latest record for the key, or null if there
+	 * is no record for the key.
+	 * </p>
+	 *
+	 * @param key
+	 * @return
+	 * @throws IOException
+	 */
+	public synchronized byte[] read( String key )
+			throws IOException {
+		byte[] results = null;
+
+		open();
+
+		long[] location = index.get( key );
+
+		if ( location != null ) {
+			results = new byte[(int) location[1]];
+
+			raf.seek( location[0] );
+			raf.readFully( results );
+		}
+
+		return results;
+	}
+
+	public synchronized boolean contains( String key ) {
+		return index.containsKey( key );
+	}
+
+	public synchronized Set<String> keys() {
+		return Collections.unmodifiableSet( new TreeSet<>( index.keySet() ) );
+	}
+
+	/**
+	 * <p>Returns true if the file is at least the minimum size, and if it is
+	 * larger than the live records by more than the ratio.
+	 * </p>
+	 *
+	 * @param ratio
+	 * @param minimumBytes
+	 * @return
+	 * @throws IOException
+	 */
+	public synchronized boolean isCompactionNeeded( double ratio, long minimumBytes )
+			throws IOException {
+		long fileSize = getFileSize();
+
+		return fileSize >= minimumBytes &&
+				fileSize > (FILE_HEADER_SIZE + liveBytes) * ratio;
+	}
+
+	/**
+	 * <p>Writes only the latest record for each key to a new file, and then
+	 * replaces the log with the new file.  The new file is forced to the disk
+	 * before it replaces the old file, so there will always be one complete
+	 * log.
+	 * </p>
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void compact()
+			throws IOException {
+
+		open();
+
+		File compactFile = new File( logFile.getParentFile(),
+				logFile.getName() + FILE_SUFFIX_COMPACT + CoreCacheFiles.FILE_SUFFIX_TEMP );
+
+		try ( RandomAccessFile compact = new RandomAccessFile( compactFile, "rw" ); ) {
+
+			writeHeader( compact );
+
+			CRC32 crc = new CRC32();
+
+			for ( String keyString : new TreeSet<>( index.keySet() ) ) {
+
+				byte[] key = keyString.getBytes( StandardCharsets.UTF_8 );
+				byte[] payload = read( keyString );
+
+				crc.reset();
+				crc.update( key );
+				crc.update( payload );
+
+				ByteArrayOutputStream baos = new ByteArrayOutputStream( payload.length + key.length + RECORD_OVERHEAD );
+				DataOutputStream out = new DataOutputStream( baos );
+
+				out.writeInt( RECORD_MAGIC );
+				out.writeShort( key.length );
+				out.write( key );
+				out.writeInt( payload.length );
+				out.write( payload );
+				out.writeInt( (int) crc.getValue() );
+				out.flush();
+
+				compact.write( baos.toByteArray() );
+			}
+
+			compact.getChannel().force( true );
+		}
+
+		close();
+
+		try {
+			Files.move( compactFile.toPath(), logFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch ( AtomicMoveNotSupportedException e ) {
+			Files.move( compactFile.toPath(), logFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING );
+		}
+
+		compactions++;
+
+		open();
+	}
+
+	public synchronized void close()
+			throws IOException {
+		if ( raf != null ) {
+			raf.close();
+			raf = null;
+		}
+	}
+
+	public synchronized long getFileSize()
+			throws IOException {
+		return raf == null ? logFile.length() : raf.length();
+	}
+
+	/**
+	 * <p>The number of bytes used by the latest record for each key.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public synchronized long getLiveBytes() {
+		return liveBytes;
+	}
+
+	public synchronized int size() {
+		return index.size();
+	}
+
+	public int getCompactions() {
+		return compactions;
+	}
+
+	/**
+	 * <p>The number of bytes that were removed from the end of the log because
+	 * they were not a complete record.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public long getTruncatedBytes() {
+		return truncatedBytes;
+	}
+
+	/**
+	 * <p>If the log was not a valid log file, then it was renamed to this file
+	 * and a new log was started.  Otherwise this is null.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public File getInvalidFile() {
+		return invalidFile;
+	}
+
+	public File getLogFile() {
+		return logFile;
+	}
+}
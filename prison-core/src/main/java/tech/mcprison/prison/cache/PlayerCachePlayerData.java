@@ -113,6 +113,10 @@ public class PlayerCachePlayerData
 	
 	private transient boolean dirty = false;
 	
+	// When this player's data was created or loaded, which is used to keep 
+	// the players that are preloaded while logging in until they join:
+	private transient long loadedTime;
+	
 	
 	public enum SessionType {
 		active,
@@ -123,6 +127,8 @@ public class PlayerCachePlayerData
 	public PlayerCachePlayerData() {
 		super();
 		
+		this.loadedTime = System.currentTimeMillis();
+		
 		this.blocksByMine = new TreeMap<>();
 		this.blocksByType = new TreeMap<>();
 
@@ -173,10 +179,44 @@ public class PlayerCachePlayerData
 		
 	}
 
+	/**
+	 * <p>This is used when the player is loaded before there is a Player 
+	 * object, such as when they are preloaded while logging in.  The Player
+	 * is set when the player is retrieved from the cache.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param playerName
+	 * @param playerFile
+	 */
+	public PlayerCachePlayerData( String playerUuid, String playerName, File playerFile ) {
+		this();
+		
+		this.playerUuid = playerUuid;
+		this.playerName = playerName;
+		
+		this.playerFile = playerFile;
+	}
+
 	public boolean isOnline() {
 		return getPlayer() != null && getPlayer().isOnline();
 	}
 	
+	/**
+	 * <p>Returns true if this player was loaded without a Player object, such 
+	 * as when they are preloaded while logging in, and it is still within 
+	 * the preload time to live.  These players are not purged as offline 
+	 * players, since they should be joining the server.
+	 * </p>
+	 * 
+	 * @param preloadTimeToLiveMs
+	 * @return
+	 */
+	public boolean isPreloadPending( long preloadTimeToLiveMs ) {
+		return getPlayer() == null && 
+				(System.currentTimeMillis() - loadedTime) < preloadTimeToLiveMs;
+	}
+	
 	public void checkTimers() {
 
 		if ( isOnline() ) {
@@ -637,6 +677,19 @@ public class PlayerCachePlayerData
 		dirty = true;
 	}
 	
+	/**
+	 * <p>Places the player on the blocks and tokens TopN leaderboards, with 
+	 * their current stats.  This is called when the player is loaded, and each
+	 * time they are saved, instead of every time the stats change.
+	 * </p>
+	 */
+	public void updateTopNStats() {
+		TopNStatsSingleton topN = TopNStatsSingleton.getInstance();
+		
+		topN.updateBlocks( getPlayerUuid(), getPlayerName(), blocksTotal );
+		topN.updateTokens( getPlayerUuid(), getPlayerName(), tokens );
+	}
+	
 	public void setTokensAdmin( long newBalance ) {
 		
 		if ( this.tokens > newBalance ) {
@@ -55,6 +55,7 @@ public class PlayerCacheSaveAllPlayersTask
 		PlayerCache pCache = PlayerCache.getInstance();
 		
 		List<PlayerCachePlayerData> purge = new ArrayList<>();
+		List<PlayerCachePlayerData> batch = new ArrayList<>();
 		
 		
 		long lastSeenInterval = Prison.get().getPlatform().getConfigInt( 
@@ -62,6 +63,11 @@ public class PlayerCacheSaveAllPlayersTask
 				PlayerCache.PLAYER_CACHE_TIME_TO_LIVE_VALUE_SEC
 				);
 		
+		long preloadTimeToLiveMs = 1000L * Prison.get().getPlatform().getConfigInt( 
+				PlayerCache.PLAYER_CACHE_PRELOAD_TIME_TO_LIVE_CONFIG_NAME,
+				PlayerCache.PLAYER_CACHE_PRELOAD_TIME_TO_LIVE_VALUE_SEC
+				);
+		
 		Set<String> keys = pCache.getPlayers().keySet();
 		
 		for ( String key : keys )
@@ -90,19 +96,8 @@ public class PlayerCacheSaveAllPlayersTask
 				
 				if ( playerData.isDirty() ) {
 					
-					try
-					{
-						playerData.setDirty( false );
-						pCache.getCacheFiles().toJsonFile( playerData );
-					}
-					catch ( Exception e )
-					{
-						String message = String.format( 
-								"PlayerCache: Error trying to save a player's " +
-										"cache data. Will try again later. " +
-										"%s", e.getMessage() );
-						Output.get().logError( message, e );
-					}
+					playerData.setDirty( false );
+					batch.add( playerData );
 				}
 			}
 			
@@ -110,11 +105,39 @@ public class PlayerCacheSaveAllPlayersTask
 			// If a cached item is found with the player being offline, then 
 			// purge them from the cache.  They were usually added only because
 			// some process had to inspect their stats, so they are safe to remove.
-			if (  playerData != null && !playerData.isOnline() ) {
+			// The players that were just preloaded while logging in are kept, 
+			// since they do not have their Player yet.
+			if (  playerData != null && !playerData.isOnline() &&
+					!playerData.isPreloadPending( preloadTimeToLiveMs ) ) {
 				purge.add( playerData );
 			}
 		}
 		
+		// All of the dirty players are saved together in one batch:
+		try
+		{
+			pCache.saveBatch( batch );
+			
+			// The leaderboards are only updated when the players are saved:
+			for ( PlayerCachePlayerData playerData : batch ) {
+				playerData.updateTopNStats();
+			}
+		}
+		catch ( Exception e )
+		{
+			// Mark them as dirty again so they are not purged and will be saved
+			// the next time this runs:
+			for ( PlayerCachePlayerData playerData : batch ) {
+				playerData.setDirty( true );
+			}
+			
+			String message = String.format( 
+					"PlayerCache: Error trying to save the players' " +
+							"cache data. Will try again later. " +
+							"%s", e.getMessage() );
+			Output.get().logError( message, e );
+		}
+		
 		synchronized ( pCache.getPlayers() ) {
 			
 			for ( PlayerCachePlayerData playerData : purge ) {
@@ -122,6 +145,7 @@ public class PlayerCacheSaveAllPlayersTask
 					if ( !playerData.isDirty() ) {
 						
 						pCache.getPlayers().remove( playerData.getPlayerUuid() );
+						TopNStatsSingleton.getInstance().remove( playerData.getPlayerUuid() );
 					}
 				}
 				catch ( Exception e ) {
@@ -14,16 +14,23 @@ public class PlayerCacheStats {
 	private int submitDatabaseUpdate = 0;
 	private int synchronizePlayers = 0;
 	
+	private int saveBatch = 0;
+	private int savePlayer = 0;
+	
+	private int asyncLoad = 0;
+	private int preloadPlayer = 0;
+	private int syncLoadFallback = 0;
+	
 	
 	private Object lock1 = new Object();
 	private Object lock2 = new Object();
 	private Object lock3 = new Object();
 	private Object lock4 = new Object();
 	private Object lock5 = new Object();
-//	private Object lock6 = new Object();
-//	private Object lock7 = new Object();
-//	private Object lock8 = new Object();
-//	private Object lock9 = new Object();
+	private Object lock6 = new Object();
+	private Object lock7 = new Object();
+	private Object lock8 = new Object();
+	private Object lock9 = new Object();
 //	private Object lockA = new Object();
 	private Object lockB = new Object();
 	
@@ -62,6 +69,13 @@ public class PlayerCacheStats {
 			.append( " submitDatabaseUpdate=" ).append( getSubmitDatabaseUpdate() )
 			.append( " synchronizeDatabase=" ).append( getSynchronizePlayers() )
 			
+			.append( " saveBatch=" ).append( getSaveBatch() )
+			.append( " savePlayer=" ).append( getSavePlayer() )
+			
+			.append( " asyncLoad=" ).append( getAsyncLoad() )
+			.append( " preloadPlayer=" ).append( getPreloadPlayer() )
+			.append( " syncLoadFallback=" ).append( getSyncLoadFallback() )
+			
 			;
 		
 		return sb.toString();
@@ -79,6 +93,12 @@ public class PlayerCacheStats {
 		setSubmitDatabaseUpdate( 0 );
 		setSynchronizePlayers( 0 );
 		
+		setSaveBatch( 0 );
+		setSavePlayer( 0 );
+		
+		setAsyncLoad( 0 );
+		setPreloadPlayer( 0 );
+		setSyncLoadFallback( 0 );
 		
 	}
 	
@@ -119,6 +139,51 @@ public class PlayerCacheStats {
 			}
 		}
 	}
+	
+	/**
+	 * <p>Counts one batch of saved players, and how many players were in it.
+	 * </p>
+	 * 
+	 * @param players
+	 */
+	public void incrementSaveBatch( int players ) {
+		if ( enabled && players > 0 ) {
+			synchronized ( lock6 ) {
+				saveBatch++;
+				savePlayer += players;
+			}
+		}
+	}
+	
+	public void incrementAsyncLoad() {
+		if ( enabled ) {
+			synchronized ( lock7 ) {
+				asyncLoad++;
+			}
+		}
+	}
+	public void incrementPreloadPlayer() {
+		if ( enabled ) {
+			synchronized ( lock8 ) {
+				preloadPlayer++;
+			}
+		}
+	}
+	
+	/**
+	 * <p>Counts the times a thread had to wait for a player to be loaded, 
+	 * because the player was not already in the cache.  If the players are 
+	 * being preloaded when they log in, then this should stay at zero.
+	 * </p>
+	 */
+	public void incrementSyncLoadFallback() {
+		if ( enabled ) {
+			synchronized ( lock9 ) {
+				syncLoadFallback++;
+			}
+		}
+	}
+	
 	public void incrementSubmitSynchronizePlayers() {
 		if ( enabled ) {
 			synchronized ( lockB ) {
@@ -177,4 +242,40 @@ public class PlayerCacheStats {
 		this.synchronizePlayers = synchronizePlayers;
 	}
 
+	public int getSaveBatch() {
+		return saveBatch;
+	}
+	public void setSaveBatch( int saveBatch ) {
+		this.saveBatch = saveBatch;
+	}
+
+	public int getSavePlayer() {
+		return savePlayer;
+	}
+	public void setSavePlayer( int savePlayer ) {
+		this.savePlayer = savePlayer;
+	}
+
+
+	public int getAsyncLoad() {
+		return asyncLoad;
+	}
+	public void setAsyncLoad( int asyncLoad ) {
+		this.asyncLoad = asyncLoad;
+	}
+
+	public int getPreloadPlayer() {
+		return preloadPlayer;
+	}
+	public void setPreloadPlayer( int preloadPlayer ) {
+		this.preloadPlayer = preloadPlayer;
+	}
+
+	public int getSyncLoadFallback() {
+		return syncLoadFallback;
+	}
+	public void setSyncLoadFallback( int syncLoadFallback ) {
+		this.syncLoadFallback = syncLoadFallback;
+	}
+
 }
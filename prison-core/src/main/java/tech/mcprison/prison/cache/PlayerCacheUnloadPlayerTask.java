@@ -23,7 +23,7 @@ public class PlayerCacheUnloadPlayerTask
 		
 		if ( removed != null ) {
 			
-			pCache.getCacheFiles().toJsonFile( removed );
+			pCache.savePlayerData( removed );
 		}
 		
 	}
@@ -0,0 +1,188 @@
+package tech.mcprison.prison.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>This collects the players that need to be saved, and then saves them
+ * all in one batch, asynchronously, after a short delay.  If a player is
+ * added more than once before the batch is saved, then they are only saved
+ * once.  So when many players leave at the same time, such as when the
+ * server is restarting, they are saved together instead of one at a time.
+ * </p>
+ *
+ * <p>Until a player has been saved, their data is kept here, so if they
+ * rejoin before they have been saved, then this data is used instead of
+ * loading the older data from the disk.
+ * </p>
+ *
+ * <p>If a batch cannot be saved, then its players are put back in to the
+ * pending players and the batch is submitted again, so their data is not
+ * lost.
+ * </p>
+ *
+ */
+public class PlayerCacheWriteBehind
+		extends PlayerCacheRunnable
+{
+	public static final String PLAYER_CACHE_WRITE_BEHIND_CONFIG_NAME = "player-cache.storage.write-behind";
+	public static final String PLAYER_CACHE_WRITE_BEHIND_DELAY_CONFIG_NAME = "player-cache.storage.write-behind-delay-ticks";
+	public static final int PLAYER_CACHE_WRITE_BEHIND_DELAY_VALUE_TICKS = 100; // 5 seconds
+
+	private final PlayerCacheFiles cacheFiles;
+	private final PlayerCacheStats stats;
+
+	private final Map<String, PlayerCachePlayerData> pending;
+
+	/**
+	 * <p>The players that are being saved.  They are kept until they have
+	 * been saved, so they can still be found by getPending().
+	 * </p>
+	 */
+	private final Map<String, PlayerCachePlayerData> inFlight;
+
+	private final AtomicBoolean submitted;
+
+	private long delayTicks;
+
+	public PlayerCacheWriteBehind( PlayerCacheFiles cacheFiles, PlayerCacheStats stats, long delayTicks ) {
+		super();
+
+		this.cacheFiles = cacheFiles;
+		this.stats = stats;
+
+		this.pending = new ConcurrentHashMap<>();
+		this.inFlight = new ConcurrentHashMap<>();
+
+		this.submitted = new AtomicBoolean( false );
+
+		this.delayTicks = delayTicks;
+	}
+
+	/**
+	 * <p>Adds the player to the next batch, and submits the batch to be saved
+	 * if it has not already been submitted.
+	 * </p>
+	 *
+	 * @param playerData
+	 */
+	public void enqueue( PlayerCachePlayerData playerData ) {
+
+		if ( playerData != null && playerData.getPlayerUuid() != null ) {
+
+			pending.put( playerData.getPlayerUuid(), playerData );
+
+			submit();
+		}
+	}
+
+	private void submit() {
+
+		if ( submitted.compareAndSet( false, true ) ) {
+
+			int taskId = PrisonTaskSubmitter.runTaskLaterAsync( this, delayTicks );
+			setTaskId( taskId );
+		}
+	}
+
+	@Override
+	public void run() {
+		submitted.set( false );
+
+		flush();
+
+		// If the batch failed, then try again after the delay:
+		if ( !pending.isEmpty() ) {
+			submit();
+		}
+	}
+
+	/**
+	 * <p>Saves all of the pending players in one batch.  This is ran in the
+	 * calling thread, so when the server is shutting down, it can be called
+	 * directly so all of the players are saved before it finishes.
+	 * </p>
+	 *
+	 * <p>If the batch fails, then the players are put back in to the pending
+	 * players, unless they have been enqueued again with newer data.
+	 * </p>
+	 *
+	 * @return The number of players that were saved.
+	 */
+	public synchronized int flush() {
+
+		List<PlayerCachePlayerData> batch = new ArrayList<>();
+
+		for ( String playerUuid : pending.keySet() ) {
+
+			PlayerCachePlayerData playerData = pending.remove( playerUuid );
+
+			if ( playerData != null ) {
+				inFlight.put( playerUuid, playerData );
+				batch.add( playerData );
+			}
+		}
+
+		int count = 0;
+
+		try {
+			cacheFiles.saveBatch( batch );
+			stats.incrementSaveBatch( batch.size() );
+
+			count = batch.size();
+		}
+		catch ( IOException e ) {
+
+			for ( PlayerCachePlayerData playerData : batch ) {
+				pending.putIfAbsent( playerData.getPlayerUuid(), playerData );
+			}
+
+			Output.get().logError( "PlayerCache: Unable to save " + batch.size() +
+					" players. They will be saved with the next batch. " +
+					e.getMessage(), e );
+		}
+		finally {
+			for ( PlayerCachePlayerData playerData : batch ) {
+				inFlight.remove( playerData.getPlayerUuid(), playerData );
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * <p>Returns the player's data if they are waiting to be saved, otherwise
+	 * it returns a null.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 * @return
+	 */
+	public PlayerCachePlayerData getPending( String playerUuid ) {
+		PlayerCachePlayerData results = pending.get( playerUuid );
+
+		if ( results == null ) {
+			results = inFlight.get( playerUuid );
+		}
+
+		return results;
+	}
+
+	public int size() {
+		return pending.size() + inFlight.size();
+	}
+
+	public long getDelayTicks() {
+		return delayTicks;
+	}
+	public void setDelayTicks( long delayTicks ) {
+		this.delayTicks = delayTicks;
+	}
+}
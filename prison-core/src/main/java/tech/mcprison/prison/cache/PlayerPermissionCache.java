@@ -0,0 +1,236 @@
+package tech.mcprison.prison.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.google.common.eventbus.Subscribe;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.internal.events.player.PlayerJoinEvent;
+import tech.mcprison.prison.internal.events.player.PlayerKickEvent;
+import tech.mcprison.prison.internal.events.player.PlayerQuitEvent;
+
+/**
+ * <p>Holds a PlayerPermissionSnapshot for each online player, so the 
+ * permission checks that are made for every block break, every sale, and every
+ * block converter, do not have to go through the permission plugin each time.
+ * </p>
+ * 
+ * <p>A player's snapshot is taken when they join, and is taken again once it 
+ * is older than the setting permission-cache.ttl-ms.  It is also dropped when 
+ * the permission plugin reports that the player's permissions have changed, 
+ * if the permission plugin supports that, and when the player leaves.
+ * </p>
+ * 
+ * <p>Players that are not online, such as a RankPlayer, are always checked 
+ * directly, since they may not have any permissions to take a snapshot of.
+ * </p>
+ *
+ */
+public class PlayerPermissionCache
+{
+	public static final String PERMISSION_CACHE_ENABLED_CONFIG_NAME = "permission-cache.enabled";
+	public static final String PERMISSION_CACHE_TTL_CONFIG_NAME = "permission-cache.ttl-ms";
+	
+	public static final long PERMISSION_CACHE_TTL_VALUE = 30000;
+	
+	private static PlayerPermissionCache instance;
+	
+	private final Map<UUID, PlayerPermissionSnapshot> snapshots;
+	
+	private boolean enabled;
+	private long ttlMs;
+	
+	private long snapshotCount = 0;
+	
+	private PlayerPermissionCache() {
+		super();
+		
+		this.snapshots = new ConcurrentHashMap<>();
+		
+		reloadConfig();
+		
+		Prison.get().getEventBus().register( this );
+	}
+	
+	public static PlayerPermissionCache getInstance() {
+		if ( instance == null ) {
+			synchronized ( PlayerPermissionCache.class ) {
+				if ( instance == null ) {
+					instance = new PlayerPermissionCache();
+				}
+			}
+		}
+		return instance;
+	}
+	
+	public void reloadConfig() {
+		
+		this.enabled = Prison.get().getPlatform().getConfigBooleanTrue( PERMISSION_CACHE_ENABLED_CONFIG_NAME );
+		this.ttlMs = Prison.get().getPlatform().getConfigLong( 
+				PERMISSION_CACHE_TTL_CONFIG_NAME, PERMISSION_CACHE_TTL_VALUE );
+		
+		invalidateAll();
+	}
+	
+	/**
+	 * <p>Gets the player's snapshot, and takes a new one if they do not have 
+	 * one, or if it has expired.  Returns null if the player is not online, or 
+	 * if the cache is disabled.
+	 * </p>
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public PlayerPermissionSnapshot getSnapshot( Player player ) {
+		
+		if ( !enabled || player == null || !player.isOnline() ) {
+			return null;
+		}
+		
+		long now = System.currentTimeMillis();
+		
+		PlayerPermissionSnapshot results = snapshots.get( player.getUUID() );
+		
+		if ( results == null || results.isExpired( now, ttlMs ) ) {
+			
+			results = takeSnapshot( player, now );
+		}
+		
+		return results;
+	}
+	
+	private PlayerPermissionSnapshot takeSnapshot( Player player, long now ) {
+		
+		List<String> perms = player.getPermissions();
+		
+		PlayerPermissionSnapshot results = new PlayerPermissionSnapshot( player.getUUID(), 
+				perms == null ? new ArrayList<>() : perms, now );
+		
+		snapshots.put( player.getUUID(), results );
+		snapshotCount++;
+		
+		return results;
+	}
+	
+	public boolean hasPermission( Player player, String perm ) {
+		PlayerPermissionSnapshot snapshot = getSnapshot( player );
+		
+		return snapshot == null ? 
+				player.hasPermission( perm ) : 
+				snapshot.hasPermission( player, perm );
+	}
+	
+	public List<String> getPermissions( Player player, String prefix ) {
+		PlayerPermissionSnapshot snapshot = getSnapshot( player );
+		
+		return snapshot == null ? 
+				player.getPermissions( prefix ) : 
+				snapshot.getPermissions( prefix );
+	}
+	
+	/**
+	 * <p>The numbers at the end of the player's permissions that start with the
+	 * prefix.  See PlayerPermissionSnapshot.getNumericValues().
+	 * </p>
+	 * 
+	 * @param player
+	 * @param prefix
+	 * @return The values, which must not be changed.
+	 */
+	public double[] getNumericValues( Player player, String prefix ) {
+		PlayerPermissionSnapshot snapshot = getSnapshot( player );
+		
+		if ( snapshot == null ) {
+			snapshot = new PlayerPermissionSnapshot( player.getUUID(), 
+					player.getPermissions( prefix ), System.currentTimeMillis() );
+		}
+		
+		return snapshot.getNumericValues( prefix );
+	}
+	
+	/**
+	 * <p>Gets a value that was calculated from the player's permissions, and 
+	 * keeps it with their snapshot.  See PlayerPermissionSnapshot.getDerived().
+	 * If the player does not have a snapshot, then it is always calculated.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param key
+	 * @param calculate
+	 * @return
+	 */
+	public <T> T getDerived( Player player, Object key, Function<Object, T> calculate ) {
+		PlayerPermissionSnapshot snapshot = getSnapshot( player );
+		
+		return snapshot == null ? 
+				calculate.apply( key ) : 
+				snapshot.getDerived( key, calculate );
+	}
+	
+	/**
+	 * <p>Drops the player's snapshot, so a new one is taken the next time their
+	 * permissions are checked.  This should be called whenever their 
+	 * permissions are changed.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 */
+	public void invalidate( UUID playerUuid ) {
+		if ( playerUuid != null ) {
+			snapshots.remove( playerUuid );
+		}
+	}
+	
+	/**
+	 * <p>Drops all of the snapshots, such as when the permissions of a group
+	 * have changed.
+	 * </p>
+	 */
+	public void invalidateAll() {
+		snapshots.clear();
+	}
+	
+	@Subscribe
+	public void onPlayerJoin( PlayerJoinEvent event ) {
+		
+		Player player = event.getPlayer();
+		
+		if ( enabled && player != null ) {
+			takeSnapshot( player, System.currentTimeMillis() );
+		}
+	}
+	
+	@Subscribe
+	public void onPlayerQuit( PlayerQuitEvent event ) {
+		
+		invalidate( event.getPlayer().getUUID() );
+	}
+	
+	@Subscribe
+	public void onPlayerKicked( PlayerKickEvent event ) {
+		
+		invalidate( event.getPlayer().getUUID() );
+	}
+	
+	public int getSize() {
+		return snapshots.size();
+	}
+	
+	public long getSnapshotCount() {
+		return snapshotCount;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public long getTtlMs() {
+		return ttlMs;
+	}
+}
@@ -0,0 +1,202 @@
+package tech.mcprison.prison.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import tech.mcprison.prison.internal.Player;
+
+/**
+ * <p>The permissions of one player at the time the snapshot was taken.  The 
+ * permissions are sorted, so all of the permissions that start with a prefix 
+ * can be found without checking every permission the player has.  
+ * </p>
+ * 
+ * <p>The results of hasPermission() and of the numeric permissions, such as 
+ * the sellall multipliers, are remembered the first time each one is asked 
+ * for, so they are only checked with the permission plugin, or parsed, once 
+ * for each snapshot.
+ * </p>
+ * 
+ * <p>Other values that only depend on the player's permissions, such as which
+ * block converter outputs the player can get, can also be kept with the 
+ * snapshot, so they are recalculated when the player's permissions change.
+ * </p>
+ *
+ */
+public class PlayerPermissionSnapshot
+{
+	private static final double[] NO_VALUES = new double[0];
+	
+	private final UUID playerUuid;
+	private final long createdMs;
+	
+	private final NavigableSet<String> permissions;
+	
+	private final Map<String, Boolean> checks;
+	private final Map<String, double[]> numericValues;
+	private final Map<Object, Object> derivedValues;
+	
+	public PlayerPermissionSnapshot( UUID playerUuid, Collection<String> permissions, long createdMs ) {
+		super();
+		
+		this.playerUuid = playerUuid;
+		this.createdMs = createdMs;
+		
+		this.permissions = Collections.unmodifiableNavigableSet( new TreeSet<>( permissions ) );
+		
+		this.checks = new ConcurrentHashMap<>();
+		this.numericValues = new ConcurrentHashMap<>();
+		this.derivedValues = new ConcurrentHashMap<>();
+	}
+	
+	/**
+	 * <p>Checks the permission with the player the first time, and then the
+	 * results are used for the rest of the life of the snapshot.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param perm
+	 * @return
+	 */
+	public boolean hasPermission( Player player, String perm ) {
+		Boolean results = checks.get( perm );
+		
+		if ( results == null ) {
+			results = player.hasPermission( perm );
+			checks.put( perm, results );
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>All of the player's permissions that start with the prefix.
+	 * </p>
+	 * 
+	 * @param prefix
+	 * @return
+	 */
+	public List<String> getPermissions( String prefix ) {
+		
+		// Every permission that starts with the prefix is sorted between the prefix,
+		// and the prefix followed by the highest character:
+		return new ArrayList<>( permissions.subSet( prefix, true, prefix + Character.MAX_VALUE, false ) );
+	}
+	
+	/**
+	 * <p>The numbers at the end of the player's permissions that start with the
+	 * prefix, such as 1.5 for the permission prison.sellall.multiplier.1.5 with 
+	 * the prefix prison.sellall.multiplier.  The permissions that do not end 
+	 * with a number are ignored.
+	 * </p>
+	 * 
+	 * @param prefix
+	 * @return The values, which must not be changed.
+	 */
+	public double[] getNumericValues( String prefix ) {
+		double[] results = numericValues.get( prefix );
+		
+		if ( results == null ) {
+			results = parseNumericValues( prefix );
+			numericValues.put( prefix, results );
+		}
+		
+		return results;
+	}
+	
+	private double[] parseNumericValues( String prefix ) {
+		List<String> perms = getPermissions( prefix );
+		
+		if ( perms.isEmpty() ) {
+			return NO_VALUES;
+		}
+		
+		double[] values = new double[ perms.size() ];
+		int count = 0;
+		
+		for ( String perm : perms ) {
+			try {
+				values[count] = Double.parseDouble( perm.substring( prefix.length() ) );
+				count++;
+			}
+			catch ( NumberFormatException e ) {
+				// Not a number, so ignore it.
+			}
+		}
+		
+		double[] results = new double[ count ];
+		System.arraycopy( values, 0, results, 0, count );
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Gets a value that was calculated from the player's permissions, and
+	 * calculates it the first time it is asked for.  The key must not be 
+	 * shared with anything else that uses this.
+	 * </p>
+	 * 
+	 * @param key
+	 * @param calculate Must not use getDerived() on this snapshot.
+	 * @return
+	 */
+	@SuppressWarnings( "unchecked" )
+	public <T> T getDerived( Object key, Function<Object, T> calculate ) {
+		return (T) derivedValues.computeIfAbsent( key, calculate );
+	}
+	
+	public double getNumericSum( String prefix ) {
+		double results = 0;
+		
+		for ( double value : getNumericValues( prefix ) ) {
+			results += value;
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>The highest of the numeric values, or the defaultValue if there
+	 * are none.
+	 * </p>
+	 * 
+	 * @param prefix
+	 * @param defaultValue
+	 * @return
+	 */
+	public double getNumericMax( String prefix, double defaultValue ) {
+		double[] values = getNumericValues( prefix );
+		
+		double results = values.length == 0 ? defaultValue : values[0];
+		
+		for ( double value : values ) {
+			results = Math.max( results, value );
+		}
+		
+		return results;
+	}
+	
+	public boolean isExpired( long now, long ttlMs ) {
+		return now - createdMs >= ttlMs;
+	}
+	
+	public UUID getPlayerUuid() {
+		return playerUuid;
+	}
+
+	public long getCreatedMs() {
+		return createdMs;
+	}
+
+	public NavigableSet<String> getPermissions() {
+		return permissions;
+	}
+}
@@ -0,0 +1,430 @@
+package tech.mcprison.prison.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * <p>A leaderboard that is kept in sorted order as each entry is added,
+ * updated, or removed, so it never has to be sorted as a whole.  It is an
+ * order-statistic tree, where each node knows how many nodes are in its
+ * subtree, so the entry at a given position, and the position of a given
+ * entry, are both found in O(log n).  A page of the top-N entries is found in
+ * O(log n) plus the size of the page.
+ * </p>
+ *
+ * <p>The tree is a treap that is balanced by random priorities.  Each node
+ * has a link to its parent, and the nodes are indexed by their key, so an
+ * entry can be found and removed without comparing it to any other entry.
+ * </p>
+ *
+ * <p>The values that the comparator uses must only be changed through
+ * update() or putOrUpdate().  They remove the entry, change it, and insert it
+ * again while the leaderboard is locked, so no other thread can insert an
+ * entry, or read a position, while an entry is out of its sorted position.
+ * If an entry is changed any other way, then the other entries can no longer
+ * find where they belong.
+ * </p>
+ *
+ * <p>The comparator should never return zero for two different entries,
+ * such as by comparing the names as the last step, otherwise entries with
+ * equal values will be in the order that they were inserted.
+ * </p>
+ *
+ * @param <T>
+ */
+public class TopNLeaderboard<T>
+{
+	private final Comparator<? super T> comparator;
+
+	private final Map<String, Node<T>> nodes;
+
+	private final Random random;
+
+	private Node<T> root;
+
+	public TopNLeaderboard( Comparator<? super T> comparator ) {
+		super();
+
+		this.comparator = comparator;
+
+		this.nodes = new HashMap<>();
+
+		this.random = new Random();
+	}
+
+	/**
+	 * <p>Adds the entry, or if there is already an entry with this key, then
+	 * it is moved to where it now belongs.
+	 * </p>
+	 *
+	 * @param key
+	 * @param value
+	 */
+	public synchronized void put( String key, T value ) {
+
+		Node<T> node = nodes.remove( key );
+
+		if ( node != null ) {
+			unlink( node );
+		}
+
+		node = new Node<>( key, value, random.nextInt() );
+		nodes.put( key, node );
+
+		insert( node );
+	}
+
+	/**
+	 * <p>Changes the entry with this key, and moves it to where it now
+	 * belongs, all while the leaderboard is locked.
+	 * </p>
+	 *
+	 * @param key
+	 * @param mutator Changes the entry's values.
+	 * @return The entry, or null if there is no entry with this key.
+	 */
+	public synchronized T update( String key, Consumer<? super T> mutator ) {
+		T results = null;
+
+		Node<T> node = nodes.get( key );
+
+		if ( node != null ) {
+			unlink( node );
+
+			try {
+				mutator.accept( node.value );
+			}
+			finally {
+				insert( node );
+			}
+
+			results = node.value;
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Changes the entry with this key, and moves it to where it now
+	 * belongs.  If there is no entry with this key, then the supplier
+	 * provides the entry, which is changed and then added.
+	 * </p>
+	 *
+	 * @param key
+	 * @param supplier Provides the entry if it is not in the leaderboard.
+	 * @param mutator Changes the entry's values.
+	 * @return The entry.
+	 */
+	public synchronized T putOrUpdate( String key, Supplier<? extends T> supplier,
+			Consumer<? super T> mutator ) {
+
+		T results = update( key, mutator );
+
+		if ( results == null ) {
+			results = supplier.get();
+
+			mutator.accept( results );
+
+			put( key, results );
+		}
+
+		return results;
+	}
+
+	public synchronized T remove( String key ) {
+		T results = null;
+
+		Node<T> node = nodes.remove( key );
+
+		if ( node != null ) {
+			unlink( node );
+
+			results = node.value;
+		}
+
+		return results;
+	}
+
+	public synchronized T get( String key ) {
+		Node<T> node = nodes.get( key );
+
+		return node == null ? null : node.value;
+	}
+
+	public synchronized boolean contains( String key ) {
+		return nodes.containsKey( key );
+	}
+
+	/**
+	 * <p>Returns the entry at the position, starting with zero, or null if
+	 * the position is out of range.
+	 * </p>
+	 *
+	 * @param position
+	 * @return
+	 */
+	public synchronized T get( int position ) {
+		Node<T> node = select( position );
+
+		return node == null ? null : node.value;
+	}
+
+	/**
+	 * <p>Returns the position of the entry with this key, starting with zero,
+	 * or -1 if there is no entry with this key.
+	 * </p>
+	 *
+	 * @param key
+	 * @return
+	 */
+	public synchronized int positionOf( String key ) {
+		int results = -1;
+
+		Node<T> node = nodes.get( key );
+
+		if ( node != null ) {
+			results = size( node.left );
+
+			for ( Node<T> n = node; n.parent != null; n = n.parent ) {
+				if ( n == n.parent.right ) {
+					results += size( n.parent.left ) + 1;
+				}
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns up to count entries, starting at the position.
+	 * </p>
+	 *
+	 * @param position
+	 * @param count
+	 * @return
+	 */
+	public synchronized List<T> page( int position, int count ) {
+		List<T> results = new ArrayList<>();
+
+		for ( Node<T> node = select( position );
+				node != null && results.size() < count;
+				node = successor( node ) ) {
+			results.add( node.value );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns all of the entries in their sorted order.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public synchronized List<T> toList() {
+		return page( 0, size() );
+	}
+
+	public synchronized int size() {
+		return size( root );
+	}
+
+	public synchronized void clear() {
+		nodes.clear();
+		root = null;
+	}
+
+	private void insert( Node<T> node ) {
+
+		node.left = null;
+		node.right = null;
+		node.parent = null;
+		node.size = 1;
+
+		if ( root == null ) {
+			root = node;
+			return;
+		}
+
+		Node<T> parent = root;
+		while ( true ) {
+			parent.size++;
+
+			if ( comparator.compare( node.value, parent.value ) < 0 ) {
+				if ( parent.left == null ) {
+					parent.left = node;
+					break;
+				}
+				parent = parent.left;
+			}
+			else {
+				if ( parent.right == null ) {
+					parent.right = node;
+					break;
+				}
+				parent = parent.right;
+			}
+		}
+		node.parent = parent;
+
+		while ( node.parent != null && node.priority < node.parent.priority ) {
+			rotateUp( node );
+		}
+	}
+
+	/**
+	 * <p>Removes the node from the tree by rotating it down until it is a
+	 * leaf.  This does not compare any values, so it works even if the node's
+	 * value has been changed.
+	 * </p>
+	 *
+	 * @param node
+	 */
+	private void unlink( Node<T> node ) {
+
+		while ( node.left != null || node.right != null ) {
+
+			Node<T> child =
+					node.left == null ? node.right :
+					node.right == null ? node.left :
+					node.left.priority < node.right.priority ? node.left : node.right;
+
+			rotateUp( child );
+		}
+
+		Node<T> parent = node.parent;
+
+		if ( parent == null ) {
+			root = null;
+		}
+		else if ( parent.left == node ) {
+			parent.left = null;
+		}
+		else {
+			parent.right = null;
+		}
+
+		for ( Node<T> n = parent; n != null; n = n.parent ) {
+			n.size--;
+		}
+
+		node.parent = null;
+	}
+
+	private void rotateUp( Node<T> node ) {
+		Node<T> parent = node.parent;
+		Node<T> grandParent = parent.parent;
+
+		if ( parent.left == node ) {
+			parent.left = node.right;
+			if ( node.right != null ) {
+				node.right.parent = parent;
+			}
+			node.right = parent;
+		}
+		else {
+			parent.right = node.left;
+			if ( node.left != null ) {
+				node.left.parent = parent;
+			}
+			node.left = parent;
+		}
+
+		parent.parent = node;
+		node.parent = grandParent;
+
+		if ( grandParent == null ) {
+			root = node;
+		}
+		else if ( grandParent.left == parent ) {
+			grandParent.left = node;
+		}
+		else {
+			grandParent.right = node;
+		}
+
+		parent.size = size( parent.left ) + size( parent.right ) + 1;
+		node.size = size( node.left ) + size( node.right ) + 1;
+	}
+
+	private Node<T> select( int position ) {
+		Node<T> node = root;
+
+		if ( position < 0 || position >= size( root ) ) {
+			return null;
+		}
+
+		while ( node != null ) {
+			int leftSize = size( node.left );
+
+			if ( position < leftSize ) {
+				node = node.left;
+			}
+			else if ( position > leftSize ) {
+				position -= leftSize + 1;
+				node = node.right;
+			}
+			else {
+				break;
+			}
+		}
+
+		return node;
+	}
+
+	private Node<T> successor( Node<T> node ) {
+		Node<T> results;
+
+		if ( node.right != null ) {
+			results = node.right;
+			while ( results.left != null ) {
+				results = results.left;
+			}
+		}
+		else {
+			results = node.parent;
+			while ( results != null && node == results.right ) {
+				node = results;
+				results = results.parent;
+			}
+		}
+
+		return results;
+	}
+
+	private int size( Node<T> node ) {
+		return node == null ? 0 : node.size;
+	}
+
+	private static class Node<T> {
+
+		private final String key;
+		private final T value;
+		private final int priority;
+
+		private Node<T> left;
+		private Node<T> right;
+		private Node<T> parent;
+
+		private int size = 1;
+
+		public Node( String key, T value, int priority ) {
+			super();
+
+			this.key = key;
+			this.value = value;
+			this.priority = priority;
+		}
+
+		@Override
+		public String toString() {
+			return key;
+		}
+	}
+}
@@ -10,6 +10,9 @@ import java.util.Comparator;
  * balances.
  * </p>
  * 
+ * <p>A player without a rank on a ladder is lower than a player with one.
+ * </p>
+ * 
  * @author Blue
  *
  */
@@ -27,12 +30,12 @@ public class TopNRanksComparator
 			results = 0;
 		}
 		else if ( o1.getTopRankPrestiges() == null ) {
-			// One is not null, so set to 1 and exit:
-			results = 1;
+			// Only o1 has no prestige rank, so it is lower:
+			results = -1;
 		}
 		else if ( o2.getTopRankPrestiges() == null ) {
-			// One is not null, so set to -1 and exit:
-			results = -1;
+			// Only o2 has no prestige rank, so it is lower:
+			results = 1;
 		}
 		else {
 			// Must now evaluate the prestige ranks since both are not null:
@@ -48,10 +51,10 @@ public class TopNRanksComparator
 				results = 0;
 			}
 			else if ( o1.getTopRankDefault() == null ) {
-				results = 1;
+				results = -1;
 			}
 			else if ( o2.getTopRankDefault() == null ) {
-				results = -1;
+				results = 1;
 			}
 			else {
 				
@@ -93,6 +93,10 @@ public class TopNStatsData
 	}
 	public void setTopRankPrestigesName( String topRankPrestigesName ) {
 		this.topRankPrestigesName = topRankPrestigesName;
+		
+		// Look up the new rank the next time it is used:
+		this.topRankPrestiges = null;
+		this.presetigeRankCheck = false;
 	}
 
 	public String getTopRankDefaultName() {
@@ -100,6 +104,10 @@ public class TopNStatsData
 	}
 	public void setTopRankDefaultName( String topRankDefaultName ) {
 		this.topRankDefaultName = topRankDefaultName;
+		
+		// Look up the new rank the next time it is used:
+		this.topRankDefault = null;
+		this.defaultRankCheck = false;
 	}
 
 	public Rank getTopRankPrestiges() {
@@ -1,28 +1,57 @@
 package tech.mcprison.prison.cache;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * <p>The TopN leaderboards for the player stats.  Each leaderboard is kept
+ * in order as the players' stats are updated, so they never have to be 
+ * sorted as a whole, and the position of a player, or a page of the top 
+ * players, can be found without scanning all of the players.  The best 
+ * player on each leaderboard is at position zero.
+ * </p>
+ * 
+ * <p>The leaderboards hold the players that are loaded in the PlayerCache.  
+ * The blocks and tokens are set when the player is loaded and each time the
+ * player is saved, and the player is removed when they are removed from the
+ * PlayerCache.  The balance is updated by the EconomyLedger's batches, and 
+ * the ranks are updated by TopNPlayers when a player's ranks are refreshed, 
+ * but only for the players that are already on the leaderboards.  None of 
+ * them are updated on every block break or balance read.
+ * </p>
+ *
+ */
 public class TopNStatsSingleton
 {
 
 	private static TopNStatsSingleton instance;
 	
-	List<TopNStatsData> mainList;
-
-	List<TopNStatsData> topBlocksList;
-	List<TopNStatsData> topTokensList;
-	List<TopNStatsData> topBalancesList;
+	private final TopNLeaderboard<TopNStatsData> topBlocks;
+	private final TopNLeaderboard<TopNStatsData> topTokens;
+	private final TopNLeaderboard<TopNStatsData> topBalances;
 	
-	List<TopNStatsData> topRanksList;
+	private final TopNLeaderboard<TopNStatsData> topRanks;
 	
+	/**
+	 * <p>The one stats object for each player, which is shared by all of the
+	 * leaderboards.  Each comparator only uses its own stat, except for the 
+	 * ranks, which also uses the balance.
+	 * </p>
+	 */
+	private final Map<String, TopNStatsData> players;
 	
 	
 	private TopNStatsSingleton() {
 		super();
 	
-		this.mainList = new ArrayList<>();
+		this.topBlocks = new TopNLeaderboard<>( highestFirst( new TopNBlocksComparator() ) );
+		this.topTokens = new TopNLeaderboard<>( highestFirst( new TopNTokensComparator() ) );
+		this.topBalances = new TopNLeaderboard<>( highestFirst( new TopNBalancesComparator() ) );
+		
+		this.topRanks = new TopNLeaderboard<>( highestFirst( new TopNRanksComparator() ) );
+		
+		this.players = new ConcurrentHashMap<>();
 	}
 	
 	public static TopNStatsSingleton getInstance() {
@@ -38,18 +67,187 @@ public class TopNStatsSingleton
 		return instance;
 	}
 	
+	/**
+	 * <p>The comparators sort from the lowest to the highest, so they are 
+	 * reversed.  Players with the same stats are ordered by their UUIDs so 
+	 * their positions are stable.
+	 * </p>
+	 * 
+	 * @param comparator
+	 * @return
+	 */
+	private static Comparator<TopNStatsData> highestFirst( Comparator<TopNStatsData> comparator ) {
+		return comparator.reversed()
+				.thenComparing( TopNStatsData::getPlayerUuid, 
+						Comparator.nullsLast( Comparator.naturalOrder() ) );
+	}
 	
-	protected void sortAllLists() {
+	private TopNStatsData getStats( String playerUuid, String playerName ) {
 		
-		Collections.sort( topBlocksList, new TopNBlocksComparator() );
+		TopNStatsData stats = players.computeIfAbsent( playerUuid, key -> {
+			TopNStatsData data = new TopNStatsData();
+			data.setPlayerUuid( key );
+			return data;
+		});
 		
-		Collections.sort( topTokensList, new TopNTokensComparator() );
+		if ( playerName != null ) {
+			stats.setPlayerName( playerName );
+		}
 		
-		Collections.sort( topBalancesList, new TopNBalancesComparator() );
-
-		Collections.sort( topRanksList, new TopNRanksComparator() );
+		return stats;
+	}
+	
+	/**
+	 * <p>Sets the player's total blocks and moves them on the blocks 
+	 * leaderboard.  This only locks the blocks leaderboard.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param playerName
+	 * @param totalBlocks
+	 */
+	public void updateBlocks( String playerUuid, String playerName, long totalBlocks ) {
+		
+		if ( playerUuid != null ) {
+			
+			topBlocks.putOrUpdate( playerUuid, 
+					() -> getStats( playerUuid, playerName ), 
+					stats -> stats.setTotalBlocks( totalBlocks ) );
+		}
+	}
+	
+	/**
+	 * <p>Sets the player's tokens and moves them on the tokens leaderboard.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param playerName
+	 * @param tokens
+	 */
+	public void updateTokens( String playerUuid, String playerName, long tokens ) {
+		
+		if ( playerUuid != null ) {
+			
+			topTokens.putOrUpdate( playerUuid, 
+					() -> getStats( playerUuid, playerName ), 
+					stats -> stats.setCurrentTokens( tokens ) );
+		}
+	}
+	
+	/**
+	 * <p>Sets the player's balance and moves them on the balances leaderboard,
+	 * if the player is on the leaderboards.  The ranks leaderboard also uses 
+	 * the balance, so if the player is on it, then they are taken off of it 
+	 * while the balance is changed, and then put back where they now belong.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param playerName
+	 * @param balance
+	 */
+	public void updateBalance( String playerUuid, String playerName, double balance ) {
+		
+		if ( playerUuid != null ) {
+			
+			synchronized ( topBalances ) {
+				synchronized ( topRanks ) {
+					
+					if ( !players.containsKey( playerUuid ) ) {
+						return;
+					}
+					
+					TopNStatsData ranked = topRanks.remove( playerUuid );
+					
+					TopNStatsData stats = topBalances.putOrUpdate( playerUuid, 
+							() -> getStats( playerUuid, playerName ), 
+							data -> data.setCurrentBalance( balance ) );
+					
+					if ( ranked != null ) {
+						topRanks.put( playerUuid, stats );
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>Sets the player's ranks and moves them on the ranks leaderboard, if 
+	 * the player is on the leaderboards.  The ranks are looked up by their 
+	 * names the next time they are compared.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param playerName
+	 * @param prestigesRankName
+	 * @param defaultRankName
+	 */
+	public void updateRanks( String playerUuid, String playerName, 
+			String prestigesRankName, String defaultRankName ) {
+		
+		if ( playerUuid == null ) {
+			return;
+		}
 		
+		synchronized ( topBalances ) {
+			synchronized ( topRanks ) {
+				
+				if ( !players.containsKey( playerUuid ) ) {
+					return;
+				}
+				
+				topRanks.putOrUpdate( playerUuid, 
+						() -> getStats( playerUuid, playerName ), 
+						stats -> {
+							stats.setTopRankPrestigesName( prestigesRankName );
+							stats.setTopRankPrestiges( null );
+							stats.setTopRankDefaultName( defaultRankName );
+							stats.setTopRankDefault( null );
+						});
+			}
+		}
 	}
 	
+	/**
+	 * <p>Removes the player from all of the leaderboards, such as when the 
+	 * player is removed from the PlayerCache.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 */
+	public void remove( String playerUuid ) {
+		
+		if ( playerUuid == null ) {
+			return;
+		}
+		
+		synchronized ( topBalances ) {
+			synchronized ( topRanks ) {
+				
+				players.remove( playerUuid );
+				
+				topRanks.remove( playerUuid );
+				topBalances.remove( playerUuid );
+			}
+		}
+		
+		topBlocks.remove( playerUuid );
+		topTokens.remove( playerUuid );
+	}
+	
+	public TopNLeaderboard<TopNStatsData> getTopBlocks() {
+		return topBlocks;
+	}
+
+	public TopNLeaderboard<TopNStatsData> getTopTokens() {
+		return topTokens;
+	}
+
+	public TopNLeaderboard<TopNStatsData> getTopBalances() {
+		return topBalances;
+	}
+
+	public TopNLeaderboard<TopNStatsData> getTopRanks() {
+		return topRanks;
+	}
 	
 }
@@ -78,6 +78,29 @@ public class FileCollection
     }
     
 
+    /**
+     * <p>Lists the keys of all of the documents, which are the file names without
+     * the json suffix, without reading any of the files.  The documents that have 
+     * been logically deleted are not included.
+     * </p>
+     */
+    @Override
+    public List<String> getKeys() {
+    	List<String> keys = new ArrayList<>();
+    	
+    	File[] collectionFiles = this.collDir.listFiles((dir, name) -> name.endsWith(".json"));
+    	if (collectionFiles != null) {
+    		for (File dbFile : collectionFiles) {
+    			if ( !isDeleted( dbFile ) ) {
+    				String name = dbFile.getName();
+    				keys.add( name.substring( 0, name.length() - ".json".length() ) );
+    			}
+    		}
+    	}
+    	
+    	return keys;
+    }
+    
     @Override 
     public Optional<Document> get(String key) {
     	File dbFile = new File(collDir, key + ".json");
@@ -37,6 +37,10 @@ public class ZipFileIO {
 					byte[] bytes = Files.readAllBytes(file.toPath());
 					out.write(bytes, 0, bytes.length);
 					out.closeEntry();
+					
+					// The compressed size is known once the entry is closed:
+					pBackups.setBytesSource( pBackups.getBytesSource() + bytes.length );
+					pBackups.setBytesStored( pBackups.getBytesStored() + zEntry.getCompressedSize() );
 				} 
 				catch (IOException e) {
 					
@@ -21,9 +21,11 @@ package tech.mcprison.prison.internal;
 import java.util.List;
 
 import tech.mcprison.prison.internal.block.Block;
+import tech.mcprison.prison.internal.block.MineBlockPlacementStrategy;
 import tech.mcprison.prison.internal.block.MineResetType;
-import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
 import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonChunkSnapshot;
 import tech.mcprison.prison.util.Location;
 
 /**
@@ -68,9 +70,90 @@ public interface World {
      */
 	public void setBlockAsync( PrisonBlock prisonBlock, Location location );
 
-	public void setBlocksSynchronously( List<MineTargetPrisonBlock> tBlocks, 
+	/**
+	 * <p>Places the target blocks that are within the range of offsets, from the
+	 * startOffset (inclusive) to the endOffset (exclusive).  This should be called 
+	 * from an async task and the actual block updates will be ran synchronously.
+	 * </p>
+	 * 
+	 * @param targetBlocks
+	 * @param startOffset
+	 * @param endOffset
+	 * @param resetType
+	 * @param nanos
+	 */
+	public void setBlocksSynchronously( MineTargetBlockStore targetBlocks, 
+						int startOffset, int endOffset,
 						MineResetType resetType, 
 								PrisonStatsElapsedTimeNanos nanos );
 
+	/**
+	 * <p>Places the target blocks that are within the range of offsets, from the
+	 * startOffset (inclusive) to the endOffset (exclusive), immediately on the 
+	 * current thread.  This must only be called from the server's main thread,
+	 * such as by a task that controls how many blocks are placed per tick.
+	 * </p>
+	 * 
+	 * @param targetBlocks
+	 * @param startOffset
+	 * @param endOffset
+	 * @param resetType
+	 * @param nanos
+	 */
+	public void setBlocks( MineTargetBlockStore targetBlocks, 
+						int startOffset, int endOffset,
+						MineResetType resetType, 
+								PrisonStatsElapsedTimeNanos nanos );
+
+	/**
+	 * <p>Places the target blocks that are within the range of offsets with the
+	 * given placement strategy.  This should be called from an async task and 
+	 * the actual block updates will be ran synchronously.
+	 * </p>
+	 * 
+	 * @param targetBlocks
+	 * @param startOffset
+	 * @param endOffset
+	 * @param resetType
+	 * @param nanos
+	 * @param strategy
+	 */
+	public void setBlocksSynchronously( MineTargetBlockStore targetBlocks, 
+						int startOffset, int endOffset,
+						MineResetType resetType, 
+								PrisonStatsElapsedTimeNanos nanos,
+								MineBlockPlacementStrategy strategy );
+
+	/**
+	 * <p>Places the target blocks that are within the range of offsets with the
+	 * given placement strategy, immediately on the current thread.  This must 
+	 * only be called from the server's main thread.
+	 * </p>
+	 * 
+	 * @param targetBlocks
+	 * @param startOffset
+	 * @param endOffset
+	 * @param resetType
+	 * @param nanos
+	 * @param strategy
+	 */
+	public void setBlocks( MineTargetBlockStore targetBlocks, 
+						int startOffset, int endOffset,
+						MineResetType resetType, 
+								PrisonStatsElapsedTimeNanos nanos,
+								MineBlockPlacementStrategy strategy );
+
+	/**
+	 * <p>Takes a snapshot of the blocks within the chunk, so they can be read 
+	 * from an async task.  This must only be called from the server's main 
+	 * thread.  If the chunk is not loaded, then this returns a null, since the 
+	 * chunk will not be loaded just to take a snapshot.
+	 * </p>
+	 * 
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return
+	 */
+	public PrisonChunkSnapshot getChunkSnapshot( int chunkX, int chunkZ );
 
 }
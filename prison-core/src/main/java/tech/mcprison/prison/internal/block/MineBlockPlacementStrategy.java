@@ -0,0 +1,40 @@
+package tech.mcprison.prison.internal.block;
+
+/**
+ * <p>Identifies how the blocks are placed when a mine is reset.
+ * </p>
+ * 
+ * <ul>
+ *   <li><b>standard</b>: Each block is placed one at a time, in the order of 
+ *   		the reset, by getting the block from the world and then setting 
+ *   		the PrisonBlock on it.  This is the default.</li>
+ *   <li><b>chunk</b>: Each slice of blocks is sorted by chunk section, 
+ *   		so each chunk is only looked up once per slice, and each block 
+ *   		type is resolved once per reset.</li>
+ * </ul>
+ * 
+ * <p>Both of them place the blocks without physics updates.
+ * </p>
+ *
+ */
+public enum MineBlockPlacementStrategy
+{
+	standard,
+	chunk;
+	
+	public static MineBlockPlacementStrategy fromString( String strategy ) {
+		MineBlockPlacementStrategy results = standard;
+		
+		if ( strategy != null ) {
+			
+			for ( MineBlockPlacementStrategy mbps : values() ) {
+				if ( mbps.name().equalsIgnoreCase( strategy ) ) {
+					results = mbps;
+					break;
+				}
+			}
+		}
+		
+		return results;
+	}
+}
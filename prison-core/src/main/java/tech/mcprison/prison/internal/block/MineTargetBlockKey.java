@@ -56,6 +56,13 @@ public class MineTargetBlockKey
 		return z;
 	}
 
+	/**
+	 * <p>The coordinates are compared first, and the world names are only compared
+	 * if all of the coordinates are the same.  Most keys are within the same world,
+	 * so comparing the world names first would perform a String comparison for 
+	 * every compare.
+	 * </p>
+	 */
 	@Override
 	public int compareTo( MineTargetBlockKey key ) {
 		int result = 0;
@@ -64,17 +71,17 @@ public class MineTargetBlockKey
 		}
 		else {
 			
-			result = getWorld().getName().compareTo( key.getWorld().getName() );
+			result = Integer.compare( getX(), key.getX() );
 			
 			if ( result == 0 ) {
-				
-				result = Integer.compare( getX(), key.getX() );
+				result = Integer.compare( getZ(), key.getZ() );
 				
 				if ( result == 0 ) {
-					result = Integer.compare( getZ(), key.getZ() );
+					result = Integer.compare( getY(), key.getY() );
 					
-					if ( result == 0 ) {
-						result = Integer.compare( getY(), key.getY() );
+					if ( result == 0 && getWorld() != key.getWorld() ) {
+						
+						result = getWorld().getName().compareTo( key.getWorld().getName() );
 					}
 				}
 			}
@@ -0,0 +1,472 @@
+package tech.mcprison.prison.internal.block;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>This is a compact, columnar store of all of the target blocks within a mine.
+ * Instead of creating one MineTargetPrisonBlock, one MineTargetBlockKey, and one
+ * Location for every block within the mine, the state of each block is packed in
+ * to primitive arrays that are indexed by a linear offset within the mine's
+ * Bounds.
+ * </p>
+ *
+ * <p>The linear offset is the same order that the mine resets are performed in:
+ * starting with the top layer and working down, then x, and then z.  So the
+ * offset is also the reset position that is used to page the mine resets.
+ * </p>
+ *
+ * <p>The blocks are stored as a palette id, which is an index in to the palette
+ * of PrisonBlockStatusData objects that are used within the mine.  A palette id
+ * of zero means there is no target block at that position. The state bits
+ * (mined, counted, edge, corner, exploded, airBroke, and ignoreAllBlockEvents)
+ * are packed in to one byte per block, with four blocks held in each int.
+ * The state bits are changed with a compare and set, since a block break
+ * event, an explosion, and a mine reset may change the bits of the same 
+ * blocks from different threads.
+ * </p>
+ *
+ * <p>The palette is copied when a new block is added to it, and the new copy
+ * is then published, so it can be read without a lock.  New blocks are only
+ * added while the block list is being generated, so it rarely changes.
+ * </p>
+ *
+ * <p>The MineTargetPrisonBlock is now just a light weight view in to this store,
+ * so the existing code can continue to use it without having to hold on to
+ * millions of objects between resets.
+ * </p>
+ *
+ */
+public class MineTargetBlockStore
+{
+	public static final byte STATE_AIR_BROKE = 0x01;
+	public static final byte STATE_EDGE = 0x02;
+	public static final byte STATE_CORNER = 0x04;
+	public static final byte STATE_EXPLODED = 0x08;
+	public static final byte STATE_MINED = 0x10;
+	public static final byte STATE_COUNTED = 0x20;
+	public static final byte STATE_IGNORE_ALL_BLOCK_EVENTS = 0x40;
+
+	/**
+	 * <p>Palette id zero is reserved to indicate there is no target block at
+	 * a given position.
+	 * </p>
+	 */
+	public static final short PALETTE_ID_NONE = 0;
+
+	private final World world;
+
+	private final int xMin;
+	private final int yMax;
+	private final int zMin;
+
+	private final int xSize;
+	private final int ySize;
+	private final int zSize;
+
+	private final int layerSize;
+	private final int volume;
+
+	private final short[] paletteIds;
+	private final AtomicIntegerArray states;
+
+	private volatile PrisonBlockStatusData[] palette;
+	private final Map<PrisonBlockStatusData, Short> paletteLookup;
+
+	/**
+	 * <p>The mined block is only set while processing a block break, so it is
+	 * kept in a sparse map instead of a full array of references.
+	 * </p>
+	 */
+	private final Map<Integer, Block> minedBlocks;
+
+	/**
+	 * <p>One greater than the highest offset that has been set. While the block
+	 * list is being generated, this is the next position that will be added.
+	 * </p>
+	 */
+	private volatile int size = 0;
+
+	public MineTargetBlockStore( World world, Bounds bounds ) {
+		this( world,
+				bounds.getxBlockMin(), bounds.getxBlockMax(),
+				bounds.getyBlockMin(), bounds.getyBlockMax(),
+				bounds.getzBlockMin(), bounds.getzBlockMax() );
+	}
+
+	public MineTargetBlockStore( World world,
+					int xMin, int xMax, int yMin, int yMax, int zMin, int zMax ) {
+		super();
+
+		this.world = world;
+
+		this.xMin = xMin;
+		this.yMax = yMax;
+		this.zMin = zMin;
+
+		this.xSize = xMax - xMin + 1;
+		this.ySize = yMax - yMin + 1;
+		this.zSize = zMax - zMin + 1;
+
+		this.layerSize = xSize * zSize;
+		this.volume = layerSize * ySize;
+
+		this.paletteIds = new short[volume];
+		this.states = new AtomicIntegerArray( (volume + 3) / 4 );
+
+		// Reserve palette id zero for "no target block":
+		this.palette = new PrisonBlockStatusData[] { null };
+		this.paletteLookup = new IdentityHashMap<>();
+
+		this.minedBlocks = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * <p>Returns the linear offset for the given coordinates, or a -1 if the
+	 * coordinates are outside of this store.
+	 * </p>
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public int getOffset( int x, int y, int z ) {
+		int dx = x - xMin;
+		int dy = yMax - y;
+		int dz = z - zMin;
+
+		if ( dx < 0 || dx >= xSize || dy < 0 || dy >= ySize || dz < 0 || dz >= zSize ) {
+			return -1;
+		}
+
+		return dy * layerSize + dx * zSize + dz;
+	}
+
+	public int getX( int offset ) {
+		return xMin + (offset % layerSize) / zSize;
+	}
+	public int getY( int offset ) {
+		return yMax - (offset / layerSize);
+	}
+	public int getZ( int offset ) {
+		return zMin + (offset % zSize);
+	}
+
+	/**
+	 * <p>Sets the target block at the given offset.  If the block is null, or
+	 * is AIR, then it will be marked as airBroke so it will not be counted.
+	 * </p>
+	 *
+	 * @param offset
+	 * @param block
+	 * @param isEdge
+	 * @param isCorner
+	 */
+	public void set( int offset, PrisonBlockStatusData block, boolean isEdge, boolean isCorner ) {
+
+		paletteIds[offset] = getPaletteId( block );
+
+		byte state = 0;
+		if ( block == null || block.isAir() ) {
+			state |= STATE_AIR_BROKE;
+		}
+		if ( isEdge ) {
+			state |= STATE_EDGE;
+		}
+		if ( isCorner ) {
+			state |= STATE_CORNER;
+		}
+		setStates( offset, state );
+
+		if ( !minedBlocks.isEmpty() ) {
+			minedBlocks.remove( offset );
+		}
+
+		if ( offset >= size ) {
+			size = offset + 1;
+		}
+	}
+
+	/**
+	 * <p>When the blocks are set from more than one thread, the size that is
+	 * tracked by set() cannot be relied upon, so once all of the threads have
+	 * finished, the size must be set to the number of positions that were
+	 * generated.
+	 * </p>
+	 *
+	 * @param size
+	 */
+	public void setSize( int size ) {
+		this.size = Math.min( size, volume );
+	}
+
+	/**
+	 * <p>Returns a view of the target block at the given offset, or null if
+	 * there is no target block.
+	 * </p>
+	 *
+	 * @param offset
+	 * @return
+	 */
+	public MineTargetPrisonBlock get( int offset ) {
+		MineTargetPrisonBlock results = null;
+
+		if ( contains( offset ) ) {
+			results = new MineTargetPrisonBlock( this, offset );
+		}
+
+		return results;
+	}
+
+	public MineTargetPrisonBlock get( int x, int y, int z ) {
+		return get( getOffset( x, y, z ) );
+	}
+
+	/**
+	 * <p>Direct lookup of a target block by its coordinates.  The offset is calculated
+	 * from the mine's min corner and dimensions, so there is no key object to create
+	 * and no tree to walk.  The world name is only compared once per lookup, and only
+	 * if the coordinates are within this store.
+	 * </p>
+	 *
+	 * @param worldName
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public MineTargetPrisonBlock get( String worldName, int x, int y, int z ) {
+		MineTargetPrisonBlock results = null;
+
+		int offset = getOffset( x, y, z );
+
+		if ( contains( offset ) && isSameWorld( worldName ) ) {
+			results = new MineTargetPrisonBlock( this, offset );
+		}
+
+		return results;
+	}
+
+	public MineTargetPrisonBlock get( Location location ) {
+		MineTargetPrisonBlock results = null;
+
+		if ( location != null ) {
+			String worldName = location.getWorld() == null ? null : location.getWorld().getName();
+
+			results = get( worldName, location.getBlockX(), location.getBlockY(), location.getBlockZ() );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>If either world is unknown, then it is treated as the same world, since the
+	 * caller has already identified the mine by the location.
+	 * </p>
+	 *
+	 * @param worldName
+	 * @return
+	 */
+	private boolean isSameWorld( String worldName ) {
+		return worldName == null || world == null || worldName.equals( world.getName() );
+	}
+
+	/**
+	 * <p>Returns true if there is a target block at the given offset.
+	 * </p>
+	 *
+	 * @param offset
+	 * @return
+	 */
+	public boolean contains( int offset ) {
+		return offset >= 0 && offset < volume && paletteIds[offset] != PALETTE_ID_NONE;
+	}
+
+	public PrisonBlockStatusData getPrisonBlock( int offset ) {
+		short id = paletteIds[offset];
+		PrisonBlockStatusData[] palette = this.palette;
+
+		// The id may have been set by another thread before this thread can
+		// see the palette that holds it, so read it under the lock:
+		if ( id >= palette.length ) {
+			synchronized ( paletteLookup ) {
+				palette = this.palette;
+			}
+		}
+
+		return palette[id];
+	}
+	public void setPrisonBlock( int offset, PrisonBlockStatusData block ) {
+		paletteIds[offset] = getPaletteId( block );
+	}
+
+	/**
+	 * <p>Identifies which block should be placed for the given reset type. This
+	 * does not allocate any objects so it can be used when placing the blocks.
+	 * </p>
+	 *
+	 * @param offset
+	 * @param resetType
+	 * @return
+	 */
+	public PrisonBlock getPrisonBlock( int offset, MineResetType resetType ) {
+
+		final PrisonBlock pBlock;
+
+		if ( ( resetType == MineResetType.tracer ||
+				resetType == MineResetType.outline )  && isState( offset, STATE_EDGE ) )
+		{
+			// Generates the tracer along all edges of the mine
+			// NOTE: outline and tracer are the same. Outline should be
+			//       converted to tracer, but if it's not, then handle it here
+			pBlock = PrisonBlock.PINK_STAINED_GLASS;
+		}
+		else if ( resetType == MineResetType.corners && isState( offset, STATE_CORNER ) )
+		{
+			// Generates the trace along all the corners of the mine
+			pBlock = PrisonBlock.PINK_STAINED_GLASS;
+		}
+		else if ( resetType == MineResetType.clear ||
+				resetType == MineResetType.tracer ||
+				resetType == MineResetType.outline ||
+				resetType == MineResetType.corners )
+		{
+			// clears the mine with all AIR, or for tracers the non edges,
+			// or clears all of the mine except the corners.
+			pBlock = PrisonBlock.AIR;
+		}
+		else if ( getPrisonBlock( offset ) instanceof PrisonBlock )
+		{
+			// MineResetType.normal and MineResetType.paged
+			pBlock = (PrisonBlock) getPrisonBlock( offset );
+		}
+		else
+		{
+			pBlock = null;
+		}
+
+		return pBlock;
+	}
+
+	public boolean isState( int offset, byte stateBit ) {
+		return (getStates( offset ) & stateBit) != 0;
+	}
+
+	public void setState( int offset, byte stateBit, boolean value ) {
+		int index = offset >> 2;
+		int mask = (stateBit & 0xff) << ((offset & 3) << 3);
+
+		int current;
+		int updated;
+		do {
+			current = states.get( index );
+			updated = value ? current | mask : current & ~mask;
+		}
+		while ( current != updated && !states.compareAndSet( index, current, updated ) );
+	}
+
+	private int getStates( int offset ) {
+		return (states.get( offset >> 2 ) >>> ((offset & 3) << 3)) & 0xff;
+	}
+
+	/**
+	 * <p>Replaces all of the state bits of one block.
+	 * </p>
+	 *
+	 * @param offset
+	 * @param state
+	 */
+	private void setStates( int offset, byte state ) {
+		int index = offset >> 2;
+		int shift = (offset & 3) << 3;
+		int mask = 0xff << shift;
+		int bits = (state & 0xff) << shift;
+
+		int current;
+		do {
+			current = states.get( index );
+		}
+		while ( !states.compareAndSet( index, current, (current & ~mask) | bits ) );
+	}
+
+	public Block getMinedBlock( int offset ) {
+		return minedBlocks.get( offset );
+	}
+	public void setMinedBlock( int offset, Block minedBlock ) {
+		if ( minedBlock == null ) {
+			minedBlocks.remove( offset );
+		}
+		else {
+			minedBlocks.put( offset, minedBlock );
+		}
+	}
+
+	private short getPaletteId( PrisonBlockStatusData block ) {
+
+		synchronized ( paletteLookup ) {
+
+			Short id = paletteLookup.get( block );
+
+			if ( id == null ) {
+				id = (short) palette.length;
+
+				PrisonBlockStatusData[] newPalette = Arrays.copyOf( palette, palette.length + 1 );
+				newPalette[id] = block;
+
+				palette = newPalette;
+				paletteLookup.put( block, id );
+			}
+
+			return id;
+		}
+	}
+
+	public List<PrisonBlockStatusData> getPalette() {
+		return Collections.unmodifiableList( Arrays.asList( palette ) );
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	/**
+	 * <p>This is the number of positions that have been generated so far.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * <p>This is the total number of blocks that can be stored, which is the
+	 * total block count of the mine's bounds.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public int getVolume() {
+		return volume;
+	}
+
+	public int getLayerSize() {
+		return layerSize;
+	}
+
+	@Override
+	public String toString() {
+		return "MineTargetBlockStore: " + (world == null ? "--" : world.getName()) +
+				" volume= " + volume + " size= " + size + " palette= " + (palette.length - 1);
+	}
+}
@@ -1,45 +1,27 @@
 package tech.mcprison.prison.internal.block;
 
-import tech.mcprison.prison.internal.World;
 import tech.mcprison.prison.util.Location;
 
+/**
+ * <p>This is a light weight view of one target block within the 
+ * MineTargetBlockStore.  All of the state is held within the store, so 
+ * these views can be created when needed, and any changes that are made
+ * through the view are applied directly to the store.
+ * </p>
+ *
+ */
 public class MineTargetPrisonBlock
 	implements Comparable<MineTargetPrisonBlock>
 {
-	private MineTargetBlockKey blockKey;
+	private final MineTargetBlockStore store;
+	private final int offset;
 	
-	private PrisonBlockStatusData prisonBlock;
 	
-	private boolean airBroke;
-	private boolean isEdge;
-	private boolean isCorner;
-	private boolean exploded;
-	
-	private boolean mined = false;
-	private Block minedBlock;
-	
-//	private boolean blockEvent = false;
-	private boolean counted = false;
-	
-	private boolean ignoreAllBlockEvents = false;
-	
-	
-	public MineTargetPrisonBlock( 
-				PrisonBlockStatusData prisonBlock, 
-				World world, 
-						int x, int y, int z, 
-						boolean isEdge,
-						boolean isCorner ) {
-		this.blockKey = new MineTargetBlockKey( world, x, y, z );
+	public MineTargetPrisonBlock( MineTargetBlockStore store, int offset ) {
+		super();
 		
-		this.prisonBlock = prisonBlock;
-		
-		if ( prisonBlock == null || prisonBlock.isAir() ) {
-			this.airBroke = true;
-		}
-		
-		this.isEdge = isEdge;
-		this.isCorner = isCorner;
+		this.store = store;
+		this.offset = offset;
 	}
 
 	@Override
@@ -49,57 +31,19 @@ public class MineTargetPrisonBlock
 	}
 	
 	public  PrisonBlock getPrisonBlock( MineResetType resetType ) {
-		
-		final PrisonBlock pBlock;
-		
-		if ( ( resetType == MineResetType.tracer ||
-				   resetType == MineResetType.outline )  && isEdge() )
-		{
-			// Generates the tracer along all edges of the mine
-			// NOTE: outline and tracer are the same. Outline should be 
-			//       converted to tracer, but if it's not, then handle it here
-			pBlock = PrisonBlock.PINK_STAINED_GLASS;
-		}
-		else if ( resetType == MineResetType.corners && isCorner() )
-		{
-			// Generates the trace along all the corners of the mine
-			pBlock = PrisonBlock.PINK_STAINED_GLASS;
-		}
-		else if ( resetType == MineResetType.clear || 
-				resetType == MineResetType.tracer || 
-				resetType == MineResetType.outline || 
-				resetType == MineResetType.corners )
-		{
-			// clears the mine with all AIR, or for tracers the non edges, 
-			// or clears all of the mine except the corners.
-			pBlock = PrisonBlock.AIR;
-		}
-		else if ( getPrisonBlock() != null && 
-				getPrisonBlock() instanceof PrisonBlock )
-		{
-			
-			// MineResetType.normal and MineResetType.paged
-			pBlock = (PrisonBlock) getPrisonBlock();
-		}
-		else
-		{
-			pBlock = null;
-		}
-		
-		return pBlock;
-		
+		return store.getPrisonBlock( offset, resetType );
 	}
 	
 	public PrisonBlockStatusData getPrisonBlock() {
-		return prisonBlock;
+		return store.getPrisonBlock( offset );
 	}
 	public void setPrisonBlock( PrisonBlockStatusData prisonBlock ) {
-		this.prisonBlock = prisonBlock;
+		store.setPrisonBlock( offset, prisonBlock );
 	}
 
 	
 	public MineTargetBlockKey getBlockKey() {
-		return blockKey;
+		return new MineTargetBlockKey( store.getWorld(), getX(), getY(), getZ() );
 	}
 
 	public String getBlockCoordinates() {
@@ -129,75 +73,102 @@ public class MineTargetPrisonBlock
 	 * @return
 	 */
 	public boolean isAirBroke() {
-		return airBroke;
+		return store.isState( offset, MineTargetBlockStore.STATE_AIR_BROKE );
 	}
 	public void setAirBroke( boolean airBroke ) {
-		this.airBroke = airBroke;
+		store.setState( offset, MineTargetBlockStore.STATE_AIR_BROKE, airBroke );
 	}
 	
 	public boolean isEdge() {
-		return isEdge;
+		return store.isState( offset, MineTargetBlockStore.STATE_EDGE );
 	}
 	public void setEdge( boolean isEdge ) {
-		this.isEdge = isEdge;
+		store.setState( offset, MineTargetBlockStore.STATE_EDGE, isEdge );
 	}
 
 	public boolean isCorner() {
-		return isCorner;
+		return store.isState( offset, MineTargetBlockStore.STATE_CORNER );
 	}
 	public void setCorner(boolean isCorner) {
-		this.isCorner = isCorner;
+		store.setState( offset, MineTargetBlockStore.STATE_CORNER, isCorner );
 	}
 
 	public boolean isExploded() {
-		return exploded;
+		return store.isState( offset, MineTargetBlockStore.STATE_EXPLODED );
 	}
 	public void setExploded( boolean exploded ) {
-		this.exploded = exploded;
+		store.setState( offset, MineTargetBlockStore.STATE_EXPLODED, exploded );
 	}
 
 	public boolean isMined() {
-		return mined;
+		return store.isState( offset, MineTargetBlockStore.STATE_MINED );
 	}
 	public void setMined( boolean mined ) {
-		this.mined = mined;
+		store.setState( offset, MineTargetBlockStore.STATE_MINED, mined );
 	}
 
-//	public boolean isBlockEvent() {
-//		return blockEvent;
-//	}
-//	public void setBlockEvent( boolean blockEvent ) {
-//		this.blockEvent = blockEvent;
-//	}
-
 	public boolean isCounted() {
-		return counted;
+		return store.isState( offset, MineTargetBlockStore.STATE_COUNTED );
 	}
 	public void setCounted( boolean counted ) {
-		this.counted = counted;
+		store.setState( offset, MineTargetBlockStore.STATE_COUNTED, counted );
 	}
 
 	public Block getMinedBlock() {
-		return minedBlock;
+		return store.getMinedBlock( offset );
 	}
 	public void setMinedBlock( Block minedBlock ) {
-		this.minedBlock = minedBlock;
+		store.setMinedBlock( offset, minedBlock );
 	}
 
 	public boolean isIgnoreAllBlockEvents() {
-		return ignoreAllBlockEvents;
+		return store.isState( offset, MineTargetBlockStore.STATE_IGNORE_ALL_BLOCK_EVENTS );
 	}
 	public void setIgnoreAllBlockEvents( boolean ignoreAllBlockEvents ) {
-		this.ignoreAllBlockEvents = ignoreAllBlockEvents;
+		store.setState( offset, MineTargetBlockStore.STATE_IGNORE_ALL_BLOCK_EVENTS, ignoreAllBlockEvents );
+	}
+
+	public int getX() {
+		return store.getX( offset );
+	}
+	public int getY() {
+		return store.getY( offset );
+	}
+	public int getZ() {
+		return store.getZ( offset );
+	}
+
+	public MineTargetBlockStore getStore() {
+		return store;
+	}
+	public int getOffset() {
+		return offset;
 	}
 
 	@Override 
 	public int compareTo( MineTargetPrisonBlock block ) {
-		return block.getBlockKey().compareTo( block.getBlockKey() );
+		return Integer.compare( getOffset(), block.getOffset() );
+	}
+	
+	@Override
+	public boolean equals( Object obj ) {
+		boolean results = false;
+		
+		if ( obj != null && obj instanceof MineTargetPrisonBlock ) {
+			MineTargetPrisonBlock mtpb = (MineTargetPrisonBlock) obj;
+			
+			results = store == mtpb.getStore() && offset == mtpb.getOffset();
+		}
+		return results;
+	}
+	
+	@Override
+	public int hashCode() {
+		return offset;
 	}
 
 	public Location getLocation()
 	{
-		return getBlockKey().getLocation();
+		return new Location( store.getWorld(), getX(), getY(), getZ() );
 	}
 }
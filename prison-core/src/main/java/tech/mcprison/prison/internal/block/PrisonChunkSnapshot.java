@@ -0,0 +1,28 @@
+package tech.mcprison.prison.internal.block;
+
+/**
+ * <p>A read only copy of the blocks within one chunk, taken at one point in
+ * time.  The snapshot must be taken from the server's main thread, but once
+ * it is taken, it can be read from any thread, so the blocks can be checked
+ * within an async task without accessing the world.
+ * </p>
+ *
+ */
+public interface PrisonChunkSnapshot
+{
+	public int getChunkX();
+
+	public int getChunkZ();
+
+	/**
+	 * <p>Returns true if the block at the world coordinates is air.  The x and
+	 * z coordinates must be within this chunk.
+	 * </p>
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public boolean isAir( int x, int y, int z );
+}
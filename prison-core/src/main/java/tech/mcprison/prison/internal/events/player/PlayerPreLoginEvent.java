@@ -0,0 +1,32 @@
+package tech.mcprison.prison.internal.events.player;
+
+import java.util.UUID;
+
+/**
+ * <p>Platform-independent event, which is posted while a player is logging in,
+ * before they have joined the server.  This is posted on an async thread,
+ * and there is no Player object yet, so only the player's UUID and name are
+ * available.  This is a good place to load what the player will need once
+ * they join, without blocking the server.
+ * </p>
+ *
+ */
+public class PlayerPreLoginEvent {
+
+    private final UUID playerUuid;
+    private final String playerName;
+
+    public PlayerPreLoginEvent( UUID playerUuid, String playerName ) {
+        this.playerUuid = playerUuid;
+        this.playerName = playerName;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+}
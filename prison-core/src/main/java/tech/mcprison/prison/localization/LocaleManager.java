@@ -57,6 +57,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -128,6 +129,21 @@ public class LocaleManager {
 
     private final PluginEntity module;
     private HashMap<String, Properties> configs = new HashMap<>();
+    
+    /**
+     * <p>The messages of each locale, compiled in to templates when the locales 
+     * are loaded, so sending a message does not have to search it for the
+     * placeholders.  This is replaced as a whole when the locales are reloaded.
+     * </p>
+     */
+    private volatile Map<String, Map<String, LocaleMessageTemplate>> templates = new HashMap<>();
+    
+    /**
+     * <p>The locales that are tried, in order, for each locale that has no 
+     * fallbacks, which is how almost all messages are localized.
+     * </p>
+     */
+    private final Map<String, String[]> fallbackChains = new ConcurrentHashMap<>();
     private String defaultLocale = DEFAULT_LOCALE;
     private String internalPath;
     
@@ -181,7 +197,120 @@ public class LocaleManager {
         
         // Then any custom locales will override and replace the internal locales:
         loadCustomLocales(); // custom locales will override
-
+        
+        
+        compileTemplates();
+    }
+    
+    /**
+     * <p>Compiles every message of every locale in to a template.
+     * </p>
+     */
+    private void compileTemplates() {
+    	Map<String, Map<String, LocaleMessageTemplate>> compiled = new HashMap<>();
+    	
+    	for ( Map.Entry<String, Properties> locale : configs.entrySet() ) {
+    		
+    		Map<String, LocaleMessageTemplate> messages = new HashMap<>();
+    		
+    		for ( Map.Entry<Object, Object> message : locale.getValue().entrySet() ) {
+    			
+    			messages.put( (String) message.getKey(), 
+    					LocaleMessageTemplate.compile( (String) message.getValue() ) );
+    		}
+    		
+    		compiled.put( locale.getKey(), messages );
+    	}
+    	
+    	this.templates = compiled;
+    	this.fallbackChains.clear();
+    }
+    
+    /**
+     * <p>Returns the compiled message for the key within the locale, or null 
+     * if the locale does not have the message.
+     * </p>
+     * 
+     * @param locale
+     * @param key
+     * @return
+     */
+    LocaleMessageTemplate getTemplate( String locale, String key ) {
+    	Map<String, LocaleMessageTemplate> messages = templates.get( locale );
+    	
+    	return messages == null ? null : messages.get( key );
+    }
+    
+    /**
+     * <p>Returns the locales to try, in order, to localize a message in the 
+     * given locale.  When there are no fallbacks, the results are cached for 
+     * the locale.
+     * </p>
+     * 
+     * @param locale
+     * @param fallbacks
+     * @return
+     */
+    String[] getFallbackChain( String locale, String... fallbacks ) {
+    	if ( locale == null ) {
+    		locale = getDefaultLocale();
+    	}
+    	
+    	if ( fallbacks == null || fallbacks.length == 0 ) {
+    		
+    		return fallbackChains.computeIfAbsent( locale, 
+    				loc -> buildFallbackChain( loc, getDefaultLocale() ) );
+    	}
+    	
+    	return buildFallbackChain( locale, getDefaultLocale(), fallbacks );
+    }
+    
+    /**
+     * <p>The locale is tried first.  Then the alternate dialects of the locale,
+     * then each of the fallbacks, each followed by their alternate dialects,
+     * and finally the default locale, if it was not the last one tried.
+     * </p>
+     * 
+     * @param locale
+     * @param defaultLocale
+     * @param fallbacks
+     * @return
+     */
+    static String[] buildFallbackChain( String locale, String defaultLocale, String... fallbacks ) {
+    	
+    	List<String> fbList = new ArrayList<>( Arrays.asList( fallbacks ) );
+    	
+    	for ( int i = 0; i < fbList.size(); i++ ) {
+    		String fb = fbList.get( i );
+    		if ( ALTERNATIVES.containsKey( fb ) ) {
+    			for ( String alt : ALTERNATIVES.get( fb ) ) {
+    				// check if the alternate dialect is already in the list:
+    				if ( !fbList.contains( alt ) ) {
+    					// inject alternate dialects after the current fallback entry:
+    					fbList.add( i + 1, alt );
+    					++i;
+    				}
+    			}
+    		}
+    	}
+    	
+    	if ( ALTERNATIVES.containsKey( locale ) ) {
+    		for ( String alt : ALTERNATIVES.get( locale ) ) {
+    			// check if the alternate dialect is already in the list:
+    			if ( !fbList.contains( alt ) ) {
+    				// inject alternate dialects at the start of the list:
+    				fbList.add( 0, alt );
+    			}
+    		}
+    	}
+    	
+    	fbList.add( 0, locale );
+    	
+    	if ( !fbList.get( fbList.size() - 1 ).equals( defaultLocale ) ) {
+    		fbList.add( defaultLocale );
+    	}
+    	
+    	return fbList.toArray( new String[ fbList.size() ] );
     }
     
     
@@ -782,6 +911,7 @@ public class LocaleManager {
      */
     public void setDefaultLocale(String locale) {
         this.defaultLocale = locale;
+        this.fallbackChains.clear();
     }
 
     /**
@@ -823,6 +953,7 @@ public class LocaleManager {
 	}
 	public void setConfigs( HashMap<String, Properties> configs ) {
 		this.configs = configs;
+		compileTemplates();
 	}
 
 }
@@ -0,0 +1,179 @@
+package tech.mcprison.prison.localization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>A localized message that has been split, when the locale files are
+ * loaded, in to its literal text and its placeholders, so the message does
+ * not have to be searched each time it is sent.  The placeholders are a
+ * percent followed by a number that is 1 or greater, such as %1 and %2,
+ * where %1 is replaced with the first replacement.  If there are fewer
+ * replacements than the placeholder's number, then the placeholder is left
+ * as is.
+ * </p>
+ *
+ * <p>The message is rendered in to a StringBuilder that is reused by the
+ * thread, so the only object that is created is the resulting String.
+ * </p>
+ *
+ */
+public class LocaleMessageTemplate
+{
+	private static final int MAX_REUSED_BUILDER_CAPACITY = 8192;
+
+	private static final ThreadLocal<StringBuilder> BUILDER =
+					ThreadLocal.withInitial( () -> new StringBuilder( 256 ) );
+
+	private final String message;
+
+	/**
+	 * <p>The literal text before each placeholder, and after the last one,
+	 * so there is always one more literal than there are slots.
+	 * </p>
+	 */
+	private final String[] literals;
+
+	/**
+	 * <p>The placeholder's number, and its original text, which is used if
+	 * there is no replacement for it.
+	 * </p>
+	 */
+	private final int[] slots;
+	private final String[] slotTexts;
+
+	private final boolean noMessage;
+
+	private LocaleMessageTemplate( String message, String[] literals, int[] slots,
+					String[] slotTexts, boolean noMessage ) {
+		super();
+
+		this.message = message;
+		this.literals = literals;
+		this.slots = slots;
+		this.slotTexts = slotTexts;
+		this.noMessage = noMessage;
+	}
+
+	/**
+	 * <p>Splits the message in to its literals and placeholders.  A message
+	 * that is "*none*", or is blank, is a message that is not intended to be
+	 * shown, so it will always be rendered as an empty String.
+	 * </p>
+	 *
+	 * @param message
+	 * @return
+	 */
+	public static LocaleMessageTemplate compile( String message ) {
+
+		if ( message == null ) {
+			message = "";
+		}
+
+		boolean noMessage = LocaleManager.IGNORE_TEXT_NO_MESSAGE_INTENDED.equalsIgnoreCase( message ) ||
+							message.trim().length() == 0;
+
+		List<String> literals = new ArrayList<>();
+		List<Integer> slots = new ArrayList<>();
+		List<String> slotTexts = new ArrayList<>();
+
+		int start = 0;
+		int pos = message.indexOf( '%' );
+
+		while ( pos != -1 ) {
+
+			int end = pos + 1;
+			while ( end < message.length() &&
+					message.charAt( end ) >= '0' && message.charAt( end ) <= '9' ) {
+				end++;
+			}
+
+			int slot = end > pos + 1 && end - pos <= 10 ?
+							Integer.parseInt( message.substring( pos + 1, end ) ) : 0;
+
+			if ( slot >= 1 ) {
+				literals.add( message.substring( start, pos ) );
+				slots.add( slot );
+				slotTexts.add( message.substring( pos, end ) );
+
+				start = end;
+			}
+
+			pos = message.indexOf( '%', end > pos + 1 ? end : pos + 1 );
+		}
+
+		literals.add( message.substring( start ) );
+
+		int[] slotArray = new int[ slots.size() ];
+		for ( int i = 0; i < slotArray.length; i++ ) {
+			slotArray[i] = slots.get( i );
+		}
+
+		return new LocaleMessageTemplate( message,
+						literals.toArray( new String[ literals.size() ] ),
+						slotArray,
+						slotTexts.toArray( new String[ slotTexts.size() ] ),
+						noMessage );
+	}
+
+	/**
+	 * <p>Renders the message with the replacements, within the prefix and
+	 * suffix.
+	 * </p>
+	 *
+	 * @param prefix
+	 * @param replacements Can be null if there are no replacements.
+	 * @param suffix
+	 * @return
+	 */
+	public String render( String prefix, String[] replacements, String suffix ) {
+
+		if ( noMessage ) {
+			return "";
+		}
+
+		StringBuilder sb = BUILDER.get();
+		sb.setLength( 0 );
+
+		sb.append( prefix );
+
+		for ( int i = 0; i < slots.length; i++ ) {
+
+			sb.append( literals[i] );
+
+			int slot = slots[i];
+
+			if ( replacements != null && slot <= replacements.length ) {
+				sb.append( replacements[slot - 1] );
+			}
+			else {
+				sb.append( slotTexts[i] );
+			}
+		}
+
+		sb.append( literals[slots.length] );
+
+		sb.append( suffix );
+
+		String results = sb.toString();
+
+		// Do not hold on to a very large builder:
+		if ( sb.capacity() > MAX_REUSED_BUILDER_CAPACITY ) {
+			BUILDER.remove();
+		}
+
+		return results;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public int getSlotCount() {
+		return slots.length;
+	}
+
+	public boolean isNoMessage() {
+		return noMessage;
+	}
+}
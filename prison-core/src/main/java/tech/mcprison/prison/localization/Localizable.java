@@ -30,11 +30,6 @@
 package tech.mcprison.prison.localization;
 
 import java.util.Arrays;
-import java.util.List;
-import java.util.Properties;
-import java.util.regex.Matcher;
-
-import com.google.common.collect.Lists;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.CommandSender;
@@ -237,74 +232,47 @@ public class Localizable {
      * @since 1.0
      */
     public String localizeIn(String locale, String... fallbacks) {
-        return localizeIn(locale, false, fallbacks);
+        return localizeIn( getParent().getFallbackChain( locale, fallbacks ) );
     }
 
-    private String localizeIn(String locale, boolean recursive, String... fallbacks) {
-        if (getParent().getConfigs().containsKey(locale)) { // check if the locale is defined
-            Properties props = getParent().getConfigs().get(locale);
-            if (props.containsKey(getKey())) { // check if the message is defined in the locale
-                String message = (String) props.get(getKey()); // yay, it worked
-                
-                // If the entry has been marked with "*none*" or an empty String then return an empty String:
-                if ( LocaleManager.IGNORE_TEXT_NO_MESSAGE_INTENDED.equalsIgnoreCase(message) || 
-                		message != null && message.trim().length() == 0 ) {
-                	return "";
-                }
-                
-                if (replacements != null) {
-                    for (int i = 0; i < replacements.length; i++) { // replace placeholder sequences
-                        message = message
-                            .replaceAll("%" + (i + 1), Matcher.quoteReplacement(replacements[i]));
-                    }
-                } else if (locReplacements != null) {
-                    for (int i = 0;
-                         i < locReplacements.length; i++) { // replace placeholder sequences
-                        String strRepl = locReplacements[i].localizeIn(locale, false);
-                        message =
-                            message.replaceAll("%" + (i + 1), Matcher.quoteReplacement(strRepl));
-                    }
-                }
-                return prefix + message + suffix;
-            }
-        }
-        if (!recursive) { // only inject alternatives the method is not called recursively and the first choice fails
-            List<String> fbList = Lists.newArrayList(fallbacks);
-            for (int i = 0; i < fbList.size(); i++) {
-                String fb = fbList.get(i);
-                if (LocaleManager.ALTERNATIVES.containsKey(fb)) {
-                    for (String alt : LocaleManager.ALTERNATIVES.get(fb)) {
-                        if (!fbList.contains(
-                            alt)) { // check if the alternate dialect is already in the list
-                            fbList.add(i + 1,
-                                alt); // inject alternate dialects after the current fallback entry
-                            ++i; // increment the counter past the new entry
-                        }
-                    }
-                }
-            }
-            if (LocaleManager.ALTERNATIVES.containsKey(locale)) {
-                for (String alt : LocaleManager.ALTERNATIVES.get(locale)) {
-                    if (!fbList
-                        .contains(alt)) { // check if the alternate dialect is already in the list
-                        fbList.add(0, alt); // inject alternate dialects at the start of the list
-                    }
-                }
-            }
-            fallbacks = new String[fbList.size()];
-            fbList.toArray(fallbacks);
-        }
-        if (fallbacks.length > 0) { // still some fallbacks to use
-            String[] newFallbacks =
-                new String[fallbacks.length - 1]; // reconstruct the fallback array
-            System.arraycopy(fallbacks, 1, newFallbacks, 0,
-                newFallbacks.length); // drop the first element
-            return localizeIn(fallbacks[0], true, newFallbacks); // try the next fallback
-        } 
-        else if (!locale.equals(getParent().getDefaultLocale())) {
-            return localizeIn(getParent().getDefaultLocale(), true); // try the default locale
-        } 
-        else if ( isFailSilently() ) {
+    /**
+     * <p>Tries each locale in the fallback chain, in order, until one has this
+     * message.  The message was compiled when the locale was loaded, so the 
+     * replacements are placed in to its slots without searching the message.
+     * Nested {@link Localizable} replacements are localized in the same locale
+     * that the message was found in.
+     * </p>
+     * 
+     * @param fallbackChain
+     * @return
+     */
+    private String localizeIn(String[] fallbackChain) {
+    	for ( String locale : fallbackChain ) {
+    		
+    		LocaleMessageTemplate template = getParent().getTemplate( locale, getKey() );
+    		
+    		if ( template != null ) {
+    			
+    			// If the entry has been marked with "*none*" or an empty String then return an empty String:
+    			if ( template.isNoMessage() ) {
+    				return "";
+    			}
+    			
+    			String[] values = replacements;
+    			
+    			if ( values == null && locReplacements != null ) {
+    				values = new String[ locReplacements.length ];
+    				
+    				for ( int i = 0; i < locReplacements.length; i++ ) {
+    					values[i] = locReplacements[i].localizeIn( locale );
+    				}
+    			}
+    			
+    			return template.render( prefix, values, suffix );
+    		}
+    	}
+    	
+        if ( isFailSilently() ) {
         	// NOTE: The message file was unable to be loaded, but failSilently was enabled so return an
         	//       empty String:
         	return "";
@@ -0,0 +1,260 @@
+package tech.mcprison.prison.output;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>A structured trace of the processing of one block break event.  Instead
+ * of formatting each value in to a string as the event is processed, the
+ * values are recorded as typed fields, and they are only formatted if the
+ * trace is rendered to be logged.
+ * </p>
+ *
+ * <p>A trace is only created for the events that are selected to be traced,
+ * so when debug mode is off, or when an event is not selected by the debug
+ * sample rate or by the debug player, there is no trace and nothing is
+ * recorded.  The code that records to the trace must check that it exists
+ * before building any values for it.
+ * </p>
+ *
+ * <p>The trace is recorded alongside the free text debug info of the event.
+ * Each entry remembers where it was recorded within that text, so when it is
+ * rendered, the fields are placed back in the same order that they were
+ * recorded in.  The groups and fields are rendered as "(group: name=value) ",
+ * which keeps the layout of most of the old debug output.  Some sections do
+ * not have the same text as before: the alt fortune multiplier is rendered 
+ * as rnd, threshold, and multApplied fields within the calcAltFortune group,
+ * and the gradient fortune is rendered as a group of its fields instead of 
+ * its old formula.
+ * </p>
+ *
+ */
+public class BlockBreakTrace
+{
+	public enum TraceEntryType {
+		group,
+		field,
+		end,
+		warning;
+	}
+
+	private final StringBuilder text;
+
+	private final String colorCodeDebug;
+	private final String colorCodeWarning;
+
+	private final List<TraceEntry> entries;
+
+	public BlockBreakTrace( StringBuilder text, String colorCodeDebug, String colorCodeWarning ) {
+		super();
+
+		this.text = text;
+
+		this.colorCodeDebug = colorCodeDebug == null ? "" : colorCodeDebug;
+		this.colorCodeWarning = colorCodeWarning == null ? "" : colorCodeWarning;
+
+		this.entries = new ArrayList<>();
+	}
+
+	/**
+	 * <p>Starts a group of fields, which is rendered as "(name:" and is ended
+	 * with end().
+	 * </p>
+	 *
+	 * @param name
+	 * @return
+	 */
+	public BlockBreakTrace group( String name ) {
+		return add( TraceEntryType.group, name, null );
+	}
+
+	public BlockBreakTrace field( String name, long value ) {
+		return add( TraceEntryType.field, name, Long.valueOf( value ) );
+	}
+
+	public BlockBreakTrace field( String name, double value ) {
+		return add( TraceEntryType.field, name, Double.valueOf( value ) );
+	}
+
+	public BlockBreakTrace field( String name, boolean value ) {
+		return add( TraceEntryType.field, name, Boolean.valueOf( value ) );
+	}
+
+	/**
+	 * <p>Records a field with any value.  The value's toString() is only
+	 * called if the trace is rendered.
+	 * </p>
+	 *
+	 * @param name
+	 * @param value
+	 * @return
+	 */
+	public BlockBreakTrace field( String name, Object value ) {
+		return add( TraceEntryType.field, name, value );
+	}
+
+	public BlockBreakTrace end() {
+		return add( TraceEntryType.end, null, null );
+	}
+
+	/**
+	 * <p>Records a message that is rendered with the warning color code.
+	 * </p>
+	 *
+	 * @param message
+	 * @return
+	 */
+	public BlockBreakTrace warning( String message ) {
+		return add( TraceEntryType.warning, null, message );
+	}
+
+	private BlockBreakTrace add( TraceEntryType type, String name, Object value ) {
+
+		int offset = text == null ? 0 : text.length();
+
+		entries.add( new TraceEntry( offset, type, name, value ) );
+
+		return this;
+	}
+
+	/**
+	 * <p>Returns the value of the last field that was recorded with the given
+	 * name, or null if there is no such field.
+	 * </p>
+	 *
+	 * @param name
+	 * @return
+	 */
+	public Object getFieldValue( String name ) {
+		Object results = null;
+
+		for ( int i = entries.size() - 1; i >= 0; i-- ) {
+			TraceEntry entry = entries.get( i );
+
+			if ( entry.getType() == TraceEntryType.field &&
+					entry.getName().equals( name ) ) {
+				results = entry.getValue();
+				break;
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Renders the free text debug info, with all of the recorded entries
+	 * placed where they were recorded.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public StringBuilder render() {
+		StringBuilder sb = new StringBuilder();
+
+		DecimalFormat dFmt = new DecimalFormat( "#,##0.0000" );
+		DecimalFormat iFmt = new DecimalFormat( "#,##0" );
+
+		int textLength = text == null ? 0 : text.length();
+		int position = 0;
+
+		for ( TraceEntry entry : entries ) {
+
+			int offset = Math.min( entry.getOffset(), textLength );
+
+			if ( offset > position ) {
+				sb.append( text, position, offset );
+				position = offset;
+			}
+
+			switch ( entry.getType() )
+			{
+				case group:
+					sb.append( "(" ).append( entry.getName() ).append( ":" );
+					break;
+
+				case field:
+					sb.append( " " ).append( entry.getName() ).append( "=" );
+					appendValue( sb, entry.getValue(), dFmt, iFmt );
+					break;
+
+				case end:
+					sb.append( ") " );
+					break;
+
+				case warning:
+					sb.append( colorCodeWarning ).append( entry.getValue() ).append( colorCodeDebug );
+					break;
+			}
+		}
+
+		if ( textLength > position ) {
+			sb.append( text, position, textLength );
+		}
+
+		return sb;
+	}
+
+	private void appendValue( StringBuilder sb, Object value,
+					DecimalFormat dFmt, DecimalFormat iFmt ) {
+
+		if ( value instanceof Double || value instanceof Float ) {
+			sb.append( dFmt.format( value ) );
+		}
+		else if ( value instanceof Number ) {
+			sb.append( iFmt.format( value ) );
+		}
+		else {
+			String str = String.valueOf( value );
+
+			if ( str.indexOf( ' ' ) >= 0 ) {
+				sb.append( "[" ).append( str ).append( "]" );
+			}
+			else {
+				sb.append( str );
+			}
+		}
+	}
+
+	public List<TraceEntry> getEntries() {
+		return Collections.unmodifiableList( entries );
+	}
+
+	public StringBuilder getText() {
+		return text;
+	}
+
+	public static class TraceEntry {
+
+		private final int offset;
+		private final TraceEntryType type;
+		private final String name;
+		private final Object value;
+
+		public TraceEntry( int offset, TraceEntryType type, String name, Object value ) {
+			super();
+
+			this.offset = offset;
+			this.type = type;
+			this.name = name;
+			this.value = value;
+		}
+
+		public int getOffset() {
+			return offset;
+		}
+
+		public TraceEntryType getType() {
+			return type;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+	}
+}
@@ -25,10 +25,13 @@ import java.util.MissingFormatArgumentException;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UnknownFormatConversionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.CommandSender;
 import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.internal.platform.Platform;
 
 /**
  * Standardized output to the console and to players.
@@ -43,6 +46,15 @@ public class Output
 	public static final String PERCENT_DECODING = "%";
 	public static final String LINE_SPLITING = "\\{br\\}";
 //	public static final String LINE_SPLITING = "\n";
+	
+	private static final String LINE_BREAK = "{br}";
+	private static final Pattern LINE_SPLIT_PATTERN = Pattern.compile( LINE_SPLITING );
+	
+	private static final Object[] NO_ARGS = new Object[0];
+	
+	private static final int LOG_BATCH_SIZE = 256;
+	private static final long LOG_WAIT_MS = 1000;
+	private static final long LOG_SHUTDOWN_WAIT_MS = 2000;
 
     private static Output instance;
     
@@ -65,9 +77,38 @@ public class Output
     private Set<DebugTarget> activeDebugTargets;
     private Set<DebugTarget> selectiveDebugTargets;
     
+    /**
+     * <p>Indexed by the DebugTarget's ordinal, this is true if that target
+     * should be logged.  This combines the global debug mode with the active
+     * and selective targets, so checking a target is a single array lookup.
+     * It is rebuilt by updateDebugTargets() when any of them are changed.
+     * </p>
+     */
+    private volatile boolean[] debugTargetsEnabled;
+    
+    /**
+     * <p>When async logging is enabled, the messages are added to this buffer
+     * and are formatted and written by the logger thread.  If this is null, 
+     * then the messages are written directly by the thread that logs them.
+     * </p>
+     */
+    private volatile OutputLogBuffer logBuffer;
+    private volatile Thread logThread;
+    private volatile boolean asyncLoggingChecked = false;
+    
+    private final AtomicLong droppedLogMessages = new AtomicLong();
+    
     private int debugCountDown = -1;
     
     private String debugPlayerName = null;
+    
+    /**
+     * <p>When greater than one, only 1 in this many block break events will 
+     * be traced while debug mode is enabled.  See isDebugTraced().
+     * </p>
+     */
+    private int debugSampleRate = 1;
+    private final AtomicLong debugSampleCounter = new AtomicLong();
 
     public enum DebugTarget {
     	all,
@@ -121,6 +162,7 @@ public class Output
 
     	this.activeDebugTargets = new HashSet<>();
     	this.selectiveDebugTargets = new HashSet<>();
+    	updateDebugTargets();
         
     	this.prefixTemplate = coreOutputPrefixTemplateMsg();
 
@@ -252,8 +294,31 @@ public class Output
      * Log a message with a specified {@link LogLevel}
      */
     public void log(String message, LogLevel level, Object... args) {
+    	logMessage( message, level, args, null );
+    }
+    
+    /**
+     * <p>When async logging is enabled, the message is only added to the log
+     * buffer, and it is formatted and written later by the logger thread.  
+     * Since the arguments are formatted later, they should not be changed
+     * after they are logged.  If the buffer is full, then the debug, info, 
+     * and plain messages are dropped, but the warnings and errors are written
+     * directly so they are never lost.
+     * </p>
+     * 
+     * @param message
+     * @param level
+     * @param args
+     * @param throwables
+     */
+    private void logMessage( String message, LogLevel level, Object[] args, Throwable[] throwables ) {
+    	if ( args == null ) {
+    		args = NO_ARGS;
+    	}
+    	
     	if ( message == null || message.trim().isEmpty() ) {
     		// do not send an empty message... do nothing...
+    		printStackTraces( throwables );
     	}
     	else if ( Prison.get() == null || Prison.get().getPlatform() == null ) {
     		String errorMessage = coreOutputErrorStartupFailureMsg();
@@ -271,68 +336,253 @@ public class Output
 			
     		System.err.println( errorMessage + "   message: [" + message + 
     				"] params: " + sb.toString() );
+    		
+    		printStackTraces( throwables );
     	} 
     	else {
-    		try {
-    			
-    			String msg = args == null || args.length == 0 ?
-    					message : 
-    						String.format(message, args);
+    		OutputLogBuffer buffer = getLogBuffer();
+    		
+    		if ( buffer == null || Thread.currentThread() == logThread ) {
+    			writeLog( message, level, args, throwables );
+    		}
+    		else if ( !buffer.offer( level, message, args, throwables ) ) {
     			
-    			msg = decodePercentEncoding( msg );
-//    			if ( msg.contains( PERCENT_ENCODING ) ) {
-//    				msg = msg.replace( PERCENT_ENCODING, PERCENT_DECODING );
-//    			}
+    			if ( level == LogLevel.ERROR || level == LogLevel.WARNING ) {
+    				writeLog( message, level, args, throwables );
+    			}
+    			else {
+    				droppedLogMessages.incrementAndGet();
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * <p>Formats the message and writes it to the platform's logger.  The 
+     * message is only formatted once, and is only split if it contains a 
+     * line break.
+     * </p>
+     * 
+     * @param message
+     * @param level
+     * @param args
+     * @param throwables
+     */
+    private void writeLog( String message, LogLevel level, Object[] args, Throwable[] throwables ) {
+    	try {
+    		
+    		String msg = args == null || args.length == 0 ?
+    				message : 
+    					String.format(message, args);
+    		
+    		msg = decodePercentEncoding( msg );
+    		
+    		if ( msg.contains( LINE_BREAK ) ) {
     			
-        		String msgRaw = String.format(msg, args);
-        		boolean includePrefix = true;
-        		for (String  msgSplit : msgRaw.split( LINE_SPLITING )) {
+    			boolean includePrefix = true;
+    			for (String  msgSplit : LINE_SPLIT_PATTERN.split( msg )) {
     				
-        			Prison.get().getPlatform().log(
-        					(includePrefix ? (prefixTemplatePrison + " ") : "") +
-        							getLogColorCode(level) +
-        							msgSplit);
-        			includePrefix = false;
+    				Prison.get().getPlatform().log(
+    						(includePrefix ? (prefixTemplatePrison + " ") : "") +
+    						getLogColorCode(level) +
+    						msgSplit);
+    				includePrefix = false;
+    			}
+    		}
+    		else {
+    			Prison.get().getPlatform().log(
+    					prefixTemplatePrison + " " +
+    					getLogColorCode(level) +
+    					msg);
+    		}
+    		
+    	}
+    	catch ( MissingFormatArgumentException e )
+    	{
+    		StringBuilder sb = new StringBuilder();
+    		
+    		for ( Object arg : args ) {
+    			sb.append( "[" ).append( arg ).append( "] " );
+    		}
+    		
+    		String errorMessage = coreOutputErrorIncorrectNumberOfParametersMsg(
+    				level.name(), e.getMessage(), message, sb.toString() );
+    		
+    		Prison.get().getPlatform().logCore(
+    				prefixTemplatePrison + " " + 
+    						getLogColorCode(LogLevel.ERROR) +
+    						errorMessage );
+    	}
+    	catch ( UnknownFormatConversionException |
+    			FormatFlagsConversionMismatchException e) 
+    	{
+    		StringBuilder sb = new StringBuilder();
+    		
+    		for ( Object arg : args ) {
+    			sb.append( "[" ).append( arg ).append( "] " );
+    		}
+    		
+    		String errorMessage = "Error with Java format usage (eg %s): " +
+    				" LogLevel: " + level.name() + 
+    				" message: [" + message + "] params: [" + sb.toString() + "]" +
+    				" error: [" + e.getMessage() + "] " +
+    				" Escape with backslash or double percent [\\b \\n \\f \\r \\t \\\\ %%]";
+    		
+    		Prison.get().getPlatform().logCore(
+    				prefixTemplatePrison + " " + 
+    						getLogColorCode(LogLevel.ERROR) +
+    						errorMessage );
+    		
+    		//e.printStackTrace();
+    	}
+    	
+    	printStackTraces( throwables );
+    }
+    
+    private void printStackTraces( Throwable[] throwables ) {
+    	if ( throwables != null && throwables.length > 0 ) {
+    		Arrays.stream(throwables).forEach(Throwable::printStackTrace);
+    	}
+    }
+    
+    /**
+     * <p>The first time a message is logged after the platform is available,
+     * this checks if async logging is enabled, and if so, starts the logger 
+     * thread.  
+     * </p>
+     * 
+     * @return The log buffer, or null if the messages should be written directly.
+     */
+    private OutputLogBuffer getLogBuffer() {
+    	if ( !asyncLoggingChecked ) {
+    		initAsyncLogging();
+    	}
+    	return logBuffer;
+    }
+    
+    private void initAsyncLogging() {
+    	synchronized ( this ) {
+    		if ( asyncLoggingChecked ) {
+    			return;
+    		}
+    		
+    		// Set first, so anything that is logged while reading the config is 
+    		// written directly:
+    		asyncLoggingChecked = true;
+    	}
+    	
+    	Platform platform = Prison.get().getPlatform();
+    	
+    	if ( platform.getConfigBooleanTrue( "output.async-logging" ) ) {
+    		
+    		int capacity = platform.getConfigInt( "output.buffer-size", 
+    								OutputLogBuffer.DEFAULT_CAPACITY );
+    		
+    		OutputLogBuffer buffer = new OutputLogBuffer( capacity );
+    		
+    		Thread thread = new Thread( () -> runLogThread( buffer ), "Prison-Output" );
+    		thread.setDaemon( true );
+    		
+    		logThread = thread;
+    		logBuffer = buffer;
+    		
+    		thread.start();
+    	}
+    }
+    
+    /**
+     * <p>The logger thread writes the messages from the log buffer, in the 
+     * order that they were logged, until the buffer is closed and empty.  If 
+     * any messages were dropped since the last batch, then a warning is 
+     * logged with how many were dropped.
+     * </p>
+     * 
+     * @param buffer
+     */
+    private void runLogThread( OutputLogBuffer buffer ) {
+    	OutputLogBuffer.Entry[] batch = OutputLogBuffer.newBatch( LOG_BATCH_SIZE );
+    	
+    	long droppedReported = 0;
+    	boolean running = true;
+    	
+    	while ( running ) {
+    		
+    		int count = 0;
+    		try {
+    			count = buffer.drainTo( batch, LOG_WAIT_MS );
+    		}
+    		catch ( InterruptedException e ) {
+    			// Stop, and leave what is left for shutdown() to write:
+    			break;
+    		}
+    		
+    		writeBatch( batch, count );
+    		
+    		long dropped = droppedLogMessages.get();
+    		if ( dropped > droppedReported ) {
+    			
+    			writeLog( "Output: %d log messages were dropped since the log buffer was full. " +
+    					"If this continues, increase output.buffer-size in config.yml.", 
+    					LogLevel.WARNING, new Object[] { dropped - droppedReported }, null );
+    			droppedReported = dropped;
+    		}
+    		
+    		running = count > 0 || !buffer.isClosed();
+    	}
+    }
+    
+    private void writeBatch( OutputLogBuffer.Entry[] batch, int count ) {
+    	for ( int i = 0; i < count; i++ ) {
+    		OutputLogBuffer.Entry entry = batch[i];
+    		
+    		try {
+    			writeLog( entry.getMessage(), entry.getLevel(), entry.getArgs(), entry.getThrowables() );
+    		}
+    		catch ( RuntimeException e ) {
+    			// Do not let one bad message stop the logger thread:
+    			e.printStackTrace();
+    		}
+    		
+    		entry.clear();
+    	}
+    }
+    
+    /**
+     * <p>Stops the logger thread, after it has written all of the messages
+     * that are in the log buffer.  Anything that is logged after this is 
+     * written directly.  This should be called when prison is disabled.
+     * </p>
+     */
+    public void shutdown() {
+    	OutputLogBuffer buffer;
+    	Thread thread;
+    	
+    	synchronized ( this ) {
+    		asyncLoggingChecked = true;
+    		
+    		buffer = logBuffer;
+    		thread = logThread;
+    		
+    		logBuffer = null;
+    	}
+    	
+    	if ( buffer != null ) {
+    		buffer.close();
+    		
+    		try {
+    			if ( thread != null ) {
+    				thread.join( LOG_SHUTDOWN_WAIT_MS );
     			}
     			
-			}
-			catch ( MissingFormatArgumentException e )
-			{
-				StringBuilder sb = new StringBuilder();
-				
-				for ( Object arg : args ) {
-					sb.append( "[" ).append( arg ).append( "] " );
-				}
-				
-				String errorMessage = coreOutputErrorIncorrectNumberOfParametersMsg(
-						level.name(), e.getMessage(), message, sb.toString() );
-				
-				Prison.get().getPlatform().logCore(
-						prefixTemplatePrison + " " + 
-						getLogColorCode(LogLevel.ERROR) +
-						errorMessage );
-			}
-    		catch ( UnknownFormatConversionException |
-    				FormatFlagsConversionMismatchException e) 
-    		{
-				StringBuilder sb = new StringBuilder();
-				
-				for ( Object arg : args ) {
-					sb.append( "[" ).append( arg ).append( "] " );
-				}
-				
-				String errorMessage = "Error with Java format usage (eg %s): " +
-						" LogLevel: " + level.name() + 
-						" message: [" + message + "] params: [" + sb.toString() + "]" +
-						" error: [" + e.getMessage() + "] " +
-						" Escape with backslash or double percent [\\b \\n \\f \\r \\t \\\\ %%]";
-				
-				Prison.get().getPlatform().logCore(
-						prefixTemplatePrison + " " + 
-						getLogColorCode(LogLevel.ERROR) +
-						errorMessage );
-
-				//e.printStackTrace();
+    			// Write anything that the logger thread did not get to:
+    			OutputLogBuffer.Entry[] batch = OutputLogBuffer.newBatch( LOG_BATCH_SIZE );
+    			int count;
+    			while ( (count = buffer.drainTo( batch, 0 )) > 0 ) {
+    				writeBatch( batch, count );
+    			}
+    		}
+    		catch ( InterruptedException e ) {
+    			Thread.currentThread().interrupt();
     		}
     	}
     }
@@ -354,11 +604,7 @@ public class Output
      * @param throwable The exceptions thrown, if any.
      */
     public void logWarn(String message, Throwable... throwable) {
-        log(message, LogLevel.WARNING);
-
-        if (throwable.length > 0) {
-            Arrays.stream(throwable).forEach(Throwable::printStackTrace);
-        }
+        logMessage(message, LogLevel.WARNING, NO_ARGS, throwable);
     }
 
     /**
@@ -369,11 +615,7 @@ public class Output
      * @param throwable The exceptions thrown, if any.
      */
     public void logError(String message, Throwable... throwable) {
-        log(message, LogLevel.ERROR);
-
-        if (throwable.length > 0) {
-            Arrays.stream(throwable).forEach(Throwable::printStackTrace);
-        }
+        logMessage(message, LogLevel.ERROR, NO_ARGS, throwable);
     }
     
     public void logDebug(String message, Object... args) {
@@ -424,6 +666,35 @@ public class Output
 //    	}
     }
     
+    /**
+     * <p>Identifies if an event should be traced for the given debug target.
+     * This is checked once per event, and if it returns false, then nothing 
+     * should be recorded for the event so there is no cost when debug mode is 
+     * off.  If a debug player is set, then only that player's events are traced,
+     * and if a debug sample rate is set, then only 1 in that many of the 
+     * remaining events are traced.
+     * </p>
+     * 
+     * @param debugTarget
+     * @param player
+     * @return
+     */
+    public boolean isDebugTraced( DebugTarget debugTarget, Player player ) {
+    	boolean results = false;
+    	
+    	if ( isDebug( debugTarget ) &&
+    			( getDebugPlayerName() == null || 
+    				player != null && getDebugPlayerName().equalsIgnoreCase( player.getName() )) ) {
+    		
+    		int sampleRate = getDebugSampleRate();
+    		
+    		results = sampleRate <= 1 || 
+    				debugSampleCounter.incrementAndGet() % sampleRate == 0;
+    	}
+    	
+    	return results;
+    }
+    
     public String getDebugTargetsString() {
     	StringBuilder sb = new StringBuilder();
     	
@@ -499,11 +770,13 @@ public class Output
 
     		// Clear all existing targets:
     		getActiveDebugTargets().clear();
+    		updateDebugTargets();
 
     		
     		// If turning off debug mode, then reset only-for-player name to null:
     		if ( !isDebug() ) {
     			setDebugPlayerName( null );
+    			setDebugSampleRate( 1 );
     		}
     		
 
@@ -544,6 +817,8 @@ public class Output
     		}
     		
 		}
+    	
+    	updateDebugTargets();
 
     	// No global changes here:
     	// Output.get().setDebug( !Output.get().isDebug() );
@@ -563,13 +838,31 @@ public class Output
     		}
 
     	}
-    		
     	
+    	updateDebugTargets();
     }
     
     public boolean isDebug( DebugTarget debugTarget ) {
-    	return isDebug() || getActiveDebugTargets().contains( debugTarget ) || 
-    			getSelectiveDebugTargets().contains( debugTarget );
+    	return debugTarget == null ? isDebug() : 
+    				debugTargetsEnabled[ debugTarget.ordinal() ];
+    }
+    
+    /**
+     * <p>Rebuilds debugTargetsEnabled.  This must be called whenever the 
+     * global debug mode, or the active or selective targets, are changed.
+     * </p>
+     */
+    private void updateDebugTargets() {
+    	DebugTarget[] targets = DebugTarget.values();
+    	boolean[] enabled = new boolean[ targets.length ];
+    	
+    	for ( DebugTarget target : targets ) {
+    		enabled[ target.ordinal() ] = debug || 
+    				activeDebugTargets.contains( target ) || 
+    				selectiveDebugTargets.contains( target );
+    	}
+    	
+    	debugTargetsEnabled = enabled;
     }
     
     /**
@@ -589,6 +882,7 @@ public class Output
 	}
 	public void setDebug( boolean debug ) {
 		this.debug = debug;
+		updateDebugTargets();
 	}
 
 	public int getDebugCountDown() {
@@ -603,6 +897,7 @@ public class Output
 	}
 	public void setActiveDebugTargets( Set<DebugTarget> activeDebugTargets ) {
 		this.activeDebugTargets = activeDebugTargets;
+		updateDebugTargets();
 	}
 
 	public Set<DebugTarget> getSelectiveDebugTargets() {
@@ -610,6 +905,7 @@ public class Output
 	}
 	public void setSelectiveDebugTargets( Set<DebugTarget> selectiveDebugTargets ) {
 		this.selectiveDebugTargets = selectiveDebugTargets;
+		updateDebugTargets();
 	}
 
 
@@ -694,5 +990,16 @@ public class Output
 	public void setDebugPlayerName(String debugPlayerName) {
 		this.debugPlayerName = debugPlayerName;
 	}
+
+	public long getDroppedLogMessages() {
+		return droppedLogMessages.get();
+	}
+
+	public int getDebugSampleRate() {
+		return debugSampleRate;
+	}
+	public void setDebugSampleRate( int debugSampleRate ) {
+		this.debugSampleRate = debugSampleRate < 1 ? 1 : debugSampleRate;
+	}
     
 }
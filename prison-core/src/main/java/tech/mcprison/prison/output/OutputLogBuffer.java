@@ -0,0 +1,201 @@
+package tech.mcprison.prison.output;
+
+/**
+ * <p>A bounded ring buffer of log messages that are waiting to be written by
+ * Output's logger thread.  The slots are allocated once, when the buffer is
+ * created, and are reused, so adding a message only stores the references to
+ * the message, its level, and its arguments.  The message is not formatted
+ * until the logger thread writes it.
+ * </p>
+ *
+ * <p>Any thread can add messages, but only the logger thread should drain
+ * them.  If the buffer is full, the message is not added and it is counted
+ * as an overflow, so the thread that is logging never has to wait for the
+ * logger thread.  It is up to the caller to decide if that message is then
+ * dropped, or written directly.
+ * </p>
+ *
+ */
+public class OutputLogBuffer
+{
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	private final Entry[] slots;
+
+	private int head = 0;
+	private int size = 0;
+
+	private long added = 0;
+	private long overflow = 0;
+
+	private boolean closed = false;
+	private boolean drainerWaiting = false;
+
+	/**
+	 * <p>One log message.  The references are cleared once the message has
+	 * been written so the arguments are not held on to.
+	 * </p>
+	 */
+	public static class Entry
+	{
+		private LogLevel level;
+		private String message;
+		private Object[] args;
+		private Throwable[] throwables;
+
+		private void set( LogLevel level, String message, Object[] args, Throwable[] throwables ) {
+			this.level = level;
+			this.message = message;
+			this.args = args;
+			this.throwables = throwables;
+		}
+
+		private void copyFrom( Entry entry ) {
+			set( entry.level, entry.message, entry.args, entry.throwables );
+		}
+
+		public void clear() {
+			set( null, null, null, null );
+		}
+
+		public LogLevel getLevel() {
+			return level;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public Object[] getArgs() {
+			return args;
+		}
+
+		public Throwable[] getThrowables() {
+			return throwables;
+		}
+	}
+
+	public OutputLogBuffer( int capacity ) {
+		super();
+
+		this.slots = newBatch( capacity < 1 ? DEFAULT_CAPACITY : capacity );
+	}
+
+	/**
+	 * <p>Creates the entries that drainTo() copies the messages in to, so the
+	 * logger thread can reuse them for every batch.
+	 * </p>
+	 *
+	 * @param size
+	 * @return
+	 */
+	public static Entry[] newBatch( int size ) {
+		Entry[] batch = new Entry[size];
+
+		for ( int i = 0; i < size; i++ ) {
+			batch[i] = new Entry();
+		}
+
+		return batch;
+	}
+
+	/**
+	 * <p>Adds the message to the end of the buffer.  If the buffer is full, or
+	 * it has been closed, then the message is counted as an overflow and false
+	 * is returned.
+	 * </p>
+	 *
+	 * @param level
+	 * @param message
+	 * @param args
+	 * @param throwables
+	 * @return
+	 */
+	public synchronized boolean offer( LogLevel level, String message, Object[] args,
+					Throwable[] throwables ) {
+
+		if ( closed || size == slots.length ) {
+			overflow++;
+			return false;
+		}
+
+		slots[(head + size) % slots.length].set( level, message, args, throwables );
+		size++;
+		added++;
+
+		if ( drainerWaiting ) {
+			notifyAll();
+		}
+
+		return true;
+	}
+
+	/**
+	 * <p>Copies the oldest messages in to the batch, and removes them from the
+	 * buffer.  If the buffer is empty, this will wait up to waitMs for a
+	 * message to be added, or for the buffer to be closed.
+	 * </p>
+	 *
+	 * @param batch
+	 * @param waitMs
+	 * @return The number of messages that were copied in to the batch.
+	 * @throws InterruptedException
+	 */
+	public synchronized int drainTo( Entry[] batch, long waitMs )
+			throws InterruptedException {
+
+		if ( size == 0 && !closed && waitMs > 0 ) {
+			drainerWaiting = true;
+			try {
+				wait( waitMs );
+			}
+			finally {
+				drainerWaiting = false;
+			}
+		}
+
+		int count = Math.min( size, batch.length );
+
+		for ( int i = 0; i < count; i++ ) {
+			Entry slot = slots[head];
+
+			batch[i].copyFrom( slot );
+			slot.clear();
+
+			head = (head + 1) % slots.length;
+		}
+		size -= count;
+
+		return count;
+	}
+
+	/**
+	 * <p>No more messages will be added, and the logger thread is woken up so
+	 * it can write what is left and then stop.
+	 * </p>
+	 */
+	public synchronized void close() {
+		closed = true;
+		notifyAll();
+	}
+
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public int getCapacity() {
+		return slots.length;
+	}
+
+	public synchronized long getAddedCount() {
+		return added;
+	}
+
+	public synchronized long getOverflowCount() {
+		return overflow;
+	}
+}
@@ -202,6 +202,7 @@ public class PlaceholderManager {
 		prison_rn(PlaceholderFlags.PLAYER, PlaceholderFlags.ALIAS),
 		prison_rt(PlaceholderFlags.PLAYER, PlaceholderFlags.ALIAS),
 		prison_rlp(PlaceholderFlags.PLAYER, PlaceholderFlags.ALIAS),
+		prison_rtnp(PlaceholderFlags.PLAYER, PlaceholderFlags.ALIAS),
 		
 		prison_rc(PlaceholderFlags.PLAYER, PlaceholderFlags.ALIAS),
 		prison_rcf(PlaceholderFlags.PLAYER, PlaceholderFlags.ALIAS),
@@ -225,6 +226,7 @@ public class PlaceholderManager {
 		prison_rank_number(prison_rn, PlaceholderFlags.PLAYER),
 		prison_rank_tag(prison_rt, PlaceholderFlags.PLAYER),
 		prison_rank_ladder_position(prison_rlp, PlaceholderFlags.PLAYER),
+		prison_rank_top_n_position(prison_rtnp, PlaceholderFlags.PLAYER),
 		
 		prison_rankup_cost(prison_rc, PlaceholderFlags.PLAYER),
 		prison_rankup_cost_formatted(prison_rcf, PlaceholderFlags.PLAYER),
@@ -12,6 +12,9 @@ public class PlaceholderStatsData {
 	
 	private long totalDurationNanos = 0L;
 	
+	private int cacheHits = 0;
+	private long cacheSavedNanos = 0L;
+	
 	/**
 	 * A failedMatch will be identified if a placeholder key cannot be located for
 	 * the placeholder pattern.
@@ -126,6 +129,21 @@ public class PlaceholderStatsData {
 	}
 	
 	
+	/**
+	 * <p>This records that a cached value was used for this placeholder, and
+	 * how long it would have taken to calculate it.
+	 * </p>
+	 * 
+	 * @param savedNanos
+	 */
+	public void logCacheHit( long savedNanos ) {
+		
+		synchronized ( lock ) {
+			cacheHits++;
+			cacheSavedNanos += savedNanos;
+		}
+	}
+	
 	public double getAverageDurationMs() {
 		double avgMs = totalDurationNanos / hits / 1000000.0d;
 		
@@ -160,6 +178,14 @@ public class PlaceholderStatsData {
 //		this.failHits = failHits;
 //	}
 
+	public int getCacheHits() {
+		return cacheHits;
+	}
+	
+	public long getCacheSavedNanos() {
+		return cacheSavedNanos;
+	}
+	
 	public long getTotalDurationNanos() {
 		return totalDurationNanos;
 	}
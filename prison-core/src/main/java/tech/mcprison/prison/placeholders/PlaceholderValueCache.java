@@ -0,0 +1,613 @@
+package tech.mcprison.prison.placeholders;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+
+/**
+ * <p>This caches the translated value of a placeholder, for each player, for a
+ * short period of time.  Scoreboards and tab lists will request the same
+ * placeholders for every online player many times a second, and most of the
+ * values will not change between those requests.  The key is the player's
+ * UUID and the placeholder text as it was requested, which includes any
+ * placeholder attributes, so the same placeholder with different attributes
+ * are cached separately.
+ * </p>
+ *
+ * <p>Each type of placeholder has its own time to live, which is based upon the
+ * PlaceholderFlags of the placeholder.  A time to live of zero disables the
+ * cache for that type.
+ * </p>
+ *
+ * <p>Values can also be invalidated before they expire, such as when a player
+ * ranks up, their balance changes, they break a block, or a mine resets.
+ * Invalidation does not search through the cache.  Instead there is a
+ * generation counter for each type of placeholder, and for each type of
+ * placeholder for each player, and an invalidation just increments the
+ * counters.  A cached value is only used if the counters have not changed
+ * since it was stored.
+ * </p>
+ *
+ * <p>Invalidating a player only affects that player's values.  A value that
+ * is being calculated for another player is still stored, since only an
+ * invalidation of all players, or of that player, can make it stale.
+ * </p>
+ *
+ * <p>A player's generations are removed when the player leaves the server,
+ * and when a purge finds that the player has no cached values left.
+ * </p>
+ *
+ */
+public class PlaceholderValueCache
+{
+	public static final String PLACEHOLDER_VALUE_CACHE_ENABLED_CONFIG_NAME = "placeholder.value-cache.enabled";
+	public static final String PLACEHOLDER_VALUE_CACHE_MAX_ENTRIES_CONFIG_NAME = "placeholder.value-cache.max-entries";
+	public static final String PLACEHOLDER_VALUE_CACHE_TTL_CONFIG_PREFIX = "placeholder.value-cache.ttl-ms.";
+
+	public static final int PLACEHOLDER_VALUE_CACHE_MAX_ENTRIES_VALUE = 50000;
+	public static final long PLACEHOLDER_VALUE_CACHE_TTL_VALUE_MS = 1000;
+	public static final long PLACEHOLDER_VALUE_CACHE_TTL_STATS_VALUE_MS = 5000;
+
+	/**
+	 * <p>The flags that identify the type of a placeholder, in the order they
+	 * are checked.  The first flag that a placeholder has is its type.
+	 * </p>
+	 */
+	private static final PlaceholderFlags[] TYPE_FLAGS = {
+			PlaceholderFlags.PLAYER,
+			PlaceholderFlags.LADDERS,
+			PlaceholderFlags.RANKS,
+			PlaceholderFlags.RANKPLAYERS,
+			PlaceholderFlags.STATSRANKS,
+			PlaceholderFlags.STATSPLAYERS,
+			PlaceholderFlags.MINES,
+			PlaceholderFlags.MINEPLAYERS,
+			PlaceholderFlags.PLAYERBLOCKS,
+			PlaceholderFlags.STATSMINES
+	};
+
+	private static final String NO_PLAYER = "-";
+
+	private static PlaceholderValueCache instance;
+
+	private final Map<String, PlaceholderValueCacheEntry> entries;
+
+	/**
+	 * <p>The player's generations for each type of placeholder, followed by
+	 * the player's epoch in the PLAYER_EPOCH slot.
+	 * </p>
+	 */
+	private final Map<UUID, AtomicLongArray> playerGenerations;
+	private final AtomicLongArray typeGenerations;
+
+	private static final int PLAYER_EPOCH = PlaceholderFlags.values().length;
+
+	/**
+	 * <p>Every invalidation takes the next number from this sequence.  The
+	 * current value is the epoch that is given to a value before it is
+	 * calculated.
+	 * </p>
+	 */
+	private final AtomicLong sequence;
+
+	/**
+	 * <p>The sequence number of the last invalidation of all players.  Each
+	 * player's own last invalidation is kept in their PLAYER_EPOCH slot.  If
+	 * either is newer than the epoch that a value was calculated with, then
+	 * the value is not stored since it may have been calculated with data
+	 * that has since changed.
+	 * </p>
+	 */
+	private final AtomicLong epoch;
+
+	/**
+	 * <p>The sequence number of the last time that a player's generations were
+	 * removed.  A value that was being calculated for a player when their 
+	 * generations were removed cannot tell if the player was invalidated, so it
+	 * is not stored if the player has no generations, and this is newer than 
+	 * the epoch that it was calculated with.
+	 * </p>
+	 */
+	private final AtomicLong removedEpoch;
+
+	private final long[] ttlNanos;
+
+	private boolean enabled = true;
+	private int maxEntries = PLACEHOLDER_VALUE_CACHE_MAX_ENTRIES_VALUE;
+
+	private final AtomicLong statsHits;
+	private final AtomicLong statsMisses;
+	private final AtomicLong statsStale;
+	private final AtomicLong statsStores;
+	private final AtomicLong statsInvalidations;
+	private final AtomicLong statsSavedNanos;
+
+
+	protected PlaceholderValueCache() {
+		super();
+
+		this.entries = new ConcurrentHashMap<>();
+
+		this.playerGenerations = new ConcurrentHashMap<>();
+		this.typeGenerations = new AtomicLongArray( PlaceholderFlags.values().length );
+
+		this.sequence = new AtomicLong();
+		this.epoch = new AtomicLong();
+		this.removedEpoch = new AtomicLong();
+
+		this.ttlNanos = new long[ PlaceholderFlags.values().length ];
+		for ( PlaceholderFlags flag : TYPE_FLAGS ) {
+			setTtlMs( flag, getDefaultTtlMs( flag ) );
+		}
+
+		this.statsHits = new AtomicLong();
+		this.statsMisses = new AtomicLong();
+		this.statsStale = new AtomicLong();
+		this.statsStores = new AtomicLong();
+		this.statsInvalidations = new AtomicLong();
+		this.statsSavedNanos = new AtomicLong();
+	}
+
+	public static PlaceholderValueCache getInstance() {
+
+		if ( instance == null ) {
+			synchronized ( PlaceholderValueCache.class ) {
+				if ( instance == null ) {
+					PlaceholderValueCache cache = new PlaceholderValueCache();
+					cache.reloadConfig();
+
+					instance = cache;
+				}
+			}
+		}
+
+		return instance;
+	}
+
+	/**
+	 * <p>Reads the settings from the config.yml file.  The cache is cleared
+	 * since the time to live of the cached values may have changed.
+	 * </p>
+	 */
+	public void reloadConfig() {
+
+		setEnabled( Prison.get().getPlatform().getConfigBooleanTrue(
+				PLACEHOLDER_VALUE_CACHE_ENABLED_CONFIG_NAME ) );
+
+		setMaxEntries( Prison.get().getPlatform().getConfigInt(
+				PLACEHOLDER_VALUE_CACHE_MAX_ENTRIES_CONFIG_NAME, PLACEHOLDER_VALUE_CACHE_MAX_ENTRIES_VALUE ) );
+
+		long defaultTtlMs = Prison.get().getPlatform().getConfigLong(
+				PLACEHOLDER_VALUE_CACHE_TTL_CONFIG_PREFIX + "default", PLACEHOLDER_VALUE_CACHE_TTL_VALUE_MS );
+
+		for ( PlaceholderFlags flag : TYPE_FLAGS ) {
+
+			long ttlMs = Prison.get().getPlatform().getConfigLong(
+					PLACEHOLDER_VALUE_CACHE_TTL_CONFIG_PREFIX + flag.name().toLowerCase(),
+					flag.hasSequence() ? PLACEHOLDER_VALUE_CACHE_TTL_STATS_VALUE_MS : defaultTtlMs );
+
+			setTtlMs( flag, ttlMs );
+		}
+
+		clear();
+	}
+
+	private long getDefaultTtlMs( PlaceholderFlags flag ) {
+		return flag.hasSequence() ?
+				PLACEHOLDER_VALUE_CACHE_TTL_STATS_VALUE_MS : PLACEHOLDER_VALUE_CACHE_TTL_VALUE_MS;
+	}
+
+	/**
+	 * <p>Returns the type of the placeholder, which is the first of the type flags
+	 * that it has, or null if it does not have any of them.
+	 * </p>
+	 *
+	 * @param placeholder
+	 * @return
+	 */
+	public static PlaceholderFlags getPlaceholderType( PrisonPlaceHolders placeholder ) {
+		PlaceholderFlags results = null;
+
+		if ( placeholder != null ) {
+			for ( PlaceholderFlags flag : TYPE_FLAGS ) {
+				if ( placeholder.hasFlag( flag ) ) {
+					results = flag;
+					break;
+				}
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns the cached value, or null if there is no cached value or if it
+	 * has expired or has been invalidated.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 * @param placeholderText The placeholder text as it was requested.
+	 * @return
+	 */
+	public String get( UUID playerUuid, String placeholderText ) {
+		String results = null;
+
+		if ( !isEnabled() || placeholderText == null ) {
+			return results;
+		}
+
+		PlaceholderValueCacheEntry entry = entries.get( getKey( playerUuid, placeholderText ) );
+
+		if ( entry == null ) {
+			statsMisses.incrementAndGet();
+		}
+		else if ( !isCurrent( playerUuid, entry, System.nanoTime() ) ) {
+			statsStale.incrementAndGet();
+		}
+		else {
+			results = entry.getValue();
+
+			statsHits.incrementAndGet();
+			statsSavedNanos.addAndGet( entry.getComputeNanos() );
+
+			if ( entry.getStats() != null ) {
+				entry.getStats().logCacheHit( entry.getComputeNanos() );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Stores the value that was calculated for the placeholder.  The epoch
+	 * must be obtained from getEpoch() before the value was calculated.  If
+	 * all players, or this player, have been invalidated since then, then the
+	 * value is not stored.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 * @param placeholderText The placeholder text as it was requested.
+	 * @param placeholder The placeholder that was matched.
+	 * @param stats The placeholder's stats, which will record the cache hits.  May be null.
+	 * @param value
+	 * @param epoch
+	 * @param computeNanos How long it took to calculate the value.
+	 */
+	public void put( UUID playerUuid, String placeholderText, PrisonPlaceHolders placeholder,
+			PlaceholderStatsData stats, String value, long epoch, long computeNanos ) {
+
+		PlaceholderFlags type = getPlaceholderType( placeholder );
+
+		if ( !isEnabled() || placeholderText == null || value == null || type == null ) {
+			return;
+		}
+
+		long ttl = ttlNanos[ type.ordinal() ];
+
+		if ( ttl <= 0 ) {
+			return;
+		}
+
+		// The generations are read before the epochs are checked, since an
+		// invalidation sets its epoch before it increments the generations:
+		AtomicLongArray generations = null;
+		long playerGeneration = 0;
+		if ( playerUuid != null ) {
+			generations = playerGenerations.get( playerUuid );
+			
+			if ( generations == null ) {
+				if ( epoch < removedEpoch.get() ) {
+					return;
+				}
+				generations = getPlayerGenerations( playerUuid );
+			}
+			playerGeneration = generations.get( type.ordinal() );
+		}
+
+		long typeGeneration = typeGenerations.get( type.ordinal() );
+
+		if ( epoch < this.epoch.get() ||
+				generations != null && epoch < generations.get( PLAYER_EPOCH ) ) {
+			return;
+		}
+
+		if ( entries.size() >= getMaxEntries() ) {
+			purgeExpired();
+		}
+
+		PlaceholderValueCacheEntry entry = new PlaceholderValueCacheEntry( value, type, stats,
+				System.nanoTime() + ttl, computeNanos,
+				typeGeneration, playerGeneration );
+
+		entries.put( getKey( playerUuid, placeholderText ), entry );
+
+		statsStores.incrementAndGet();
+	}
+
+	private boolean isCurrent( UUID playerUuid, PlaceholderValueCacheEntry entry, long nanoTime ) {
+		boolean results = entry.getExpiresNanos() - nanoTime > 0;
+
+		int ordinal = entry.getType().ordinal();
+
+		if ( results ) {
+			results = entry.getTypeGeneration() == typeGenerations.get( ordinal );
+		}
+
+		if ( results && playerUuid != null ) {
+			AtomicLongArray generations = playerGenerations.get( playerUuid );
+
+			results = generations != null &&
+					entry.getPlayerGeneration() == generations.get( ordinal );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Gets the player's generations, or adds them if they do not exist.  New
+	 * generations start at the next sequence number, which is higher than any
+	 * generation that the player had before theirs were removed, so the values
+	 * that were stored with the removed generations are never current again.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 * @return
+	 */
+	private AtomicLongArray getPlayerGenerations( UUID playerUuid ) {
+		return playerGenerations.computeIfAbsent( playerUuid, uuid -> {
+			
+			AtomicLongArray generations = new AtomicLongArray( PLAYER_EPOCH + 1 );
+			
+			long start = sequence.incrementAndGet();
+			for ( int i = 0; i < PLAYER_EPOCH; i++ ) {
+				generations.set( i, start );
+			}
+			
+			return generations;
+		});
+	}
+
+	private String getKey( UUID playerUuid, String placeholderText ) {
+		return (playerUuid == null ? NO_PLAYER : playerUuid.toString()) + "|" + placeholderText;
+	}
+
+	/**
+	 * <p>The current epoch, which must be obtained before a value is calculated
+	 * and then passed to put().
+	 * </p>
+	 *
+	 * @return
+	 */
+	public long getEpoch() {
+		return sequence.get();
+	}
+
+	/**
+	 * <p>Invalidates all of the cached values for the player, such as when
+	 * they rank up or their balance changes.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 */
+	public void invalidatePlayer( UUID playerUuid ) {
+		invalidatePlayer( playerUuid, TYPE_FLAGS );
+	}
+
+	/**
+	 * <p>Invalidates the player's cached values for the given types of
+	 * placeholders, such as when they break a block.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 * @param types
+	 */
+	public void invalidatePlayer( UUID playerUuid, PlaceholderFlags... types ) {
+
+		if ( playerUuid != null ) {
+
+			// The player's generations are kept even if the player has no
+			// cached values, so a value that is being calculated for them
+			// sees the player's epoch when it is stored:
+			AtomicLongArray generations = getPlayerGenerations( playerUuid );
+
+			long playerEpoch = sequence.incrementAndGet();
+			generations.accumulateAndGet( PLAYER_EPOCH, playerEpoch, Math::max );
+
+			for ( PlaceholderFlags type : types ) {
+				generations.incrementAndGet( type.ordinal() );
+			}
+
+			statsInvalidations.incrementAndGet();
+		}
+	}
+
+	/**
+	 * <p>Invalidates the cached values for the given types of placeholders for
+	 * all players, such as when a mine resets.
+	 * </p>
+	 *
+	 * @param types
+	 */
+	public void invalidate( PlaceholderFlags... types ) {
+
+		epoch.accumulateAndGet( sequence.incrementAndGet(), Math::max );
+
+		for ( PlaceholderFlags type : types ) {
+			typeGenerations.incrementAndGet( type.ordinal() );
+		}
+
+		statsInvalidations.incrementAndGet();
+	}
+
+	/**
+	 * <p>Removes all of the player's cached values and generations, such as 
+	 * when the player leaves the server.
+	 * </p>
+	 *
+	 * @param playerUuid
+	 */
+	public void removePlayer( UUID playerUuid ) {
+		
+		if ( playerUuid == null ) {
+			return;
+		}
+		
+		removedEpoch.accumulateAndGet( sequence.incrementAndGet(), Math::max );
+		
+		playerGenerations.remove( playerUuid );
+		
+		String prefix = playerUuid.toString() + "|";
+		entries.keySet().removeIf( key -> key.startsWith( prefix ) );
+	}
+
+	/**
+	 * <p>Removes the values that have expired or have been invalidated.  If
+	 * the cache is still full, then all of the values are removed.  The 
+	 * generations of the players that no longer have any values are also 
+	 * removed.
+	 * </p>
+	 */
+	public void purgeExpired() {
+		long nanoTime = System.nanoTime();
+		
+		Set<UUID> cachedPlayers = new HashSet<>();
+
+		Iterator<Map.Entry<String, PlaceholderValueCacheEntry>> itr = entries.entrySet().iterator();
+		while ( itr.hasNext() ) {
+			Map.Entry<String, PlaceholderValueCacheEntry> entry = itr.next();
+
+			String key = entry.getKey();
+			String uuid = key.substring( 0, key.indexOf( '|' ) );
+
+			UUID playerUuid = NO_PLAYER.equals( uuid ) ? null : UUID.fromString( uuid );
+
+			if ( !isCurrent( playerUuid, entry.getValue(), nanoTime ) ) {
+				itr.remove();
+			}
+			else if ( playerUuid != null ) {
+				cachedPlayers.add( playerUuid );
+			}
+		}
+
+		if ( entries.size() >= getMaxEntries() ) {
+			entries.clear();
+			cachedPlayers.clear();
+		}
+		
+		// The epoch is set before the generations are removed, so a value that
+		// is being stored for one of these players is not stored without them:
+		removedEpoch.accumulateAndGet( sequence.incrementAndGet(), Math::max );
+		
+		playerGenerations.keySet().removeIf( uuid -> !cachedPlayers.contains( uuid ) );
+	}
+
+	public void clear() {
+		epoch.accumulateAndGet( sequence.incrementAndGet(), Math::max );
+
+		entries.clear();
+		playerGenerations.clear();
+	}
+
+	public void clearStats() {
+		statsHits.set( 0 );
+		statsMisses.set( 0 );
+		statsStale.set( 0 );
+		statsStores.set( 0 );
+		statsInvalidations.set( 0 );
+		statsSavedNanos.set( 0 );
+	}
+
+	/**
+	 * <p>The hit rate of the cache, as a percentage of all lookups.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public double getHitRate() {
+		long hits = statsHits.get();
+		long total = hits + statsMisses.get() + statsStale.get();
+
+		return total == 0 ? 0 : hits * 100.0d / total;
+	}
+
+	public List<String> generateReport() {
+		List<String> results = new ArrayList<>();
+
+		results.add( String.format(
+				"&7Value Cache: &3%s  &7Entries: &3%d  &7Hits: &3%d  &7Misses: &3%d  " +
+				"&7Stale: &3%d  &7Hit Rate: &3%.2f%%",
+				isEnabled() ? "enabled" : "disabled",
+				size(), getStatsHits(), getStatsMisses(), getStatsStale(), getHitRate() ) );
+
+		results.add( String.format(
+				"&7Value Cache: &7Stores: &3%d  &7Invalidations: &3%d  &7Saved: &3%.3f ms",
+				getStatsStores(), getStatsInvalidations(), getStatsSavedNanos() / 1000000.0d ) );
+
+		return results;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * <p>The number of players that have generations.
+	 * </p>
+	 *
+	 * @return
+	 */
+	int getPlayerGenerationsCount() {
+		return playerGenerations.size();
+	}
+
+	public long getTtlMs( PlaceholderFlags type ) {
+		return ttlNanos[ type.ordinal() ] / 1000000L;
+	}
+	public void setTtlMs( PlaceholderFlags type, long ttlMs ) {
+		ttlNanos[ type.ordinal() ] = Math.max( 0, ttlMs ) * 1000000L;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+	public void setEnabled( boolean enabled ) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+	public void setMaxEntries( int maxEntries ) {
+		this.maxEntries = maxEntries;
+	}
+
+	public long getStatsHits() {
+		return statsHits.get();
+	}
+	public long getStatsMisses() {
+		return statsMisses.get();
+	}
+	public long getStatsStale() {
+		return statsStale.get();
+	}
+	public long getStatsStores() {
+		return statsStores.get();
+	}
+	public long getStatsInvalidations() {
+		return statsInvalidations.get();
+	}
+	public long getStatsSavedNanos() {
+		return statsSavedNanos.get();
+	}
+}
@@ -0,0 +1,72 @@
+package tech.mcprison.prison.placeholders;
+
+import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
+
+/**
+ * <p>A cached placeholder value, with when it expires, and the generations
+ * of its placeholder type when it was stored.
+ * </p>
+ *
+ */
+public class PlaceholderValueCacheEntry
+{
+	private final String value;
+	private final PlaceholderFlags type;
+	private final PlaceholderStatsData stats;
+
+	private final long expiresNanos;
+	private final long computeNanos;
+
+	private final long typeGeneration;
+	private final long playerGeneration;
+
+	public PlaceholderValueCacheEntry( String value, PlaceholderFlags type, PlaceholderStatsData stats,
+			long expiresNanos, long computeNanos, long typeGeneration, long playerGeneration ) {
+		super();
+
+		this.value = value;
+		this.type = type;
+		this.stats = stats;
+
+		this.expiresNanos = expiresNanos;
+		this.computeNanos = computeNanos;
+
+		this.typeGeneration = typeGeneration;
+		this.playerGeneration = playerGeneration;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public PlaceholderFlags getType() {
+		return type;
+	}
+
+	public PlaceholderStatsData getStats() {
+		return stats;
+	}
+
+	public long getExpiresNanos() {
+		return expiresNanos;
+	}
+
+	/**
+	 * <p>How long it took to calculate the value, which is the time that is
+	 * saved each time the cached value is used.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public long getComputeNanos() {
+		return computeNanos;
+	}
+
+	public long getTypeGeneration() {
+		return typeGeneration;
+	}
+
+	public long getPlayerGeneration() {
+		return playerGeneration;
+	}
+}
@@ -125,7 +125,8 @@ public class PlaceholdersStats {
 		DecimalFormat dFmt = Prison.get().getDecimalFormat( "#,##0.0000" );
 		
 		results.add( 
-				"&7 &n     Hits&r  &n    Fails&r  &nAvg/Hit ms&r  &nPlaceholder used:internal           &r" );
+				"&7 &n     Hits&r  &n    Fails&r  &n   Cached&r  &nAvg/Hit ms&r  &nSaved ms&r  " +
+				"&nPlaceholder used:internal           &r" );
 		
 		ArrayList<String> keys = new ArrayList<>( getPlaceholders().keySet() );
 		Collections.sort( keys );
@@ -140,10 +141,12 @@ public class PlaceholdersStats {
 			boolean valid = stats.getPlaceholderKey() != null;
 			
 			String message = String.format( 
-					"&3%10s %10s  %10s  &2%s%s &c%s",
+					"&3%10s %10s %10s  %10s %9s  &2%s%s &c%s",
 					iFmt.format( hits ),
 					iFmt.format( fails ),
+					iFmt.format( stats.getCacheHits() ),
 					dFmt.format( avgMs ),
+					dFmt.format( stats.getCacheSavedNanos() / 1000000d ),
 					key,
 					stats.getPlaceholderKey() == null ? 
 						"" : 
@@ -162,6 +165,8 @@ public class PlaceholdersStats {
 				String.format( "&7Invalid World Usage Total: &3%10s  &b(Placeholders replaced with banks)", 
 						iFmt.format( getInvalidWorldCount() ) ));
 		
+		results.addAll( PlaceholderValueCache.getInstance().generateReport() );
+		
 
 		
 		return results;
@@ -186,6 +191,11 @@ public class PlaceholdersStats {
 		
 		setInvalidWorldCount( 0 );
 		
+		if ( resetCache ) {
+			PlaceholderValueCache.getInstance().clear();
+			PlaceholderValueCache.getInstance().clearStats();
+		}
+		
 		Output.get().logInfo( "PlaceholderStats: Cache was purged of %s placeholders. Removed: %s ", 
 				resetCache ? "all" : 
 					removeErrors ? "invalid" : "some",
@@ -28,6 +28,7 @@ import java.util.UUID;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
+import tech.mcprison.prison.cache.EconomyLedger;
 import tech.mcprison.prison.cache.PlayerCache;
 import tech.mcprison.prison.cache.PlayerCachePlayerData;
 import tech.mcprison.prison.file.JsonFileIO;
@@ -39,6 +40,8 @@ import tech.mcprison.prison.internal.block.Block;
 import tech.mcprison.prison.internal.inventory.Inventory;
 import tech.mcprison.prison.internal.scoreboard.Scoreboard;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
+import tech.mcprison.prison.placeholders.PlaceholderValueCache;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
 import tech.mcprison.prison.util.Gamemode;
 import tech.mcprison.prison.util.Location;
@@ -91,9 +94,6 @@ public class RankPlayer
 
     
     private EconomyIntegration economy = null;
-    private double unsavedBalance = 0;
-    private Object unsavedBalanceLock = new Object();
-    private int ubTaskId = 0;
     
 //    private HashMap<String, EconomyIntegration> economyCustom = new HashMap<>();;
     
@@ -444,6 +444,8 @@ public class RankPlayer
         
         // Calculate and apply the rank multipliers:
         recalculateRankMultipliers();
+        
+        invalidatePlaceholderValues( true );
     }
     
     /**
@@ -575,6 +577,8 @@ public class RankPlayer
     		ladderRanks.remove( rank.getLadder() );
     		
     		ranksRefs.remove( rank.getLadder().getName() );
+    		
+    		invalidatePlaceholderValues( true );
     	}
         
 //        // When we loop through, we have to store our ladder name outside the loop to
@@ -1101,6 +1105,26 @@ public class RankPlayer
     	RankPlayerBalance balance = getCachedRankPlayerBalance( currency, false );
 
     	balance.addBalance( amount );
+    	
+    	invalidatePlaceholderValues( false );
+    }
+    
+    /**
+     * <p>The player's cached placeholder values are invalidated when their ranks
+     * or their balance changes.  When their ranks change, the placeholders 
+     * for the number of players in each rank are also invalidated.
+     * </p>
+     * 
+     * @param ranksChanged
+     */
+    private void invalidatePlaceholderValues( boolean ranksChanged ) {
+    	PlaceholderValueCache valueCache = PlaceholderValueCache.getInstance();
+    	
+    	valueCache.invalidatePlayer( getUUID() );
+    	
+    	if ( ranksChanged ) {
+    		valueCache.invalidate( PlaceholderFlags.RANKPLAYERS );
+    	}
     }
     
     private void setCachedRankPlayerBalance( String currency, double amount ) {
@@ -1160,6 +1184,13 @@ public class RankPlayer
 		return balance;
 	}
 
+	/**
+	 * <p>The player's balance comes from the EconomyLedger, which includes the
+	 * changes that have not been applied to the economy yet.
+	 * </p>
+	 * 
+	 * @return
+	 */
 	public double getBalance() {
 		double results = 0;
 		
@@ -1167,12 +1198,7 @@ public class RankPlayer
 		
 		if ( economy != null ) {
 			
-			results = economy.getBalance( this );
-			
-			synchronized ( unsavedBalanceLock )
-			{
-				results += getBalanceUnsaved();
-			}
+			results = EconomyLedger.getInstance().getBalance( this, null );
 			
 			setCachedRankPlayerBalance( null, results );
 		}
@@ -1181,7 +1207,7 @@ public class RankPlayer
 	}
 	
 	public double getBalanceUnsaved() {
-		return unsavedBalance;
+		return EconomyLedger.getInstance().getPending( this, null );
 	}
 	
 	
@@ -1197,31 +1223,19 @@ public class RankPlayer
 		return this.economyCacheUpdateDelayTicks;
 	}
 	
+	/**
+	 * <p>The change is added to the EconomyLedger, which applies it to the 
+	 * economy with its next batch.
+	 * </p>
+	 * 
+	 * @param amount
+	 */
 	public void addBalance( double amount ) {
 		
-		synchronized ( unsavedBalanceLock )
-		{
-			unsavedBalance += amount;
+		if ( EconomyLedger.getInstance().addBalance( this, null, amount ) ) {
 			
-			if ( ubTaskId == 0 ) {
-				
-				ubTaskId = PrisonAPI.getScheduler().runTaskLaterAsync( 
-						() -> {
-							double tempBalance = 0;
-							synchronized ( unsavedBalanceLock )
-							{
-								tempBalance = unsavedBalance;
-
-								addBalanceEconomy( tempBalance );
-								
-								unsavedBalance = 0;
-								ubTaskId = 0;
-							}
-						}, getEconomyCacheUpdateDelayTicks() );
-			}
+			addCachedRankPlayerBalance( null, amount );
 		}
-		
-	
 	}
 	
 	private boolean addBalanceEconomy( double amount ) {
@@ -1231,6 +1245,10 @@ public class RankPlayer
 		
 		if ( economy != null ) {
 			results = economy.addBalance( this, amount );
+			
+			if ( results ) {
+				EconomyLedger.getInstance().adjustCachedBalance( this, null, amount );
+			}
 			addCachedRankPlayerBalance( null, amount );
 		}
 		return results;
@@ -1240,7 +1258,6 @@ public class RankPlayer
 		
 		double targetAmount = -1 * amount;
 		addBalance( targetAmount );
-		addCachedRankPlayerBalance( null, targetAmount );
 		
 //		EconomyIntegration economy = getEconomy();
 //		
@@ -1259,7 +1276,6 @@ public class RankPlayer
 		targetAmount += amount;
 		
 		addBalance( targetAmount );
-		addCachedRankPlayerBalance( null, targetAmount );
 		
 //		EconomyIntegration economy = getEconomy();
 //		
@@ -1283,7 +1299,7 @@ public class RankPlayer
 					.getEconomyForCurrency( currency );
 			if ( currencyEcon != null ) {
 				
-				results = currencyEcon.getBalance( this, currency );
+				results = EconomyLedger.getInstance().getBalance( this, currency );
 				setCachedRankPlayerBalance( currency, results );
 			}
 		}
@@ -1306,21 +1322,28 @@ public class RankPlayer
 			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
 					.getEconomyForCurrency(currency );
 			
-			if ( currencyEcon != null ) {
-				currencyEcon.addBalance( this, amount, currency );
+			if ( currencyEcon != null && 
+					EconomyLedger.getInstance().addBalance( this, currency, amount ) ) {
+				
 				addCachedRankPlayerBalance( currency, amount );
 			}
 		}
 	}
 	
 	
+	/**
+	 * <p>Applies the change directly to the economy, instead of through the 
+	 * EconomyLedger, so the results are known right away, such as when paying
+	 * for a rankup.
+	 * </p>
+	 * 
+	 * @param amount
+	 * @return
+	 */
 	public boolean addBalanceBypassCache( double amount ) {
 		boolean results = false;
 		
-		synchronized ( unsavedBalanceLock ) {
-			
-			results = addBalanceEconomy( amount );
-		}
+		results = addBalanceEconomy( amount );
 		
 		return results;
 	}
@@ -1338,8 +1361,10 @@ public class RankPlayer
 			
 			if ( currencyEcon != null ) {
 				
-				synchronized ( unsavedBalanceLock ) {
-					results = currencyEcon.addBalance( this, amount, currency );
+				results = currencyEcon.addBalance( this, amount, currency );
+				
+				if ( results ) {
+					EconomyLedger.getInstance().adjustCachedBalance( this, currency, amount );
 				}
 				addCachedRankPlayerBalance( currency, amount );
 			}
@@ -1348,12 +1373,24 @@ public class RankPlayer
 		return results;
 	}
 	
+	/**
+	 * <p>Applies the player's pending EconomyLedger changes for the currency to
+	 * the economy right away, so the economy's balance matches getBalance() 
+	 * before a charge is made directly through the economy.
+	 * </p>
+	 * 
+	 * @param currency The currency, or null for the default currency.
+	 * @return False if the pending changes could not be applied.
+	 */
+	public boolean applyPendingBalance( String currency ) {
+		return EconomyLedger.getInstance().flushPlayer( this, currency );
+	}
+	
 	public boolean removeBalanceBypassCache( double amount ) {
 		boolean results = false;
 		
 		double targetAmount = -1 * amount;
 		results = addBalanceBypassCache( targetAmount );
-		addCachedRankPlayerBalance( null, targetAmount );
 		
 		return results;
 	}
@@ -1371,8 +1408,10 @@ public class RankPlayer
 			
 			if ( currencyEcon != null ) {
 				
-				synchronized ( unsavedBalanceLock ) {
-					results = currencyEcon.removeBalance( this, amount, currency );
+				results = currencyEcon.removeBalance( this, amount, currency );
+				
+				if ( results ) {
+					EconomyLedger.getInstance().adjustCachedBalance( this, currency, -1 * amount );
 				}
 				addCachedRankPlayerBalance( currency, -1 * amount );
 			}
@@ -1387,16 +1426,7 @@ public class RankPlayer
 			removeBalance( amount );
 		}
 		else {
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency(currency );
-			
-			if ( currencyEcon != null ) {
-				
-				synchronized ( unsavedBalanceLock ) {
-					currencyEcon.removeBalance( this, amount, currency );
-				}
-				addCachedRankPlayerBalance( currency, -1 * amount );
-			}
+			addBalance( currency, -1 * amount );
 		}
 	}
 	
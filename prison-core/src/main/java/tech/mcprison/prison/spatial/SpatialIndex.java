@@ -1,13 +1,155 @@
 package tech.mcprison.prison.spatial;
 
-import java.util.NavigableMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
-public class SpatialIndex
+/**
+ * <p>This is a per-world grid index of cuboid regions, such as mines.  Each 
+ * world is divided in to columns of SPATIAL_INDEX_GRANULARIT by 
+ * SPATIAL_INDEX_GRANULARIT blocks, and each region is registered in every 
+ * column that it overlaps.  The columns are keyed by a CoordinateKey with a
+ * y of zero, since a region always spans the full column height that it needs.
+ * </p>
+ * 
+ * <p>A lookup only has to check the few regions that are within the same 
+ * column as the coordinates, instead of checking every region on the server.
+ * The regions within a column are kept in the order that they were added, 
+ * so the first match is the same as it would be if all regions were checked 
+ * in that same order.
+ * </p>
+ * 
+ * <p>This index is not modified once it has been built.  If any of the regions 
+ * change, then a new index should be built and swapped in for this one, which 
+ * allows lookups to be performed from any thread without locking.
+ * </p>
+ *
+ * @param <T>
+ */
+public class SpatialIndex<T>
 {
 	public static final int SPATIAL_INDEX_GRANULARIT = 25;
 	
-	private NavigableMap<Integer, String> idxX;
-	private NavigableMap<Integer, String> idxY;
-	private NavigableMap<Integer, String> idxZ;
-
+	private final Map<String, Map<CoordinateKey, List<SpatialIndexData<T>>>> worlds;
+	
+	private int size = 0;
+	
+	public SpatialIndex() {
+		super();
+		
+		this.worlds = new HashMap<>();
+	}
+	
+	/**
+	 * <p>Adds the region to every column that it overlaps.  The world name is 
+	 * not case sensitive.
+	 * </p>
+	 * 
+	 * @param worldName
+	 * @param data
+	 */
+	public void add( String worldName, SpatialIndexData<T> data ) {
+		if ( worldName == null || data == null ) {
+			return;
+		}
+		
+		Map<CoordinateKey, List<SpatialIndexData<T>>> columns = 
+				worlds.computeIfAbsent( worldName.toLowerCase( Locale.ROOT ), k -> new HashMap<>() );
+		
+		int cxMin = toColumn( data.getxMin() );
+		int cxMax = toColumn( data.getxMax() );
+		int czMin = toColumn( data.getzMin() );
+		int czMax = toColumn( data.getzMax() );
+		
+		for ( int cx = cxMin; cx <= cxMax; cx++ ) {
+			for ( int cz = czMin; cz <= czMax; cz++ ) {
+				
+				columns.computeIfAbsent( new CoordinateKey( cx, 0, cz ), 
+								k -> new ArrayList<>( 2 ) ).add( data );
+			}
+		}
+		
+		size++;
+	}
+	
+	/**
+	 * <p>Returns the first region, in the order they were added, that contains
+	 * the given coordinates.  The yPadding extends the regions above and below
+	 * by that many blocks, which is used to include the top and bottom of mines.
+	 * </p>
+	 * 
+	 * @param worldName
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param yPadding
+	 * @return the item of the matched region, or null if not found.
+	 */
+	public T find( String worldName, int x, int y, int z, int yPadding ) {
+		T results = null;
+		
+		for ( SpatialIndexData<T> data : getColumn( worldName, x, z ) ) {
+			if ( data.contains( x, y, z, yPadding ) ) {
+				results = data.getItem();
+				break;
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Returns all regions that are registered in the column that contains 
+	 * the given x and z coordinates.  These are only candidates, and may not
+	 * actually contain the coordinates.
+	 * </p>
+	 * 
+	 * @param worldName
+	 * @param x
+	 * @param z
+	 * @return
+	 */
+	public List<SpatialIndexData<T>> getColumn( String worldName, int x, int z ) {
+		List<SpatialIndexData<T>> results = null;
+		
+		if ( worldName != null ) {
+			Map<CoordinateKey, List<SpatialIndexData<T>>> columns = 
+										worlds.get( worldName.toLowerCase( Locale.ROOT ) );
+			
+			if ( columns != null ) {
+				results = columns.get( new CoordinateKey( toColumn( x ), 0, toColumn( z ) ) );
+			}
+		}
+		
+		return results == null ? Collections.emptyList() : results;
+	}
+	
+	/**
+	 * <p>Floor division so negative coordinates map to the correct column.
+	 * </p>
+	 * 
+	 * @param coordinate
+	 * @return
+	 */
+	private static int toColumn( int coordinate ) {
+		return Math.floorDiv( coordinate, SPATIAL_INDEX_GRANULARIT );
+	}
+	
+	/**
+	 * <p>The number of regions that have been added.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public String toString() {
+		return "SpatialIndex: worlds= " + worlds.size() + " regions= " + size;
+	}
 }
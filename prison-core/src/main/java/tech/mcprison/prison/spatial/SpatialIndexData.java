@@ -1,11 +1,73 @@
 package tech.mcprison.prison.spatial;
 
-public class SpatialIndexData
+/**
+ * <p>This is one cuboid region within the SpatialIndex, with the item that 
+ * the region belongs to.  The coordinates are block coordinates, and the 
+ * min and max values are both inclusive.
+ * </p>
+ *
+ * @param <T>
+ */
+public class SpatialIndexData<T>
 {
-
-	private int x;
-	private int y;
-	private int z;
+	private final int xMin;
+	private final int yMin;
+	private final int zMin;
+	
+	private final int xMax;
+	private final int yMax;
+	private final int zMax;
+	
+	private final T item;
+	
+	public SpatialIndexData( int xMin, int yMin, int zMin, 
+					int xMax, int yMax, int zMax, T item ) {
+		super();
+		
+		this.xMin = Math.min( xMin, xMax );
+		this.yMin = Math.min( yMin, yMax );
+		this.zMin = Math.min( zMin, zMax );
+		
+		this.xMax = Math.max( xMin, xMax );
+		this.yMax = Math.max( yMin, yMax );
+		this.zMax = Math.max( zMin, zMax );
+		
+		this.item = item;
+	}
 	
+	public boolean contains( int x, int y, int z, int yPadding ) {
+		return x >= xMin && x <= xMax &&
+				y >= (yMin - yPadding) && y <= (yMax + yPadding) &&
+				z >= zMin && z <= zMax;
+	}
+
+	public int getxMin() {
+		return xMin;
+	}
+	public int getyMin() {
+		return yMin;
+	}
+	public int getzMin() {
+		return zMin;
+	}
+
+	public int getxMax() {
+		return xMax;
+	}
+	public int getyMax() {
+		return yMax;
+	}
+	public int getzMax() {
+		return zMax;
+	}
+
+	public T getItem() {
+		return item;
+	}
 	
+	@Override
+	public String toString() {
+		return "SpatialIndexData: (" + xMin + ", " + yMin + ", " + zMin + ") to (" + 
+					xMax + ", " + yMax + ", " + zMax + ") " + item;
+	}
 }
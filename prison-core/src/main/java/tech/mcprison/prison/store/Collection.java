@@ -23,6 +23,11 @@ public interface Collection {
      */
     public List<Document> getAll();
 
+    /**
+     * @return Returns the keys of all documents in this collection, without reading them.
+     */
+    public List<String> getKeys();
+
     /**
      * Attempts to retrieve a document from the collection.
      *
@@ -346,6 +346,26 @@ public class Bounds {
     	return within( location, false, false );
     }
     
+    /**
+     * <p>Checks if the block coordinates are within these boundaries without 
+     * needing a Location, which is used when checking every block within an
+     * explosion.
+     * </p>
+     * 
+     * @param worldName
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     */
+    public boolean within( String worldName, int x, int y, int z ) {
+    	return x >= xBlockMin && x <= xBlockMax &&
+    			y >= yBlockMin && y <= yBlockMax &&
+    			z >= zBlockMin && z <= zBlockMax &&
+    			getCenter().getWorld() != null && worldName != null &&
+    			getCenter().getWorld().getName().equalsIgnoreCase( worldName );
+    }
+    
     public boolean withinIncludeTopBottomOfMine(Location location) {
     	return within( location, true, true );
     }
@@ -24,9 +24,11 @@ import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.PrisonStatsElapsedTimeNanos;
 import tech.mcprison.prison.internal.World;
 import tech.mcprison.prison.internal.block.Block;
+import tech.mcprison.prison.internal.block.MineBlockPlacementStrategy;
 import tech.mcprison.prison.internal.block.MineResetType;
-import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
 import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonChunkSnapshot;
 import tech.mcprison.prison.util.Location;
 
 /**
@@ -70,11 +72,43 @@ public class TestWorld implements World {
 	}
 	
 	@Override
-	public void setBlocksSynchronously( List<MineTargetPrisonBlock> tBlocks, 
+	public void setBlocksSynchronously( MineTargetBlockStore targetBlocks, 
+							int startOffset, int endOffset,
 							MineResetType resetType,
 							PrisonStatsElapsedTimeNanos nanos ) {
 		
 	}
+	
+	@Override
+	public void setBlocks( MineTargetBlockStore targetBlocks, 
+							int startOffset, int endOffset,
+							MineResetType resetType,
+							PrisonStatsElapsedTimeNanos nanos ) {
+		
+	}
+	
+	@Override
+	public void setBlocksSynchronously( MineTargetBlockStore targetBlocks, 
+							int startOffset, int endOffset,
+							MineResetType resetType,
+							PrisonStatsElapsedTimeNanos nanos,
+							MineBlockPlacementStrategy strategy ) {
+		
+	}
+	
+	@Override
+	public void setBlocks( MineTargetBlockStore targetBlocks, 
+							int startOffset, int endOffset,
+							MineResetType resetType,
+							PrisonStatsElapsedTimeNanos nanos,
+							MineBlockPlacementStrategy strategy ) {
+		
+	}
+	
+	@Override
+	public PrisonChunkSnapshot getChunkSnapshot( int chunkX, int chunkZ ) {
+		return null;
+	}
 
 
 }
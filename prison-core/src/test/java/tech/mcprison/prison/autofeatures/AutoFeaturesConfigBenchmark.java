@@ -0,0 +1,118 @@
+package tech.mcprison.prison.autofeatures;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+
+/**
+ * <p>Compares reading the auto features settings that are used for each block 
+ * break from the config's map, which is how they were read before there was a
+ * snapshot, against reading them from the compiled snapshot.
+ * </p>
+ * 
+ * <p>This is not a unit test. Run it with the main() function, or with the JMH 
+ * runner, using the test classpath.
+ * </p>
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class AutoFeaturesConfigBenchmark
+{
+	/**
+	 * <p>Roughly the boolean settings that AutoManagerFeatures reads for one 
+	 * block break with auto pickup, smelt, and block enabled.
+	 * </p>
+	 */
+	private static final AutoFeatures[] BREAK_BOOLEANS = {
+			AutoFeatures.pickupLimitToMines, AutoFeatures.pickupAllBlocks, 
+			AutoFeatures.pickupBlockNameListEnabled, AutoFeatures.cancelAllBlockEventBlockDrops,
+			AutoFeatures.isCalculateFortuneEnabled, AutoFeatures.isExtendBukkitFortuneCalculationsEnabled,
+			AutoFeatures.isPercentGradientFortuneEnabled, AutoFeatures.isUseTokenEnchantsFortuneLevel,
+			AutoFeatures.isCalculateSilkEnabled, AutoFeatures.isLoreEnabled,
+			AutoFeatures.applyBlockBreaksThroughSyncTask, AutoFeatures.smeltLimitToMines,
+			AutoFeatures.smeltAllBlocks, AutoFeatures.smeltCobblestone, AutoFeatures.smeltGoldOre,
+			AutoFeatures.smeltIronOre, AutoFeatures.smeltCoalOre, AutoFeatures.smeltDiamondlOre,
+			AutoFeatures.smeltEmeraldOre, AutoFeatures.smeltLapisOre, AutoFeatures.smeltRedstoneOre,
+			AutoFeatures.smeltNetherQuartzOre, AutoFeatures.smeltAncientDebris, AutoFeatures.smeltCopperOre,
+			AutoFeatures.blockGoldBlock, AutoFeatures.blockIronBlock, AutoFeatures.blockCoalBlock,
+			AutoFeatures.blockDiamondBlock, AutoFeatures.blockRedstoneBlock, AutoFeatures.blockEmeraldBlock,
+			AutoFeatures.blockQuartzBlock, AutoFeatures.blockPrismarineBlock, AutoFeatures.blockLapisBlock,
+			AutoFeatures.blockSnowBlock, AutoFeatures.blockGlowstone, AutoFeatures.blockCopperBlock,
+			AutoFeatures.normalDropSmelt, AutoFeatures.normalDropBlock
+	};
+	
+	private Map<String, ValueNode> config;
+	private AutoFeaturesConfigSnapshot snapshot;
+	
+	@Setup
+	public void setup() {
+		
+		config = new LinkedHashMap<>();
+		
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+			af.setFileConfig( config );
+		}
+		
+		snapshot = AutoFeaturesConfigSnapshot.compile( config );
+	}
+	
+	@Benchmark
+	public void blockBreakConfigMap( Blackhole bh ) {
+		
+		for ( AutoFeatures af : BREAK_BOOLEANS ) {
+			bh.consume( af.getBoolean( config ) );
+		}
+		bh.consume( AutoFeatures.fortuneMultiplierMax.getInteger( config ) );
+		bh.consume( AutoFeatures.permissionAutoSellPerBlockBreakEnabled.getMessage( config ) );
+		
+		List<String> list = AutoFeatures.pickupBlockNameList.getStringList( config );
+		bh.consume( list.contains( "stone" ) );
+	}
+	
+	@Benchmark
+	public void blockBreakSnapshot( Blackhole bh ) {
+		
+		for ( AutoFeatures af : BREAK_BOOLEANS ) {
+			bh.consume( snapshot.getBoolean( af ) );
+		}
+		bh.consume( snapshot.getInteger( AutoFeatures.fortuneMultiplierMax ) );
+		bh.consume( snapshot.getMessage( AutoFeatures.permissionAutoSellPerBlockBreakEnabled ) );
+		
+		List<String> list = snapshot.getStringList( AutoFeatures.pickupBlockNameList );
+		bh.consume( list.contains( "stone" ) );
+	}
+	
+	public static void main( String[] args ) 
+			throws RunnerException {
+		
+		Options options = new OptionsBuilder()
+				.include( AutoFeaturesConfigBenchmark.class.getSimpleName() )
+				.build();
+		
+		new Runner( options ).run();
+	}
+}
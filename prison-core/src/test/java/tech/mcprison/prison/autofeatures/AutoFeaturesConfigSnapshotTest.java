@@ -0,0 +1,67 @@
+package tech.mcprison.prison.autofeatures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+
+public class AutoFeaturesConfigSnapshotTest
+{
+
+	@Test
+	public void snapshotMatchesTheConfig() {
+		Map<String, ValueNode> conf = new LinkedHashMap<>();
+		
+		conf.put( AutoFeatures.smeltAllBlocks.getKey(), BooleanNode.valueOf( true ) );
+		conf.put( AutoFeatures.fortuneMultiplierMax.getKey(), IntegerNode.valueOf( 7 ) );
+		conf.put( AutoFeatures.pickupBlockNameList.getKey(), 
+				StringListNode.valueOf( Arrays.asList( "stone", "dirt" ) ) );
+		
+		// The wrong type, so the default is used:
+		conf.put( AutoFeatures.normalDropBlock.getKey(), IntegerNode.valueOf( 1 ) );
+		
+		AutoFeaturesConfigSnapshot snapshot = AutoFeaturesConfigSnapshot.compile( conf );
+		
+		assertTrue( snapshot.getBoolean( AutoFeatures.smeltAllBlocks ) );
+		assertEquals( 7, snapshot.getInteger( AutoFeatures.fortuneMultiplierMax ) );
+		assertEquals( Arrays.asList( "stone", "dirt" ), 
+				snapshot.getStringList( AutoFeatures.pickupBlockNameList ) );
+		
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+			assertEquals( af.name(), af.getBoolean( conf ), snapshot.getBoolean( af ) );
+			assertEquals( af.name(), af.getInteger( conf ), snapshot.getInteger( af ) );
+			assertEquals( af.name(), af.getDouble( conf ), snapshot.getDouble( af ), 0.0 );
+			assertEquals( af.name(), af.getMessage( conf ), snapshot.getMessage( af ) );
+		}
+	}
+
+	@Test
+	public void snapshotIsNotChangedByTheConfig() {
+		Map<String, ValueNode> conf = new LinkedHashMap<>();
+		conf.put( AutoFeatures.smeltAllBlocks.getKey(), BooleanNode.valueOf( true ) );
+		
+		AutoFeaturesConfigSnapshot snapshot = AutoFeaturesConfigSnapshot.compile( conf );
+		
+		conf.put( AutoFeatures.smeltAllBlocks.getKey(), BooleanNode.valueOf( false ) );
+		
+		assertTrue( snapshot.getBoolean( AutoFeatures.smeltAllBlocks ) );
+		assertFalse( AutoFeaturesConfigSnapshot.compile( conf ).getBoolean( AutoFeatures.smeltAllBlocks ) );
+		
+		List<String> list = snapshot.getStringList( AutoFeatures.pickupBlockNameList );
+		try {
+			list.add( "stone" );
+			assertTrue( "The list must not be modifiable.", false );
+		}
+		catch ( UnsupportedOperationException e ) {
+			// Expected
+		}
+	}
+}
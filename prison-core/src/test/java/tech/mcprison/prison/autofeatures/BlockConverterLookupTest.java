@@ -0,0 +1,81 @@
+package tech.mcprison.prison.autofeatures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.autofeatures.BlockConvertersFileConfig.BlockConverterTypes;
+
+public class BlockConverterLookupTest
+{
+
+	private BlockConvertersData data() {
+		BlockConvertersData results = new BlockConvertersData();
+		
+		BlockConverter gold = new BlockConverter( "gold_ore" );
+		gold.getOutputs().add( new BlockConverterOutput( "gold_ingot", 1 ) );
+		
+		BlockConverterOutput nugget = new BlockConverterOutput( "gold_nugget", 2 );
+		nugget.getPermissions().add( "prison.nuggets" );
+		gold.getOutputs().add( nugget );
+		
+		BlockConverterOutput nugget2 = new BlockConverterOutput( "gold_nugget", 4, 10.0 );
+		nugget2.getPermissions().add( "prison.nuggets" );
+		gold.getOutputs().add( nugget2 );
+		
+		BlockConverterOutput disabled = new BlockConverterOutput( "diamond", 1 );
+		disabled.setEnabled( false );
+		gold.getOutputs().add( disabled );
+		
+		TreeMap<String, BlockConverter> smelt = new TreeMap<>();
+		smelt.put( "gold_ore", gold );
+		results.getBlockConverters().put( BlockConverterTypes.smeltFeatures, smelt );
+		
+		BlockConverterEventTrigger trigger = new BlockConverterEventTrigger( "Sponge" );
+		BlockConverterOptionEventTrigger option = new BlockConverterOptionEventTrigger();
+		option.setIgnoreBlockInExplosionEvents( true );
+		trigger.getOptions().add( option );
+		results.getBlockConvertersEventTiggers().put( "sponge", trigger );
+		
+		return results;
+	}
+
+	@Test
+	public void lookupIgnoresCase() {
+		BlockConvertersData data = data();
+		BlockConverterLookup lookup = BlockConverterLookup.compile( data );
+		
+		BlockConverter gold = data.getBlockConverters().get( BlockConverterTypes.smeltFeatures ).get( "gold_ore" );
+		
+		assertSame( gold, lookup.get( "gold_ore", BlockConverterTypes.smeltFeatures ).getBlockConverter() );
+		assertSame( gold, lookup.get( "GOLD_Ore", BlockConverterTypes.smeltFeatures ).getBlockConverter() );
+		
+		assertNull( lookup.get( "gold_ore", BlockConverterTypes.blockFeatures ) );
+		assertNull( lookup.get( "iron_ore", BlockConverterTypes.smeltFeatures ) );
+		assertNull( lookup.get( null, BlockConverterTypes.smeltFeatures ) );
+		
+		assertEquals( 1, lookup.size( BlockConverterTypes.eventTriggers ) );
+		assertTrue( lookup.isEventTriggerBlockName( "SPONGE" ) );
+		assertFalse( lookup.isEventTriggerBlockName( "gold_ore" ) );
+	}
+
+	@Test
+	public void outputsAreGroupedByPermissions() {
+		BlockConverterLookup lookup = BlockConverterLookup.compile( data() );
+		
+		CompiledBlockConverter gold = lookup.get( "gold_ore", BlockConverterTypes.smeltFeatures );
+		
+		// The disabled output is removed:
+		assertEquals( 3, gold.getOutputCount() );
+		
+		// The two nugget outputs share the one permission group, and the ingot has an 
+		// empty permission list, which is a group too:
+		assertEquals( 2, gold.getPermissionGroupCount() );
+	}
+}
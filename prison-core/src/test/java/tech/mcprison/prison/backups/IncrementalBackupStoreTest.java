@@ -0,0 +1,167 @@
+package tech.mcprison.prison.backups;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalBackupStoreTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File write( File dir, String path, String contents ) throws IOException {
+		File file = new File( dir, path );
+		file.getParentFile().mkdirs();
+		Files.write( file.toPath(), contents.getBytes( StandardCharsets.UTF_8 ) );
+		return file;
+	}
+
+	private List<File> listFiles( File dir ) throws IOException {
+		List<File> files = new ArrayList<>();
+		Files.walk( dir.toPath() ).filter( Files::isRegularFile ).forEach( p -> files.add( p.toFile() ) );
+		return files;
+	}
+
+	@Test
+	public void incrementalBackupAndRestore() throws IOException {
+		File source = folder.newFolder( "source" );
+		File storeDir = folder.newFolder( "store" );
+
+		StringBuilder big = new StringBuilder();
+		for ( int i = 0; i < 100; i++ ) {
+			big.append( "line " ).append( i ).append( "\n" );
+		}
+
+		write( source, "config.yml", big.toString() );
+		write( source, "data_storage/playerCache/a.json", "{\"rank\":\"A\"}" );
+		write( source, "data_storage/playerCache/b.json", "{\"rank\":\"A\"}" );
+		write( source, "empty.txt", "" );
+
+		// Small chunks so the larger file is split:
+		IncrementalBackupStore store1 = new IncrementalBackupStore( storeDir, 256, 0 );
+		BackupManifest first = store1.backup( "first", source.toPath(), listFiles( source ), null );
+
+		assertEquals( 4, first.size() );
+		assertEquals( 4, store1.getFilesChanged() );
+		// The two player files are identical, so their chunk is only stored once:
+		assertEquals( 1, store1.getChunksReused() );
+		assertEquals( 4, first.get( "config.yml" ).getChunks().size() );
+		assertEquals( 0, first.get( "empty.txt" ).getChunks().size() );
+
+		// Change one player file, with a new modified time:
+		File b = write( source, "data_storage/playerCache/b.json", "{\"rank\":\"B\"}" );
+		b.setLastModified( b.lastModified() + 5000 );
+
+		IncrementalBackupStore store2 = new IncrementalBackupStore( storeDir, 256, 0 );
+		BackupManifest previous = store2.loadLatestManifest();
+		assertEquals( "first", previous.getName() );
+
+		BackupManifest second = store2.backup( "second", source.toPath(), listFiles( source ), previous );
+
+		assertEquals( 4, second.size() );
+		assertEquals( 3, store2.getFilesUnchanged() );
+		assertEquals( 1, store2.getFilesChanged() );
+		assertEquals( 1, store2.getChunksWritten() );
+
+		// Each backup restores to its own contents:
+		File restoreFirst = folder.newFolder( "restoreFirst" );
+		File restoreSecond = folder.newFolder( "restoreSecond" );
+
+		assertTrue( store2.restore( store2.loadManifest( "first" ), restoreFirst ).isEmpty() );
+		assertTrue( store2.restore( store2.loadManifest( "second" ), restoreSecond ).isEmpty() );
+
+		assertEquals( "{\"rank\":\"A\"}", new String( Files.readAllBytes(
+				new File( restoreFirst, "data_storage/playerCache/b.json" ).toPath() ), StandardCharsets.UTF_8 ) );
+		assertEquals( "{\"rank\":\"B\"}", new String( Files.readAllBytes(
+				new File( restoreSecond, "data_storage/playerCache/b.json" ).toPath() ), StandardCharsets.UTF_8 ) );
+		assertArrayEquals( Files.readAllBytes( new File( source, "config.yml" ).toPath() ),
+				Files.readAllBytes( new File( restoreSecond, "config.yml" ).toPath() ) );
+		assertTrue( new File( restoreSecond, "empty.txt" ).exists() );
+	}
+
+	@Test
+	public void missingChunkIsReported() throws IOException {
+		File source = folder.newFolder( "source" );
+		File storeDir = folder.newFolder( "store" );
+
+		write( source, "a.txt", "aaa" );
+		write( source, "b.txt", "bbb" );
+
+		IncrementalBackupStore store = new IncrementalBackupStore( storeDir, 0, 0 );
+		BackupManifest manifest = store.backup( "one", source.toPath(), listFiles( source ), null );
+
+		Files.delete( store.getChunkFile( manifest.get( "a.txt" ).getChunks().get( 0 ) ).toPath() );
+
+		List<String> errors = store.restore( manifest, folder.newFolder( "restore" ) );
+		assertEquals( 1, errors.size() );
+		assertEquals( "a.txt", errors.get( 0 ) );
+	}
+
+	@Test
+	public void pruneRemovesOldBackupsAndUnusedChunks() throws IOException {
+		File source = folder.newFolder( "source" );
+		File storeDir = folder.newFolder( "store" );
+
+		write( source, "same.txt", "unchanged" );
+
+		BackupManifest previous = null;
+		List<BackupManifest> manifests = new ArrayList<>();
+
+		for ( int i = 1; i <= 3; i++ ) {
+			File changed = write( source, "changed.txt", "version " + i );
+			changed.setLastModified( changed.lastModified() + i * 5000 );
+
+			IncrementalBackupStore store = new IncrementalBackupStore( storeDir, 0, 0 );
+			previous = store.backup( "backup" + i, source.toPath(), listFiles( source ), previous );
+			manifests.add( previous );
+
+			// So the manifests are always in the order that they were made:
+			store.getManifestFile( "backup" + i ).setLastModified( 1000000000000L + i * 5000 );
+		}
+
+		// A temp chunk left behind by a backup that did not finish:
+		File tempChunk = write( storeDir, "chunks/ff/ffff.gz.tmp", "partial" );
+
+		IncrementalBackupStore store = new IncrementalBackupStore( storeDir, 0, 0 );
+		List<String> removed = store.prune( 1 );
+
+		assertEquals( 2, removed.size() );
+		assertEquals( "backup1", removed.get( 0 ) );
+		assertEquals( "backup2", removed.get( 1 ) );
+		assertEquals( 1, store.getManifestNames().size() );
+		assertFalse( store.getManifestFile( "backup1" ).exists() );
+
+		// Only the chunks of the old versions of changed.txt, and the temp chunk:
+		assertEquals( 3, store.getChunksRemoved() );
+		assertFalse( tempChunk.exists() );
+		assertFalse( tempChunk.getParentFile().exists() );
+
+		for ( int i = 0; i < 2; i++ ) {
+			String chunk = manifests.get( i ).get( "changed.txt" ).getChunks().get( 0 );
+			assertFalse( store.getChunkFile( chunk ).exists() );
+		}
+
+		// The remaining backup still restores, including the chunk it shares:
+		File restore = folder.newFolder( "restore" );
+		assertTrue( store.restore( store.loadLatestManifest(), restore ).isEmpty() );
+		assertEquals( "version 3", new String( Files.readAllBytes(
+				new File( restore, "changed.txt" ).toPath() ), StandardCharsets.UTF_8 ) );
+		assertEquals( "unchanged", new String( Files.readAllBytes(
+				new File( restore, "same.txt" ).toPath() ), StandardCharsets.UTF_8 ) );
+
+		// Nothing else to remove:
+		assertTrue( new IncrementalBackupStore( storeDir, 0, 0 ).prune( 1 ).isEmpty() );
+	}
+}
@@ -0,0 +1,150 @@
+package tech.mcprison.prison.bombs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import tech.mcprison.prison.TestWorld;
+import tech.mcprison.prison.bombs.MineBombs.ExplosionOrientation;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>Compares calculating the sphere of a mine bomb's explosion for each 
+ * detonation, which is how it was done before there were templates, against
+ * translating a precalculated template and clipping it to the mine's bounds.
+ * </p>
+ * 
+ * <p>This is not a unit test. Run it with the main() function, or with the JMH 
+ * runner, using the test classpath.
+ * </p>
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MineBombShapeBenchmark
+{
+	@Param( { "3", "5", "7", "10", "15" } )
+	private int radius;
+	
+	private Location center;
+	private Bounds mineBounds;
+	
+	private MineBombShapeTemplate sphere;
+	private MineBombShapeTemplate sphereHollow;
+	
+	@Setup
+	public void setup() {
+		
+		TestWorld world = new TestWorld( "prison_mines_world" );
+		
+		center = new Location( world, 10, 60, 10 );
+		
+		// The bomb is near the top edge of the mine, so part of it is clipped:
+		mineBounds = new Bounds( 
+				new Location( world, -40, 5, -40 ), 
+				new Location( world, 60, 62, 60 ) );
+		
+		sphere = MineBombShapeTemplate.sphere( radius, false, 0, ExplosionOrientation.full );
+		sphereHollow = MineBombShapeTemplate.sphere( radius, true, 0, ExplosionOrientation.full );
+	}
+	
+	@Benchmark
+	public List<Location> sphereCalculated() {
+		return calculateSphere( center, radius, false, 0, ExplosionOrientation.full );
+	}
+	
+	@Benchmark
+	public List<Location> sphereTemplate() {
+		return sphere.translate( center, null );
+	}
+	
+	@Benchmark
+	public List<Location> sphereTemplateClipped() {
+		return sphere.translate( center, mineBounds );
+	}
+	
+	@Benchmark
+	public List<Location> sphereHollowCalculated() {
+		return calculateSphere( center, radius, true, 0, ExplosionOrientation.full );
+	}
+	
+	@Benchmark
+	public List<Location> sphereHollowTemplate() {
+		return sphereHollow.translate( center, null );
+	}
+	
+	/**
+	 * <p>How the spheres were calculated for each explosion before there 
+	 * were templates.
+	 * </p>
+	 */
+	private List<Location> calculateSphere( Location loc, int radius, boolean hollow, 
+			int radiusInner, ExplosionOrientation explosionOrientation ) {
+		List<Location> results = new ArrayList<>();
+		
+		int cenX = loc.getBlockX();
+		int cenY = loc.getBlockY();
+		int cenZ = loc.getBlockZ();
+		
+		boolean xOri = explosionOrientation == ExplosionOrientation.x_axis;
+		boolean yOri = explosionOrientation == ExplosionOrientation.y_axis;
+		boolean zOri = explosionOrientation == ExplosionOrientation.z_axis;
+		
+		double radiusSqr = radius * radius;
+		double radiusHSqr = radiusInner == 0 ?
+				((radius - 1) * (radius - 1)) : 
+					(radiusInner * radiusInner);
+		
+		for ( int x = (xOri ? cenX : cenX - radius) ; x <= (xOri ? cenX : cenX + radius) ; x++ ) {
+			double xSqr = (cenX - x) * (cenX - x);
+			
+			for ( int y = (yOri ? cenY : cenY - radius) ; y <= (yOri ? cenY : cenY + radius) ; y++ ) {
+				double ySqr = (cenY - y) * (cenY - y);
+				
+				for ( int z = (zOri ? cenZ : cenZ - radius) ; z <= (zOri ? cenZ : cenZ + radius) ; z++ ) {
+					double zSqr = (cenZ - z) * (cenZ - z);
+					
+					double distSqr = xSqr + ySqr + zSqr;
+					
+					if ( distSqr <= radiusSqr &&
+							(!hollow || distSqr >= radiusHSqr ) ) {
+						
+						results.add( new Location( loc.getWorld(), x, y, z ) );
+					}
+				}
+			}
+		}
+		return results;
+	}
+	
+	public static void main( String[] args ) 
+			throws RunnerException {
+		
+		Options options = new OptionsBuilder()
+				.include( MineBombShapeBenchmark.class.getSimpleName() )
+				.build();
+		
+		new Runner( options ).run();
+	}
+}
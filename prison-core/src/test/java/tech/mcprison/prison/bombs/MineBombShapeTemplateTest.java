@@ -0,0 +1,157 @@
+package tech.mcprison.prison.bombs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.bombs.MineBombs.ExplosionOrientation;
+import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+public class MineBombShapeTemplateTest
+{
+
+	@Test
+	public void testSphereMatchesCalculated()
+	{
+		Location center = new Location( (World) null, 100, 64, -37 );
+		
+		for ( int radius = 1; radius <= 8; radius++ ) {
+			for ( ExplosionOrientation orientation : ExplosionOrientation.values() ) {
+				
+				assertSame( calculateSphere( center, radius, false, 0, orientation ),
+						MineBombShapeTemplate.sphere( radius, false, 0, orientation )
+								.translate( center, null ) );
+				
+				assertSame( calculateSphere( center, radius, true, 0, orientation ),
+						MineBombShapeTemplate.sphere( radius, true, 0, orientation )
+								.translate( center, null ) );
+				
+				assertSame( calculateSphere( center, radius, true, radius / 2, orientation ),
+						MineBombShapeTemplate.sphere( radius, true, radius / 2, orientation )
+								.translate( center, null ) );
+			}
+		}
+	}
+	
+	@Test
+	public void testCubeMatchesCalculated()
+	{
+		for ( int radius = 1; radius <= 6; radius++ ) {
+			
+			// Near y of zero, so the bottom of the cube is removed:
+			Location center = new Location( (World) null, -5, 3, 12 );
+			
+			assertSame( calculateCube( center, radius ),
+					MineBombShapeTemplate.cube( radius ).translate( center, null ) );
+		}
+	}
+	
+	@Test
+	public void testClip()
+	{
+		Location center = new Location( (World) null, 10, 10, 10 );
+		
+		Bounds clip = new Bounds( 
+				new Location( (World) null, 8, 5, 10 ), 
+				new Location( (World) null, 20, 9, 20 ) );
+		
+		MineBombShapeTemplate template = 
+				MineBombShapeTemplate.sphere( 4, false, 0, ExplosionOrientation.full );
+		
+		List<Location> expected = new ArrayList<>();
+		for ( Location loc : template.translate( center, null ) ) {
+			if ( loc.getBlockX() >= 8 && loc.getBlockX() <= 20 &&
+					loc.getBlockY() >= 5 && loc.getBlockY() <= 9 &&
+					loc.getBlockZ() >= 10 && loc.getBlockZ() <= 20 ) {
+				expected.add( loc );
+			}
+		}
+		
+		List<Location> clipped = template.translate( center, clip );
+		
+		assertTrue( clipped.size() < template.size() );
+		assertSame( expected, clipped );
+	}
+	
+	private void assertSame( List<Location> expected, List<Location> actual ) {
+		
+		assertEquals( expected.size(), actual.size() );
+		
+		for ( int i = 0; i < expected.size(); i++ ) {
+			Location e = expected.get( i );
+			Location a = actual.get( i );
+			
+			assertEquals( e.getBlockX(), a.getBlockX() );
+			assertEquals( e.getBlockY(), a.getBlockY() );
+			assertEquals( e.getBlockZ(), a.getBlockZ() );
+		}
+	}
+	
+	/**
+	 * <p>How the spheres were calculated for each explosion before there 
+	 * were templates.
+	 * </p>
+	 */
+	private List<Location> calculateSphere( Location loc, int radius, boolean hollow, 
+			int radiusInner, ExplosionOrientation explosionOrientation ) {
+		List<Location> results = new ArrayList<>();
+		
+		int cenX = loc.getBlockX();
+		int cenY = loc.getBlockY();
+		int cenZ = loc.getBlockZ();
+		
+		boolean xOri = explosionOrientation == ExplosionOrientation.x_axis;
+		boolean yOri = explosionOrientation == ExplosionOrientation.y_axis;
+		boolean zOri = explosionOrientation == ExplosionOrientation.z_axis;
+		
+		double radiusSqr = radius * radius;
+		double radiusHSqr = radiusInner == 0 ?
+				((radius - 1) * (radius - 1)) : 
+					(radiusInner * radiusInner);
+		
+		for ( int x = (xOri ? cenX : cenX - radius) ; x <= (xOri ? cenX : cenX + radius) ; x++ ) {
+			double xSqr = (cenX - x) * (cenX - x);
+			
+			for ( int y = (yOri ? cenY : cenY - radius) ; y <= (yOri ? cenY : cenY + radius) ; y++ ) {
+				double ySqr = (cenY - y) * (cenY - y);
+				
+				for ( int z = (zOri ? cenZ : cenZ - radius) ; z <= (zOri ? cenZ : cenZ + radius) ; z++ ) {
+					double zSqr = (cenZ - z) * (cenZ - z);
+					
+					double distSqr = xSqr + ySqr + zSqr;
+					
+					if ( distSqr <= radiusSqr &&
+							(!hollow || distSqr >= radiusHSqr ) ) {
+						
+						results.add( new Location( loc.getWorld(), x, y, z ) );
+					}
+				}
+			}
+		}
+		return results;
+	}
+	
+	private List<Location> calculateCube( Location loc, int radius ) {
+		List<Location> results = new ArrayList<>();
+		
+		int cenX = loc.getBlockX();
+		int cenY = loc.getBlockY();
+		int cenZ = loc.getBlockZ();
+		
+		for ( int x = cenX - radius ; x <= cenX + radius ; x++ ) {
+			for ( int y = cenY + 1; y >= 0 && y >= cenY + 1 - (radius * 2) ; y-- ) {
+				for ( int z = cenZ - radius ; z <= cenZ + radius ; z++ ) {
+					
+					results.add( new Location( loc.getWorld(), x, y, z ) );
+				}
+			}
+		}
+		return results;
+	}
+}
@@ -0,0 +1,130 @@
+package tech.mcprison.prison.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EconomyLedgerJournalTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final UUID playerA = UUID.fromString( "00000000-0000-0000-0000-00000000000a" );
+	private final UUID playerB = UUID.fromString( "00000000-0000-0000-0000-00000000000b" );
+
+	@Test
+	public void unappliedChangesAreRecovered()
+			throws IOException {
+		File journalFile = new File( folder.getRoot(), "economyLedger.journal" );
+
+		EconomyLedgerJournal journal = new EconomyLedgerJournal( journalFile );
+		journal.append( playerA, null, 10.5 );
+		journal.append( playerA, null, 4.5 );
+		journal.append( playerB, "tokens", -3 );
+		journal.close();
+
+		// Append an incomplete line, like a crash in the middle of a write:
+		try ( FileOutputStream out = new FileOutputStream( journalFile, true ) ) {
+			out.write( "D\t0000".getBytes( StandardCharsets.UTF_8 ) );
+		}
+
+		journal = new EconomyLedgerJournal( journalFile );
+		Map<String, Double> recovered = journal.recover();
+
+		assertEquals( 2, recovered.size() );
+		assertEquals( 15.0, recovered.get( EconomyLedgerJournal.key( playerA, null ) ), 0.0 );
+		assertEquals( -3.0, recovered.get( EconomyLedgerJournal.key( playerB, "tokens" ) ), 0.0 );
+		assertFalse( journalFile.exists() );
+		assertTrue( journal.getFlushingFile().exists() );
+
+		// Recovering again, without a flush, must not double the changes:
+		journal.close();
+		journal = new EconomyLedgerJournal( journalFile );
+		assertEquals( 15.0, journal.recover().get( EconomyLedgerJournal.key( playerA, null ) ), 0.0 );
+		journal.close();
+	}
+
+	@Test
+	public void appliedChangesAreNotRecovered()
+			throws IOException {
+		File journalFile = new File( folder.getRoot(), "economyLedger.journal" );
+
+		EconomyLedgerJournal journal = new EconomyLedgerJournal( journalFile );
+		journal.append( playerA, null, 10 );
+		journal.append( playerB, null, 20 );
+
+		journal.rotate();
+		journal.append( playerA, null, 1 );
+		journal.appendSet( playerA, null, 0 );
+
+		// The change for playerB failed, so it is still not applied:
+		journal.appendSet( playerB, null, 20 );
+		journal.flushFinished();
+		journal.close();
+
+		assertFalse( journal.getFlushingFile().exists() );
+
+		journal = new EconomyLedgerJournal( journalFile );
+		Map<String, Double> recovered = journal.recover();
+
+		assertEquals( 1, recovered.size() );
+		assertEquals( 20.0, recovered.get( EconomyLedgerJournal.key( playerB, null ) ), 0.0 );
+
+		journal.appendSet( playerB, null, 0 );
+		journal.flushFinished();
+		journal.close();
+
+		assertFalse( journal.getFlushingFile().exists() );
+		assertEquals( 0, new EconomyLedgerJournal( journalFile ).recover().size() );
+	}
+
+	@Test
+	public void changesAfterTheSetRecordAreRecovered()
+			throws IOException {
+		File journalFile = new File( folder.getRoot(), "economyLedger.journal" );
+
+		EconomyLedgerJournal journal = new EconomyLedgerJournal( journalFile );
+		journal.append( playerA, "tokens", 5 );
+		journal.rotate();
+
+		// Changes that land in the new journal before and after the set record:
+		journal.append( playerA, "tokens", 2 );
+		journal.appendSet( playerA, "tokens", 2 );
+		journal.append( playerA, "tokens", 3 );
+		journal.close();
+
+		// The server stopped before the flushing file was finished:
+		assertTrue( journal.getFlushingFile().exists() );
+
+		journal = new EconomyLedgerJournal( journalFile );
+		assertEquals( 5.0, journal.recover().get( EconomyLedgerJournal.key( playerA, "tokens" ) ), 0.0 );
+		journal.close();
+	}
+
+	@Test
+	public void queuedChangesAreOnlyWrittenWhenRequested()
+			throws IOException {
+		File journalFile = new File( folder.getRoot(), "economyLedger.journal" );
+
+		EconomyLedgerJournal journal = new EconomyLedgerJournal( journalFile );
+		journal.append( playerA, null, 1 );
+		journal.append( playerA, null, 2 );
+
+		assertFalse( journalFile.exists() );
+		assertEquals( 2, journal.writeQueued() );
+		assertTrue( journalFile.exists() );
+		assertEquals( 0, journal.writeQueued() );
+		journal.close();
+	}
+}
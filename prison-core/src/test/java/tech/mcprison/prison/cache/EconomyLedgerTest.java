@@ -0,0 +1,121 @@
+package tech.mcprison.prison.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EconomyLedgerTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final UUID playerA = UUID.fromString( "00000000-0000-0000-0000-00000000000a" );
+
+	/**
+	 * <p>Uses the given journal, so the ledger does not need a server to
+	 * read its settings.
+	 * </p>
+	 */
+	private static class TestEconomyLedger
+			extends EconomyLedger {
+
+		private final EconomyLedgerJournal journal;
+
+		public TestEconomyLedger( EconomyLedgerJournal journal ) {
+			super();
+
+			this.journal = journal;
+		}
+
+		@Override
+		protected EconomyLedgerJournal getJournal() {
+			return journal;
+		}
+	}
+
+	@Test
+	public void changesAreNotLostWhileIdleAccountsAreRemoved()
+			throws InterruptedException {
+		EconomyLedger ledger = new TestEconomyLedger( null );
+
+		int threads = 4;
+		int changes = 100000;
+
+		AtomicBoolean done = new AtomicBoolean( false );
+		CountDownLatch startLatch = new CountDownLatch( 1 );
+
+		// Removes every account that has nothing pending, as often as it can:
+		Thread remover = new Thread( () -> {
+			while ( !done.get() ) {
+				ledger.removeIdleAccounts( System.currentTimeMillis(), 0 );
+			}
+		});
+		remover.start();
+
+		List<Thread> writers = new ArrayList<>();
+		for ( int i = 0; i < threads; i++ ) {
+			Thread writer = new Thread( () -> {
+				try {
+					startLatch.await();
+				}
+				catch ( InterruptedException e ) {
+					return;
+				}
+
+				for ( int j = 0; j < changes; j++ ) {
+					ledger.addPending( playerA, null, null, 1, null );
+					ledger.addPending( playerA, null, null, -1, null );
+				}
+			});
+			writer.start();
+			writers.add( writer );
+		}
+
+		startLatch.countDown();
+
+		for ( Thread writer : writers ) {
+			writer.join();
+		}
+
+		done.set( true );
+		remover.join();
+
+		assertEquals( 0.0, ledger.getPendingTotal(), 0.0 );
+	}
+
+	@Test
+	public void committedChangesAreRecoveredBeforeAFlush()
+			throws IOException {
+		File journalFile = new File( folder.getRoot(), "economyLedger.journal" );
+
+		EconomyLedgerJournal journal = new EconomyLedgerJournal( journalFile );
+		EconomyLedger ledger = new TestEconomyLedger( journal );
+
+		ledger.addPending( playerA, null, null, 10, journal );
+		ledger.addPending( playerA, "tokens", null, 3, journal );
+		ledger.addPending( playerA, null, null, 2.5, journal );
+
+		ledger.commitJournal();
+
+		// The server crashed before the ledger flushed or closed the journal:
+		assertFalse( journal.getFlushingFile().exists() );
+
+		Map<String, Double> recovered = new EconomyLedgerJournal( journalFile ).recover();
+
+		assertEquals( 2, recovered.size() );
+		assertEquals( 12.5, recovered.get( EconomyLedgerJournal.key( playerA, null ) ), 0.0 );
+		assertEquals( 3.0, recovered.get( EconomyLedgerJournal.key( playerA, "tokens" ) ), 0.0 );
+	}
+}
@@ -0,0 +1,159 @@
+package tech.mcprison.prison.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PlayerCacheLogStoreTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Map<String, byte[]> records( String... keysAndValues ) {
+		Map<String, byte[]> results = new LinkedHashMap<>();
+		for ( int i = 0; i < keysAndValues.length; i += 2 ) {
+			results.put( keysAndValues[i], keysAndValues[i + 1].getBytes( StandardCharsets.UTF_8 ) );
+		}
+		return results;
+	}
+
+	private String read( PlayerCacheLogStore store, String key )
+			throws IOException {
+		byte[] payload = store.read( key );
+		return payload == null ? null : new String( payload, StandardCharsets.UTF_8 );
+	}
+
+	@Test
+	public void latestRecordIsUsedAfterReopening()
+			throws IOException {
+		File logFile = new File( folder.getRoot(), "playerCache.dat" );
+
+		PlayerCacheLogStore store = new PlayerCacheLogStore( logFile );
+		store.append( records( "a", "{\"v\":1}", "b", "{\"v\":1}" ) );
+		store.append( records( "a", "{\"v\":2}" ) );
+
+		assertEquals( "{\"v\":2}", read( store, "a" ) );
+		store.close();
+
+		store = new PlayerCacheLogStore( logFile );
+		assertEquals( "{\"v\":2}", read( store, "a" ) );
+		assertEquals( "{\"v\":1}", read( store, "b" ) );
+		assertNull( read( store, "c" ) );
+		assertEquals( 2, store.size() );
+		store.close();
+	}
+
+	@Test
+	public void incompleteRecordIsTruncated()
+			throws IOException {
+		File logFile = new File( folder.getRoot(), "playerCache.dat" );
+
+		PlayerCacheLogStore store = new PlayerCacheLogStore( logFile );
+		store.append( records( "a", "first" ) );
+		long goodLength = store.getFileSize();
+		store.append( records( "b", "second" ) );
+		store.close();
+
+		// Simulate the server being killed part way through writing the last record:
+		try ( RandomAccessFile raf = new RandomAccessFile( logFile, "rw" ) ) {
+			raf.setLength( raf.length() - 3 );
+		}
+
+		store = new PlayerCacheLogStore( logFile );
+		assertEquals( "first", read( store, "a" ) );
+		assertFalse( store.contains( "b" ) );
+		assertEquals( goodLength, store.getFileSize() );
+
+		// New records are appended after the last good record:
+		store.append( records( "b", "again" ) );
+		assertEquals( "again", read( store, "b" ) );
+		store.close();
+	}
+
+	@Test
+	public void failedAppendIsRolledBack()
+			throws IOException {
+		File logFile = new File( folder.getRoot(), "playerCache.dat" );
+
+		// Writes only part of the second batch, like a full disk:
+		PlayerCacheLogStore store = new PlayerCacheLogStore( logFile ) {
+			private int batches = 0;
+
+			@Override
+			protected void writeBatch( RandomAccessFile file, byte[] batch )
+					throws IOException {
+				if ( ++batches == 2 ) {
+					file.write( batch, 0, batch.length / 2 );
+					throw new IOException( "No space left on device" );
+				}
+				super.writeBatch( file, batch );
+			}
+		};
+
+		store.append( records( "a", "first" ) );
+		long goodLength = store.getFileSize();
+
+		try {
+			store.append( records( "b", "lost" ) );
+			fail( "The append should have failed" );
+		}
+		catch ( IOException e ) {
+			// Expected
+		}
+
+		assertEquals( goodLength, store.getFileSize() );
+		assertFalse( store.contains( "b" ) );
+
+		store.append( records( "c", "third" ) );
+		store.close();
+
+		// The records after the failed batch must still be found:
+		store = new PlayerCacheLogStore( logFile );
+		assertEquals( "first", read( store, "a" ) );
+		assertEquals( "third", read( store, "c" ) );
+		assertFalse( store.contains( "b" ) );
+		assertEquals( 0, store.getTruncatedBytes() );
+		store.close();
+	}
+
+	@Test
+	public void compactionKeepsOnlyTheLatestRecords()
+			throws IOException {
+		File logFile = new File( folder.getRoot(), "playerCache.dat" );
+
+		PlayerCacheLogStore store = new PlayerCacheLogStore( logFile );
+		for ( int i = 0; i < 50; i++ ) {
+			store.append( records( "a", "value-" + i, "b", "other-" + i ) );
+		}
+
+		long before = store.getFileSize();
+		assertTrue( store.isCompactionNeeded( 2.0d, 0 ) );
+
+		store.compact();
+
+		assertTrue( store.getFileSize() < before );
+		assertFalse( store.isCompactionNeeded( 2.0d, 0 ) );
+		assertEquals( 1, store.getCompactions() );
+		assertArrayEquals( "value-49".getBytes( StandardCharsets.UTF_8 ), store.read( "a" ) );
+		assertEquals( "other-49", read( store, "b" ) );
+		store.close();
+
+		store = new PlayerCacheLogStore( logFile );
+		assertEquals( "value-49", read( store, "a" ) );
+		store.close();
+	}
+}
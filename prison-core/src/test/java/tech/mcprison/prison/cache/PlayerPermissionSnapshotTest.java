@@ -0,0 +1,61 @@
+package tech.mcprison.prison.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class PlayerPermissionSnapshotTest
+{
+	private final UUID playerUuid = UUID.fromString( "00000000-0000-0000-0000-00000000000a" );
+
+	private PlayerPermissionSnapshot snapshot() {
+		return new PlayerPermissionSnapshot( playerUuid, Arrays.asList( 
+				"prison.sellall.multiplier.1.5",
+				"prison.sellall.multiplier.2",
+				"prison.sellall.multiplier.none",
+				"prison.sellall.multiplierx.9",
+				"prison.sellall.sell",
+				"mines.a" ), 1000 );
+	}
+
+	@Test
+	public void prefixQueries() {
+		PlayerPermissionSnapshot snapshot = snapshot();
+		
+		assertEquals( Arrays.asList( 
+				"prison.sellall.multiplier.1.5",
+				"prison.sellall.multiplier.2",
+				"prison.sellall.multiplier.none" ), 
+				snapshot.getPermissions( "prison.sellall.multiplier." ) );
+		
+		assertEquals( 5, snapshot.getPermissions( "prison." ).size() );
+		assertTrue( snapshot.getPermissions( "ranks." ).isEmpty() );
+	}
+
+	@Test
+	public void numericValues() {
+		PlayerPermissionSnapshot snapshot = snapshot();
+		
+		// The permission that is not a number is ignored:
+		assertArrayEquals( new double[] { 1.5, 2 }, 
+				snapshot.getNumericValues( "prison.sellall.multiplier." ), 0.0 );
+		
+		assertEquals( 3.5, snapshot.getNumericSum( "prison.sellall.multiplier." ), 0.0 );
+		assertEquals( 2.0, snapshot.getNumericMax( "prison.sellall.multiplier.", 0 ), 0.0 );
+		assertEquals( -1.0, snapshot.getNumericMax( "prison.tokens.multiplier.", -1 ), 0.0 );
+	}
+
+	@Test
+	public void expires() {
+		PlayerPermissionSnapshot snapshot = snapshot();
+		
+		assertFalse( snapshot.isExpired( 1500, 1000 ) );
+		assertTrue( snapshot.isExpired( 2000, 1000 ) );
+	}
+}
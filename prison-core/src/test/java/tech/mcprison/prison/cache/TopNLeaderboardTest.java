@@ -0,0 +1,127 @@
+package tech.mcprison.prison.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TopNLeaderboardTest
+{
+	/**
+	 * <p>Highest score first, then by name.
+	 * </p>
+	 */
+	private static final Comparator<long[]> SCORE_DESC =
+			(o1, o2) -> o1[0] != o2[0] ? Long.compare( o2[0], o1[0] ) : Long.compare( o1[1], o2[1] );
+
+	@Test
+	public void positionsAndPages() {
+		TopNLeaderboard<long[]> board = new TopNLeaderboard<>( SCORE_DESC );
+
+		board.put( "a", new long[] { 10, 1 } );
+		board.put( "b", new long[] { 30, 2 } );
+		board.put( "c", new long[] { 20, 3 } );
+		board.put( "d", new long[] { 20, 4 } );
+
+		assertEquals( 4, board.size() );
+		assertEquals( 0, board.positionOf( "b" ) );
+		assertEquals( 1, board.positionOf( "c" ) );
+		assertEquals( 2, board.positionOf( "d" ) );
+		assertEquals( 3, board.positionOf( "a" ) );
+		assertEquals( -1, board.positionOf( "x" ) );
+
+		List<long[]> page = board.page( 1, 2 );
+		assertEquals( 2, page.size() );
+		assertEquals( 3, page.get( 0 )[1] );
+		assertEquals( 4, page.get( 1 )[1] );
+		assertEquals( 1, board.page( 3, 10 ).size() );
+		assertNull( board.get( 4 ) );
+
+		// The value is changed before it is updated:
+		long[] a = board.get( "a" );
+		a[0] = 40;
+		board.put( "a", a );
+
+		assertEquals( 0, board.positionOf( "a" ) );
+		assertEquals( 1, board.positionOf( "b" ) );
+
+		assertEquals( 30, board.remove( "b" )[0] );
+		assertEquals( 3, board.size() );
+		assertEquals( 1, board.positionOf( "c" ) );
+	}
+
+	@Test
+	public void updateMovesTheEntry() {
+		TopNLeaderboard<long[]> board = new TopNLeaderboard<>( SCORE_DESC );
+
+		board.put( "a", new long[] { 10, 1 } );
+		board.put( "b", new long[] { 30, 2 } );
+		board.put( "c", new long[] { 20, 3 } );
+
+		assertEquals( 40, board.update( "a", v -> v[0] = 40 )[0] );
+		assertEquals( 0, board.positionOf( "a" ) );
+		assertEquals( 2, board.positionOf( "c" ) );
+		assertEquals( 3, board.size() );
+
+		assertNull( board.update( "x", v -> v[0] = 50 ) );
+
+		board.putOrUpdate( "x", () -> new long[] { 0, 4 }, v -> v[0] = 25 );
+		board.putOrUpdate( "c", () -> new long[] { 0, 5 }, v -> v[0] = 5 );
+
+		assertEquals( 4, board.size() );
+		assertEquals( 2, board.positionOf( "x" ) );
+		assertEquals( 3, board.positionOf( "c" ) );
+		assertEquals( 3, board.get( "c" )[1] );
+	}
+
+	@Test
+	public void matchesFullSort() {
+		TopNLeaderboard<long[]> board = new TopNLeaderboard<>( SCORE_DESC );
+		List<long[]> values = new ArrayList<>();
+
+		Random random = new Random( 42 );
+
+		for ( int i = 0; i < 500; i++ ) {
+			long[] value = new long[] { random.nextInt( 50 ), i };
+			values.add( value );
+			board.put( Integer.toString( i ), value );
+		}
+
+		// Change the scores of some of the entries, and remove others:
+		for ( int i = 0; i < 2000; i++ ) {
+			int id = random.nextInt( 500 );
+			long[] value = values.get( id );
+
+			if ( i % 10 == 0 && board.contains( Integer.toString( id ) ) ) {
+				board.remove( Integer.toString( id ) );
+			}
+			else {
+				value[0] = random.nextInt( 50 );
+				board.put( Integer.toString( id ), value );
+			}
+		}
+
+		List<long[]> expected = new ArrayList<>();
+		for ( long[] value : values ) {
+			if ( board.contains( Long.toString( value[1] ) ) ) {
+				expected.add( value );
+			}
+		}
+		Collections.sort( expected, SCORE_DESC );
+
+		List<long[]> actual = board.toList();
+		assertEquals( expected.size(), actual.size() );
+
+		for ( int i = 0; i < expected.size(); i++ ) {
+			assertEquals( Arrays.toString( expected.get( i ) ), Arrays.toString( actual.get( i ) ) );
+			assertEquals( i, board.positionOf( Long.toString( expected.get( i )[1] ) ) );
+		}
+	}
+}
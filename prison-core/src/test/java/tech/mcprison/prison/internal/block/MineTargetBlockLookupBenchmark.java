@@ -0,0 +1,158 @@
+package tech.mcprison.prison.internal.block;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import tech.mcprison.prison.TestWorld;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>Compares the old TreeMap lookup of the mine's target blocks, which is keyed 
+ * on MineTargetBlockKey and compares the world names on every hop, against the
+ * direct offset lookup within the MineTargetBlockStore.  
+ * </p>
+ * 
+ * <p>The single lookup is what a normal block break performs, and the batch of 
+ * 500 blocks is what an explosion event performs.
+ * </p>
+ * 
+ * <p>This is not a unit test. Run it with the main() function, or with the JMH 
+ * runner, using the test classpath.
+ * </p>
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MineTargetBlockLookupBenchmark
+{
+	private static final int EXPLOSION_BATCH_SIZE = 500;
+	
+	private static final int X_MIN = -100;
+	private static final int X_MAX = 99;
+	private static final int Y_MIN = 5;
+	private static final int Y_MAX = 124;
+	private static final int Z_MIN = 1000;
+	private static final int Z_MAX = 1199;
+	
+	private TestWorld world;
+	
+	private TreeMap<MineTargetBlockKey, Integer> treeMap;
+	private MineTargetBlockStore store;
+	
+	private List<Location> singleBreaks;
+	private List<Location> explosion;
+	private int position = 0;
+	
+	@Setup
+	public void setup() {
+		
+		world = new TestWorld( "prison_mines_world" );
+		
+		PrisonBlock stone = new PrisonBlock( "stone" );
+		
+		treeMap = new TreeMap<>();
+		store = new MineTargetBlockStore( world, X_MIN, X_MAX, Y_MIN, Y_MAX, Z_MIN, Z_MAX );
+		
+		int offset = 0;
+		for ( int y = Y_MAX; y >= Y_MIN; y-- ) {
+			for ( int x = X_MIN; x <= X_MAX; x++ ) {
+				for ( int z = Z_MIN; z <= Z_MAX; z++ ) {
+					
+					treeMap.put( new MineTargetBlockKey( world, x, y, z ), offset );
+					store.set( offset++, stone, false, false );
+				}
+			}
+		}
+		
+		Random random = new Random( 42 );
+		
+		singleBreaks = new ArrayList<>();
+		for ( int i = 0; i < 4096; i++ ) {
+			singleBreaks.add( new Location( new TestWorld( world.getName() ), 
+					X_MIN + random.nextInt( X_MAX - X_MIN + 1 ),
+					Y_MIN + random.nextInt( Y_MAX - Y_MIN + 1 ),
+					Z_MIN + random.nextInt( Z_MAX - Z_MIN + 1 ) ) );
+		}
+		
+		// An explosion is a sphere of blocks around one center:
+		explosion = new ArrayList<>();
+		int cx = 0;
+		int cy = 60;
+		int cz = 1100;
+		for ( int x = -5; x <= 5 && explosion.size() < EXPLOSION_BATCH_SIZE; x++ ) {
+			for ( int y = -5; y <= 5 && explosion.size() < EXPLOSION_BATCH_SIZE; y++ ) {
+				for ( int z = -5; z <= 5 && explosion.size() < EXPLOSION_BATCH_SIZE; z++ ) {
+					if ( x * x + y * y + z * z <= 25 ) {
+						explosion.add( new Location( new TestWorld( world.getName() ), 
+								cx + x, cy + y, cz + z ) );
+					}
+				}
+			}
+		}
+		while ( explosion.size() < EXPLOSION_BATCH_SIZE ) {
+			explosion.add( singleBreaks.get( explosion.size() ) );
+		}
+	}
+	
+	private Location nextSingleBreak() {
+		position = (position + 1) & 4095;
+		return singleBreaks.get( position );
+	}
+	
+	@Benchmark
+	public Object singleBreakTreeMap() {
+		return treeMap.get( new MineTargetBlockKey( nextSingleBreak() ) );
+	}
+	
+	@Benchmark
+	public Object singleBreakStore() {
+		return store.get( nextSingleBreak() );
+	}
+	
+	@Benchmark
+	public void explosionTreeMap( Blackhole bh ) {
+		for ( Location location : explosion ) {
+			bh.consume( treeMap.get( new MineTargetBlockKey( location ) ) );
+		}
+	}
+	
+	@Benchmark
+	public void explosionStore( Blackhole bh ) {
+		for ( Location location : explosion ) {
+			bh.consume( store.get( location ) );
+		}
+	}
+	
+	public static void main( String[] args ) 
+			throws RunnerException {
+		
+		Options options = new OptionsBuilder()
+				.include( MineTargetBlockLookupBenchmark.class.getSimpleName() )
+				.build();
+		
+		new Runner( options ).run();
+	}
+}
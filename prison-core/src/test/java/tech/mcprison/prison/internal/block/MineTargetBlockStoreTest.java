@@ -0,0 +1,108 @@
+package tech.mcprison.prison.internal.block;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.TestWorld;
+
+public class MineTargetBlockStoreTest
+{
+
+	@Test
+	public void offsetsFollowResetOrder() {
+		MineTargetBlockStore store = 
+				new MineTargetBlockStore( new TestWorld( "test1" ), 10, 12, 60, 64, -3, -2 );
+		
+		assertEquals( 3 * 5 * 2, store.getVolume() );
+		
+		// The top layer is first, then x, then z:
+		assertEquals( 0, store.getOffset( 10, 64, -3 ) );
+		assertEquals( 1, store.getOffset( 10, 64, -2 ) );
+		assertEquals( 2, store.getOffset( 11, 64, -3 ) );
+		assertEquals( 6, store.getOffset( 10, 63, -3 ) );
+		assertEquals( store.getVolume() - 1, store.getOffset( 12, 60, -2 ) );
+		
+		assertEquals( -1, store.getOffset( 9, 64, -3 ) );
+		assertEquals( -1, store.getOffset( 10, 65, -3 ) );
+		assertEquals( -1, store.getOffset( 10, 64, -1 ) );
+		
+		for ( int offset = 0; offset < store.getVolume(); offset++ ) {
+			assertEquals( offset, store.getOffset( 
+					store.getX( offset ), store.getY( offset ), store.getZ( offset ) ) );
+		}
+	}
+	
+	@Test
+	public void stateBitsAndPalette() {
+		MineTargetBlockStore store = 
+				new MineTargetBlockStore( new TestWorld( "test1" ), 0, 1, 0, 1, 0, 1 );
+		
+		PrisonBlock stone = new PrisonBlock( "stone" );
+		
+		store.set( 0, stone, true, false );
+		store.set( 1, PrisonBlock.AIR, false, true );
+		
+		assertEquals( 2, store.size() );
+		assertNull( store.get( 2 ) );
+		
+		MineTargetPrisonBlock target = store.get( 0, 1, 0 );
+		assertEquals( stone, target.getPrisonBlock() );
+		assertTrue( target.isEdge() );
+		assertFalse( target.isCorner() );
+		assertFalse( target.isAirBroke() );
+		
+		target.setMined( true );
+		target.setCounted( true );
+		assertTrue( store.get( 0 ).isMined() );
+		assertTrue( store.get( 0 ).isCounted() );
+		assertFalse( store.get( 0 ).isExploded() );
+		
+		MineTargetPrisonBlock air = store.get( 1 );
+		assertTrue( air.isAirBroke() );
+		assertTrue( air.isCorner() );
+		
+		assertEquals( PrisonBlock.PINK_STAINED_GLASS, target.getPrisonBlock( MineResetType.tracer ) );
+		assertEquals( PrisonBlock.AIR, air.getPrisonBlock( MineResetType.tracer ) );
+		assertEquals( stone, target.getPrisonBlock( MineResetType.normal ) );
+	}
+	
+	@Test
+	public void stateBitsFromManyThreads() throws InterruptedException {
+		MineTargetBlockStore store = 
+				new MineTargetBlockStore( new TestWorld( "test1" ), 0, 3, 0, 3, 0, 3 );
+		
+		byte[] bits = { MineTargetBlockStore.STATE_MINED, MineTargetBlockStore.STATE_COUNTED,
+				MineTargetBlockStore.STATE_EXPLODED, MineTargetBlockStore.STATE_IGNORE_ALL_BLOCK_EVENTS };
+		
+		// Each thread sets a different bit on the same blocks, which share their ints:
+		Thread[] threads = new Thread[ bits.length ];
+		for ( int t = 0; t < threads.length; t++ ) {
+			byte bit = bits[t];
+			threads[t] = new Thread( () -> {
+				for ( int i = 0; i < 1000; i++ ) {
+					for ( int offset = 0; offset < 64; offset++ ) {
+						store.setState( offset, bit, i % 2 == 0 );
+					}
+				}
+				for ( int offset = 0; offset < 64; offset++ ) {
+					store.setState( offset, bit, true );
+				}
+			});
+			threads[t].start();
+		}
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+		
+		for ( int offset = 0; offset < 64; offset++ ) {
+			for ( byte bit : bits ) {
+				assertTrue( store.isState( offset, bit ) );
+			}
+			assertFalse( store.isState( offset, MineTargetBlockStore.STATE_EDGE ) );
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package tech.mcprison.prison.localization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LocaleMessageTemplateTest
+{
+
+	@Test
+	public void renderSlots() {
+		LocaleMessageTemplate template = LocaleMessageTemplate.compile(
+				"&7%1 ranked up to %2! %1 paid $%3 (100%)" );
+
+		assertEquals( 4, template.getSlotCount() );
+
+		assertEquals( "[&7Bob ranked up to B! Bob paid $1,000 (100%)]",
+				template.render( "[", new String[] { "Bob", "B", "1,000" }, "]" ) );
+
+		// Missing replacements are left as is, and replacements are never re-scanned:
+		assertEquals( "&7%2 ranked up to %2! %2 paid $%3 (100%)",
+				template.render( "", new String[] { "%2" }, "" ) );
+		assertEquals( "&7%1 ranked up to %2! %1 paid $%3 (100%)",
+				template.render( "", null, "" ) );
+
+		// Special characters in the replacements are not treated as regex groups:
+		assertEquals( "$1 \\o/", LocaleMessageTemplate.compile( "%1" )
+				.render( "", new String[] { "$1 \\o/" }, "" ) );
+
+		assertEquals( "50% off %0", LocaleMessageTemplate.compile( "50% off %0" )
+				.render( "", new String[] { "x" }, "" ) );
+	}
+
+	@Test
+	public void noMessage() {
+		assertTrue( LocaleMessageTemplate.compile( "*NONE*" ).isNoMessage() );
+		assertTrue( LocaleMessageTemplate.compile( "   " ).isNoMessage() );
+		assertEquals( "", LocaleMessageTemplate.compile( "*none*" ).render( "pre", null, "suf" ) );
+	}
+
+	@Test
+	public void fallbackChain() {
+		// The default locale is tried again if it was not the last one tried:
+		assertArrayEquals( new String[] { "fr_FR", "en_US", "fr_CA", "en_US" },
+				LocaleManager.buildFallbackChain( "fr_FR", "en_US" ) );
+
+		// The alternatives of the locale, then the fallbacks with their alternatives,
+		// and the default locale last:
+		assertArrayEquals( new String[] { "pt_BR", "pt_PT", "fr_CA", "fr_FR", "en_US", "de_DE" },
+				LocaleManager.buildFallbackChain( "pt_BR", "de_DE", "fr_CA" ) );
+
+		assertArrayEquals( new String[] { "xx_XX", "en_US" },
+				LocaleManager.buildFallbackChain( "xx_XX", "en_US" ) );
+		assertArrayEquals( new String[] { "en_US", "en_AU", "en_GB", "en_CA" },
+				LocaleManager.buildFallbackChain( "en_US", "en_CA" ) );
+	}
+}
@@ -0,0 +1,57 @@
+package tech.mcprison.prison.output;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.text.DecimalFormat;
+
+import org.junit.Test;
+
+public class BlockBreakTraceTest
+{
+
+	@Test
+	public void renderPlacesEntriesWhereRecorded() {
+		StringBuilder debugInfo = new StringBuilder();
+		BlockBreakTrace trace = new BlockBreakTrace( debugInfo, "&3", "&c" );
+
+		debugInfo.append( "validateEvent:: " );
+		trace.field( "itemInHand", "DIAMOND_PICKAXE (FORTUNE:5)" );
+		trace.group( "blocks" ).field( "target", 1 ).field( "exploded", 12 ).end();
+		debugInfo.append( "(PassedValidation) " );
+		trace.warning( "(fail:totalDrops=0) " );
+		trace.group( "getToolFort" ).field( "fort", 5 ).field( "max", 3 ).field( "result", 3 ).end();
+		debugInfo.append( "done" );
+
+		assertEquals( "validateEvent::  itemInHand=[DIAMOND_PICKAXE (FORTUNE:5)]" +
+				"(blocks: target=1 exploded=12) (PassedValidation) " +
+				"&c(fail:totalDrops=0) &3" +
+				"(getToolFort: fort=5 max=3 result=3) done",
+				trace.render().toString() );
+
+		// The free text debug info is not changed by rendering:
+		assertEquals( "validateEvent:: (PassedValidation) done", debugInfo.toString() );
+	}
+
+	@Test
+	public void typedFields() {
+		StringBuilder debugInfo = new StringBuilder();
+		BlockBreakTrace trace = new BlockBreakTrace( debugInfo, null, null );
+
+		trace.group( "calcAltFortune" )
+			.field( "blks", 1 )
+			.field( "glbMult", 1.5d )
+			.field( "multApplied", true )
+			.end();
+
+		assertEquals( Long.valueOf( 1 ), trace.getFieldValue( "blks" ) );
+		assertEquals( Double.valueOf( 1.5d ), trace.getFieldValue( "glbMult" ) );
+		assertEquals( Boolean.TRUE, trace.getFieldValue( "multApplied" ) );
+		assertNull( trace.getFieldValue( "drops" ) );
+		assertEquals( 5, trace.getEntries().size() );
+
+		String glbMult = new DecimalFormat( "#,##0.0000" ).format( 1.5d );
+		assertEquals( "(calcAltFortune: blks=1 glbMult=" + glbMult + " multApplied=true) ",
+				trace.render().toString() );
+	}
+}
@@ -0,0 +1,75 @@
+package tech.mcprison.prison.output;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class OutputLogBufferTest
+{
+
+	@Test
+	public void overflowAndWrapAround() throws InterruptedException {
+		OutputLogBuffer buffer = new OutputLogBuffer( 4 );
+		OutputLogBuffer.Entry[] batch = OutputLogBuffer.newBatch( 3 );
+
+		for ( int i = 0; i < 6; i++ ) {
+			boolean added = buffer.offer( LogLevel.INFO, "msg " + i, new Object[] { i }, null );
+			assertEquals( i < 4, added );
+		}
+		assertEquals( 4, buffer.size() );
+		assertEquals( 2, buffer.getOverflowCount() );
+
+		// Only as many as the batch holds, oldest first:
+		assertEquals( 3, buffer.drainTo( batch, 0 ) );
+		assertEquals( "msg 0", batch[0].getMessage() );
+		assertEquals( "msg 2", batch[2].getMessage() );
+		assertEquals( 2, batch[2].getArgs()[0] );
+
+		// Adding after the drain wraps around the end of the slots:
+		assertTrue( buffer.offer( LogLevel.ERROR, "msg 6", null, null ) );
+		assertTrue( buffer.offer( LogLevel.ERROR, "msg 7", null, null ) );
+
+		assertEquals( 3, buffer.drainTo( batch, 0 ) );
+		assertEquals( "msg 3", batch[0].getMessage() );
+		assertEquals( "msg 6", batch[1].getMessage() );
+		assertEquals( LogLevel.ERROR, batch[2].getLevel() );
+		assertEquals( "msg 7", batch[2].getMessage() );
+
+		assertEquals( 0, buffer.size() );
+		assertEquals( 0, buffer.drainTo( batch, 0 ) );
+		assertEquals( 6, buffer.getAddedCount() );
+
+		batch[0].clear();
+		assertNull( batch[0].getMessage() );
+	}
+
+	@Test
+	public void closeWakesDrainer() throws InterruptedException {
+		OutputLogBuffer buffer = new OutputLogBuffer( 8 );
+		OutputLogBuffer.Entry[] batch = OutputLogBuffer.newBatch( 8 );
+
+		Thread closer = new Thread( () -> {
+			try {
+				Thread.sleep( 50 );
+			}
+			catch ( InterruptedException e ) {
+				// ignore
+			}
+			buffer.close();
+		} );
+		closer.start();
+
+		long start = System.currentTimeMillis();
+		assertEquals( 0, buffer.drainTo( batch, 10000 ) );
+		assertTrue( System.currentTimeMillis() - start < 5000 );
+
+		assertTrue( buffer.isClosed() );
+		assertFalse( buffer.offer( LogLevel.INFO, "late", null, null ) );
+		assertEquals( 1, buffer.getOverflowCount() );
+
+		closer.join();
+	}
+}
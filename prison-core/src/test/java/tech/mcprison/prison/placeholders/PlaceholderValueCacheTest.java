@@ -0,0 +1,159 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+
+public class PlaceholderValueCacheTest
+{
+
+	@Test
+	public void cachedValueIsUsedUntilThePlayerIsInvalidated() {
+		PlaceholderValueCache cache = new PlaceholderValueCache();
+		
+		UUID player1 = UUID.randomUUID();
+		UUID player2 = UUID.randomUUID();
+		
+		assertNull( cache.get( player1, "prison_rank" ) );
+		
+		cache.put( player1, "prison_rank", PrisonPlaceHolders.prison_rank, null, "A", cache.getEpoch(), 1000 );
+		cache.put( player2, "prison_rank", PrisonPlaceHolders.prison_rank, null, "B", cache.getEpoch(), 1000 );
+		
+		assertEquals( "A", cache.get( player1, "prison_rank" ) );
+		assertEquals( "B", cache.get( player2, "prison_rank" ) );
+		
+		cache.invalidatePlayer( player1 );
+		
+		assertNull( cache.get( player1, "prison_rank" ) );
+		assertEquals( "B", cache.get( player2, "prison_rank" ) );
+		
+		assertEquals( 3, cache.getStatsHits() );
+		assertEquals( 3000, cache.getStatsSavedNanos() );
+	}
+	
+	@Test
+	public void invalidationOnlyAppliesToTheGivenTypes() {
+		PlaceholderValueCache cache = new PlaceholderValueCache();
+		
+		UUID player = UUID.randomUUID();
+		
+		cache.put( player, "prison_rank", PrisonPlaceHolders.prison_rank, null, 
+				"A", cache.getEpoch(), 0 );
+		cache.put( player, "prison_ptb_stone", PrisonPlaceHolders.prison_player_total_blocks__blockname, null, 
+				"10", cache.getEpoch(), 0 );
+		cache.put( player, "prison_mn_a", PrisonPlaceHolders.prison_mines_name_minename, null, 
+				"a", cache.getEpoch(), 0 );
+		
+		cache.invalidatePlayer( player, PlaceholderFlags.PLAYERBLOCKS );
+		
+		assertEquals( "A", cache.get( player, "prison_rank" ) );
+		assertNull( cache.get( player, "prison_ptb_stone" ) );
+		assertEquals( "a", cache.get( player, "prison_mn_a" ) );
+		
+		cache.invalidate( PlaceholderFlags.MINES );
+
+		assertEquals( "A", cache.get( player, "prison_rank" ) );
+		assertNull( cache.get( player, "prison_mn_a" ) );
+	}
+	
+	@Test
+	public void valueIsNotStoredIfInvalidatedWhileCalculating() {
+		PlaceholderValueCache cache = new PlaceholderValueCache();
+		
+		UUID player = UUID.randomUUID();
+		
+		long epoch = cache.getEpoch();
+		
+		cache.invalidatePlayer( player );
+		
+		cache.put( player, "prison_rank", PrisonPlaceHolders.prison_rank, null, "A", epoch, 0 );
+		
+		assertNull( cache.get( player, "prison_rank" ) );
+		assertEquals( 0, cache.size() );
+	}
+	
+	@Test
+	public void invalidatingAnotherPlayerWhileCalculatingStillStores() {
+		PlaceholderValueCache cache = new PlaceholderValueCache();
+		
+		UUID player1 = UUID.randomUUID();
+		UUID player2 = UUID.randomUUID();
+		
+		long epoch = cache.getEpoch();
+		
+		cache.invalidatePlayer( player2 );
+		
+		cache.put( player1, "prison_rank", PrisonPlaceHolders.prison_rank, null, "A", epoch, 0 );
+		
+		assertEquals( "A", cache.get( player1, "prison_rank" ) );
+		
+		epoch = cache.getEpoch();
+		
+		cache.invalidate( PlaceholderFlags.MINES );
+		
+		cache.put( player2, "prison_rank", PrisonPlaceHolders.prison_rank, null, "B", epoch, 0 );
+		
+		assertNull( cache.get( player2, "prison_rank" ) );
+	}
+	
+	@Test
+	public void purgeRemovesPlayersWithoutValues() {
+		PlaceholderValueCache cache = new PlaceholderValueCache();
+		
+		UUID player1 = UUID.randomUUID();
+		UUID player2 = UUID.randomUUID();
+		
+		cache.put( player1, "prison_rank", PrisonPlaceHolders.prison_rank, null, "A", cache.getEpoch(), 0 );
+		cache.invalidatePlayer( player2 );
+		
+		assertEquals( 2, cache.getPlayerGenerationsCount() );
+		
+		cache.purgeExpired();
+		
+		assertEquals( 1, cache.getPlayerGenerationsCount() );
+		assertEquals( "A", cache.get( player1, "prison_rank" ) );
+	}
+	
+	@Test
+	public void removePlayerDropsTheirValues() {
+		PlaceholderValueCache cache = new PlaceholderValueCache();
+		
+		UUID player1 = UUID.randomUUID();
+		UUID player2 = UUID.randomUUID();
+		
+		cache.put( player1, "prison_rank", PrisonPlaceHolders.prison_rank, null, "A", cache.getEpoch(), 0 );
+		cache.put( player2, "prison_rank", PrisonPlaceHolders.prison_rank, null, "B", cache.getEpoch(), 0 );
+		
+		long epoch = cache.getEpoch();
+		
+		cache.removePlayer( player1 );
+		
+		assertNull( cache.get( player1, "prison_rank" ) );
+		assertEquals( "B", cache.get( player2, "prison_rank" ) );
+		assertEquals( 1, cache.getPlayerGenerationsCount() );
+		
+		// A value that was being calculated when the player was removed:
+		cache.put( player1, "prison_rank", PrisonPlaceHolders.prison_rank, null, "A", epoch, 0 );
+		
+		assertNull( cache.get( player1, "prison_rank" ) );
+		assertEquals( 1, cache.getPlayerGenerationsCount() );
+	}
+	
+	@Test
+	public void zeroTtlDisablesTheType() {
+		PlaceholderValueCache cache = new PlaceholderValueCache();
+		cache.setTtlMs( PlaceholderFlags.PLAYER, 0 );
+		
+		UUID player = UUID.randomUUID();
+		
+		cache.put( player, "prison_rank", PrisonPlaceHolders.prison_rank, null, "A", cache.getEpoch(), 0 );
+		
+		assertNull( cache.get( player, "prison_rank" ) );
+	}
+}
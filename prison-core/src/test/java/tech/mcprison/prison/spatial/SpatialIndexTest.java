@@ -0,0 +1,48 @@
+package tech.mcprison.prison.spatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class SpatialIndexTest
+{
+
+	@Test
+	public void findAcrossColumnsAndWorlds() {
+		SpatialIndex<String> index = new SpatialIndex<>();
+		
+		// Spans several columns, including negative coordinates:
+		index.add( "World", new SpatialIndexData<>( -30, 40, -5, 30, 80, 60, "a" ) );
+		index.add( "nether", new SpatialIndexData<>( 0, 10, 0, 9, 20, 9, "b" ) );
+		
+		assertEquals( 2, index.size() );
+		
+		assertEquals( "a", index.find( "world", -30, 40, -5, 0 ) );
+		assertEquals( "a", index.find( "WORLD", 30, 80, 60, 0 ) );
+		assertEquals( "a", index.find( "world", 0, 60, 26, 0 ) );
+		assertNull( index.find( "world", -31, 60, 0, 0 ) );
+		assertNull( index.find( "world", 0, 60, 61, 0 ) );
+		
+		// Top and bottom of the region:
+		assertNull( index.find( "world", 0, 81, 0, 0 ) );
+		assertEquals( "a", index.find( "world", 0, 81, 0, 1 ) );
+		assertEquals( "a", index.find( "world", 0, 39, 0, 1 ) );
+		assertNull( index.find( "world", 0, 38, 0, 1 ) );
+		
+		assertEquals( "b", index.find( "nether", 5, 15, 5, 0 ) );
+		assertNull( index.find( "unknown", 5, 15, 5, 0 ) );
+		assertNull( index.find( null, 5, 15, 5, 0 ) );
+	}
+	
+	@Test
+	public void overlappingRegionsUseFirstAdded() {
+		SpatialIndex<String> index = new SpatialIndex<>();
+		
+		index.add( "world", new SpatialIndexData<>( 0, 0, 0, 100, 100, 100, "outer" ) );
+		index.add( "world", new SpatialIndexData<>( 50, 50, 50, 10, 10, 10, "inner" ) );
+		
+		assertEquals( "outer", index.find( "world", 20, 20, 20, 0 ) );
+		assertEquals( "outer", index.find( "world", 75, 75, 75, 0 ) );
+	}
+}
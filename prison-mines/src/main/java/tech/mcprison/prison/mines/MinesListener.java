@@ -4,6 +4,8 @@ import com.google.common.eventbus.Subscribe;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.internal.events.player.PlayerKickEvent;
+import tech.mcprison.prison.internal.events.player.PlayerQuitEvent;
 import tech.mcprison.prison.internal.events.player.PlayerSuffocationEvent;
 import tech.mcprison.prison.internal.events.world.PrisonWorldLoadEvent;
 import tech.mcprison.prison.mines.data.Mine;
@@ -35,6 +37,22 @@ public class MinesListener {
     }
     
     
+    /**
+     * <p>When a player leaves the server, remove them from the mine player cache.
+     * </p>
+     * @param e
+     */
+    @Subscribe
+    public void onPlayerQuit( PlayerQuitEvent e ) {
+    	PrisonMines.getInstance().getPlayerCache().remove( e.getPlayer().getUUID() );
+    }
+    
+    @Subscribe
+    public void onPlayerKicked( PlayerKickEvent e ) {
+    	PrisonMines.getInstance().getPlayerCache().remove( e.getPlayer().getUUID() );
+    }
+    
+    
     /**
      * <p>If a player is suffocating, and if they are within a mine, then based upon the config
      * settings, the play may not experience suffocation, and they may be teleported to
@@ -21,7 +21,6 @@ package tech.mcprison.prison.mines;
 import java.io.File;
 import java.util.List;
 import java.util.Optional;
-import java.util.TreeMap;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
@@ -37,6 +36,7 @@ import tech.mcprison.prison.mines.data.MinesConfig;
 import tech.mcprison.prison.mines.data.PrisonSortableResults;
 import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.mines.managers.MineManager.MineSortOrder;
+import tech.mcprison.prison.mines.managers.PlayerMineCache;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.modules.ModuleManager;
 import tech.mcprison.prison.output.Output;
@@ -77,15 +77,19 @@ public class PrisonMines extends Module {
      * be something else.
      * </p>
      * 
+     * <p>This is shared with the block break events, which may be async, so 
+     * it is a concurrent cache that is keyed by the player's UUID.
+     * </p>
+     * 
      */
-	private final TreeMap<Long, Mine> playerCache;
+	private final PlayerMineCache playerCache;
 
 	
     
     public PrisonMines(String version) {
         super(MODULE_NAME, version, 3);
 
-    	this.playerCache = new TreeMap<>();
+    	this.playerCache = new PlayerMineCache();
     }
 
     public static PrisonMines getInstance() {
@@ -106,6 +110,9 @@ public class PrisonMines extends Module {
         
         initDb();
         initConfig();
+        
+        getPlayerCache().setMaxSize( Prison.get().getPlatform()
+        		.getConfigInt( "prison-mines.player-cache.max-size", PlayerMineCache.DEFAULT_MAX_SIZE ) );
         this.localeManager = new LocaleManager(this, "lang/mines");
 
 //        initWorlds();
@@ -200,57 +207,74 @@ public class PrisonMines extends Module {
      * of the mines. If not, then return a null.
      * </p>
      * 
+     * <p>This uses the MineManager's spatial index so only the mines that are 
+     * near the location are checked.
+     * </p>
+     * 
      * @param block
      * @return
      */
 	public Mine findMineLocationExact( Location locationToCheck ) {
-		Mine mine = null;
-		for ( Mine m : getMines() ) {
-			if ( m.isInMineExact( locationToCheck ) ) {
-				mine = m;
-				break;
-			}
-		}
-		return mine;
+		return findMineLocation( locationToCheck, false );
 	}
 	public Mine findMineLocationIncludeTopBottomOfMine( Location locationToCheck ) {
+		return findMineLocation( locationToCheck, true );
+	}
+	
+	/**
+	 * <p>Same as findMineLocationExact() but uses the block coordinates directly
+	 * so a Location does not have to be created.
+	 * </p>
+	 * 
+	 * @param worldName
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public Mine findMineLocationExact( String worldName, int x, int y, int z ) {
+		return getMineManager().findMineLocation( worldName, x, y, z, false );
+	}
+	
+	private Mine findMineLocation( Location locationToCheck, boolean includeTopBottomOfMine ) {
 		Mine mine = null;
-		for ( Mine m : getMines() ) {
-			if ( m.isInMineIncludeTopBottomOfMine( locationToCheck ) ) {
-				mine = m;
-				break;
-			}
+		
+		if ( locationToCheck != null && locationToCheck.getWorld() != null ) {
+			
+			// Must use the floor of the coordinates to match Bounds.within():
+			mine = getMineManager().findMineLocation( 
+					locationToCheck.getWorld().getName(), 
+					(int) Math.floor( locationToCheck.getX() ), 
+					(int) Math.floor( locationToCheck.getY() ), 
+					(int) Math.floor( locationToCheck.getZ() ), 
+					includeTopBottomOfMine );
 		}
 		return mine;
 	}
 
-	public TreeMap<Long, Mine> getPlayerCache() {
+	public PlayerMineCache getPlayerCache() {
 		return playerCache;
 	}
 	
 	public Mine findMineLocation( Player player ) {
 		Mine results = null;
 		
-		Long playerUUIDLSB = Long.valueOf( player.getUUID().getLeastSignificantBits() );
+		Location location = player.getLocation();
 		
 		// Get the cached mine, if it exists:
-		Mine mine = getPlayerCache().get( playerUUIDLSB );
+		Mine mine = getPlayerCache().get( player.getUUID(), 
+							m -> m.isInMineIncludeTopBottomOfMine( location ) );
 		
-		if ( mine != null && mine.isInMineIncludeTopBottomOfMine( player.getLocation() )) {
+		if ( mine != null ) {
 			results = mine;
 		}
-		else if ( player.getLocation() != null ) {
+		else if ( location != null ) {
 			// Look for the correct mine to use. 
 			// Set mine to null so if cannot find the right one it will return a null:
-			results = findMineLocationIncludeTopBottomOfMine( player.getLocation() );
+			results = findMineLocationIncludeTopBottomOfMine( location );
 			
-			// Store the mine in the player cache if not null:
-			if ( results != null ) {
-				getPlayerCache().put( playerUUIDLSB, results );
-			}
-			else {
-				getPlayerCache().remove( playerUUIDLSB );
-			}
+			// Store the mine in the player cache, or remove the player if null:
+			getPlayerCache().put( player.getUUID(), results );
 		}
 
 		return results;
@@ -37,6 +37,7 @@ import tech.mcprison.prison.commands.Wildcard;
 import tech.mcprison.prison.internal.CommandSender;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.block.Block;
+import tech.mcprison.prison.internal.block.MineBlockPlacementStrategy;
 import tech.mcprison.prison.internal.block.MineResetType;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.mines.PrisonMines;
@@ -53,6 +54,9 @@ import tech.mcprison.prison.mines.features.MineLinerBuilder.LinerPatterns;
 import tech.mcprison.prison.mines.features.MineLinerData.LadderType;
 import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.mines.managers.MineManager.MineSortOrder;
+import tech.mcprison.prison.mines.managers.PlayerMineCache;
+import tech.mcprison.prison.mines.tasks.MineResetCoordinator;
+import tech.mcprison.prison.mines.tasks.MineResetTickScheduler;
 import tech.mcprison.prison.mines.tasks.MineTeleportWarmUpTask;
 import tech.mcprison.prison.modules.ModuleElementType;
 import tech.mcprison.prison.output.BulletedListComponent;
@@ -1134,6 +1138,14 @@ public class MinesCommands
         			chatDisplay.addComponent( row );
         		}
         		
+        		if ( m.getBlockPlacementStrategy() != MineBlockPlacementStrategy.standard || 
+        				cmdPageData.isShowAll() ) {
+        			RowComponent row = new RowComponent();
+        			row.addTextComponent( "&3Block Placement: &7%s", 
+        					m.getBlockPlacementStrategy().name() );
+        			chatDisplay.addComponent( row );
+        		}
+        		
         	}
         	
 
@@ -1228,6 +1240,12 @@ public class MinesCommands
         						mineSweeperBlks );
         		chatDisplay.addComponent( row );
         		
+        		RowComponent rowScan = new RowComponent();
+        		rowScan.addTextComponent( "&3        Blks Scanned: %s  Blks Skipped: %s ",
+        				PlaceholdersUtil.formattedKmbtSISize( m.getMineSweeperBlocksScanned(), fFmt, " " ),
+        				PlaceholdersUtil.formattedKmbtSISize( m.getMineSweeperBlocksSkipped(), fFmt, " " ) );
+        		chatDisplay.addComponent( rowScan );
+        		
         		if ( m.getStatsMineSweeperTaskMs().size() > 0 ) {
         			RowComponent row2 = new RowComponent();
         			row2.addTextComponent( "&3        %s ", m.statsMessageMineSweeper() );
@@ -2179,6 +2197,56 @@ public class MinesCommands
 
 
 
+    @Command(identifier = "mines set blockPlacement", permissions = "mines.set", 
+    		description = "Sets how the blocks are placed when the mine resets. 'standard' places " +
+    				"each block one at a time in the order of the reset.  'chunk' sorts each " +
+    				"batch of blocks by chunk section, so each chunk is only looked up once per " +
+    				"batch, which is faster for large mines.")
+    public void blockPlacementStrategyCommand(CommandSender sender,
+        @Arg(name = "mineName", description = "The name of the mine to edit.") String mineName,
+        @Arg(name = "strategy", description = "The block placement strategy. [standard, chunk]", 
+        					def = "standard" ) String strategy
+    		) {
+        
+        if (performCheckMineExists(sender, mineName)) {
+        	setLastMineReferenced(mineName);
+        	
+        	PrisonMines pMines = PrisonMines.getInstance();
+        	Mine m = pMines.getMine(mineName);
+        	
+        	MineBlockPlacementStrategy placementStrategy = MineBlockPlacementStrategy.fromString( strategy );
+        	
+        	if ( !placementStrategy.name().equalsIgnoreCase( strategy ) ) {
+        		Output.get().sendWarn( sender,"&7Invalid block placement strategy. " +
+        				"Was &b%s&7. Use &bstandard &7or &bchunk&7.", 
+        				(strategy == null ? "&c-blank-" : strategy) );
+        		return;
+        	}
+        	
+        	if ( placementStrategy == m.getBlockPlacementStrategy() ) {
+        		String msg = "The Block Placement Strategy was not changed.";
+        		Output.get().sendInfo( sender, msg );
+        		return;
+        	}
+        	
+        	m.setBlockPlacementStrategy( placementStrategy );
+        	
+        	pMines.getMineManager().saveMine( m );
+        	
+        	// User's message:
+        	String message = String.format( "&7The Block Placement Strategy for mine &b%s&7 was set to &b%s&7.", 
+        			m.getTag(), placementStrategy.name() );
+        	Output.get().sendInfo( sender, message );
+        	
+        	// Server Log message:
+        	Player player = getPlayer( sender );
+        	Output.get().logInfo( "%s :: Changed by: %s", message,
+        			(player == null ? "console" : player.getDisplayName()) );
+        } 
+    }
+
+
+
     @Command(identifier = "mines set notification", permissions = "mines.set", 
     		description = "Set a mine's notification mode.")
     public void setNotificationCommand(CommandSender sender,
@@ -3440,6 +3508,36 @@ public class MinesCommands
     	} else {
     		sender.sendMessage( "&3Mine stats are now disabled." );
     	}
+    	
+    	PlayerMineCache playerCache = pMines.getPlayerCache();
+    	sender.sendMessage( String.format( 
+    			"&3Player mine cache: &7%d &3of &7%d &3players  hits: &7%d &3misses: &7%d " +
+    			"&3hit ratio: &7%.1f%%  &3evictions: &7%d",
+    			playerCache.size(), playerCache.getMaxSize(), 
+    			playerCache.getHits(), playerCache.getMisses(), 
+    			playerCache.getHitRatio() * 100d, playerCache.getEvictions() ) );
+    	
+    	MineResetTickScheduler resetScheduler = MineResetTickScheduler.getInstance();
+    	sender.sendMessage( String.format( 
+    			"&3Reset scheduler: &7%d &3resets queued  ticks: &7%d &3slices: &7%d " +
+    			"&3TPS backoff ticks: &7%d  &3budget: &7%.1f &3ms/tick",
+    			resetScheduler.getQueueSize(), resetScheduler.getStatsTicks(), 
+    			resetScheduler.getStatsSlices(), resetScheduler.getStatsBackoffTicks(),
+    			resetScheduler.getConfigTickBudgetMs() ) );
+    	
+    	MineResetCoordinator coordinator = MineResetCoordinator.getInstance();
+    	sender.sendMessage( String.format( 
+    			"&3Reset coordinator: &7%d &3mines queued  awaiting admission: &7%d " +
+    			"&3active resets: &7%d &3of &7%d  &3stagger: &7%d &3ms",
+    			coordinator.getQueueDepth(), coordinator.getAdmissionQueueDepth(), 
+    			coordinator.getActiveResets(), coordinator.getConfigMaxConcurrentResets(),
+    			coordinator.getConfigStaggerMs() ) );
+    	sender.sendMessage( String.format( 
+    			"&3Reset lag: &7%d &3resets admitted  avg: &7%.1f &3ms  max: &7%d &3ms  " +
+    			"last: &7%d &3ms  &3actions ran: &7%d",
+    			coordinator.getStatsResetsAdmitted(), coordinator.getStatsResetLagAverageMs(),
+    			coordinator.getStatsResetLagMaxMs(), coordinator.getStatsResetLagLastMs(),
+    			coordinator.getStatsActions() ) );
     }
    
     
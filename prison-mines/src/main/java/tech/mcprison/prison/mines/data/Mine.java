@@ -26,6 +26,7 @@ import java.util.Set;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.internal.block.MineBlockPlacementStrategy;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
 import tech.mcprison.prison.mines.MineException;
@@ -305,6 +306,9 @@ public class Mine
 
         Double resetThresholdPercent = (Double) document.get( "resetThresholdPercent" );
         setResetThresholdPercent( resetThresholdPercent == null ? 0 : resetThresholdPercent.doubleValue() );
+        
+        setBlockPlacementStrategy( MineBlockPlacementStrategy.fromString( 
+        					(String) document.get( "blockPlacementStrategy" ) ) );
  
         // When loading, skipResetBypassCount must be set to zero:
         setSkipResetBypassCount( 0 );
@@ -671,6 +675,8 @@ public class Mine
         
         ret.put( "resetThresholdPercent", getResetThresholdPercent() );
         
+        ret.put( "blockPlacementStrategy", getBlockPlacementStrategy().name() );
+        
         if (isHasSpawn()) {
             ret.put("spawnX", getSpawn().getX());
             ret.put("spawnY", getSpawn().getY());
@@ -0,0 +1,145 @@
+package tech.mcprison.prison.mines.data;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+
+/**
+ * <p>This generates the target blocks for a slab of consecutive layers within
+ * a mine, so a large mine can have its block list generated in parallel on a
+ * fork-join pool.  Each slab has its own SplittableRandom stream, so the
+ * generated blocks only depend upon the slab's random, and not on which thread
+ * ran it or in what order the slabs were ran.
+ * </p>
+ *
+ * <p>The slab only writes to its own offsets within the MineTargetBlockStore.
+ * The block counts and the air count are kept within the slab, and then they
+ * are merged in to the mine, in slab order, after all of the slabs have
+ * finished.  The MineLevelBlockListData for every layer must be created before
+ * the slabs are ran, since they set the block constraint range limits.
+ * </p>
+ *
+ */
+public class MineBlockListSlabTask
+	extends RecursiveAction
+{
+	private static final long serialVersionUID = 1L;
+
+	private final MineTargetBlockStore targetBlocks;
+	private final List<MineLevelBlockListData> levels;
+
+	private final int firstLevelIndex;
+	private final int lastLevelIndex;
+
+	private final int xMin;
+	private final int xMax;
+	private final int yMin;
+	private final int yMax;
+	private final int zMin;
+	private final int zMax;
+
+	private final SplittableRandom random;
+
+	private final Map<PrisonBlock, int[]> blockCounts;
+	private int airCount = 0;
+
+	/**
+	 *
+	 * @param targetBlocks
+	 * @param levels The levels for the whole mine, with index zero being the top layer.
+	 * @param firstLevelIndex The first level for this slab, inclusive.
+	 * @param lastLevelIndex The last level for this slab, exclusive.
+	 * @param xMin The mine's bounds, which are used to identify the edges and corners.
+	 * @param random
+	 */
+	public MineBlockListSlabTask( MineTargetBlockStore targetBlocks,
+					List<MineLevelBlockListData> levels,
+					int firstLevelIndex, int lastLevelIndex,
+					int xMin, int xMax, int yMin, int yMax, int zMin, int zMax,
+					SplittableRandom random ) {
+		super();
+
+		this.targetBlocks = targetBlocks;
+		this.levels = levels;
+
+		this.firstLevelIndex = firstLevelIndex;
+		this.lastLevelIndex = lastLevelIndex;
+
+		this.xMin = xMin;
+		this.xMax = xMax;
+		this.yMin = yMin;
+		this.yMax = yMax;
+		this.zMin = zMin;
+		this.zMax = zMax;
+
+		this.random = random;
+
+		this.blockCounts = new IdentityHashMap<>();
+	}
+
+	@Override
+	protected void compute() {
+
+		int offset = firstLevelIndex * targetBlocks.getLayerSize();
+
+		for ( int levelIndex = firstLevelIndex; levelIndex < lastLevelIndex; levelIndex++ ) {
+
+			MineLevelBlockListData mineLevelBlockList = levels.get( levelIndex );
+
+			int y = yMax - levelIndex;
+
+			// Only the first layer uses the top level block, if there is one:
+			PrisonBlock topLevelBlock = levelIndex == 0 ?
+							mineLevelBlockList.getTopLevelBlock() : null;
+
+			for ( int x = xMin; x <= xMax; x++ ) {
+				for ( int z = zMin; z <= zMax; z++ ) {
+
+					boolean xEdge = x == xMin || x == xMax;
+					boolean yEdge = y == yMin || y == yMax;
+					boolean zEdge = z == zMin || z == zMax;
+
+					boolean isEdge = xEdge && yEdge || xEdge && zEdge ||
+									 yEdge && zEdge;
+
+					boolean isCorner = xEdge && yEdge && zEdge;
+
+					PrisonBlock prisonBlock = topLevelBlock != null ? topLevelBlock :
+								mineLevelBlockList.randomlySelectPrisonBlock( random );
+
+					int[] count = blockCounts.get( prisonBlock );
+					if ( count == null ) {
+						count = new int[1];
+						blockCounts.put( prisonBlock, count );
+					}
+					count[0]++;
+
+					targetBlocks.set( offset++, prisonBlock, isEdge, isCorner );
+
+					if ( prisonBlock.equals( PrisonBlock.AIR ) ) {
+						airCount++;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>The number of times each block was placed within this slab.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public Map<PrisonBlock, int[]> getBlockCounts() {
+		return blockCounts;
+	}
+
+	public int getAirCount() {
+		return airCount;
+	}
+}
@@ -10,10 +10,12 @@ import java.util.TreeMap;
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.internal.block.MineBlockPlacementStrategy;
 import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
+import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine.MineType;
 import tech.mcprison.prison.mines.features.MineBlockEvent;
 import tech.mcprison.prison.mines.features.MineLinerData;
@@ -139,6 +141,8 @@ public abstract class MineData
 
     private double resetThresholdPercent = 0;
     
+    private MineBlockPlacementStrategy blockPlacementStrategy;
+    
     
     private boolean skipResetEnabled = false;
     private double skipResetPercent;
@@ -167,6 +171,8 @@ public abstract class MineData
     private int mineSweeperCount;
     private long mineSweeperTotalMs;
     private long mineSweeperBlocksChanged;
+    private long mineSweeperBlocksScanned;
+    private long mineSweeperBlocksSkipped;
     
     private transient boolean isDeleted = false; 
     
@@ -241,6 +247,8 @@ public abstract class MineData
     	this.totalBlocksMined = 0;
     	this.zeroBlockResetDelaySec = 0;
     	this.resetThresholdPercent = 0;
+    	
+    	this.blockPlacementStrategy = MineBlockPlacementStrategy.standard;
     
     	this.skipResetEnabled = false;
         this.skipResetPercent = 80.0D;
@@ -262,6 +270,8 @@ public abstract class MineData
         this.mineSweeperCount = 0;
         this.mineSweeperTotalMs = 0;
         this.mineSweeperBlocksChanged = 0;
+        this.mineSweeperBlocksScanned = 0;
+        this.mineSweeperBlocksSkipped = 0;
         
     }
 
@@ -302,6 +312,8 @@ public abstract class MineData
 	}
 	public void setVirtual( boolean virtual ) {
 		this.virtual = virtual;
+		
+		invalidateMineSpatialIndex();
 	}
 
 	public ModuleElementType getModuleElementType() {
@@ -409,6 +421,8 @@ public abstract class MineData
 		}
 
     	setEnabled( world != null );
+    	
+    	invalidateMineSpatialIndex();
 	}
 
     public Bounds getBounds() {
@@ -479,6 +493,24 @@ public abstract class MineData
     	// in the document loader under Mine.loadFromDocument as the first field
     	// that is set when restoring from the file.
     	//this.worldName = bounds.getMin().getWorld().getName();
+    	
+    	// The mine's location has changed, so the spatial index must be rebuilt. This 
+    	// covers creating, moving, resizing, and redefining a mine:
+    	invalidateMineSpatialIndex();
+    }
+    
+    /**
+     * <p>The MineManager will rebuild the spatial index of all mines upon the next
+     * lookup.  The mines module may not be enabled yet when the mines are being 
+     * loaded, so this is ignored if there is no MineManager.
+     * </p>
+     */
+    private void invalidateMineSpatialIndex() {
+    	PrisonMines pMines = PrisonMines.getInstance();
+    	
+    	if ( pMines != null && pMines.getMineManager() != null ) {
+    		pMines.getMineManager().invalidateMineSpatialIndex();
+    	}
     }
 
     
@@ -829,6 +861,26 @@ public abstract class MineData
     	return sBlock;
     }
     
+    /**
+     * <p>Adds the count to the block's reset block count.  This is used when the
+     * block counts have been tallied elsewhere, such as when the block list is 
+     * generated in parallel.
+     * </p>
+     * 
+     * @param statsBlock
+     * @param count
+     */
+    public PrisonBlockStatusData incrementResetBlockCount( PrisonBlockStatusData statsBlock, int count ) {
+    	
+    	PrisonBlockStatusData sBlock = getBlockStats( statsBlock );
+    	if ( sBlock != null ) {
+    		
+    		sBlock.setBlockPlacedCount( sBlock.getBlockPlacedCount() + count );
+    	}
+    	
+    	return sBlock;
+    }
+    
     public PrisonBlockStatusData getBlockStats( PrisonBlockStatusData statsBlock ) {
     	return getBlockStats( statsBlock.getBlockName() );
     }
@@ -872,6 +924,13 @@ public abstract class MineData
         return getBounds().within(location);
     }
     
+    public boolean isInMineExact( String worldName, int x, int y, int z ) {
+    	if ( isVirtual() ) {
+    		return false;
+    	}
+    	return getBounds().within( worldName, x, y, z );
+    }
+    
     public boolean isInMineIncludeTopBottomOfMine(Location location) {
     	if ( isVirtual() ) {
     		return false;
@@ -1222,6 +1281,13 @@ public abstract class MineData
 		this.resetThresholdPercent = resetThresholdPercent;
 	}
 
+	public MineBlockPlacementStrategy getBlockPlacementStrategy() {
+		return blockPlacementStrategy;
+	}
+	public void setBlockPlacementStrategy( MineBlockPlacementStrategy blockPlacementStrategy ) {
+		this.blockPlacementStrategy = blockPlacementStrategy;
+	}
+
 	public boolean isSkipResetEnabled() {
 		return skipResetEnabled;
 	}
@@ -1321,6 +1387,11 @@ public abstract class MineData
 	}
 	public void setMineSweeperEnabled( boolean mineSweeperEnabled ) {
 		this.mineSweeperEnabled = mineSweeperEnabled;
+		
+		if ( PrisonMines.getInstance() != null && 
+				PrisonMines.getInstance().getMineManager() != null ) {
+			PrisonMines.getInstance().getMineManager().invalidateMineSweeperInUse();
+		}
 	}
 
 	public int getMineSweeperCount() {
@@ -1344,6 +1415,20 @@ public abstract class MineData
 		this.mineSweeperBlocksChanged = mineSweeperBlocksChanged;
 	}
 
+	public long getMineSweeperBlocksScanned() {
+		return mineSweeperBlocksScanned;
+	}
+	public void setMineSweeperBlocksScanned( long mineSweeperBlocksScanned ) {
+		this.mineSweeperBlocksScanned = mineSweeperBlocksScanned;
+	}
+
+	public long getMineSweeperBlocksSkipped() {
+		return mineSweeperBlocksSkipped;
+	}
+	public void setMineSweeperBlocksSkipped( long mineSweeperBlocksSkipped ) {
+		this.mineSweeperBlocksSkipped = mineSweeperBlocksSkipped;
+	}
+
 	public void checkGravityAffectedBlocks() {
 		setHasGravityAffectedBlocks( false );
 		
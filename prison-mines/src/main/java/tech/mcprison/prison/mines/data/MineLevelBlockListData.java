@@ -3,6 +3,7 @@ package tech.mcprison.prison.mines.data;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 import tech.mcprison.prison.internal.block.PrisonBlock;
 
@@ -25,7 +26,17 @@ public class MineLevelBlockListData
 	
 	private double airChance = 0d;
 
-	public MineLevelBlockListData(int currentMineLevel, Mine mine, Random random, PrisonBlock topLevelBlock) {
+	/**
+	 * 
+	 * @param currentMineLevel One based, with the first layer being the top layer.
+	 * @param mine
+	 * @param random If null, then a random must be provided when selecting a block.
+	 * @param topLevelBlock
+	 * @param targetBlockPosition The offset of the first block within this level, 
+	 * 				which is used to set the block constraint range limits.
+	 */
+	public MineLevelBlockListData(int currentMineLevel, Mine mine, Random random, 
+					PrisonBlock topLevelBlock, int targetBlockPosition ) {
 		super();
 		this.currentMineLevel = currentMineLevel;
 		this.mine = mine;
@@ -33,10 +44,10 @@ public class MineLevelBlockListData
         this.topLevelBlock = topLevelBlock;
         this.selectedBlocks = new ArrayList<>();
 		
-		initialize();
+		initialize( targetBlockPosition );
 	}
 	
-	private void initialize() {
+	private void initialize( int targetBlockPosition ) {
 		
 		
 		
@@ -68,7 +79,6 @@ public class MineLevelBlockListData
 				if ( pBlock.getRangeBlockCountLowLimit() <= 0 &&
 						currentMineLevel > pBlock.getConstraintExcludeTopLayers() ) {
 					
-					int targetBlockPosition = mine.getMineTargetPrisonBlocks().size();
 					pBlock.setRangeBlockCountLowLimit( targetBlockPosition );
 				}
 				
@@ -85,7 +95,6 @@ public class MineLevelBlockListData
 						pBlock.getConstraintExcludeBottomLayers() < currentMineLevel 
 						) { 
 					
-					int targetBlockPosition = mine.getMineTargetPrisonBlocks().size();
 					pBlock.setRangeBlockCountHighLimit( targetBlockPosition );
 					
 				}
@@ -116,8 +125,15 @@ public class MineLevelBlockListData
 	 * exclusion from the lower levels of the mine, that the rangeBlockCountHighLimit is
 	 * properly set.
 	 * </p>
+	 * 
+	 * <p>Since this only records the position, calling this once with the last 
+	 * position within the level has the same results as calling it for every 
+	 * block within the level.
+	 * </p>
+	 * 
+	 * @param targetBlockPosition The offset of the block that is being generated.
 	 */
-	public void checkSelectedBlockExcludeFromBottomLayers() {
+	public void checkSelectedBlockExcludeFromBottomLayers( int targetBlockPosition ) {
 		
 		for ( PrisonBlock pBlock : selectedBlocks )
 		{
@@ -133,7 +149,6 @@ public class MineLevelBlockListData
 					pBlock.getConstraintExcludeBottomLayers() < currentMineLevel 
 					) { 
 				
-				int targetBlockPosition = mine.getMineTargetPrisonBlocks().size();
 				pBlock.setRangeBlockCountHighLimit( targetBlockPosition );
 				
 			}
@@ -146,13 +161,32 @@ public class MineLevelBlockListData
 	}
 
 	public PrisonBlock randomlySelectPrisonBlock()
+	{
+		return selectPrisonBlock( random.nextDouble() );
+	}
+	
+	/**
+	 * <p>Selects a block using the provided random instead of the one this level was
+	 * created with.  This is used when the levels are generated in parallel, where
+	 * each slab of the mine has its own stream of random numbers.
+	 * </p>
+	 * 
+	 * @param random
+	 * @return
+	 */
+	public PrisonBlock randomlySelectPrisonBlock( SplittableRandom random )
+	{
+		return selectPrisonBlock( random.nextDouble() );
+	}
+	
+	private PrisonBlock selectPrisonBlock( double rnd )
 	{
 		PrisonBlock selected = null;
 
 		// Will have a value of 100% if no blocks are excluded due to block constraints:
 		double totalSelectedChance = selectedChance + airChance;
 		
-		double chance = random.nextDouble() * totalSelectedChance;
+		double chance = rnd * totalSelectedChance;
 		
 		for ( PrisonBlock block : selectedBlocks ) {
 			
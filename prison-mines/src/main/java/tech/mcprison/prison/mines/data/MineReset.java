@@ -4,15 +4,19 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Map;
 import java.util.Random;
-import java.util.TreeMap;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.DoubleSupplier;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.World;
 import tech.mcprison.prison.internal.block.Block;
 import tech.mcprison.prison.internal.block.MineResetType;
-import tech.mcprison.prison.internal.block.MineTargetBlockKey;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
 import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
@@ -28,6 +32,8 @@ import tech.mcprison.prison.mines.features.MineTracerBuilder;
 import tech.mcprison.prison.mines.tasks.MinePagedResetAsyncTask;
 import tech.mcprison.prison.mines.tasks.MineTeleportTask;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
+import tech.mcprison.prison.placeholders.PlaceholderValueCache;
 import tech.mcprison.prison.tasks.PrisonCommandTaskData;
 import tech.mcprison.prison.tasks.PrisonCommandTasks;
 import tech.mcprison.prison.tasks.PrisonRunnable;
@@ -91,9 +97,23 @@ public abstract class MineReset
 	
 	public static final long MINE_RESET__AIR_COUNT_BASE_DELAY = 30000L; // 30 seconds
 	
+	/**
+	 * <p>Mines with at least this many blocks will have their block lists generated
+	 * in parallel, if enabled.  Smaller mines are faster to generate on just one
+	 * thread.
+	 * </p>
+	 */
+	public static final int MINE_RESET__PARALLEL_GENERATION_MIN_BLOCKS = 250000;
+	
+	/**
+	 * <p>When generating a block list in parallel, layers are grouped in to slabs 
+	 * that contain at least this many blocks.
+	 * </p>
+	 */
+	public static final int MINE_RESET__PARALLEL_GENERATION_SLAB_BLOCKS = 16384;
+	
 
-	private List<MineTargetPrisonBlock> mineTargetPrisonBlocks = null;
-	private TreeMap<MineTargetBlockKey, MineTargetPrisonBlock> mineTargetPrisonBlocksMap = null;
+	private volatile MineTargetBlockStore mineTargetBlockStore = null;
 	
 	private MineJob currentJob;
 	
@@ -130,13 +150,18 @@ public abstract class MineReset
 	private List<Long> statsMineSweeperTaskMs;
 	private boolean mineSweeperSubmitted = false;
 	
+	private MineSweeperDirtySections mineSweeperDirtySections;
+	private int mineSweeperPasses = 0;
+	
 	public MineReset() {
 		super();
 		
-//		this.mineTargetPrisonBlocks = new ArrayList<>();
-//		this.mineTargetPrisonBlocksMap = new TreeMap<>();
-		
 		this.statsMineSweeperTaskMs = new ArrayList<>();
+		this.mineSweeperDirtySections = new MineSweeperDirtySections();
+		
+		// The blocks may have changed while the server was down, so the first
+		// mine sweeper pass checks the whole mine:
+		this.mineSweeperDirtySections.markAllDirty();
 
 		this.currentJob = null;
 		
@@ -429,6 +454,13 @@ public abstract class MineReset
 		// Mine Sweeper counts:
 		getStatsMineSweeperTaskMs().clear();
 		
+		// All of the blocks will be new, so the old dirty sections are dropped.  
+		// But the first pass after the reset checks the whole mine, since the 
+		// blocks that were changed while the reset was placing them were not 
+		// tracked:
+		getMineSweeperDirtySections().clear();
+		getMineSweeperDirtySections().markAllDirty();
+		
     }
     
     public void saveIfUnsavedBlockCounts() {
@@ -499,13 +531,14 @@ public abstract class MineReset
      * </p>
      * 
      * <p>This generation of a new block list for the mines is designed to run asynchronously. 
-     * It not only generates what each block should be, it also records what the block location 
-     * is.  This allows actual block updates to be performed linearly using the mineTargetBlock
-     * List, or to randomly access each block using the mineTargetBlockMap; two keys in to the 
+     * It generates what each block should be and records it in the MineTargetBlockStore at 
+     * the block's linear offset within the mine.  Since the offsets are in the same order 
+     * as the reset, the actual block updates can be performed linearly by offset, and each
+     * block can also be randomly accessed by its coordinates; two keys in to the 
      * same collection of target blocks.
      * </p>
      * 
-     * <p>The major use of the mineTargetBlock List is to allow paging of the updates: where a mine
+     * <p>The major use of the linear offsets is to allow paging of the updates: where a mine
      * can be updated in smaller segments.  The actual update must be ran synchronously and in small
      * segments.  
      * </p>
@@ -536,10 +569,14 @@ public abstract class MineReset
 		// Reset stats:
 		resetStats();
 		
-		Random random = new Random();
+		// If a seed is provided, then the generated blocks will be the same for every
+		// reset, which is useful for testing and for comparing the generated mines:
+		long seed = Prison.get().getPlatform().getConfigLong( 
+									"prison-mines.block-generation.seed", 0 );
 		
-		// Clear the mineTargetBlocks List and Map:
+		// Replace the mineTargetBlocks store:
 		clearMineTargetPrisonBlocks();
+		MineTargetBlockStore targetBlocks = getMineTargetBlockStore();
 
 		
 		// Reset the resetCounts on all blocks within the mine:
@@ -549,9 +586,64 @@ public abstract class MineReset
 //		// setup the monitoring of the blocks that have constraints:
 //		List<PrisonBlockStatusData> constrainedBlocks = null;
 		
-		Optional<World> worldOptional = getWorld();
-		World world = worldOptional.get();
+		int airCount = 0;
+		
+		// The random used to apply the minimum block constraints:
+		DoubleSupplier constraintsRandom;
 		
+		boolean parallel = Prison.get().getPlatform().getConfigBooleanTrue( 
+										"prison-mines.block-generation.parallel" ) &&
+				targetBlocks.getVolume() >= Prison.get().getPlatform().getConfigInt( 
+								"prison-mines.block-generation.parallel-min-blocks", 
+								MINE_RESET__PARALLEL_GENERATION_MIN_BLOCKS );
+		
+		if ( parallel ) {
+			
+			SplittableRandom random = seed == 0 ? new SplittableRandom() : new SplittableRandom( seed );
+			
+			airCount = generateBlockListParallel( targetBlocks, random );
+			
+			constraintsRandom = random.split()::nextDouble;
+		}
+		else {
+			
+			Random random = seed == 0 ? new Random() : new Random( seed );
+			
+			airCount = generateBlockList( targetBlocks, random );
+			
+			constraintsRandom = random::nextDouble;
+		}
+		
+
+		
+		setAirCountOriginal( airCount );
+		setAirCount( airCount );
+
+		
+		// Apply the constraints
+		constraintsApplyMin( constraintsRandom );
+		
+		
+		// The reset position is critical in ensuring that all blocks within the mine are reset 
+		// and that when a reset process pages (allows another process to run) then it will be
+		// used to pick up where it left off.
+		setResetPosition( 0 );
+		
+		long stop = System.currentTimeMillis();
+		setStatsBlockGenTimeMS( stop - start );
+		
+    }
+    
+    /**
+     * <p>Generates the target blocks on the current thread, one block at a time, 
+     * starting at the top layer.
+     * </p>
+     * 
+     * @param targetBlocks
+     * @param random
+     * @return the number of AIR blocks that were generated
+     */
+    private int generateBlockList( MineTargetBlockStore targetBlocks, Random random ) {
 		int airCount = 0;
 		int currentLevel = 0;
 		
@@ -573,14 +665,15 @@ public abstract class MineReset
 			
 			
 			// This is used to select the correct block list for the given mine level:
-			MineLevelBlockListData mineLevelBlockList = new MineLevelBlockListData( currentLevel, (Mine) this, random, this.getTopLevelBlock() );
+			MineLevelBlockListData mineLevelBlockList = new MineLevelBlockListData( currentLevel, 
+						(Mine) this, random, this.getTopLevelBlock(), targetBlocks.size() );
 			
 			
 			for (int x = xMin; x <= xMax; x++) {
 				for (int z = zMin; z <= zMax; z++) {
 					
 					// updates selected block's exclude from bottom layer max value settings:
-					mineLevelBlockList.checkSelectedBlockExcludeFromBottomLayers();
+					mineLevelBlockList.checkSelectedBlockExcludeFromBottomLayers( targetBlocks.size() );
 					
 					boolean xEdge = x == xMin || x == xMax;
 					boolean yEdge = y == yMin || y == yMax;
@@ -591,10 +684,6 @@ public abstract class MineReset
 					
 					boolean isCorner = xEdge && yEdge && zEdge;
 					
-					Location targetBlock = new Location(world, x, y, z);
-					targetBlock.setEdge( isEdge );
-					targetBlock.setCorner( isCorner );
-					
 //					MineTargetBlock mtb = null;
 					
 					// track the constraints: (obsolete)
@@ -614,8 +703,9 @@ public abstract class MineReset
 					// Increment the mine's block count. This block is one of the control blocks:
 					incrementResetBlockCount( prisonBlock );
 					
-					addMineTargetPrisonBlock( prisonBlock, targetBlock );
-//						mtb = new MineTargetPrisonBlock( prisonBlock, x, y, z);
+					// The offset is the next position, since the blocks are generated in 
+					// the same order as they are stored:
+					targetBlocks.set( targetBlocks.size(), prisonBlock, isEdge, isCorner );
 					
 					if ( prisonBlock.equals( PrisonBlock.AIR ) ) {
 //						mAirBlocks[i++] = true;
@@ -626,24 +716,83 @@ public abstract class MineReset
 			}
 		}
 		
-
+		return airCount;
+    }
+    
+    /**
+     * <p>Generates the target blocks in parallel by splitting the mine in to slabs 
+     * of whole layers, which are then ran on the fork-join pool.  Each slab gets its 
+     * own SplittableRandom that is split from the given random, in slab order, so 
+     * if the given random is seeded, the generated blocks will always be the same 
+     * no matter how the slabs are scheduled.
+     * </p>
+     * 
+     * <p>The levels are all created first, in order from the top layer down, since 
+     * they set the block constraint range limits the same way as when the blocks
+     * are generated one at a time.  The block counts from each slab are then merged 
+     * in to the mine in slab order.
+     * </p>
+     * 
+     * @param targetBlocks
+     * @param random
+     * @return the number of AIR blocks that were generated
+     */
+    private int generateBlockListParallel( MineTargetBlockStore targetBlocks, SplittableRandom random ) {
+    	int airCount = 0;
+    	
+		int yMin = getBounds().getyBlockMin();
+		int yMax = getBounds().getyBlockMax();
 		
-		setAirCountOriginal( airCount );
-		setAirCount( airCount );
-
+		int xMin = getBounds().getxBlockMin();
+		int xMax = getBounds().getxBlockMax();
 		
-		// Apply the constraints
-		constraintsApplyMin();
+		int zMin = getBounds().getzBlockMin();
+		int zMax = getBounds().getzBlockMax();
 		
+		int layerSize = targetBlocks.getLayerSize();
+		int levelCount = yMax - yMin + 1;
 		
-		// The reset position is critical in ensuring that all blocks within the mine are reset 
-		// and that when a reset process pages (allows another process to run) then it will be
-		// used to pick up where it left off.
-		setResetPosition( 0 );
+		List<MineLevelBlockListData> levels = new ArrayList<>( levelCount );
+		for ( int i = 0; i < levelCount; i++ ) {
+			int layerStart = i * layerSize;
+			
+			MineLevelBlockListData mineLevelBlockList = new MineLevelBlockListData( i + 1, 
+						(Mine) this, null, this.getTopLevelBlock(), layerStart );
+			
+			// Same as checking every block within the layer, since only the last one is kept:
+			mineLevelBlockList.checkSelectedBlockExcludeFromBottomLayers( layerStart + layerSize - 1 );
+			
+			levels.add( mineLevelBlockList );
+		}
 		
-		long stop = System.currentTimeMillis();
-		setStatsBlockGenTimeMS( stop - start );
+		// Small layers are grouped together so each slab has enough work to be worth 
+		// the overhead of a task:
+		int layersPerSlab = Math.max( 1, 
+				(MINE_RESET__PARALLEL_GENERATION_SLAB_BLOCKS + layerSize - 1) / layerSize );
+		
+		List<MineBlockListSlabTask> slabs = new ArrayList<>();
+		for ( int i = 0; i < levelCount; i += layersPerSlab ) {
+			
+			slabs.add( new MineBlockListSlabTask( targetBlocks, levels, 
+							i, Math.min( levelCount, i + layersPerSlab ), 
+							xMin, xMax, yMin, yMax, zMin, zMax, 
+							random.split() ) );
+		}
 		
+		ForkJoinTask.invokeAll( slabs );
+		
+		targetBlocks.setSize( levelCount * layerSize );
+		
+		for ( MineBlockListSlabTask slab : slabs ) {
+			
+			airCount += slab.getAirCount();
+			
+			for ( Map.Entry<PrisonBlock, int[]> entry : slab.getBlockCounts().entrySet() ) {
+				incrementResetBlockCount( entry.getKey(), entry.getValue()[0] );
+			}
+		}
+		
+		return airCount;
     }
     
 //    private void trackConstraints( int currentLevel, List<PrisonBlockStatusData> constrainedBlocks )
@@ -912,6 +1061,10 @@ public abstract class MineReset
 		
 		incrementResetCount();
 		
+		// The block counts of the mine have been reset:
+		PlaceholderValueCache.getInstance().invalidate( 
+				PlaceholderFlags.MINES, PlaceholderFlags.MINEPLAYERS, PlaceholderFlags.STATSMINES );
+		
 		if ( !getCurrentJob().getResetActions().contains( MineResetActions.NO_COMMANDS )) {
 			
 			// After reset commands:
@@ -1421,60 +1574,147 @@ public abstract class MineReset
 	 * broke and needs to be counted then the related targetBlock needs to be set as <b>air</b> and as
 	 * have been <b>broke</b>.
 	 * </p>
+	 * 
+	 * <p>Only the chunk sections that have been marked as dirty by the block change and physics
+	 * events since the last pass are checked, unless the whole mine is being swept, which is 
+	 * done every <code>prison-mines.mine-sweeper.full-sweep-interval</code> passes.  This runs 
+	 * on the main thread, but it only takes a snapshot of the chunks that contain the dirty 
+	 * sections. The snapshots are then checked within an async task, and the air blocks that
+	 * were found are counted back on the main thread.
+	 * </p>
 	 */
 	protected void runMineSweeperTask() {
 		
 		World world = getBounds().getCenter().getWorld();
-		if ( world != null ) {
+		if ( world == null ) {
 
-			long start = System.currentTimeMillis();
-			int blocksChanged = 0;
+			// Unlock this task so more can be submitted:
+			synchronized ( MineSweeperTask.class ) {
+				setMineSweeperSubmitted( false );
+			}
+			return;
+		}
+		
+		setMineSweeperPasses( 1 + getMineSweeperPasses() );
+		
+		int fullSweepInterval = Prison.get().getPlatform().getConfigInt( 
+				"prison-mines.mine-sweeper.full-sweep-interval", 20 );
+		
+		boolean fullSweep = getMineSweeperDirtySections().isAllDirty() ||
+				fullSweepInterval > 0 && getMineSweeperPasses() % fullSweepInterval == 0;
+		
+		Set<Long> sections = getMineSweeperDirtySections().drain();
+		
+		if ( fullSweep ) {
+			sections = MineSweeperScan.getAllSections( getBounds() );
+		}
+		
+		MineSweeperScan scan = new MineSweeperScan( getMineTargetBlockStore(), getBounds(),
+										getResetCount(), sections );
+		
+		scan.takeSnapshots( world );
+		
+		submitAsyncTask( () -> {
+			
+			try {
+				scan.scan();
+			}
+			finally {
+				// Count the blocks back on the main thread.  This also unlocks the 
+				// mine sweeper, so it must always be submitted:
+				submitSyncTask( () -> applyMineSweeperScan( scan ), 0 );
+			}
+			
+		}, 0 );
+	}
+	
+	/**
+	 * <p>Counts the air blocks that were found by the mine sweeper scan.  The blocks 
+	 * are checked again, since they may have been counted by a block break event while
+	 * the scan was running.  If the mine was reset since the snapshots were taken, then
+	 * the results are discarded.
+	 * </p>
+	 * 
+	 * @param scan
+	 */
+	protected void applyMineSweeperScan( MineSweeperScan scan ) {
+		
+		long start = System.nanoTime();
+		int blocksChanged = 0;
+		
+		MineTargetBlockStore targetBlocks = scan.getTargetBlocks();
+		
+		if ( scan.getResetCount() == getResetCount() && 
+				targetBlocks == getMineTargetBlockStore() ) {
 			
-			for ( MineTargetPrisonBlock targetBlock : getMineTargetPrisonBlocks() ) {
+			for ( Integer offset : scan.getAirOffsets() ) {
 				
-				if ( targetBlock != null && !targetBlock.isAirBroke() &&
-						!targetBlock.isCounted()) {
+				if ( scan.isUncounted( offset ) ) {
 					
-					MineTargetBlockKey key = targetBlock.getBlockKey();
-					Location blockLocation = new Location( world, key.getX(), key.getY(), key.getZ() );
+					incrementBlockMiningCount( targetBlocks.get( offset ) );
 					
-					Block block = world.getBlockAt( blockLocation );
-					if ( block.isEmpty() ) {
-						
-						incrementBlockMiningCount( targetBlock );
-						
-						blocksChanged++;
-					}
+					blocksChanged++;
 				}
 			}
 			
-
-			long stop = System.currentTimeMillis();
-			long elapsed = stop - start;
-			
 			// This ensures that the getRemainingBlockCount() is updated and is correct:
 			addBlockBreakCount( blocksChanged );
 			
-			getStatsMineSweeperTaskMs().add( elapsed );
+			// The sections within the chunks that were not loaded are checked
+			// by a later pass:
+			getMineSweeperDirtySections().markDirty( scan.getUnloadedSections() );
+		}
+		
+		// The time on the main thread is the time to take the snapshots and to count
+		// the blocks.  The scan itself was async.
+		long elapsed = (System.nanoTime() - start + scan.getSnapshotNanos()) / 1_000_000;
+		
+		getStatsMineSweeperTaskMs().add( elapsed );
+		
+		if ( getStatsMineSweeperTaskMs().size() > 10 ) {
+			getStatsMineSweeperTaskMs().remove( 0 );
+		}
+		
+		setMineSweeperTotalMs( elapsed + getMineSweeperTotalMs() );
+		setMineSweeperCount( 1 + getMineSweeperCount() );
+		setMineSweeperBlocksChanged( blocksChanged + getMineSweeperBlocksChanged() );
+		setMineSweeperBlocksScanned( scan.getBlocksScanned() + getMineSweeperBlocksScanned() );
+		setMineSweeperBlocksSkipped( scan.getBlocksSkipped() + getMineSweeperBlocksSkipped() );
+		
+		// Unlock this task so more can be submitted:
+		synchronized ( MineSweeperTask.class ) {
+			setMineSweeperSubmitted( false );
+		}
+		
+		
+		// Check to see if a mine reset is needed:
+		checkZeroBlockReset();
+	}
+	
+	/**
+	 * <p>Marks the chunk section that contains the block as dirty, so it will be
+	 * checked by the next mine sweeper pass.  This is only tracked if the mine 
+	 * sweeper is enabled.
+	 * </p>
+	 * 
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param includeNeighbors If true, and the block is on the edge of its section, then
+	 * 			the sections on the other side of the edge are also marked.  This is used
+	 * 			for the physics events, which are for the blocks next to the changed block.
+	 */
+	public void markMineSweeperDirty( int x, int y, int z, boolean includeNeighbors ) {
+		
+		if ( isMineSweeperEnabled() ) {
 			
-			if ( getStatsMineSweeperTaskMs().size() > 10 ) {
-				getStatsMineSweeperTaskMs().remove( 0 );
+			if ( includeNeighbors ) {
+				getMineSweeperDirtySections().markDirtyWithNeighbors( x, y, z );
 			}
-			
-			setMineSweeperTotalMs( elapsed + getMineSweeperTotalMs() );
-			setMineSweeperCount( 1 + getMineSweeperCount() );
-			setMineSweeperBlocksChanged( blocksChanged + getMineSweeperBlocksChanged() );
-			
-			// Unlock this task so more can be submitted:
-			synchronized ( MineSweeperTask.class ) {
-				setMineSweeperSubmitted( false );
+			else {
+				getMineSweeperDirtySections().markDirty( x, y, z );
 			}
-			
-			
-			// Check to see if a mine reset is needed:
-			checkZeroBlockReset();
 		}
-		
 	}
 	
 	
@@ -1711,10 +1951,10 @@ public abstract class MineReset
 //	}
     
 	
-	private void constraintsApplyMin() {
+	private void constraintsApplyMin( DoubleSupplier random ) {
 		
 		for ( PrisonBlockStatusData block : getPrisonBlocks() ) {
-			constraintsApplyMin( block );
+			constraintsApplyMin( block, random );
 		}
 	}
     
@@ -1732,9 +1972,9 @@ public abstract class MineReset
      * </p>
      * 
      * @param block
-     * @param useNewBlockModel
+     * @param random
      */
-    private void constraintsApplyMin( PrisonBlockStatusData block )
+    private void constraintsApplyMin( PrisonBlockStatusData block, DoubleSupplier random )
 	{
     	if ( block.getConstraintMin() > 0 ) {
     		
@@ -1751,13 +1991,13 @@ public abstract class MineReset
     			
     			// Each block has a valid range in which it can spawn in the mine.  This range
     			// is honored by using the rangeHigh and rangeLow values.
-    			int rndPos = ((int) Math.round( Math.random() * (rangeHigh - rangeLow) )) + rangeLow;
+    			int rndPos = ((int) Math.round( random.getAsDouble() * (rangeHigh - rangeLow) )) + rangeLow;
     			
-    			if ( rndPos < getMineTargetPrisonBlocks().size() ) {
+    			if ( rndPos < getMineTargetBlockStore().size() ) {
     				
-    				MineTargetPrisonBlock targetBlock = getMineTargetPrisonBlocks().get( rndPos );
+    				MineTargetPrisonBlock targetBlock = getMineTargetBlockStore().get( rndPos );
     				
-    				if ( targetBlock != null && 
+    				if ( targetBlock != null && targetBlock.getPrisonBlock() != null &&
     						targetBlock.getPrisonBlock().getConstraintMin() == 0 &&
     						targetBlock.getPrisonBlock().getConstraintMax() == 0 &&
     						!targetBlock.getPrisonBlock().getBlockName().equalsIgnoreCase( 
@@ -1890,72 +2130,93 @@ public abstract class MineReset
 	
 	private void addMineTargetPrisonBlock( PrisonBlockStatusData block, Location targetBlock ) {
 		
-		MineTargetPrisonBlock mtpb = new MineTargetPrisonBlock( block, getWorld().get(), 
-				targetBlock.getBlockX(), targetBlock.getBlockY(), targetBlock.getBlockZ(), 
-				targetBlock.isEdge(), targetBlock.isCorner() );
+		MineTargetBlockStore targetBlocks = getMineTargetBlockStore();
+		
+		int offset = targetBlocks.getOffset( 
+				targetBlock.getBlockX(), targetBlock.getBlockY(), targetBlock.getBlockZ() );
 		
-		synchronized ( getMineStateMutex() ) {
+		if ( offset >= 0 ) {
 			
-			getMineTargetPrisonBlocks().add( mtpb );
-			getMineTargetPrisonBlocksMap().put( mtpb.getBlockKey(), mtpb );
+			targetBlocks.set( offset, block, targetBlock.isEdge(), targetBlock.isCorner() );
 		}
 	}
     
-//    private void addMineTargetPrisonBlock( PrisonBlockStatusData block, int x, int y, int z, boolean isEdge ) {
-//    	
-//    	MineTargetPrisonBlock mtpb = new MineTargetPrisonBlock( block, getWorld().get(), x, y, z, isEdge );
-//    	
-//		getMineTargetPrisonBlocks().add( mtpb );
-//		getMineTargetPrisonBlocksMap().put( mtpb.getBlockKey(), mtpb );
-//    }
-    
     private void clearMineTargetPrisonBlocks() {
     	
-    	// Instead of clearing the collections, set them to null so that way if 
-    	// other reference exist, they will be able to continue to use them
+    	// Instead of clearing the store, set it to null so that way if 
+    	// other reference exist, they will be able to continue to use it
     	// until the release the references.
     	
     	synchronized ( getMineStateMutex() ) {
     		
-    		mineTargetPrisonBlocks = null;
-    		mineTargetPrisonBlocksMap = null;
+    		mineTargetBlockStore = null;
     	}
-    	
-//    	getMineTargetPrisonBlocks().clear();
-//    	getMineTargetPrisonBlocksMap().clear();
     }
     
     
-	public List<MineTargetPrisonBlock> getMineTargetPrisonBlocks()
+    /**
+     * <p>The MineTargetBlockStore holds all of the target blocks for the mine.  
+     * It is sized to the mine's current bounds, so if the bounds are changed, then
+     * the store will be replaced the next time the block list is generated.
+     * </p>
+     * 
+     * @return
+     */
+	public MineTargetBlockStore getMineTargetBlockStore()
 	{
-		if ( mineTargetPrisonBlocks == null ) {
-			mineTargetPrisonBlocks = new ArrayList<>();
+		MineTargetBlockStore results = mineTargetBlockStore;
+		
+		if ( results == null ) {
+			
+			synchronized ( getMineStateMutex() ) {
+				
+				results = mineTargetBlockStore;
+				
+				if ( results == null ) {
+					
+					if ( getBounds() == null ) {
+						// Virtual mines have no bounds, so use an empty store:
+						results = new MineTargetBlockStore( null, 0, -1, 0, -1, 0, -1 );
+					}
+					else {
+						World world = getWorld().isPresent() ? getWorld().get() : null;
+						results = new MineTargetBlockStore( world, getBounds() );
+					}
+					
+					mineTargetBlockStore = results;
+				}
+			}
 		}
-		return mineTargetPrisonBlocks;
+		return results;
 	}
 
-	public TreeMap<MineTargetBlockKey, MineTargetPrisonBlock> getMineTargetPrisonBlocksMap()
-	{
-		if ( mineTargetPrisonBlocksMap == null ) {
-			mineTargetPrisonBlocksMap = new TreeMap<>();
-		}
-		return mineTargetPrisonBlocksMap;
-	}
-	
 	public MineTargetPrisonBlock getTargetPrisonBlock( PrisonBlock block ) {
 		MineTargetPrisonBlock results = null;
 		
 		if ( block != null && block.getLocation() != null ) {
 			
-			Location loc = block.getLocation();
-			MineTargetBlockKey key = new MineTargetBlockKey( loc );
-			
-			results = getMineTargetPrisonBlocksMap().get( key );
+			results = getMineTargetBlockStore().get( block.getLocation() );
 		}
 		
 		return results;
 	}
 	
+	/**
+	 * <p>This is the preferred way to get a target block when the coordinates are 
+	 * already known, since it does not need to create a Location.  The offset within
+	 * the MineTargetBlockStore is calculated directly from the coordinates.
+	 * </p>
+	 * 
+	 * @param worldName
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public MineTargetPrisonBlock getTargetPrisonBlock( String worldName, int x, int y, int z ) {
+		return getMineTargetBlockStore().get( worldName, x, y, z );
+	}
+	
 	
 	
 //	public String getTargetPrisonBlockName( Block block ) {
@@ -2138,5 +2399,16 @@ public abstract class MineReset
 		this.mineSweeperSubmitted = mineSweeperSubmitted;
 	}
 
+	public MineSweeperDirtySections getMineSweeperDirtySections() {
+		return mineSweeperDirtySections;
+	}
+
+	public int getMineSweeperPasses() {
+		return mineSweeperPasses;
+	}
+	public void setMineSweeperPasses( int mineSweeperPasses ) {
+		this.mineSweeperPasses = mineSweeperPasses;
+	}
+
     
 }
@@ -9,8 +9,10 @@ import java.util.Random;
 import java.util.Stack;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.cache.PlayerPermissionCache;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.internal.block.Block;
 import tech.mcprison.prison.internal.block.MineResetType;
 import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
@@ -19,11 +21,11 @@ import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.features.MineBlockEvent;
 import tech.mcprison.prison.mines.features.MineBlockEvent.BlockEventType;
 import tech.mcprison.prison.mines.tasks.MinePagedResetAsyncTask;
+import tech.mcprison.prison.mines.tasks.MineResetCoordinator;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.tasks.PrisonCommandTaskData;
 import tech.mcprison.prison.tasks.PrisonCommandTaskData.CustomPlaceholders;
 import tech.mcprison.prison.tasks.PrisonRunnable;
-import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 import tech.mcprison.prison.tasks.PrisonCommandTasks;
 import tech.mcprison.prison.util.Location;
 
@@ -47,7 +49,6 @@ public abstract class MineScheduler
 	private List<MineJob> jobWorkflow;
 	private Stack<MineJob> jobStack;
 //	private MineJob currentJob;
-	private Integer taskId = null;
 	
 	public MineScheduler() {
 		super();
@@ -476,6 +477,10 @@ public abstract class MineScheduler
 	 * this mine.  This is important since heavy work loads could result in delays that will 
 	 * push the actual reset back.  This is a way to update the estimated target time.
 	 * </p>
+	 * 
+	 * <p>The job is scheduled with the MineResetCoordinator, which runs the jobs for 
+	 * all of the mines from one task, instead of each mine submitting its own task.
+	 * </p>
 	 */
 	private void submitTask() {
 		if ( getCurrentJob() != null ) {
@@ -484,12 +489,17 @@ public abstract class MineScheduler
 									Math.round(getCurrentJob().getJobSubmitResetInSec() * 1000.0d);
 			setTargetResetTime( targetResetTime );
 			
-			long ticksToWait = Math.round( getCurrentJob().getDelayActionSec() * 20.0d);
+			long delayMillis = Math.round( getCurrentJob().getDelayActionSec() * 1000.0d);
 			
+			// Only the timed resets are held back by the coordinator's admission 
+			// control.  The messages, and the manual and zero block resets, are not.
+			MineJobAction action = getCurrentJob().getAction();
+			boolean admissionRequired = 
+					(action == MineJobAction.RESET_ASYNC || action == MineJobAction.RESET_SYNC) &&
+					getCurrentJob().getResetType() == MineResetScheduleType.NORMAL;
 			
 			// Submit currentJob using delay in the job. Must be a one time run, no repeats.
-			int taskId = PrisonTaskSubmitter.runTaskLater(this, ticksToWait);
-			setTaskId( taskId );
+			MineResetCoordinator.getInstance().schedule( (Mine) this, delayMillis, admissionRequired );
 		} else {
 			Output.get().logError("Mine " + getName() +
 					" failed to resubmit itself so it will not auto reset. Manually reset " +
@@ -510,9 +520,7 @@ public abstract class MineScheduler
 		
 		getJobStack().clear();
 	
-		int taskId = getTaskId();
-		
-		PrisonTaskSubmitter.cancelTask( taskId );
+		MineResetCoordinator.getInstance().cancel( (Mine) this );
 	}
 	
 	public void submit( double offsetSeconds ) {
@@ -574,6 +582,58 @@ public abstract class MineScheduler
 		}
 	}
 
+	/**
+	 * <p>Processes the block events for all of the blocks that were broken by 
+	 * one event, such as an explosion, in one pass.  Each block's commands are 
+	 * submitted as their own chain of tasks, the same as if the block was 
+	 * broken by itself, so the rows of each block's commands start at one and 
+	 * a large explosion does not run all of its commands one tick at a time 
+	 * within a single chain.
+	 * </p>
+	 * 
+	 * <p>The block that was mined is taken from each target block's mined block.
+	 * </p>
+	 * 
+	 * @param targetBlocks
+	 * @param player
+	 * @param eventType
+	 * @param triggered
+	 */
+	public void processBlockBreakEventCommands( List<MineTargetPrisonBlock> targetBlocks,
+						Player player, 
+							BlockEventType eventType, String triggered ) {
+		
+		if ( getBlockEvents().size() > 0 && targetBlocks.size() > 0 ) {
+			
+			Random random = new Random();
+			
+			for ( MineTargetPrisonBlock targetBlock : targetBlocks ) {
+				
+				if ( targetBlock == null ) {
+					continue;
+				}
+				
+				Block minedBlock = targetBlock.getMinedBlock();
+				PrisonBlock prisonBlock = minedBlock == null ? null : minedBlock.getPrisonBlock();
+				
+				List<PrisonCommandTaskData> cmdTasks = new ArrayList<>();
+				
+				int row = 0;
+				for ( MineBlockEvent blockEvent : getBlockEvents() ) {
+					double chance = random.nextDouble() * 100;
+					
+					processBlockEventDetails( player, prisonBlock,
+							targetBlock, eventType, chance, blockEvent, triggered,
+							cmdTasks, ++row );
+				}
+				
+				if ( cmdTasks.size() > 0 ) {
+					PrisonCommandTasks.submitTasks( player, cmdTasks );
+				}
+			}
+		}
+	}
+
 	
 //	/**
 //	 * <p>This function checks if the block break event should execute a 
@@ -618,7 +678,8 @@ public abstract class MineScheduler
 			
 			// If perms are set, check them, otherwise ignore perm check:
 			String perms = blockEvent.getPermission();
-			if ( perms != null && perms.trim().length() > 0 && player.hasPermission( perms ) ||
+			if ( perms != null && perms.trim().length() > 0 && 
+					PlayerPermissionCache.getInstance().hasPermission( player, perms ) ||
 					perms == null || 
 					perms.trim().length() == 0
 					) {
@@ -853,9 +914,7 @@ public abstract class MineScheduler
 		
 		
 		// cancel existing job:
-		if ( getTaskId() != null ) {
-			PrisonTaskSubmitter.cancelTask( getTaskId() );
-		}
+		MineResetCoordinator.getInstance().cancel( (Mine) this );
 		
 		// Clear jobStack and set currentJob to run the RESET with zero delay:
 		getJobStack().clear();
@@ -892,13 +951,4 @@ public abstract class MineScheduler
 		this.jobStack = jobStack;
 	}
 
-	public Integer getTaskId()
-	{
-		return taskId;
-	}
-	public void setTaskId( Integer taskId )
-	{
-		this.taskId = taskId;
-	}
-
 }
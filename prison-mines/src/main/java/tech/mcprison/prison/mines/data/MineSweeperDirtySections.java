@@ -0,0 +1,166 @@
+package tech.mcprison.prison.mines.data;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Tracks which chunk sections within a mine have had a block change since
+ * the last mine sweeper pass.  A chunk section is 16 x 16 x 16 blocks.  The
+ * block change and physics events mark the sections where something happened,
+ * so the mine sweeper only has to check the blocks within those sections,
+ * instead of every block within the mine.
+ * </p>
+ *
+ * <p>The sections are marked from the server's main thread, and are drained
+ * by the mine sweeper, so the set of sections is thread safe.  Each section
+ * is packed in to a long, with the chunk x in the upper 26 bits, the chunk z
+ * in the next 26 bits, and the section y in the lowest 12 bits.
+ * </p>
+ *
+ */
+public class MineSweeperDirtySections
+{
+	private final Set<Long> sections;
+
+	private volatile boolean allDirty = false;
+
+	public MineSweeperDirtySections() {
+		super();
+
+		this.sections = ConcurrentHashMap.newKeySet();
+	}
+
+	public static long getSectionKey( int chunkX, int sectionY, int chunkZ ) {
+		return ((chunkX & 0x3FFFFFFL) << 38) |
+				((chunkZ & 0x3FFFFFFL) << 12) |
+				(sectionY & 0xFFFL);
+	}
+
+	public static int getChunkX( long sectionKey ) {
+		return (int) (sectionKey >> 38);
+	}
+
+	public static int getChunkZ( long sectionKey ) {
+		return (int) ((sectionKey << 26) >> 38);
+	}
+
+	public static int getSectionY( long sectionKey ) {
+		return (int) ((sectionKey << 52) >> 52);
+	}
+
+	/**
+	 * <p>Marks the section that contains the block.
+	 * </p>
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 */
+	public void markDirty( int x, int y, int z ) {
+		sections.add( getSectionKey( x >> 4, y >> 4, z >> 4 ) );
+	}
+
+	/**
+	 * <p>Marks the section that contains the block, and if the block is on the
+	 * edge of its section, then the sections on the other side of that edge
+	 * are marked too.  This is used for the physics events, which are fired
+	 * for the blocks next to the block that actually changed.
+	 * </p>
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 */
+	public void markDirtyWithNeighbors( int x, int y, int z ) {
+		int sx = x >> 4;
+		int sy = y >> 4;
+		int sz = z >> 4;
+
+		sections.add( getSectionKey( sx, sy, sz ) );
+
+		if ( (x & 15) == 0 ) {
+			sections.add( getSectionKey( sx - 1, sy, sz ) );
+		}
+		else if ( (x & 15) == 15 ) {
+			sections.add( getSectionKey( sx + 1, sy, sz ) );
+		}
+
+		if ( (y & 15) == 0 ) {
+			sections.add( getSectionKey( sx, sy - 1, sz ) );
+		}
+		else if ( (y & 15) == 15 ) {
+			sections.add( getSectionKey( sx, sy + 1, sz ) );
+		}
+
+		if ( (z & 15) == 0 ) {
+			sections.add( getSectionKey( sx, sy, sz - 1 ) );
+		}
+		else if ( (z & 15) == 15 ) {
+			sections.add( getSectionKey( sx, sy, sz + 1 ) );
+		}
+	}
+
+	/**
+	 * <p>Marks the sections again, such as the sections that could not be 
+	 * checked since their chunks were not loaded.
+	 * </p>
+	 *
+	 * @param sectionKeys
+	 */
+	public void markDirty( Collection<Long> sectionKeys ) {
+		sections.addAll( sectionKeys );
+	}
+
+	/**
+	 * <p>Marks the whole mine as dirty, so the next pass will check every
+	 * block within the mine.
+	 * </p>
+	 */
+	public void markAllDirty() {
+		allDirty = true;
+	}
+
+	public boolean isAllDirty() {
+		return allDirty;
+	}
+
+	/**
+	 * <p>Returns the sections that have been marked since the last drain, in
+	 * order, and clears them.  A section that is marked while this is running
+	 * will either be returned now, or with the next drain, so no changes are
+	 * lost.  This also clears the all dirty flag, so the caller must check
+	 * isAllDirty() first.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public Set<Long> drain() {
+		Set<Long> results = new TreeSet<>();
+
+		allDirty = false;
+
+		for ( Long sectionKey : sections ) {
+			if ( sections.remove( sectionKey ) ) {
+				results.add( sectionKey );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Clears all of the sections, such as when the mine is reset, since all
+	 * of the blocks will then be new.
+	 * </p>
+	 */
+	public void clear() {
+		allDirty = false;
+		sections.clear();
+	}
+
+	public int size() {
+		return sections.size();
+	}
+}
@@ -0,0 +1,235 @@
+package tech.mcprison.prison.mines.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
+import tech.mcprison.prison.internal.block.PrisonChunkSnapshot;
+import tech.mcprison.prison.util.Bounds;
+
+/**
+ * <p>One pass of the mine sweeper.  The pass is split in to three steps so
+ * the world is never scanned on the server's main thread:
+ * </p>
+ *
+ * <ul>
+ *   <li><b>takeSnapshots()</b>: On the main thread, a snapshot is taken of
+ *   		each chunk that contains a dirty section.  This is only a copy of
+ *   		the chunk's blocks.</li>
+ *   <li><b>scan()</b>: Async, every target block within the dirty sections
+ *   		that has not been counted is checked against the snapshots, and
+ *   		the blocks that are now air are collected.</li>
+ *   <li>On the main thread, the mine counts the blocks that were found, after
+ *   		checking that they were not counted while the scan was running.</li>
+ * </ul>
+ *
+ */
+public class MineSweeperScan
+{
+	private final MineTargetBlockStore targetBlocks;
+	private final int resetCount;
+
+	private final Set<Long> sections;
+	private final Map<Long, PrisonChunkSnapshot> snapshots;
+
+	private final int xMin;
+	private final int xMax;
+	private final int yMin;
+	private final int yMax;
+	private final int zMin;
+	private final int zMax;
+
+	private final List<Integer> airOffsets;
+	private final Set<Long> unloadedSections;
+
+	private long blocksScanned = 0;
+	private long blocksSkipped = 0;
+
+	private long snapshotNanos = 0;
+	private long scanNanos = 0;
+
+	public MineSweeperScan( MineTargetBlockStore targetBlocks, Bounds bounds,
+					int resetCount, Set<Long> sections ) {
+		super();
+
+		this.targetBlocks = targetBlocks;
+		this.resetCount = resetCount;
+
+		this.sections = sections;
+		this.snapshots = new HashMap<>();
+
+		this.xMin = bounds.getxBlockMin();
+		this.xMax = bounds.getxBlockMax();
+		this.yMin = bounds.getyBlockMin();
+		this.yMax = bounds.getyBlockMax();
+		this.zMin = bounds.getzBlockMin();
+		this.zMax = bounds.getzBlockMax();
+
+		this.airOffsets = new ArrayList<>();
+		this.unloadedSections = new TreeSet<>();
+	}
+
+	/**
+	 * <p>Returns every section that the bounds overlaps, which is used when
+	 * the whole mine needs to be swept.
+	 * </p>
+	 *
+	 * @param bounds
+	 * @return
+	 */
+	public static Set<Long> getAllSections( Bounds bounds ) {
+		Set<Long> results = new TreeSet<>();
+
+		for ( int cx = bounds.getxBlockMin() >> 4; cx <= bounds.getxBlockMax() >> 4; cx++ ) {
+			for ( int cz = bounds.getzBlockMin() >> 4; cz <= bounds.getzBlockMax() >> 4; cz++ ) {
+				for ( int sy = bounds.getyBlockMin() >> 4; sy <= bounds.getyBlockMax() >> 4; sy++ ) {
+
+					results.add( MineSweeperDirtySections.getSectionKey( cx, sy, cz ) );
+				}
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Takes one snapshot of each chunk that has a dirty section.  This
+	 * must be ran on the server's main thread.
+	 * </p>
+	 *
+	 * @param world
+	 */
+	public void takeSnapshots( World world ) {
+		long start = System.nanoTime();
+
+		for ( Long sectionKey : sections ) {
+
+			int chunkX = MineSweeperDirtySections.getChunkX( sectionKey );
+			int chunkZ = MineSweeperDirtySections.getChunkZ( sectionKey );
+
+			long chunkKey = MineSweeperDirtySections.getSectionKey( chunkX, 0, chunkZ );
+
+			if ( !snapshots.containsKey( chunkKey ) ) {
+
+				snapshots.put( chunkKey, world.getChunkSnapshot( chunkX, chunkZ ) );
+			}
+		}
+
+		snapshotNanos = System.nanoTime() - start;
+	}
+
+	/**
+	 * <p>Checks the target blocks within the dirty sections against the
+	 * snapshots.  This does not access the world, so it can be ran async.
+	 * The blocks within the sections that are not dirty, or within a chunk
+	 * that was not loaded, are counted as skipped.  The dirty sections within
+	 * the chunks that were not loaded are kept in getUnloadedSections(), so 
+	 * they can be marked dirty again and checked once they are loaded.
+	 * </p>
+	 */
+	public void scan() {
+		long start = System.nanoTime();
+
+		for ( Long sectionKey : sections ) {
+
+			int chunkX = MineSweeperDirtySections.getChunkX( sectionKey );
+			int chunkZ = MineSweeperDirtySections.getChunkZ( sectionKey );
+			int sectionY = MineSweeperDirtySections.getSectionY( sectionKey );
+
+			PrisonChunkSnapshot snapshot = snapshots.get(
+					MineSweeperDirtySections.getSectionKey( chunkX, 0, chunkZ ) );
+
+			if ( snapshot == null ) {
+				unloadedSections.add( sectionKey );
+				continue;
+			}
+
+			int x1 = Math.max( xMin, chunkX << 4 );
+			int x2 = Math.min( xMax, (chunkX << 4) + 15 );
+			int y1 = Math.max( yMin, sectionY << 4 );
+			int y2 = Math.min( yMax, (sectionY << 4) + 15 );
+			int z1 = Math.max( zMin, chunkZ << 4 );
+			int z2 = Math.min( zMax, (chunkZ << 4) + 15 );
+
+			for ( int y = y2; y >= y1; y-- ) {
+				for ( int x = x1; x <= x2; x++ ) {
+					for ( int z = z1; z <= z2; z++ ) {
+
+						int offset = targetBlocks.getOffset( x, y, z );
+
+						if ( offset < 0 ) {
+							continue;
+						}
+
+						blocksScanned++;
+
+						if ( isUncounted( offset ) && snapshot.isAir( x, y, z ) ) {
+
+							airOffsets.add( offset );
+						}
+					}
+				}
+			}
+		}
+
+		blocksSkipped = Math.max( 0, targetBlocks.getVolume() - blocksScanned );
+
+		scanNanos = System.nanoTime() - start;
+	}
+
+	/**
+	 * <p>A block is uncounted if it has not been broken, counted, or reserved
+	 * by a block break that is still being processed.
+	 * </p>
+	 *
+	 * @param offset
+	 * @return
+	 */
+	public boolean isUncounted( int offset ) {
+		return targetBlocks.contains( offset ) &&
+				!targetBlocks.isState( offset, MineTargetBlockStore.STATE_AIR_BROKE ) &&
+				!targetBlocks.isState( offset, MineTargetBlockStore.STATE_COUNTED ) &&
+				!targetBlocks.isState( offset, MineTargetBlockStore.STATE_MINED );
+	}
+
+	public MineTargetBlockStore getTargetBlocks() {
+		return targetBlocks;
+	}
+
+	public int getResetCount() {
+		return resetCount;
+	}
+
+	public Set<Long> getSections() {
+		return sections;
+	}
+
+	public List<Integer> getAirOffsets() {
+		return airOffsets;
+	}
+
+	public Set<Long> getUnloadedSections() {
+		return unloadedSections;
+	}
+
+	public long getBlocksScanned() {
+		return blocksScanned;
+	}
+
+	public long getBlocksSkipped() {
+		return blocksSkipped;
+	}
+
+	public long getSnapshotNanos() {
+		return snapshotNanos;
+	}
+
+	public long getScanNanos() {
+		return scanNanos;
+	}
+}
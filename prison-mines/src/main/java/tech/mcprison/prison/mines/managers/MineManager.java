@@ -26,6 +26,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.cache.PlayerCache;
@@ -52,10 +53,13 @@ import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
 import tech.mcprison.prison.placeholders.PlaceholderManagerUtils;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
+import tech.mcprison.prison.spatial.SpatialIndex;
+import tech.mcprison.prison.spatial.SpatialIndexData;
 import tech.mcprison.prison.store.Collection;
 import tech.mcprison.prison.store.Document;
 import tech.mcprison.prison.tasks.PrisonDispatchCommandTask;
 import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+import tech.mcprison.prison.util.Bounds;
 
 /**
  * Manages the creation, removal, and management of mines.
@@ -71,6 +75,27 @@ public class MineManager
     
     private TreeMap<String, List<Mine>> unavailableWorlds;
 
+    /**
+     * <p>The spatial index of all of the mines, which is used to find which mine
+     * contains a given location without having to check every mine.  It is set 
+     * to null whenever a mine is added, removed, or its bounds or world is 
+     * changed, and then it is rebuilt upon the next lookup.  Since the mines are
+     * all loaded at once, this prevents the index from being rebuilt for every 
+     * mine that is loaded.
+     * </p>
+     */
+    private volatile SpatialIndex<Mine> mineSpatialIndex;
+    private final AtomicInteger mineSpatialIndexGeneration;
+    
+    /**
+     * <p>Identifies if any mine has the mine sweeper enabled, so the block 
+     * change listeners can ignore all events when no mine uses it.  It is set 
+     * to null whenever a mine is added or removed, or a mine's mine sweeper is
+     * enabled or disabled, and then it is found again upon the next check.
+     * </p>
+     */
+    private volatile Boolean mineSweeperInUse;
+
     private Collection coll;
 
     private List<PlaceHolderKey> translatedPlaceHolderKeys;
@@ -217,6 +242,11 @@ public class MineManager
     	
     	this.unavailableWorlds = new TreeMap<>();
     	
+    	this.mineSpatialIndex = null;
+    	this.mineSpatialIndexGeneration = new AtomicInteger( 0 );
+    	
+    	this.mineSweeperInUse = null;
+    	
     	this.mineResetCommands = new ArrayList<>();
     	this.mineResetActions = new ArrayList<>();
     	
@@ -310,6 +340,8 @@ public class MineManager
         	
             results = getMines().add(mine);
             getMinesByName().put( mine.getName().toLowerCase(), mine );
+            invalidateMineSpatialIndex();
+            invalidateMineSweeperInUse();
             
             // Start its scheduling:
             mine.submit( offsetTimingMs / 1000d );
@@ -336,10 +368,151 @@ public class MineManager
     		coll.delete( mine.getName() );
     		getMinesByName().remove(mine.getName().toLowerCase());
     		success = getMines().remove(mine);
+    		invalidateMineSpatialIndex();
+    		invalidateMineSweeperInUse();
+    		
+    		// Remove the mine from all players so the deleted mine is not held on to:
+    		if ( PrisonMines.getInstance() != null ) {
+    			PrisonMines.getInstance().getPlayerCache().removeMine( mine );
+    		}
     	}
 	    return success;
     }
 
+    
+    /**
+     * <p>Marks the spatial index of the mines as being out of date, so it will 
+     * be rebuilt upon the next lookup.  This must be called whenever a mine is
+     * added or removed, or whenever a mine's bounds or world is changed.
+     * </p>
+     */
+    public void invalidateMineSpatialIndex() {
+    	mineSpatialIndexGeneration.incrementAndGet();
+    	mineSpatialIndex = null;
+    }
+    
+    public void invalidateMineSweeperInUse() {
+    	mineSweeperInUse = null;
+    }
+    
+    /**
+     * <p>Returns true if any mine has the mine sweeper enabled.  This is 
+     * checked for every block change event, so it is only found again after
+     * it has been invalidated.
+     * </p>
+     * 
+     * @return
+     */
+    public boolean isMineSweeperInUse() {
+    	Boolean results = mineSweeperInUse;
+    	
+    	if ( results == null ) {
+    		results = Boolean.FALSE;
+    		
+    		for ( Mine mine : new ArrayList<>( getMines() ) ) {
+    			if ( mine.isMineSweeperEnabled() ) {
+    				results = Boolean.TRUE;
+    				break;
+    			}
+    		}
+    		
+    		mineSweeperInUse = results;
+    	}
+    	
+    	return results.booleanValue();
+    }
+    
+    /**
+     * <p>Returns the spatial index of the mines, and rebuilds it if it has been
+     * invalidated.  If a mine is changed while the index is being built, then
+     * the new index is still used for the current lookup, but it is not kept
+     * so it will be rebuilt again on the next lookup.
+     * </p>
+     * 
+     * @return
+     */
+    private SpatialIndex<Mine> getMineSpatialIndex() {
+    	SpatialIndex<Mine> index = mineSpatialIndex;
+    	
+    	if ( index == null ) {
+    		synchronized ( mineSpatialIndexGeneration ) {
+    			
+    			index = mineSpatialIndex;
+    			if ( index == null ) {
+    				
+    				int generation = mineSpatialIndexGeneration.get();
+    				
+    				index = buildMineSpatialIndex();
+    				
+    				if ( generation == mineSpatialIndexGeneration.get() ) {
+    					mineSpatialIndex = index;
+    				}
+    			}
+    		}
+    	}
+    	
+    	return index;
+    }
+    
+    /**
+     * <p>Builds the spatial index of all mines that can be found by location.  
+     * Virtual mines, and mines that do not have a world yet, are excluded since
+     * they can never contain a location.  The mines are added in the same order
+     * as getMines() so the same mine is found as with a linear search when mines
+     * overlap.
+     * </p>
+     * 
+     * <p>Bounds.within() compares the floor of the location to the double values
+     * of the bounds, so the ceiling of the mins and the floor of the maxes are
+     * used here so the results are identical.
+     * </p>
+     * 
+     * @return
+     */
+    private SpatialIndex<Mine> buildMineSpatialIndex() {
+    	SpatialIndex<Mine> index = new SpatialIndex<>();
+    	
+    	for ( Mine mine : new ArrayList<>( getMines() ) ) {
+    		Bounds bounds = mine.getBounds();
+    		
+    		if ( !mine.isVirtual() && bounds != null && bounds.getCenter() != null &&
+    				bounds.getCenter().getWorld() != null ) {
+    			
+    			SpatialIndexData<Mine> data = new SpatialIndexData<>( 
+    					(int) Math.ceil( bounds.getxMin() ), 
+    					(int) Math.ceil( bounds.getyMin() ), 
+    					(int) Math.ceil( bounds.getzMin() ), 
+    					(int) Math.floor( bounds.getxMax() ), 
+    					(int) Math.floor( bounds.getyMax() ), 
+    					(int) Math.floor( bounds.getzMax() ), 
+    					mine );
+    			
+    			index.add( bounds.getCenter().getWorld().getName(), data );
+    		}
+    	}
+    	
+    	return index;
+    }
+    
+    /**
+     * <p>Finds the mine that contains the given block coordinates by using the 
+     * spatial index, so only the mines that are near the coordinates are checked.
+     * </p>
+     * 
+     * @param worldName
+     * @param x
+     * @param y
+     * @param z
+     * @param includeTopBottomOfMine If true, then includes one block above and 
+     * 				below the mine, which is used when checking if a player is in a mine.
+     * @return the mine, or null if the coordinates are not within any mine.
+     */
+    public Mine findMineLocation( String worldName, int x, int y, int z, 
+    				boolean includeTopBottomOfMine ) {
+    	return getMineSpatialIndex().find( worldName, x, y, z, 
+    						includeTopBottomOfMine ? 1 : 0 );
+    }
+
 
 
     private void loadMines( long offsetTimingMs ) {
@@ -0,0 +1,183 @@
+package tech.mcprison.prison.mines.managers;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import tech.mcprison.prison.mines.data.Mine;
+
+/**
+ * <p>This cache tries to provide a faster way to identify which mine a player is
+ * in. The theory is that there is a very high chance it will be the last mine
+ * they were in.  So this records the last mine they were in, and if that is not
+ * where they are, then, and only then, do we have to search for the mine.
+ * </p>
+ *
+ * <p>This is shared by the block break events, which may be ran async, and the
+ * player related lookups on the main thread, so it is backed by a
+ * ConcurrentHashMap and is keyed by the player's full UUID.  The size of the
+ * cache is bounded, but the entries are also removed when the player leaves
+ * the server, and when a mine is deleted.
+ * </p>
+ *
+ * <p>The hits are the lookups where the cached mine was the correct mine, and
+ * the misses are the lookups where the mine had to be searched for.
+ * </p>
+ *
+ */
+public class PlayerMineCache
+{
+	public static final int DEFAULT_MAX_SIZE = 2000;
+
+	private final ConcurrentHashMap<UUID, Mine> cache;
+
+	private volatile int maxSize;
+
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+
+	public PlayerMineCache() {
+		this( DEFAULT_MAX_SIZE );
+	}
+
+	public PlayerMineCache( int maxSize ) {
+		super();
+
+		this.cache = new ConcurrentHashMap<>();
+
+		this.maxSize = maxSize < 1 ? DEFAULT_MAX_SIZE : maxSize;
+
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+		this.evictions = new LongAdder();
+	}
+
+	/**
+	 * <p>Returns the player's cached mine only if the cached mine passes the
+	 * given test, such as if the location is within the mine.  If there is no
+	 * cached mine, or if the test fails, then this is counted as a miss and
+	 * a null is returned so the caller must search for the mine.
+	 * </p>
+	 *
+	 * @param playerUUID
+	 * @param isInMine
+	 * @return
+	 */
+	public Mine get( UUID playerUUID, Predicate<Mine> isInMine ) {
+		Mine results = null;
+
+		Mine mine = playerUUID == null ? null : cache.get( playerUUID );
+
+		if ( mine != null && isInMine.test( mine ) ) {
+			results = mine;
+			hits.increment();
+		}
+		else {
+			misses.increment();
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Stores the player's mine. If the mine is null, then the player's entry
+	 * is removed.  If the cache is full, then an arbitrary entry is removed to
+	 * make room for the new entry, which is good enough since entries are
+	 * also removed when the players log off.
+	 * </p>
+	 *
+	 * @param playerUUID
+	 * @param mine
+	 */
+	public void put( UUID playerUUID, Mine mine ) {
+		if ( playerUUID == null ) {
+			return;
+		}
+
+		if ( mine == null ) {
+			remove( playerUUID );
+		}
+		else if ( cache.put( playerUUID, mine ) == null ) {
+
+			Iterator<UUID> keys = cache.keySet().iterator();
+			while ( cache.size() > maxSize && keys.hasNext() ) {
+
+				UUID key = keys.next();
+
+				if ( !key.equals( playerUUID ) && cache.remove( key ) != null ) {
+					evictions.increment();
+				}
+			}
+		}
+	}
+
+	public void remove( UUID playerUUID ) {
+		if ( playerUUID != null ) {
+			cache.remove( playerUUID );
+		}
+	}
+
+	/**
+	 * <p>Removes all players that are associated with the given mine.  This
+	 * should be used when a mine is deleted so the mine is not kept around.
+	 * </p>
+	 *
+	 * @param mine
+	 */
+	public void removeMine( Mine mine ) {
+		if ( mine != null ) {
+			cache.values().removeIf( m -> m == mine );
+		}
+	}
+
+	public void clear() {
+		cache.clear();
+	}
+
+	public void resetStats() {
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+	public void setMaxSize( int maxSize ) {
+		this.maxSize = maxSize < 1 ? DEFAULT_MAX_SIZE : maxSize;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public double getHitRatio() {
+		long h = getHits();
+		long total = h + getMisses();
+
+		return total == 0 ? 0d : (double) h / total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format( "PlayerMineCache: size= %d max= %d hits= %d misses= %d " +
+				"hitRatio= %.1f%% evictions= %d",
+				size(), getMaxSize(), getHits(), getMisses(),
+				getHitRatio() * 100d, getEvictions() );
+	}
+}
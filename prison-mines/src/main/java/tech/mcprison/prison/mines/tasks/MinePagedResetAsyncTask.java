@@ -1,12 +1,13 @@
 package tech.mcprison.prison.mines.tasks;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.PrisonStatsElapsedTimeNanos;
+import tech.mcprison.prison.internal.World;
 import tech.mcprison.prison.internal.block.MineResetType;
-import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.data.MineScheduler.MineResetActions;
@@ -15,9 +16,30 @@ import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.tasks.PrisonRunnable;
 import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 
+/**
+ * <p>This task generates the mine's block list asynchronously, and then the 
+ * blocks are placed by the MineResetTickScheduler, in slices, on the 
+ * synchronous thread.  Each slice is sized to fit within the time that the 
+ * scheduler provides, based upon how long it has been taking to place each 
+ * block within this mine.
+ * </p>
+ * 
+ * <p>The config setting sync-sub-page-slice is the size of the first slice, 
+ * before there are any timings, and async-page-size is the largest slice 
+ * that will be placed in one tick.
+ * </p>
+ *
+ */
 public class MinePagedResetAsyncTask
 		implements PrisonRunnable
 {
+	/**
+	 * <p>The smallest slice that will be placed, so there is always progress 
+	 * even when the tick budget is very small.
+	 * </p>
+	 */
+	public static final int MINIMUM_SLICE_SIZE = 16;
+	
 	private Mine mine;
 	private final MineResetType resetType;
 	private final MineResetScheduleType resetScheduleType;
@@ -26,7 +48,6 @@ public class MinePagedResetAsyncTask
 	
 	private int page = 0;
 	
-	private int totalPages = 0;
 	private int pagesPerReport = 20;
 	private int pagePosition = 0;
 	
@@ -36,6 +57,13 @@ public class MinePagedResetAsyncTask
 	
 	private PrisonStatsElapsedTimeNanos nanos;
 	
+	/**
+	 * <p>The moving average of how long it takes to place one block in this mine.
+	 * A value of zero means there are no timings yet.
+	 * </p>
+	 */
+	private double nanosPerBlock = 0d;
+	
 	
 	// Config Settings:
 	private int configAsyncResetPageSize = -1;
@@ -61,9 +89,6 @@ public class MinePagedResetAsyncTask
 		
 		this.nanos = new PrisonStatsElapsedTimeNanos();
 		
-		this.totalPages = (mine.getMineTargetPrisonBlocks().size() / 
-												getConfigAsyncResetPageSize()) + 1;
-		
 		this.resetActions = resetActions;
 	}
 	
@@ -104,22 +129,10 @@ public class MinePagedResetAsyncTask
 
 		mine.setLastResetTimeLong( System.currentTimeMillis() );
 		
+		// Counts against the MineResetCoordinator's limit until the reset is finished:
+		MineResetCoordinator.getInstance().resetStarted( mine );
 		
-		submitTaskAsyncInternalNextPage();
-	}
-
-	private void submitTaskAsyncInternalNextPage() {
-		
-		if ( position > 0 && page++ % pagesPerReport == 0 ) {
-			
-			if ( PrisonMines.getInstance().getMineManager().isMineStats() ) {
-				
-				logStats();
-			}
-		}
-		
-		long delay = 0;
-		PrisonTaskSubmitter.runTaskLaterAsync( this, delay );
+		PrisonTaskSubmitter.runTaskLaterAsync( this, 0 );
 	}
 
 
@@ -157,7 +170,8 @@ public class MinePagedResetAsyncTask
 			Output.get().logInfo( "MinePagedResetAsyncTask : " +
 					mine.getName() + " " +
 					resetType.name() + 
-					" : page " + page + " of " + totalPages + " : " +
+					" : page " + page + " : " + position + " of " + 
+							mine.getMineTargetBlockStore().size() + " : " +
 					"  blocks = " + blocksPlaced + "  elapsed = " + timeElapsedPage + 
 					" ms  TotalElapsed = " + timeElapsedTotal + " ms   " +
 							"block update elapsed = " + 
@@ -168,52 +182,132 @@ public class MinePagedResetAsyncTask
 		}
 	}
 	
+	/**
+	 * <p>This runs asynchronously and sets up the reset, which includes generating
+	 * the block list.  The blocks are then placed by the MineResetTickScheduler 
+	 * which calls placeSlice() on the synchronous thread.
+	 * </p>
+	 */
 	@Override
 	public void run() {
 		
 		// The first time running this, need to setup the block list if a reset:
 		if ( position == 0 ) {
-			if ( runSetupCancelAutoResets() ) {
+			boolean cancel = true;
+			try {
+				cancel = runSetupCancelAutoResets();
+			}
+			finally {
+				if ( cancel ) {
+					MineResetCoordinator.getInstance().resetFinished( mine );
+				}
+			}
+			
+			if ( cancel ) {
 				// If the reset should be canceled then just return, and that will 
 				// terminate the reset.  There is nothing else that needs to be done.
 				return;
 			}
 		}
 		
-		List<MineTargetPrisonBlock> targetBlocks = mine.getMineTargetPrisonBlocks();
-
-		int pageEndPosition = position + getConfigAsyncResetPageSize();
-				
+		MineResetTickScheduler.getInstance().submit( this );
+	}
+	
+	/**
+	 * <p>Places the next slice of blocks.  This must be ran on the synchronous 
+	 * thread.  The size of the slice is based upon the average time it has been
+	 * taking to place a block, so it will fit within the given time.
+	 * </p>
+	 * 
+	 * @param sliceNanos The amount of time this slice should take.
+	 * @return The number of blocks within the slice.
+	 */
+	public int placeSlice( long sliceNanos ) {
 		
-		while ( position < pageEndPosition ) {
-			
-			int endIndex = position + getConfigSyncSubPageSlice();
-			if ( endIndex > targetBlocks.size() ) {
-				endIndex = targetBlocks.size();
-				pageEndPosition = endIndex;
-			}
-
-			// Isolate the sub-list from the main targetBlocks list:
-            List<MineTargetPrisonBlock> tBlocks = new ArrayList<>(targetBlocks.subList(position, endIndex));
-			
-			int size = tBlocks.size();
-			position += size;
-			
-			mine.getWorld().get().setBlocksSynchronously( tBlocks, resetType, getNanos() );
+		MineTargetBlockStore targetBlocks = mine.getMineTargetBlockStore();
+		
+		int sliceSize = getSliceSize( sliceNanos );
+		
+		int endIndex = Math.min( position + sliceSize, targetBlocks.size() );
+		int size = endIndex - position;
+		
+		Optional<World> world = mine.getWorld();
+		
+		if ( !world.isPresent() ) {
 			
+			// The world is no longer available, so the reset cannot continue:
+			cancelPlacement();
+			return 0;
 		}
 		
+		long start = System.nanoTime();
+		
+		// The slice is just a range of offsets within the targetBlocks store,
+		// so there is nothing that needs to be copied:
+		world.get().setBlocks( targetBlocks, position, endIndex, resetType, getNanos(), 
+						mine.getBlockPlacementStrategy() );
+		
+		long elapsedNanos = System.nanoTime() - start;
 		
-		// Keep resubmitting this task until it is completed:
-		if ( position < targetBlocks.size() ) {
-			submitTaskAsyncInternalNextPage();
+		if ( size > 0 ) {
+			double sample = elapsedNanos / (double) size;
+			
+			nanosPerBlock = nanosPerBlock == 0d ? sample : 
+								nanosPerBlock * 0.75d + sample * 0.25d;
 		}
-		else {
+		
+		position = endIndex;
+		
+		if ( page++ % pagesPerReport == 0 && position > 0 && 
+				PrisonMines.getInstance().getMineManager().isMineStats() ) {
 			
-			// Finished running the task and let it end:
-			runShutdown();
+			logStats();
 		}
 		
+		return size;
+	}
+	
+	/**
+	 * <p>If there are no timings yet, then the configured slice size is used.  
+	 * Otherwise the slice is sized so it will take about the given time, but 
+	 * it will never be smaller than the MINIMUM_SLICE_SIZE, or larger than the
+	 * configured async-page-size.
+	 * </p>
+	 * 
+	 * @param sliceNanos
+	 * @return
+	 */
+	protected int getSliceSize( long sliceNanos ) {
+		
+		long sliceSize = nanosPerBlock == 0d ? getConfigSyncSubPageSlice() : 
+									(long) (sliceNanos / nanosPerBlock);
+		
+		sliceSize = Math.max( MINIMUM_SLICE_SIZE, 
+						Math.min( getConfigAsyncResetPageSize(), sliceSize ) );
+		
+		return (int) sliceSize;
+	}
+	
+	public boolean isPlacementComplete() {
+		return position >= mine.getMineTargetBlockStore().size();
+	}
+	
+	/**
+	 * <p>Skips the rest of the blocks, so the reset will be finalized.
+	 * </p>
+	 */
+	public void cancelPlacement() {
+		position = mine.getMineTargetBlockStore().size();
+	}
+	
+	/**
+	 * <p>All of the blocks have been placed, so the reset is finished 
+	 * asynchronously, which includes running the post reset commands.
+	 * </p>
+	 */
+	public void placementComplete() {
+		
+		PrisonTaskSubmitter.runTaskLaterAsync( () -> runShutdown(), 0 );
 	}
 
 	
@@ -270,6 +364,8 @@ public class MinePagedResetAsyncTask
 		// Set the MineStateMutex to a state of Finishing a mine reset:
 		// It is now safe to allow mining in the mine.
 		mine.getMineStateMutex().setMineStateResetFinishedForced();
+		
+		MineResetCoordinator.getInstance().resetFinished( mine );
 
 		
 		// Run items such as post-mine-reset commands:
@@ -294,6 +390,18 @@ public class MinePagedResetAsyncTask
 	}
 
 
+	public double getNanosPerBlock() {
+		return nanosPerBlock;
+	}
+
+	public int getPosition() {
+		return position;
+	}
+	
+	public Mine getMine() {
+		return mine;
+	}
+
 	public int getConfigAsyncResetPageSize() {
 		if ( configAsyncResetPageSize == -1 ) {
 			this.configAsyncResetPageSize = 
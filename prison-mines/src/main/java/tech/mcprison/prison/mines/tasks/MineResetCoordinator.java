@@ -0,0 +1,341 @@
+package tech.mcprison.prison.mines.tasks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonRunnable;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>This coordinates the workflow actions for all of the mines, from one
+ * priority queue that is ordered by the time the next action is due, and
+ * one synchronous task that runs every tick.  Each mine still has its own
+ * workflow within the MineScheduler, but instead of each mine submitting
+ * its own task for every step of the workflow, the next step is added to
+ * this queue.
+ * </p>
+ *
+ * <p>The timed resets are subject to admission control: only a limited
+ * number of mines can be resetting at the same time, and the starts of the
+ * resets are staggered so mines whose timers line up will not all start
+ * on the same tick.  The resets that are due, but have not been admitted,
+ * wait in the order they became due.  The messages, and the manual and
+ * zero block resets, are not held back.
+ * </p>
+ *
+ * <p>The reset lag is how long a reset had to wait, past the time it was
+ * due, before it was admitted.
+ * </p>
+ *
+ */
+public class MineResetCoordinator
+	implements PrisonRunnable
+{
+	public static final int DEFAULT_MAX_CONCURRENT_RESETS = 2;
+	public static final long DEFAULT_STAGGER_MS = 500;
+
+	private static MineResetCoordinator instance;
+
+	private final PriorityQueue<ScheduledMineAction> queue;
+	private final Map<Mine, ScheduledMineAction> scheduled;
+	private final ArrayDeque<ScheduledMineAction> admissionQueue;
+
+	private final Set<Mine> activeResets;
+
+	private long sequence = 0;
+	private long lastAdmissionMillis = 0;
+
+	private int taskId = -1;
+
+	private int configMaxConcurrentResets = -1;
+	private long configStaggerMs = -1;
+
+	private long statsActions = 0;
+	private long statsResetsAdmitted = 0;
+	private long statsResetLagTotalMs = 0;
+	private long statsResetLagMaxMs = 0;
+	private long statsResetLagLastMs = 0;
+
+
+	protected static class ScheduledMineAction
+		implements Comparable<ScheduledMineAction>
+	{
+		private final Mine mine;
+		private final long dueMillis;
+		private final long sequence;
+		private final boolean admissionRequired;
+
+		private boolean canceled = false;
+
+		public ScheduledMineAction( Mine mine, long dueMillis, long sequence,
+						boolean admissionRequired ) {
+			super();
+
+			this.mine = mine;
+			this.dueMillis = dueMillis;
+			this.sequence = sequence;
+			this.admissionRequired = admissionRequired;
+		}
+
+		@Override
+		public int compareTo( ScheduledMineAction other ) {
+			int results = Long.compare( dueMillis, other.dueMillis );
+
+			if ( results == 0 ) {
+				results = Long.compare( sequence, other.sequence );
+			}
+
+			return results;
+		}
+	}
+
+	protected MineResetCoordinator() {
+		super();
+
+		this.queue = new PriorityQueue<>();
+		this.scheduled = new IdentityHashMap<>();
+		this.admissionQueue = new ArrayDeque<>();
+
+		this.activeResets = ConcurrentHashMap.newKeySet();
+	}
+
+	public static MineResetCoordinator getInstance() {
+		if ( instance == null ) {
+			synchronized ( MineResetCoordinator.class ) {
+				if ( instance == null ) {
+					instance = new MineResetCoordinator();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * <p>Schedules the mine's next workflow action to run after the given delay.
+	 * A mine can only have one scheduled action, so if there is already one,
+	 * then it is replaced.  The timer task is started if it is not already
+	 * running.
+	 * </p>
+	 *
+	 * @param mine
+	 * @param delayMillis
+	 * @param admissionRequired True if this is a timed reset that is subject
+	 * 				to the admission control.
+	 */
+	public synchronized void schedule( Mine mine, long delayMillis, boolean admissionRequired ) {
+
+		schedule( mine, System.currentTimeMillis() + Math.max( 0, delayMillis ),
+						admissionRequired, true );
+	}
+
+	protected synchronized void schedule( Mine mine, long dueMillis,
+						boolean admissionRequired, boolean startTimer ) {
+		cancel( mine );
+
+		ScheduledMineAction action =
+				new ScheduledMineAction( mine, dueMillis, sequence++, admissionRequired );
+
+		scheduled.put( mine, action );
+		queue.add( action );
+
+		if ( startTimer && taskId == -1 ) {
+			taskId = PrisonTaskSubmitter.runTaskTimer( this, 1, 1 );
+		}
+	}
+
+	/**
+	 * <p>Removes the mine's scheduled action, if it has one, including if it
+	 * is due and is waiting to be admitted.
+	 * </p>
+	 *
+	 * @param mine
+	 */
+	public synchronized void cancel( Mine mine ) {
+
+		ScheduledMineAction action = scheduled.remove( mine );
+
+		if ( action != null ) {
+			// The action is skipped when it reaches the head of the queue,
+			// which is cheaper than searching the queue for it:
+			action.canceled = true;
+		}
+	}
+
+	@Override
+	public void run() {
+
+		for ( Mine mine : pollDue( System.currentTimeMillis() ) ) {
+
+			try {
+				mine.run();
+			}
+			catch ( Exception e ) {
+				Output.get().logError( "MineResetCoordinator: failure running the " +
+						"next action for mine " + mine.getName() + ": " + e.getMessage(), e );
+			}
+		}
+	}
+
+	/**
+	 * <p>Removes, and returns, the mines whose actions should be ran now.  The
+	 * actions that are due and do not need admission are always returned.
+	 * The resets that need admission are only returned if there is room for
+	 * another reset, and if enough time has passed since the last admitted
+	 * reset.
+	 * </p>
+	 *
+	 * @param nowMillis
+	 * @return
+	 */
+	protected synchronized List<Mine> pollDue( long nowMillis ) {
+		List<Mine> results = new ArrayList<>();
+
+		while ( !queue.isEmpty() && queue.peek().dueMillis <= nowMillis ) {
+			ScheduledMineAction action = queue.poll();
+
+			if ( action.canceled ) {
+				continue;
+			}
+
+			if ( action.admissionRequired ) {
+				admissionQueue.addLast( action );
+			}
+			else {
+				scheduled.remove( action.mine );
+				results.add( action.mine );
+				statsActions++;
+			}
+		}
+
+		int admitted = 0;
+
+		while ( !admissionQueue.isEmpty() ) {
+			ScheduledMineAction action = admissionQueue.peekFirst();
+
+			if ( action.canceled ) {
+				admissionQueue.pollFirst();
+				continue;
+			}
+
+			if ( activeResets.size() + admitted >= getConfigMaxConcurrentResets() ||
+					statsResetsAdmitted > 0 &&
+					nowMillis - lastAdmissionMillis < getConfigStaggerMs() ) {
+				break;
+			}
+
+			admissionQueue.pollFirst();
+			scheduled.remove( action.mine );
+			results.add( action.mine );
+			admitted++;
+
+			long lagMs = Math.max( 0, nowMillis - action.dueMillis );
+
+			statsActions++;
+			statsResetsAdmitted++;
+			statsResetLagTotalMs += lagMs;
+			statsResetLagMaxMs = Math.max( statsResetLagMaxMs, lagMs );
+			statsResetLagLastMs = lagMs;
+
+			lastAdmissionMillis = nowMillis;
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Records that the mine has started to reset.  This is called by every
+	 * reset, including the resets that were not admitted by this coordinator,
+	 * so they are all counted against the limit.
+	 * </p>
+	 *
+	 * @param mine
+	 */
+	public void resetStarted( Mine mine ) {
+		activeResets.add( mine );
+	}
+
+	public void resetFinished( Mine mine ) {
+		activeResets.remove( mine );
+	}
+
+	/**
+	 * <p>The number of mines with a scheduled action, including the resets
+	 * that are due and are waiting to be admitted.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public synchronized int getQueueDepth() {
+		return scheduled.size();
+	}
+
+	public synchronized int getAdmissionQueueDepth() {
+		int count = 0;
+		for ( ScheduledMineAction action : admissionQueue ) {
+			if ( !action.canceled ) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public int getActiveResets() {
+		return activeResets.size();
+	}
+
+	public long getStatsActions() {
+		return statsActions;
+	}
+
+	public long getStatsResetsAdmitted() {
+		return statsResetsAdmitted;
+	}
+
+	public double getStatsResetLagAverageMs() {
+		return statsResetsAdmitted == 0 ? 0d :
+					statsResetLagTotalMs / (double) statsResetsAdmitted;
+	}
+
+	public long getStatsResetLagMaxMs() {
+		return statsResetLagMaxMs;
+	}
+
+	public long getStatsResetLagLastMs() {
+		return statsResetLagLastMs;
+	}
+
+	public int getConfigMaxConcurrentResets() {
+		if ( configMaxConcurrentResets == -1 ) {
+			int maxResets = Long.valueOf( Prison.get().getPlatform()
+					.getConfigLong( "prison-mines.reset-coordinator.max-concurrent-resets",
+							DEFAULT_MAX_CONCURRENT_RESETS )).intValue();
+
+			this.configMaxConcurrentResets = maxResets < 1 ? 1 : maxResets;
+		}
+		return configMaxConcurrentResets;
+	}
+	protected void setConfigMaxConcurrentResets( int configMaxConcurrentResets ) {
+		this.configMaxConcurrentResets = configMaxConcurrentResets;
+	}
+
+	public long getConfigStaggerMs() {
+		if ( configStaggerMs == -1 ) {
+			this.configStaggerMs = Math.max( 0, Prison.get().getPlatform()
+					.getConfigLong( "prison-mines.reset-coordinator.stagger-ms",
+							DEFAULT_STAGGER_MS ));
+		}
+		return configStaggerMs;
+	}
+	protected void setConfigStaggerMs( long configStaggerMs ) {
+		this.configStaggerMs = configStaggerMs;
+	}
+}
@@ -0,0 +1,230 @@
+package tech.mcprison.prison.mines.tasks;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonRunnable;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>This drives the block placement for all of the mines that are resetting,
+ * from one shared queue, on one synchronous task that runs every tick.  Each
+ * tick has a budget of time that can be used to place blocks, and the resets
+ * take turns placing slices of blocks until the budget has been used.  This
+ * way, if several mines reset at the same time, the combined reset will not
+ * take more of the tick than a single mine would.
+ * </p>
+ *
+ * <p>Each reset measures how many nanoseconds it takes to place a block, and
+ * uses that to size its next slice so it fits within its share of the
+ * remaining budget.  If the server's TPS drops below the backoff threshold,
+ * then the budget is reduced so the resets yield more of the tick back to
+ * the server.
+ * </p>
+ *
+ * <p>The timer task is only running while there are resets within the queue.
+ * </p>
+ *
+ */
+public class MineResetTickScheduler
+	implements PrisonRunnable
+{
+	public static final double DEFAULT_TICK_BUDGET_MS = 10.0d;
+	public static final double DEFAULT_TPS_BACKOFF_THRESHOLD = 18.5d;
+	public static final double DEFAULT_TPS_BACKOFF_MINIMUM = 12.0d;
+
+	/**
+	 * <p>The smallest budget, as a fraction of the full budget, that will be
+	 * used when the TPS is low, so the resets will always finish.
+	 * </p>
+	 */
+	public static final double MINIMUM_BACKOFF_FACTOR = 0.1d;
+
+	private static MineResetTickScheduler instance;
+
+	private final ConcurrentLinkedDeque<MinePagedResetAsyncTask> queue;
+
+	private int taskId = -1;
+
+	private double configTickBudgetMs = -1;
+	private double configTpsBackoffThreshold = -1;
+	private double configTpsBackoffMinimum = -1;
+
+	private long statsTicks = 0;
+	private long statsSlices = 0;
+	private long statsBackoffTicks = 0;
+
+	private MineResetTickScheduler() {
+		super();
+
+		this.queue = new ConcurrentLinkedDeque<>();
+	}
+
+	public static MineResetTickScheduler getInstance() {
+		if ( instance == null ) {
+			synchronized ( MineResetTickScheduler.class ) {
+				if ( instance == null ) {
+					instance = new MineResetTickScheduler();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * <p>Adds the reset to the queue, and starts the timer task if it is not
+	 * already running.  The reset must have already generated its block list.
+	 * </p>
+	 *
+	 * @param resetTask
+	 */
+	public synchronized void submit( MinePagedResetAsyncTask resetTask ) {
+
+		queue.addLast( resetTask );
+
+		if ( taskId == -1 ) {
+			taskId = PrisonTaskSubmitter.runTaskTimer( this, 0, 1 );
+		}
+	}
+
+	@Override
+	public void run() {
+
+		long tickStart = System.nanoTime();
+
+		double backoffFactor = getTpsBackoffFactor();
+		long budgetNanos = (long) (getConfigTickBudgetMs() * backoffFactor * 1000000d);
+
+		statsTicks++;
+		if ( backoffFactor < 1.0d ) {
+			statsBackoffTicks++;
+		}
+
+		int slices = 0;
+
+		MinePagedResetAsyncTask resetTask;
+		while ( (resetTask = queue.pollFirst()) != null ) {
+
+			long remainingNanos = budgetNanos - (System.nanoTime() - tickStart);
+
+			// Always place at least one slice per tick so the resets will finish:
+			if ( remainingNanos <= 0 && slices > 0 ) {
+
+				// This reset did not get its turn, so it goes first on the next tick:
+				queue.addFirst( resetTask );
+				break;
+			}
+
+			// Each reset gets an equal share of what is left of the budget:
+			long sliceNanos = Math.max( 0, remainingNanos ) / (queue.size() + 1);
+
+			try {
+				resetTask.placeSlice( sliceNanos );
+			}
+			catch ( Exception e ) {
+				Output.get().logError( "MineResetTickScheduler: failure placing blocks. " +
+						"Reset is being terminated: " + e.getMessage(), e );
+
+				resetTask.cancelPlacement();
+			}
+
+			slices++;
+
+			if ( resetTask.isPlacementComplete() ) {
+				resetTask.placementComplete();
+			}
+			else {
+				queue.addLast( resetTask );
+			}
+		}
+
+		statsSlices += slices;
+
+		stopIfIdle();
+	}
+
+	private synchronized void stopIfIdle() {
+		if ( queue.isEmpty() && taskId != -1 ) {
+
+			PrisonTaskSubmitter.cancelTask( taskId );
+			taskId = -1;
+		}
+	}
+
+	private double getTpsBackoffFactor() {
+		double tps = Prison.get().getPrisonTPS() == null ? 0d :
+							Prison.get().getPrisonTPS().getAverageTPS();
+
+		return getTpsBackoffFactor( tps, getConfigTpsBackoffThreshold(), getConfigTpsBackoffMinimum() );
+	}
+
+	/**
+	 * <p>Returns 1.0 if the TPS is at, or above, the threshold.  Below the
+	 * threshold, the factor drops linearly until the TPS reaches the minimum,
+	 * and it will never be less than the MINIMUM_BACKOFF_FACTOR.  A TPS of
+	 * zero means there are no readings yet, so there is no backoff.
+	 * </p>
+	 *
+	 * @param tps
+	 * @param threshold
+	 * @param minimum
+	 * @return
+	 */
+	public static double getTpsBackoffFactor( double tps, double threshold, double minimum ) {
+		double factor = 1.0d;
+
+		if ( tps > 0 && tps < threshold ) {
+
+			factor = threshold <= minimum ? MINIMUM_BACKOFF_FACTOR :
+						(tps - minimum) / (threshold - minimum);
+
+			factor = Math.max( MINIMUM_BACKOFF_FACTOR, Math.min( 1.0d, factor ) );
+		}
+
+		return factor;
+	}
+
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	public long getStatsTicks() {
+		return statsTicks;
+	}
+
+	public long getStatsSlices() {
+		return statsSlices;
+	}
+
+	public long getStatsBackoffTicks() {
+		return statsBackoffTicks;
+	}
+
+	public double getConfigTickBudgetMs() {
+		if ( configTickBudgetMs == -1 ) {
+			this.configTickBudgetMs = Prison.get().getPlatform()
+					.getConfigDouble( "prison-mines.reset-async-paging.tick-budget-ms",
+							DEFAULT_TICK_BUDGET_MS );
+		}
+		return configTickBudgetMs;
+	}
+
+	public double getConfigTpsBackoffThreshold() {
+		if ( configTpsBackoffThreshold == -1 ) {
+			this.configTpsBackoffThreshold = Prison.get().getPlatform()
+					.getConfigDouble( "prison-mines.reset-async-paging.tps-backoff-threshold",
+							DEFAULT_TPS_BACKOFF_THRESHOLD );
+		}
+		return configTpsBackoffThreshold;
+	}
+
+	public double getConfigTpsBackoffMinimum() {
+		if ( configTpsBackoffMinimum == -1 ) {
+			this.configTpsBackoffMinimum = Prison.get().getPlatform()
+					.getConfigDouble( "prison-mines.reset-async-paging.tps-backoff-minimum",
+							DEFAULT_TPS_BACKOFF_MINIMUM );
+		}
+		return configTpsBackoffMinimum;
+	}
+}
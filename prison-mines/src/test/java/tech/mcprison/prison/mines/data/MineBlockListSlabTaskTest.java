@@ -0,0 +1,120 @@
+package tech.mcprison.prison.mines.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+
+public class MineBlockListSlabTaskTest
+{
+	private static final int X_MIN = 0;
+	private static final int X_MAX = 9;
+	private static final int Y_MIN = 50;
+	private static final int Y_MAX = 69;
+	private static final int Z_MIN = -5;
+	private static final int Z_MAX = 4;
+	
+	private Mine getTestMine() {
+		Mine mine = new Mine();
+		mine.setName( "test" );
+		
+		mine.addPrisonBlock( new PrisonBlock( PrisonBlockType.minecraft, "stone", 50d, 0 ) );
+		mine.addPrisonBlock( new PrisonBlock( PrisonBlockType.minecraft, "coal_ore", 30d, 0 ) );
+		
+		return mine;
+	}
+	
+	private MineTargetBlockStore generate( Mine mine, long seed, int layersPerSlab, boolean reverse ) {
+		MineTargetBlockStore store = 
+				new MineTargetBlockStore( null, X_MIN, X_MAX, Y_MIN, Y_MAX, Z_MIN, Z_MAX );
+		
+		int levelCount = Y_MAX - Y_MIN + 1;
+		
+		List<MineLevelBlockListData> levels = new ArrayList<>();
+		for ( int i = 0; i < levelCount; i++ ) {
+			levels.add( new MineLevelBlockListData( i + 1, mine, null, null, 
+									i * store.getLayerSize() ) );
+		}
+		
+		SplittableRandom random = new SplittableRandom( seed );
+		
+		List<MineBlockListSlabTask> slabs = new ArrayList<>();
+		for ( int i = 0; i < levelCount; i += layersPerSlab ) {
+			slabs.add( new MineBlockListSlabTask( store, levels, 
+					i, Math.min( levelCount, i + layersPerSlab ), 
+					X_MIN, X_MAX, Y_MIN, Y_MAX, Z_MIN, Z_MAX, random.split() ) );
+		}
+		
+		if ( reverse ) {
+			// Run the slabs in the opposite order on one thread:
+			for ( int i = slabs.size() - 1; i >= 0; i-- ) {
+				slabs.get( i ).invoke();
+			}
+		}
+		else {
+			ForkJoinTask.invokeAll( slabs );
+		}
+		
+		store.setSize( levelCount * store.getLayerSize() );
+		
+		int total = 0;
+		for ( MineBlockListSlabTask slab : slabs ) {
+			for ( int[] count : slab.getBlockCounts().values() ) {
+				total += count[0];
+			}
+		}
+		assertEquals( store.getVolume(), total );
+		
+		return store;
+	}
+
+	@Test
+	public void seededGenerationIsReproducible() {
+		Mine mine = getTestMine();
+		
+		MineTargetBlockStore parallel = generate( mine, 1234L, 2, false );
+		MineTargetBlockStore serial = generate( mine, 1234L, 2, true );
+		
+		assertEquals( parallel.getVolume(), parallel.size() );
+		
+		for ( int offset = 0; offset < parallel.getVolume(); offset++ ) {
+			assertEquals( parallel.getPrisonBlock( offset ).getBlockName(), 
+						serial.getPrisonBlock( offset ).getBlockName() );
+			assertEquals( parallel.isState( offset, MineTargetBlockStore.STATE_EDGE ), 
+					serial.isState( offset, MineTargetBlockStore.STATE_EDGE ) );
+		}
+	}
+	
+	@Test
+	public void topLevelBlockOnlyOnFirstLayer() {
+		Mine mine = getTestMine();
+		PrisonBlock glass = new PrisonBlock( PrisonBlockType.minecraft, "glass", 0d, 0 );
+		
+		MineTargetBlockStore store = 
+				new MineTargetBlockStore( null, X_MIN, X_MAX, Y_MIN, Y_MAX, Z_MIN, Z_MAX );
+		
+		List<MineLevelBlockListData> levels = new ArrayList<>();
+		levels.add( new MineLevelBlockListData( 1, mine, null, glass, 0 ) );
+		levels.add( new MineLevelBlockListData( 2, mine, null, glass, store.getLayerSize() ) );
+		
+		new MineBlockListSlabTask( store, levels, 0, 2, 
+				X_MIN, X_MAX, Y_MIN, Y_MAX, Z_MIN, Z_MAX, new SplittableRandom( 1 ) ).invoke();
+		
+		for ( int offset = 0; offset < store.getLayerSize(); offset++ ) {
+			assertSame( glass, store.getPrisonBlock( offset ) );
+		}
+		for ( int offset = store.getLayerSize(); offset < 2 * store.getLayerSize(); offset++ ) {
+			assertNotSame( glass, store.getPrisonBlock( offset ) );
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package tech.mcprison.prison.mines.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+public class MineSweeperDirtySectionsTest
+{
+
+	@Test
+	public void sectionKeyRoundTrip() {
+		int[][] coords = {
+				{ 0, 0, 0 },
+				{ -1, -4, -1 },
+				{ 1875000, 19, -1875000 },
+				{ -33554432, 2047, 33554431 },
+		};
+
+		for ( int[] c : coords ) {
+			long key = MineSweeperDirtySections.getSectionKey( c[0], c[1], c[2] );
+
+			assertEquals( c[0], MineSweeperDirtySections.getChunkX( key ) );
+			assertEquals( c[1], MineSweeperDirtySections.getSectionY( key ) );
+			assertEquals( c[2], MineSweeperDirtySections.getChunkZ( key ) );
+		}
+	}
+
+	@Test
+	public void neighborsOnEdges() {
+		MineSweeperDirtySections dirty = new MineSweeperDirtySections();
+
+		// Within the middle of a section, only that section:
+		dirty.markDirtyWithNeighbors( 8, 72, 8 );
+		assertEquals( 1, dirty.size() );
+
+		// On the x min edge, and the y max edge, of section (-1, 4, 0):
+		dirty.markDirtyWithNeighbors( -16, 79, 5 );
+
+		Set<Long> sections = dirty.drain();
+		assertEquals( 4, sections.size() );
+		assertTrue( sections.contains( MineSweeperDirtySections.getSectionKey( 0, 4, 0 ) ) );
+		assertTrue( sections.contains( MineSweeperDirtySections.getSectionKey( -1, 4, 0 ) ) );
+		assertTrue( sections.contains( MineSweeperDirtySections.getSectionKey( -2, 4, 0 ) ) );
+		assertTrue( sections.contains( MineSweeperDirtySections.getSectionKey( -1, 5, 0 ) ) );
+	}
+
+	@Test
+	public void drainClears() {
+		MineSweeperDirtySections dirty = new MineSweeperDirtySections();
+
+		dirty.markDirty( 1, 2, 3 );
+		dirty.markDirty( 4, 5, 6 );
+		dirty.markAllDirty();
+
+		assertEquals( 1, dirty.size() );
+		assertTrue( dirty.isAllDirty() );
+
+		assertEquals( 1, dirty.drain().size() );
+		assertEquals( 0, dirty.size() );
+		assertFalse( dirty.isAllDirty() );
+		assertTrue( dirty.drain().isEmpty() );
+	}
+}
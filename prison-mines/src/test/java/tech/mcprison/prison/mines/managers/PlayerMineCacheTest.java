@@ -0,0 +1,71 @@
+package tech.mcprison.prison.mines.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.mines.data.Mine;
+
+public class PlayerMineCacheTest
+{
+
+	@Test
+	public void hitsMissesAndFullUUIDKeys() {
+		PlayerMineCache cache = new PlayerMineCache();
+		
+		Mine a = new Mine();
+		a.setName( "A" );
+		Mine b = new Mine();
+		b.setName( "B" );
+		
+		// Two players with the same least significant bits must not share a mine:
+		UUID p1 = new UUID( 1L, 42L );
+		UUID p2 = new UUID( 2L, 42L );
+		
+		assertNull( cache.get( p1, m -> true ) );
+		
+		cache.put( p1, a );
+		cache.put( p2, b );
+		
+		assertSame( a, cache.get( p1, m -> true ) );
+		assertSame( b, cache.get( p2, m -> true ) );
+		
+		// The cached mine is not where the player is:
+		assertNull( cache.get( p1, m -> false ) );
+		
+		assertEquals( 2, cache.getHits() );
+		assertEquals( 2, cache.getMisses() );
+		
+		// Deleting a mine removes it from all players:
+		cache.removeMine( a );
+		assertNull( cache.get( p1, m -> true ) );
+		assertSame( b, cache.get( p2, m -> true ) );
+		
+		cache.put( p2, null );
+		assertEquals( 0, cache.size() );
+	}
+	
+	@Test
+	public void sizeIsBounded() {
+		PlayerMineCache cache = new PlayerMineCache( 10 );
+		
+		Mine a = new Mine();
+		a.setName( "A" );
+		
+		UUID last = null;
+		for ( int i = 0; i < 25; i++ ) {
+			last = UUID.randomUUID();
+			cache.put( last, a );
+		}
+		
+		assertEquals( 10, cache.size() );
+		assertEquals( 15, cache.getEvictions() );
+		
+		// The most recent entry is never the one evicted:
+		assertSame( a, cache.get( last, m -> true ) );
+	}
+}
@@ -0,0 +1,105 @@
+package tech.mcprison.prison.mines.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.mines.data.Mine;
+
+public class MineResetCoordinatorTest
+{
+
+	private Mine mine( String name ) {
+		Mine mine = new Mine();
+		mine.setName( name );
+		return mine;
+	}
+
+	private MineResetCoordinator coordinator( int maxResets, long staggerMs ) {
+		MineResetCoordinator coordinator = new MineResetCoordinator();
+		coordinator.setConfigMaxConcurrentResets( maxResets );
+		coordinator.setConfigStaggerMs( staggerMs );
+		return coordinator;
+	}
+
+	@Test
+	public void actionsAreOrderedByDueTime() {
+		MineResetCoordinator coordinator = coordinator( 10, 0 );
+
+		Mine a = mine( "A" );
+		Mine b = mine( "B" );
+		Mine c = mine( "C" );
+
+		coordinator.schedule( a, 300, false, false );
+		coordinator.schedule( b, 100, false, false );
+		coordinator.schedule( c, 200, false, false );
+
+		assertEquals( 3, coordinator.getQueueDepth() );
+		assertTrue( coordinator.pollDue( 50 ).isEmpty() );
+
+		assertEquals( Arrays.asList( b, c ), coordinator.pollDue( 250 ) );
+		assertEquals( Arrays.asList( a ), coordinator.pollDue( 1000 ) );
+
+		assertEquals( 0, coordinator.getQueueDepth() );
+	}
+
+	@Test
+	public void rescheduleAndCancelReplaceTheMinesAction() {
+		MineResetCoordinator coordinator = coordinator( 10, 0 );
+
+		Mine a = mine( "A" );
+		Mine b = mine( "B" );
+
+		coordinator.schedule( a, 100, false, false );
+		coordinator.schedule( a, 500, false, false );
+		coordinator.schedule( b, 100, true, false );
+		coordinator.cancel( b );
+
+		assertEquals( 1, coordinator.getQueueDepth() );
+		assertTrue( coordinator.pollDue( 200 ).isEmpty() );
+		assertEquals( Arrays.asList( a ), coordinator.pollDue( 500 ) );
+	}
+
+	@Test
+	public void resetsAreLimitedAndStaggered() {
+		MineResetCoordinator coordinator = coordinator( 2, 100 );
+
+		Mine a = mine( "A" );
+		Mine b = mine( "B" );
+		Mine c = mine( "C" );
+		Mine msg = mine( "Messages" );
+
+		// All of the timers line up:
+		coordinator.schedule( a, 1000, true, false );
+		coordinator.schedule( b, 1000, true, false );
+		coordinator.schedule( c, 1000, true, false );
+		coordinator.schedule( msg, 1000, false, false );
+
+		// Only one reset starts at a time, but the message is not held back:
+		List<Mine> due = coordinator.pollDue( 1000 );
+		assertEquals( Arrays.asList( msg, a ), due );
+		coordinator.resetStarted( a );
+
+		assertEquals( 2, coordinator.getAdmissionQueueDepth() );
+		assertTrue( coordinator.pollDue( 1050 ).isEmpty() );
+
+		assertEquals( Arrays.asList( b ), coordinator.pollDue( 1100 ) );
+		coordinator.resetStarted( b );
+
+		// At the limit, so c must wait for a reset to finish:
+		assertTrue( coordinator.pollDue( 1500 ).isEmpty() );
+
+		coordinator.resetFinished( a );
+		assertEquals( Arrays.asList( c ), coordinator.pollDue( 1600 ) );
+
+		assertEquals( 3, coordinator.getStatsResetsAdmitted() );
+		assertEquals( 600, coordinator.getStatsResetLagMaxMs() );
+		assertEquals( 600, coordinator.getStatsResetLagLastMs() );
+		assertEquals( (0 + 100 + 600) / 3d, coordinator.getStatsResetLagAverageMs(), 0.001d );
+		assertEquals( 0, coordinator.getQueueDepth() );
+	}
+}
@@ -0,0 +1,27 @@
+package tech.mcprison.prison.mines.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class MineResetTickSchedulerTest
+{
+
+	@Test
+	public void tpsBackoffFactor() {
+		
+		// No readings yet, and healthy TPS, have no backoff:
+		assertEquals( 1.0d, MineResetTickScheduler.getTpsBackoffFactor( 0d, 18.5d, 12.0d ), 0.0001d );
+		assertEquals( 1.0d, MineResetTickScheduler.getTpsBackoffFactor( 20d, 18.5d, 12.0d ), 0.0001d );
+		assertEquals( 1.0d, MineResetTickScheduler.getTpsBackoffFactor( 18.5d, 18.5d, 12.0d ), 0.0001d );
+		
+		// Linear between the minimum and the threshold:
+		assertEquals( 0.5d, MineResetTickScheduler.getTpsBackoffFactor( 15.25d, 18.5d, 12.0d ), 0.0001d );
+		
+		// Never less than the minimum backoff factor:
+		assertEquals( MineResetTickScheduler.MINIMUM_BACKOFF_FACTOR, 
+				MineResetTickScheduler.getTpsBackoffFactor( 12.1d, 18.5d, 12.0d ), 0.0001d );
+		assertEquals( MineResetTickScheduler.MINIMUM_BACKOFF_FACTOR, 
+				MineResetTickScheduler.getTpsBackoffFactor( 5d, 18.5d, 12.0d ), 0.0001d );
+	}
+}
@@ -302,6 +302,12 @@ public class PrisonRanks
 				
 				for ( Player player : Prison.get().getPlatform().getOfflinePlayers() ) {
 					
+					// When lazy loading, do not load the players that already exist. They 
+					// will be checked when they are loaded:
+					if ( playerManager.isLazyLoading() && playerManager.hasPlayer( player.getUUID() ) ) {
+						continue;
+					}
+					
 					// getPlayer() will add a player who does not exist:
 					RankPlayer rPlayer = playerManager.getPlayer( player );
 					if ( rPlayer != null ) {
@@ -544,7 +550,7 @@ public class PrisonRanks
     
     public int getPlayersCount() {
     	int playersCount = getPlayerManager() == null || getPlayerManager().getPlayers() == null ? 0 : 
-    		getPlayerManager().getPlayers().size();
+    		getPlayerManager().getPlayerCount();
     	return playersCount;
     }
     
@@ -525,6 +525,15 @@ public class RankUtil
 				}
         	}
         	
+        	// The balance includes the ledger's pending changes, such as sellall
+        	// payments, so they must be in the economy before it is charged directly:
+        	if ( !rankPlayer.applyPendingBalance( targetRank.getCurrency() ) ) {
+        		
+        		results.addTransaction( RankupStatus.RANKUP_FAILURE_ECONOMY_FAILED, 
+        				RankupTransactions.economy_failed_to_update_player_balance );
+        		return;
+        	}
+        	
         	results.addTransaction( RankupTransactions.player_balance_initial );
         	double balanceInitial = rankPlayer.getBalance( targetRank.getCurrency() );
         	double balanceTargetFinal = balanceInitial;
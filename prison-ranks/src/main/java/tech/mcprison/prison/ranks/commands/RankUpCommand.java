@@ -885,25 +885,29 @@ public class RankUpCommand
     	if ( "*all*".equalsIgnoreCase( playerName )) {
     		PlayerManager pm = PrisonRanks.getInstance().getPlayerManager();
     		
-    		for ( RankPlayer player : pm.getPlayers() ) {
-    			
-    			Player targetPlayer = getPlayer( null, player.getName() );
-    			if ( targetPlayer != null ) {
+    		// Include the players that are not loaded, one batch at a time:
+    		pm.forEachPlayerBatch( players -> {
+    				
+    			for ( RankPlayer player : players ) {
     				
-    				boolean isSameRank = rank.equalsIgnoreCase("*same*");
+    				Player targetPlayer = getPlayer( null, player.getName() );
+    				if ( targetPlayer != null ) {
+    				
+    					boolean isSameRank = rank.equalsIgnoreCase("*same*");
 
-    				RankPlayerFactory rankPlayerFactory = new RankPlayerFactory();
+    					RankPlayerFactory rankPlayerFactory = new RankPlayerFactory();
     				
-    				PlayerRank pRank = rankPlayerFactory.getRank( player, ladder );
-    				String rankNameCurrent = isSameRank && 
-    						pRank != null && 
-    						pRank.getRank() != null ? 
-    								pRank.getRank().getName() : "";
+    					PlayerRank pRank = rankPlayerFactory.getRank( player, ladder );
+    					String rankNameCurrent = isSameRank && 
+    							pRank != null && 
+    							pRank.getRank() != null ? 
+    									pRank.getRank().getName() : "";
     				
-    				String targetRank = isSameRank ? rankNameCurrent : rank;
-    				setPlayerRank( targetPlayer, targetRank, ladder, sender );
+    					String targetRank = isSameRank ? rankNameCurrent : rank;
+    					setPlayerRank( targetPlayer, targetRank, ladder, sender );
+    				}
     			}
-    		}
+    		});
     		
     	}
     	else {
@@ -2245,7 +2245,7 @@ public class RanksCommands
     		
     		if ( sender.isOp() ) {
     			TopNPlayers.getInstance().saveToJson();
-    			TopNPlayers.getInstance().loadSaveFile();
+    			TopNPlayers.getInstance().timeLoadSaveFile();
     			ranksTopNPlayerDebugSaved( sender );
     		}
     	}
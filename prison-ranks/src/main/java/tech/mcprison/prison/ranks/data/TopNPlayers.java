@@ -1,28 +1,53 @@
 package tech.mcprison.prison.ranks.data;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.TreeMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.cache.PlayerCacheLogStore;
+import tech.mcprison.prison.cache.TopNLeaderboard;
+import tech.mcprison.prison.cache.TopNStatsSingleton;
 import tech.mcprison.prison.file.FileIOData;
 import tech.mcprison.prison.file.JsonFileIO;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.ranks.PrisonRanks;
+import tech.mcprison.prison.ranks.managers.PlayerManager;
 import tech.mcprison.prison.ranks.tasks.TopNPlayerUpdateAsyncTask;
 
 /**
  * <p>This is singleton that manages the topNPlayers.
  * </p>
  * 
- * <p>NOTE: This no longer saves and loads the json file.  
- * Timing was an issue and not really sure if it was even 
- * worth trying to bypass a full reload.
+ * <p>The players are held in two leaderboards, one for the active players
+ * and one for the archived players.  Each leaderboard is kept sorted as 
+ * each player is updated, so a refresh never has to sort all of the players,
+ * and the player at a position, or the position of a player, is found 
+ * without searching through the list.  The players that have changed since
+ * the last save are tracked, and only those players are appended to the 
+ * topN log file, instead of rewriting the whole json file on each refresh.
+ * At startup the players are loaded from the topN log, and all of the 
+ * players are only reloaded from the PlayerManager if the log is empty.
+ * </p>
+ * 
+ * <p>A player's values are only changed through the leaderboard's update(),
+ * so they are never out of their sorted position while another thread uses
+ * the leaderboard.  The update lock is held while a player is found, 
+ * changed, and moved between the two leaderboards, so two threads cannot 
+ * update the same player at the same time.
  * </p>
  * 
  * @author Blue
@@ -35,6 +60,10 @@ public class TopNPlayers
 	
 	public static final transient String PATH__TOP_N_PLAYERS = "data_storage";
 	public static final transient String FILE_NAME__TOP_N_PLAYERS_JSON = "prisonTopN.json";
+	public static final transient String FILE_NAME__TOP_N_PLAYERS_LOG = "prisonTopN.dat";
+	
+	public static final transient double COMPACTION_RATIO = 2.0d;
+	public static final transient long COMPACTION_MIN_BYTES = 256 * 1024;
 	
 	public static final transient long DELAY_THIRTY_SECONDS_TICKS = 20 * 30;
 	public static final transient long INTERVAL_FIVE_MINUTES_TICKS = 20 * 60 * 5;
@@ -47,11 +76,24 @@ public class TopNPlayers
 	
 	public transient File saveFile = null;
 	
+	private transient PlayerCacheLogStore logStore = null;
+	
+	/**
+	 * <p>The lists are only used as a snapshot of the leaderboards when they 
+	 * are saved to the json file.
+	 * </p>
+	 */
 	private ArrayList<TopNPlayersData> topNList;
-	private transient TreeMap<String, TopNPlayersData> topNMap;
+	private transient TopNLeaderboard<TopNPlayersData> topNBoard;
 	
 	private ArrayList<TopNPlayersData> archivedList;
-	private transient TreeMap<String, TopNPlayersData> archivedMap;
+	private transient TopNLeaderboard<TopNPlayersData> archivedBoard;
+	
+	/**
+	 * <p>The keys of the players that have changed since they were last saved.
+	 * </p>
+	 */
+	private transient Set<String> changedKeys;
 	
 	private transient boolean calculatedRankScores = false;
 	
@@ -59,6 +101,8 @@ public class TopNPlayers
 	
 	private transient TopNPlayerUpdateAsyncTask updaterTask;
 	
+	private final transient Object updateLock = new Object();
+	
 	private long statsBuildDataNanoSec = 0L;
 	private long statsRefreshDataNanoSec = 0L;
 	private long statsSaveDataNanoSec = 0L;
@@ -67,11 +111,15 @@ public class TopNPlayers
 	private TopNPlayers() {
 		super();
 		
+		TopNPlayersData comparator = new TopNPlayersData();
+		
 		this.topNList = new ArrayList<>();
-		this.topNMap = new TreeMap<>();
+		this.topNBoard = new TopNLeaderboard<>( comparator );
 		
 		this.archivedList = new ArrayList<>();
-		this.archivedMap = new TreeMap<>();
+		this.archivedBoard = new TopNLeaderboard<>( comparator );
+		
+		this.changedKeys = new LinkedHashSet<>();
 		
 		this.dirty = false;
 		
@@ -90,8 +138,6 @@ public class TopNPlayers
 				if ( instance == null ) {
 					instance = new TopNPlayers();
 					
-//					instance.loadSaveFile();
-					
 					instance.launchTopNPlayerUpdateAsyncTask();
 				}
 			}
@@ -122,6 +168,37 @@ public class TopNPlayers
 		return saveFile;
 	}
 	
+	/**
+	 * <p>The topN log file that the changed players are appended to.  It is 
+	 * opened the first time that it is used.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public synchronized PlayerCacheLogStore getLogStore() {
+		if ( logStore == null ) {
+			
+			File directory = new File( Prison.get().getDataFolder(), PATH__TOP_N_PLAYERS );
+			
+			logStore = new PlayerCacheLogStore( new File( directory, FILE_NAME__TOP_N_PLAYERS_LOG ) );
+			
+			try {
+				logStore.open();
+				
+				if ( logStore.getInvalidFile() != null ) {
+					Output.get().logWarn( "TopNPlayer: The topN log was not valid, " +
+							"so it was renamed and a new log was started: " + 
+							logStore.getInvalidFile().getAbsolutePath() );
+				}
+			}
+			catch ( IOException e ) {
+				Output.get().logError( "TopNPlayer: Unable to open the topN log: " + 
+						e.getMessage(), e );
+			}
+		}
+		return logStore;
+	}
+	
 	/**
 	 * <p>Starts the async task to process the topN players on a regular basis.
 	 * This task can only be submitted if the Ranks module is enabled, which will
@@ -158,20 +235,14 @@ public class TopNPlayers
 	}
 	
 	/**
-	 * <p>NOTE: The saved file is no longer being loaded. It only is used for 
-	 * debugging stats testing to identify how long it would take if it was actually
-	 * being used.  But the loaded data is not saved and it is not being used.
-	 * </p>
-	 *
-	 * <p>Upon server startup, in an asynch thread, this function should be called
-	 * to load the saved data from the file system.  If there is no saved data,
-	 * then this function will access the PlayerManager and build an initial 
-	 * collection from the existing players.
+	 * <p>Upon server startup, in an asynch thread, this function is called to 
+	 * load the players from the topN log.  If the log has no players, then it
+	 * returns false, and the players must be built from the PlayerManager with
+	 * forceReloadAllPlayers().
 	 * </p>
 	 * 
-	 * <p>If any changes were made to any collections, or preexisting topN entries,
-	 * then this class will be marked as <b>dirty</b> so this loader would know that
-	 * it needs to update the save file.  It will then save it changes.
+	 * <p>The loaded players do not have their RankPlayer objects, so their 
+	 * rank scores are recalculated with the first refresh.
 	 * </p>
 	 * 
 	 * <p>Since topN players is tied to the Ranks module, if the Ranks module is not
@@ -179,8 +250,10 @@ public class TopNPlayers
 	 * Prison actively processing, and managing, a player and their Prison Rank.
 	 * </p>
 	 * 
+	 * @return True if any players were loaded.
 	 */
-	public void loadSaveFile() {
+	public boolean loadSaveFile() {
+		boolean results = false;
 		
 		// If Ranks module is not loaded, then do not try to load any save file:
 		if (  PrisonRanks.getInstance() == null || 
@@ -188,62 +261,104 @@ public class TopNPlayers
 				PrisonRanks.getInstance().getPlayerManager() == null ) {
 			
 			// Ranks is not loaded, so reset to empties:
-			setTopNList( new ArrayList<>() );
-			setTopNMap( new TreeMap<>() );
-			setArchivedList( new ArrayList<>() );
-			setArchivedMap( new TreeMap<>() );
+			synchronized ( updateLock ) {
+				setTopNList( new ArrayList<>() );
+				setArchivedList( new ArrayList<>() );
+				getTopNBoard().clear();
+				getArchivedBoard().clear();
+			}
 			
-			return;
+			return results;
 		}
 		
 		long start = System.nanoTime();
 		
-		JsonFileIO jfio = new JsonFileIO();
+		List<TopNPlayersData> players = readSaveFile();
 		
-		TopNPlayers temp = (TopNPlayers) jfio.readJsonFile( getSaveFile(), this );
-		temp.sortTopN();
-		
-		// The following is disabled because this is just a performance test.
-		
-		
-//		if ( temp != null && 
-//				(temp.getTopNList().size() > 0 || 
-//				 temp.getArchivedList().size() > 0 )) {
-//			
-//			// Load from file was successful!
-//			setTopNList( temp.getTopNList() );
-//			setTopNMap( temp.getTopNMap() );
-//			setArchivedList( temp.getArchivedList() );
-//			setArchivedMap( temp.getArchivedMap() );
-//
-//			// Since loading from a file, some players may now need to be archived:
-//			checkArchives();
-//		}
-//		else  {
-//			// load from file was not successful, probably because there is no file.
-//			// So create a new collection of players from the PlayerManager:
-//			List<RankPlayer> players = PrisonRanks.getInstance().getPlayerManager().getPlayers();
-//			
-//			for (RankPlayer rankPlayer : players) {
-//				
-//				addPlayerData( rankPlayer );
-//			}
-//			
-//			// Do not need to check archives since the last seen date is processed 
-//			// when adding the player data.
-//		}
-//		
-//		// Sort:
-//		sortTopN();
+		if ( players.size() > 0 ) {
+			
+			synchronized ( updateLock ) {
+				
+				getTopNBoard().clear();
+				getArchivedBoard().clear();
+				
+				for ( TopNPlayersData topN : players ) {
+					
+					if ( topN.getPlayerState() == PlayerState.archived ) {
+						getArchivedBoard().put( topN.getKey(), topN );
+					}
+					else {
+						// No one is online until the first refresh:
+						topN.setPlayerState( PlayerState.offline );
+						getTopNBoard().put( topN.getKey(), topN );
+					}
+				}
+				
+				calculatedRankScores = false;
+				
+				// Since loading from a file, some players may now need to be archived:
+				checkArchives();
+			}
+			
+			results = true;
+		}
 		
 		long end = System.nanoTime();
 		
 		setStatsLoadDataNanoSec( end - start );
 		
-		// NOTE: save is disabled since this is just for debugging purposes.
-//		if ( isDirty() ) {
-//			saveToJson();
-//		}
+		return results;
+	}
+	
+	/**
+	 * <p>Reads the latest record for each player from the topN log.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	private List<TopNPlayersData> readSaveFile() {
+		List<TopNPlayersData> results = new ArrayList<>();
+		
+		Gson gson = new JsonFileIO().getGson();
+		
+		PlayerCacheLogStore store = getLogStore();
+		
+		for ( String key : store.keys() ) {
+			try {
+				byte[] payload = store.read( key );
+				
+				if ( payload != null ) {
+					TopNPlayersData topN = gson.fromJson( 
+							new String( payload, StandardCharsets.UTF_8 ), TopNPlayersData.class );
+					
+					if ( topN != null ) {
+						results.add( topN );
+					}
+				}
+			}
+			catch ( IOException | JsonParseException e ) {
+				Output.get().logError( "TopNPlayer: Unable to read " + key + 
+						" from the topN log: " + e.getMessage(), e );
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Times how long it takes to read the topN log, without changing the
+	 * leaderboards.  This is used by the debugSave command.
+	 * </p>
+	 */
+	public void timeLoadSaveFile() {
+		
+		long start = System.nanoTime();
+		
+		readSaveFile();
+		
+		long end = System.nanoTime();
+		
+		setStatsLoadDataNanoSec( end - start );
 	}
 	
 	/**
@@ -264,26 +379,37 @@ public class TopNPlayers
 			
 			long start = System.nanoTime();
 
-			getTopNList().clear();
-			getTopNMap().clear();
-			
-			getArchivedList().clear();
-			getArchivedMap().clear();
+			synchronized ( updateLock ) {
+				
+				getTopNList().clear();
+				getTopNBoard().clear();
+				
+				getArchivedList().clear();
+				getArchivedBoard().clear();
+			}
 			
 			
 			// load from file was not successful, probably because there is no file.
-			// So create a new collection of players from the PlayerManager:
-			List<RankPlayer> players = PrisonRanks.getInstance().getPlayerManager().getPlayers();
+			// So create a new collection of players from the PlayerManager.  The
+			// players are processed in batches, so if they are not all loaded, then
+			// only one batch is read at a time:
+			PlayerManager pm = PrisonRanks.getInstance().getPlayerManager();
 			
-			for (RankPlayer rankPlayer : players) {
+			pm.forEachPlayerBatch( players -> {
 				
-				addPlayerData( rankPlayer );
-			}
+				for (RankPlayer rankPlayer : players) {
+					
+					addPlayerData( rankPlayer );
+					
+					// Do not hold on to the players that are not loaded:
+					if ( !pm.isLoaded( rankPlayer ) ) {
+						updateExistingPlayer( rankPlayer.getPlayerFileName(), 
+								topN -> topN.setrPlayer( null ) );
+					}
+				}
+			});
 			
 			this.dirty = true;
-			
-			// Sort:
-			sortTopN();
 
 			long end = System.nanoTime();
 			
@@ -295,44 +421,111 @@ public class TopNPlayers
 		
 	}
 	
+	/**
+	 * <p>Saves a full snapshot of both leaderboards to the json file.  This is
+	 * only used for debugging, since the refresh only appends the players that 
+	 * have changed to the topN log.
+	 * </p>
+	 */
 	public void saveToJson() {
 		JsonFileIO jfio = new JsonFileIO();
 
 		long start = System.nanoTime();
 		
+		setTopNList( new ArrayList<>( getTopNBoard().toList() ) );
+		setArchivedList( new ArrayList<>( getArchivedBoard().toList() ) );
+		
 		jfio.saveJsonFile( getSaveFile(), this );
 
 		long end = System.nanoTime();
 		
 		setStatsSaveDataNanoSec( end - start );
 	}
-
-	@SuppressWarnings("unused")
-	private void checkArchives() {
+	
+	/**
+	 * <p>Appends only the players that have changed since the last save to the 
+	 * topN log, with one write for all of them.  When the log has grown too 
+	 * large with old records, it is compacted.
+	 * </p>
+	 */
+	public void saveChanges() {
 		
-		ArrayList<TopNPlayersData> temp = new ArrayList<>();
+		long start = System.nanoTime();
 		
-		long archiveDate = System.currentTimeMillis() - archiveCutoffDaysMS;
+		Map<String, byte[]> records = new LinkedHashMap<>();
+		Gson gson = new JsonFileIO().getGson();
 		
-		// Locate the entries that need to be archived:
-		for ( TopNPlayersData topN : topNList ) {
-			if ( topN.getLastSeen() < archiveDate ) {
-				temp.add(topN);
+		synchronized ( changedKeys ) {
+			
+			for ( String key : changedKeys ) {
+				
+				TopNPlayersData topN = getTopNBoard().get( key );
+				if ( topN == null ) {
+					topN = getArchivedBoard().get( key );
+				}
+				
+				if ( topN != null ) {
+					records.put( key, gson.toJson( topN ).getBytes( StandardCharsets.UTF_8 ) );
+				}
 			}
+			
+			changedKeys.clear();
 		}
 		
-		// Now move them to the archived state:
-		for (TopNPlayersData topN : temp) {
+		if ( records.size() > 0 ) {
 			
-			// remove from list and map:
-			getTopNList().remove(topN);
-			getTopNMap().remove( topN.getKey() );
+			try {
+				PlayerCacheLogStore store = getLogStore();
+				
+				store.append( records );
+				
+				if ( store.isCompactionNeeded( COMPACTION_RATIO, COMPACTION_MIN_BYTES ) ) {
+					store.compact();
+				}
+			}
+			catch ( IOException e ) {
+				Output.get().logError( "TopNPlayer: Unable to save " + records.size() + 
+						" players to the topN log: " + e.getMessage(), e );
+				
+				// Try again with the next save:
+				synchronized ( changedKeys ) {
+					changedKeys.addAll( records.keySet() );
+				}
+			}
+		}
+
+		long end = System.nanoTime();
+		
+		setStatsSaveDataNanoSec( end - start );
+	}
+
+	private void checkArchives() {
+		
+		ArrayList<TopNPlayersData> temp = new ArrayList<>();
+		
+		long archiveDate = System.currentTimeMillis() - archiveCutoffDaysMS;
+		
+		synchronized ( updateLock ) {
 			
-			// Change the status:
-			topN.setPlayerState( PlayerState.archived );
+			// Locate the entries that need to be archived:
+			for ( TopNPlayersData topN : getTopNBoard().toList() ) {
+				if ( topN.getLastSeen() < archiveDate ) {
+					temp.add(topN);
+				}
+			}
 			
-			getArchivedList().add(topN);
-			getArchivedMap().put( topN.getKey(), topN );
+			// Now move them to the archived state.  The player state is not part
+			// of the sort order, so it can be changed while they are off of both
+			// leaderboards:
+			for (TopNPlayersData topN : temp) {
+				
+				getTopNBoard().remove( topN.getKey() );
+				
+				topN.setPlayerState( PlayerState.archived );
+				
+				getArchivedBoard().put( topN.getKey(), topN );
+				markChanged( topN );
+			}
 		}
 		
 		if ( temp.size() > 0 ) {
@@ -344,56 +537,84 @@ public class TopNPlayers
 	
 
 	/**
-	 * <p>This adds the topN player data. This player may already be in the 
-	 * collection, so if they are, then this is treated more like an update.
+	 * <p>Changes the player's topN data, and places them on the leaderboard 
+	 * where they now belong.  If the player is not in topN yet, then they are 
+	 * added.  The player may be moving from one leaderboard to the other, 
+	 * since their last seen date may have changed.
 	 * </p>
 	 * 
-	 * @param topN
+	 * @param rPlayer
+	 * @param mutator Changes the player's topN data.
+	 * @param activePlayerState The state to use if the player is not archived.
 	 */
-	private void addPlayerData( TopNPlayersData topN, PlayerState activePlayerState ) {
+	private void updatePlayer( RankPlayer rPlayer, Consumer<TopNPlayersData> mutator, 
+			PlayerState activePlayerState ) {
+		
+		String key = rPlayer.getPlayerFileName();
 		
 		long archiveDate = System.currentTimeMillis() - archiveCutoffDaysMS;
 		
-		// First remove the player from all collections since it will be added back.
-		// Since the last seen date may have changed, it may be added to a different
-		// collection, hence why it needs to be first removed.
-		if ( getTopNMap().containsKey( topN.getKey() ) ) {
+		synchronized ( updateLock ) {
 			
-			TopNPlayersData temp = getTopNMap().remove( topN.getKey() );
-			getTopNList().remove( temp );
-
-			setDirty( true );
-		}
-		
-		// Remove the player from both the archive map and list:
-		if ( getArchivedMap().containsKey( topN.getKey() ) ) {
+			TopNPlayersData topN = updateExistingPlayer( key, mutator );
 			
-			TopNPlayersData temp = getArchivedMap().remove( topN.getKey() );
-			getArchivedList().remove( temp );
-
-			setDirty( true );
+			if ( topN == null ) {
+				topN = new TopNPlayersData( rPlayer );
+				mutator.accept( topN );
+			}
+			
+			// The player state is not part of the sort order, so it can be 
+			// changed without updating the leaderboard:
+			
+			// If they were last seen past the archive date, then archive them:
+			if ( topN.getLastSeen() < archiveDate ) {
+				topN.setPlayerState( PlayerState.archived );
+				
+				getTopNBoard().remove( key );
+				getArchivedBoard().put( key, topN );
+			}
+			else {
+				
+				topN.setPlayerState( activePlayerState );
+				
+				getArchivedBoard().remove( key );
+				getTopNBoard().put( key, topN );
+			}
+			
+			markChanged( topN );
 		}
+	}
+	
+	/**
+	 * <p>Changes the player's topN data within whichever leaderboard they are
+	 * on, and moves them to where they now belong on it.
+	 * </p>
+	 * 
+	 * @param key
+	 * @param mutator
+	 * @return The player's topN data, or null if they are not in topN.
+	 */
+	private TopNPlayersData updateExistingPlayer( String key, Consumer<TopNPlayersData> mutator ) {
 		
-		
-		// If they were last seen past the archive date, then archive them:
-		if ( topN.getLastSeen() < archiveDate ) {
-			topN.setPlayerState( PlayerState.archived );
+		synchronized ( updateLock ) {
 			
-			getArchivedList().add(topN);
-			getArchivedMap().put( topN.getKey(), topN );
-
-			setDirty( true );
-		}
-		else {
+			TopNPlayersData topN = getTopNBoard().update( key, mutator );
 			
-			topN.setPlayerState( activePlayerState );
+			if ( topN == null ) {
+				topN = getArchivedBoard().update( key, mutator );
+			}
 			
-			getTopNList().add(topN);
-			getTopNMap().put( topN.getKey(), topN );
-
-			setDirty( true );
+			return topN;
 		}
-
+	}
+	
+	private void markChanged( TopNPlayersData topN ) {
+		
+		synchronized ( changedKeys ) {
+			changedKeys.add( topN.getKey() );
+		}
+		
+		setDirty( true );
 	}
 	
 	public void refreshAndSort() {
@@ -408,8 +629,8 @@ public class TopNPlayers
 		
 		if ( !calculatedRankScores ) {
 			
-			calculateAllRankScores( getTopNList() );
-			calculateAllRankScores( getArchivedList() );
+			calculateAllRankScores( getTopNBoard() );
+			calculateAllRankScores( getArchivedBoard() );
 			
 			calculatedRankScores = true;
 		}
@@ -419,11 +640,13 @@ public class TopNPlayers
 		
 		
 		
-		// Set all topNList entries to offline:
-		for ( TopNPlayersData topN : topNList ) {
+		// Set all topN entries to offline:
+		for ( TopNPlayersData topN : getTopNBoard().toList() ) {
 			if ( topN.getPlayerState() == PlayerState.online ) {
 				
-				topN.setPlayerState( PlayerState.offline );
+				updateExistingPlayer( topN.getKey(), 
+						t -> t.setPlayerState( PlayerState.offline ) );
+				markChanged( topN );
 			}
 		}
 		
@@ -434,125 +657,86 @@ public class TopNPlayers
 			
 			// Recalculate rankScore:
 			rPlayer.calculateRankScore();
-
-			TopNPlayersData topN = null;
 			
-			String key = player.getPlayerFileName();
-			if ( getTopNMap().containsKey(key) ) {
-				topN = getTopNMap().get(key);
+			long lastSeen = System.currentTimeMillis();
+			
+			updatePlayer( rPlayer, topN -> {
 				
 				// Set the RankPlayer object if it has not been set already:
 				if ( topN.getrPlayer() == null ) {
 					topN.setrPlayer( rPlayer );
 				}
-
-				topN.updateRankPlayer( rPlayer );
-			}
-			if ( getArchivedMap().containsKey(key) ) {
-				// The player was archived.  Remove them from the archive and add them back
-				// to the topN:
-				topN = getArchivedMap().get(key);
 				
-				// Set the RankPlayer object if it has not been set already:
-				if ( topN.getrPlayer() == null ) {
-					topN.setrPlayer( rPlayer );
-				}
-
 				topN.updateRankPlayer( rPlayer );
 				
-			}
-			else {
-				// Player is online, but yet they are not in the topN:
-				topN = new TopNPlayersData( rPlayer );
-			}
-			
-			// Set last seen date:
-			topN.setLastSeen( System.currentTimeMillis() );
-			
-			addPlayerData( topN, PlayerState.online );
-			
-			// Add player will always set the PlayerState to offline, so need to set it to
-			// online after addPlayerData() is called;
-//			topN.setPlayerState( PlayerState.online );
-			
+				// Set last seen date:
+				topN.setLastSeen( lastSeen );
+				
+			}, PlayerState.online );
 			
-			setDirty( true );
-
-			long end = System.nanoTime();
-
-			setStatsRefreshDataNanoSec( end - start );
+			updateStatsRanks( rPlayer );
 		}
-		
-		ArrayList<TopNPlayersData> newTopNList = new ArrayList<>();
-		newTopNList.addAll( getTopNMap().values() );
-		
-		ArrayList<TopNPlayersData> newArchivedList = new ArrayList<>();
-		newArchivedList.addAll( getArchivedMap().values() );
-				
-		
-		TopNPlayersData comparator = new TopNPlayersData();
 
-		Collections.sort( newTopNList, comparator );
-		Collections.sort( newArchivedList, comparator );
-		
-		setTopNList(newTopNList);
-		setArchivedList(newArchivedList);
-		
-//		// sort:
-//		sortTopN();
+		long end = System.nanoTime();
+
+		setStatsRefreshDataNanoSec( end - start );
 		
 		// If there has been any changes since the last save, then 
-		// save it:
+		// save only the players that have changed:
 		if ( isDirty() ) {
 			setDirty( false );
-			saveToJson();
+			saveChanges();
 		}
 	}
 	
-	private void calculateAllRankScores( ArrayList<TopNPlayersData> topNList ) {
+	/**
+	 * <p>Each player is updated in their leaderboard through update(), so they 
+	 * are moved to their new position as their values are changed.  The 
+	 * RankPlayers are found before the update lock is held, since they may
+	 * have to be loaded.
+	 * </p>
+	 * 
+	 * @param board
+	 */
+	private void calculateAllRankScores( TopNLeaderboard<TopNPlayersData> board ) {
 
 		if ( PrisonRanks.getInstance() != null && 
 				PrisonRanks.getInstance().isEnabled() &&
 				PrisonRanks.getInstance().getPlayerManager() != null ) {
 			
-			for ( TopNPlayersData topN : topNList ) {
+			for ( TopNPlayersData topN : board.toList() ) {
 				
 				RankPlayer rPlayer = topN.getrPlayer();
 				
 				if ( rPlayer == null ) {
 					UUID nullUuid = null;
 					rPlayer = PrisonRanks.getInstance().getPlayerManager().getPlayer( nullUuid, topN.getName() );
-					topN.setrPlayer(rPlayer);
 				}
 				
 				if ( rPlayer != null ) {
 					rPlayer.calculateRankScore();
 					
+					RankPlayer rankPlayer = rPlayer;
+					
 					// This will not update lastSeen:
-					topN.updateRankPlayer( rPlayer );
+					TopNPlayersData updated = updateExistingPlayer( topN.getKey(), t -> {
+						t.setrPlayer( rankPlayer );
+						t.updateRankPlayer( rankPlayer );
+					});
+					
+					if ( updated != null ) {
+						markChanged( updated );
+					}
 				}
 				
 			}
 		}
 	}
 
-	/**
-	 * <p>This sorts both the topNList and the archivedList.
-	 * </p>
-	 */
-	private void sortTopN() {
-
-		TopNPlayersData comparator = new TopNPlayersData();
-
-		Collections.sort( getTopNList(), comparator );
-		Collections.sort( getArchivedList(), comparator );
-	}
-	
-	
 	/**
 	 * <p>This function will add the RankPlayer data to the topN collections.
-	 * This does NOT sort any of the results, so this is to be used to add a lot
-	 * of entries, such as on server startup, or with updating with OnlinePlayers.
+	 * If the player is already in topN, then their values are updated from the 
+	 * RankPlayer and they are moved to their new position.
 	 * </p>
 	 * 
 	 * <p>See updatePlayerData() if being used with a single player, such as with rankup.
@@ -565,44 +749,47 @@ public class TopNPlayers
 		// Recalculate the rankScore for the player:
 		rPlayer.calculateRankScore();
 		
-		TopNPlayersData topN = getTopNPlayer( rPlayer );
-		
 		// Since this is used when the players are being loaded, assume all are offline for now.
 		// The recurring task of processing online players will set them to online.
-		addPlayerData( topN, PlayerState.offline );
+		updatePlayer( rPlayer, topN -> {
+			
+			if ( topN.getrPlayer() == null ) {
+				topN.setrPlayer( rPlayer );
+			}
+			
+			// This will not update lastSeen:
+			topN.updateRankPlayer( rPlayer );
+			
+		}, PlayerState.offline );
 		
+		updateStatsRanks( rPlayer );
 	}
 	
-	private TopNPlayersData getTopNPlayer(RankPlayer rPlayer) {
-		
-		TopNPlayersData topN = null;
+	/**
+	 * <p>Gives the player's ranks to the TopN ranks leaderboard.
+	 * </p>
+	 * 
+	 * @param rPlayer
+	 */
+	private void updateStatsRanks( RankPlayer rPlayer ) {
 		
-		String key = rPlayer.getPlayerFileName();
+		PlayerRank prestiges = rPlayer.getPlayerRankPrestiges();
+		PlayerRank defaultRank = rPlayer.getPlayerRankDefault();
 		
-		if ( getTopNMap().containsKey( key ) ) {
-			
-			topN = getTopNMap().get( key );
-		}
-		else if ( getArchivedMap().containsKey( key ) ) {
-			
-			topN = getArchivedMap().get( key );
-		}
-		else {
-			
-			topN = new TopNPlayersData( rPlayer );
-		}
-		
-		return topN;
+		TopNStatsSingleton.getInstance().updateRanks( 
+				rPlayer.getUUID().toString(), rPlayer.getName(),
+				prestiges == null || prestiges.getRank() == null ? null : prestiges.getRank().getName(),
+				defaultRank == null || defaultRank.getRank() == null ? null : defaultRank.getRank().getName() );
 	}
 
 	/**
 	 * <p>This function will update, or add, a player's information within topN.  and when
 	 * The first thing this function does, is to calculate the rankScore for the RankPlayer.
-	 * It will then add the player to the topN.  When finished it will provide a 
-	 * simple sort of the topN results.  This will allow the player
+	 * It will then add the player to the topN, which moves only this player to 
+	 * their new position.  This will allow the player
 	 * who just ranked up to reflect their changes in topN without having to 
-	 * wait until the whole topN set is refreshed.  The sorting used here will not update
-	 * any of the other player's balances or status, so this has a low-cost sorting.
+	 * wait until the whole topN set is refreshed.  This will not update
+	 * any of the other player's balances or status.
 	 * </p>
 	 * 
 	 * <p>If the Ranks module is not loaded, then this function will be ignored.
@@ -617,8 +804,6 @@ public class TopNPlayers
 				 PrisonRanks.getInstance().getPlayerManager() != null ) {
 			
 			addPlayerData( rPlayer);
-			
-			sortTopN();
 		}
 	}
 	
@@ -655,10 +840,22 @@ public class TopNPlayers
     }
 	
 	public int getTopNSize() {
-		return getTopNList().size();
+		return getTopNBoard().size();
 	}
 	public int getArchivedSize() {
-		return getArchivedList().size();
+		return getArchivedBoard().size();
+	}
+	
+	/**
+	 * <p>Returns the position of the player within topN, starting with zero, or 
+	 * -1 if the player is not in topN, such as if they have been archived.
+	 * </p>
+	 * 
+	 * @param rPlayer
+	 * @return
+	 */
+	public int getTopNPosition( RankPlayer rPlayer ) {
+		return getTopNBoard().positionOf( rPlayer.getPlayerFileName() );
 	}
 	
 	public RankPlayer getTopNRankPlayer( int rankPosition ) {
@@ -690,14 +887,14 @@ public class TopNPlayers
 				PrisonRanks.getInstance().isEnabled() &&
 				PrisonRanks.getInstance().getPlayerManager() != null ) {
     		
-    		ArrayList<TopNPlayersData> tList = 
+    		TopNLeaderboard<TopNPlayersData> board = 
     				archived ? 
-    						getArchivedList() :
-    							getTopNList();
+    						getArchivedBoard() :
+    							getTopNBoard();
     		
-    		if ( rankPosition >= 0 && tList.size() > rankPosition ) {
-    			
-    			TopNPlayersData topN = tList.get( rankPosition );
+    		TopNPlayersData topN = board.get( rankPosition );
+    		
+    		if ( topN != null ) {
     			
     			rPlayer = topN.getrPlayer();
     			
@@ -735,11 +932,8 @@ public class TopNPlayers
 		this.topNList = topNList;
 	}
 
-	public TreeMap<String, TopNPlayersData> getTopNMap() {
-		return topNMap;
-	}
-	public void setTopNMap(TreeMap<String, TopNPlayersData> topNMap) {
-		this.topNMap = topNMap;
+	public TopNLeaderboard<TopNPlayersData> getTopNBoard() {
+		return topNBoard;
 	}
 
 	public ArrayList<TopNPlayersData> getArchivedList() {
@@ -749,11 +943,8 @@ public class TopNPlayers
 		this.archivedList = archivedList;
 	}
 
-	public TreeMap<String, TopNPlayersData> getArchivedMap() {
-		return archivedMap;
-	}
-	public void setArchivedMap(TreeMap<String, TopNPlayersData> archivedMap) {
-		this.archivedMap = archivedMap;
+	public TopNLeaderboard<TopNPlayersData> getArchivedBoard() {
+		return archivedBoard;
 	}
 
 	public boolean isDirty() {
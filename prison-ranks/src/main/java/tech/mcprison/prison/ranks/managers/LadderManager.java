@@ -234,17 +234,26 @@ public class LadderManager
     public boolean removeLadder(RankLadder ladder) {
 
         // Remove the players from the ladder
-        List<RankPlayer> playersWithLadder =
-            PrisonRanks.getInstance().getPlayerManager().getPlayers()
-            	.stream()
-                .filter(rankPlayer -> rankPlayer.hasLadder(ladder.getName()))
-                .collect(Collectors.toList());
-        
         RankPlayerFactory rankPlayerFactory = new RankPlayerFactory();
         
-        for (RankPlayer player : playersWithLadder) {
-            rankPlayerFactory.removeLadder( player, ladder.getName() );
-        }
+        PlayerManager pm = PrisonRanks.getInstance().getPlayerManager();
+        
+        pm.forEachPlayerBatch( players -> {
+        	
+        	List<RankPlayer> playersWithLadder = players
+        			.stream()
+        			.filter(rankPlayer -> rankPlayer.hasLadder(ladder.getName()))
+        			.collect(Collectors.toList());
+        	
+        	for (RankPlayer player : playersWithLadder) {
+        		rankPlayerFactory.removeLadder( player, ladder.getName() );
+        		
+        		// The players that are not loaded will not be saved later:
+        		if ( !pm.isLoaded( player ) ) {
+        			pm.savePlayer( player );
+        		}
+        	}
+        });
 
         // Remove it from the list...
         loadedLadders.remove(ladder);
@@ -17,15 +17,19 @@
 
 package tech.mcprison.prison.ranks.managers;
 
+import java.io.File;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import com.google.common.eventbus.Subscribe;
 
@@ -34,6 +38,7 @@ import tech.mcprison.prison.cache.PlayerCache;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.PlayerUtil;
 import tech.mcprison.prison.internal.events.player.PlayerJoinEvent;
+import tech.mcprison.prison.internal.events.player.PlayerQuitEvent;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.placeholders.ManagerPlaceholders;
 import tech.mcprison.prison.placeholders.PlaceHolderKey;
@@ -52,12 +57,23 @@ import tech.mcprison.prison.ranks.data.Rank;
 import tech.mcprison.prison.ranks.data.RankLadder;
 import tech.mcprison.prison.ranks.data.RankPlayer;
 import tech.mcprison.prison.ranks.data.RankPlayerFactory;
+import tech.mcprison.prison.ranks.data.TopNPlayers;
 import tech.mcprison.prison.store.Collection;
 import tech.mcprison.prison.store.Document;
 import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 
 /**
  * Manages all the players in the records.
+ * 
+ * <p>By default all of the players are loaded at startup.  If the setting 
+ * ranks.player-loading.lazy is enabled, then only the index of the players is
+ * loaded at startup, and each player is loaded when they join or when they are
+ * looked up.  The offline players that have not been used recently are then 
+ * unloaded by a timer once there are more than 
+ * ranks.player-loading.max-offline-players of them.  When lazy loading, the functions that need to process every 
+ * player must use forEachPlayerBatch(), since getPlayers() only contains the
+ * players that are loaded.
+ * </p>
  *
  * @author Faizaan A. Datoo
  */
@@ -66,10 +82,36 @@ public class PlayerManager
 	implements ManagerPlaceholders {
 
 
+    public static final String PLAYER_LOADING_LAZY_CONFIG_NAME = "ranks.player-loading.lazy";
+    public static final String PLAYER_LOADING_MAX_OFFLINE_CONFIG_NAME = "ranks.player-loading.max-offline-players";
+    public static final String PLAYER_LOADING_BATCH_SIZE_CONFIG_NAME = "ranks.player-loading.batch-size";
+    public static final String PLAYER_LOADING_EVICT_INTERVAL_CONFIG_NAME = "ranks.player-loading.evict-interval-seconds";
+    
+    public static final int PLAYER_LOADING_MAX_OFFLINE_VALUE = 1000;
+    public static final int PLAYER_LOADING_BATCH_SIZE_VALUE = 500;
+    public static final int PLAYER_LOADING_EVICT_INTERVAL_VALUE = 60;
+    
     private Collection collection;
     private List<RankPlayer> players;
     private TreeMap<String, RankPlayer> playersByName;
     
+    private Map<UUID, RankPlayer> playersByUuid;
+    
+    /**
+     * <p>When each loaded player was last used, so the offline players that 
+     * have not been used for the longest time are unloaded first.
+     * </p>
+     */
+    private Map<UUID, Long> playersLastAccessed;
+    
+    private RankPlayerIndex playerIndex;
+    
+    private boolean lazyLoading = false;
+    private int maxOfflinePlayers = PLAYER_LOADING_MAX_OFFLINE_VALUE;
+    private int batchSize = PLAYER_LOADING_BATCH_SIZE_VALUE;
+    
+    private int evictTaskId = 0;
+    
     
     private List<PlaceHolderKey> translatedPlaceHolderKeys;
     
@@ -83,6 +125,9 @@ public class PlayerManager
         this.players = new ArrayList<>();
         this.playersByName = new TreeMap<>();
         
+        this.playersByUuid = new ConcurrentHashMap<>();
+        this.playersLastAccessed = new ConcurrentHashMap<>();
+        
         this.playerErrors = new HashSet<>();
         
         
@@ -119,32 +164,66 @@ public class PlayerManager
 //    }
 
     /**
-     * Loads every player in the specified playerFolder.
+     * Loads every player in the specified playerFolder.  If lazy loading is 
+     * enabled, then only the player index is loaded, along with the players
+     * that are online.
      *
      * @throws IOException If one of the files could not be read, or if the playerFolder does not exist.
      */
     public void loadPlayers() throws IOException {
-        List<Document> playerDocss = collection.getAll();
-        
-        final RankPlayerFactory rankPlayerFactory = new RankPlayerFactory();
-        
-        for ( Document playerDocument : playerDocss )
-		{
-        	RankPlayer rankPlayer = rankPlayerFactory.createRankPlayer(playerDocument);
-            
-            players.add( rankPlayer );
-            
-            // add by uuid:
-            playersByName.put( rankPlayer.getUUID().toString(), rankPlayer );
-            
-            // add by name:
-            if ( rankPlayer.getNames().size() > 0 ) {
-            	playersByName.put( rankPlayer.getDisplayName(), rankPlayer );
-            	
-            }
-            
-		}
-        
+    	
+    	setLazyLoading( Prison.get().getPlatform().getConfigBooleanFalse( PLAYER_LOADING_LAZY_CONFIG_NAME ) );
+    	setMaxOfflinePlayers( Prison.get().getPlatform().getConfigInt( 
+    			PLAYER_LOADING_MAX_OFFLINE_CONFIG_NAME, PLAYER_LOADING_MAX_OFFLINE_VALUE ) );
+    	setBatchSize( Prison.get().getPlatform().getConfigInt( 
+    			PLAYER_LOADING_BATCH_SIZE_CONFIG_NAME, PLAYER_LOADING_BATCH_SIZE_VALUE ) );
+    	
+    	playerIndex = new RankPlayerIndex( 
+    			new File( PrisonRanks.getInstance().getModuleDataFolder(), RankPlayerIndex.INDEX_FILE_NAME ) );
+    	
+    	if ( !isLazyLoading() ) {
+    		
+    		List<Document> playerDocss = collection.getAll();
+    		
+    		final RankPlayerFactory rankPlayerFactory = new RankPlayerFactory();
+    		
+    		for ( Document playerDocument : playerDocss )
+    		{
+    			RankPlayer rankPlayer = rankPlayerFactory.createRankPlayer(playerDocument);
+    			
+    			registerPlayer( rankPlayer );
+    		}
+    	}
+    	else {
+    		
+    		long start = System.nanoTime();
+    		
+    		playerIndex.load();
+    		
+    		int documentsRead = playerIndex.synchronize( collection.getKeys(), 
+    						key -> collection.get( key ).orElse( null ) );
+    		
+    		// Only the players that are online need to be loaded now:
+    		for ( Player player : Prison.get().getPlatform().getOnlinePlayers() ) {
+    			
+    			RankPlayer rankPlayer = loadIndexedPlayer( playerIndex.get( player.getUUID() ) );
+    			if ( rankPlayer != null ) {
+    				registerPlayer( rankPlayer );
+    			}
+    		}
+    		
+    		long end = System.nanoTime();
+    		
+    		Output.get().logInfo( String.format( 
+    				"Ranks: Indexed %d players (%d files read) and loaded %d online players in %.3f ms.", 
+    				playerIndex.size(), documentsRead, players.size(), ((end - start) / 1000000.0d) ) );
+    	}
+    	
+    	savePlayerIndex();
+    	
+    	if ( isLazyLoading() ) {
+    		submitEvictTask();
+    	}
 
 //        players.forEach(
 //        		document -> 
@@ -153,8 +232,352 @@ public class PlayerManager
         
     }
     
+    /**
+     * <p>Adds the player to all of the collections of loaded players, and to the
+     * player index.  This does not connect the player to their ranks.
+     * </p>
+     * 
+     * @param rankPlayer
+     */
+    private void registerPlayer( RankPlayer rankPlayer ) {
+    	
+    	synchronized( getPlayersByName() ) {
+    		
+    		players.add( rankPlayer );
+    		
+    		// add by uuid:
+    		playersByName.put( rankPlayer.getUUID().toString(), rankPlayer );
+    		
+    		// add by name:
+    		if ( rankPlayer.getNames().size() > 0 ) {
+    			playersByName.put( rankPlayer.getDisplayName(), rankPlayer );
+    			
+    		}
+    		
+    		playersByUuid.put( rankPlayer.getUUID(), rankPlayer );
+    		playersLastAccessed.put( rankPlayer.getUUID(), System.currentTimeMillis() );
+    	}
+    	
+    	if ( playerIndex != null ) {
+    		playerIndex.put( rankPlayer.getUUID(), rankPlayer.getDisplayName(), rankPlayer.filename() );
+    	}
+    }
+    
+    /**
+     * <p>Reads the player's document, without adding the player to the loaded 
+     * players.
+     * </p>
+     * 
+     * @param entry
+     * @return The player, or null if their document could not be read.
+     */
+    private RankPlayer loadIndexedPlayer( RankPlayerIndexEntry entry ) {
+    	RankPlayer results = null;
+    	
+    	if ( entry != null ) {
+    		
+    		Document document = collection.get( entry.getKey() ).orElse( null );
+    		
+    		if ( document != null ) {
+    			results = new RankPlayerFactory().createRankPlayer( document );
+    		}
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Loads a player that is within the index but is not loaded yet, and 
+     * connects them to their ranks.  If another thread has already loaded the
+     * player, then that player is used.
+     * </p>
+     * 
+     * @param entry
+     * @return
+     */
+    private RankPlayer loadPlayer( RankPlayerIndexEntry entry ) {
+    	RankPlayer results = null;
+    	
+    	RankPlayer rankPlayer = loadIndexedPlayer( entry );
+    	
+    	if ( rankPlayer != null ) {
+    		
+    		synchronized( getPlayersByName() ) {
+    			
+    			results = playersByUuid.get( rankPlayer.getUUID() );
+    			
+    			if ( results == null ) {
+    				registerPlayer( rankPlayer );
+    				results = rankPlayer;
+    				
+    				for ( PlayerRank pRank : rankPlayer.getLadderRanks().values() ) {
+    					
+    					pRank.getRank().addPlayer( rankPlayer, false );
+    				}
+    			}
+    		}
+    		
+    		if ( results == rankPlayer ) {
+    			
+    			// Giving the player their default rank may run rank commands, so
+    			// it must be done on the primary thread:
+    			if ( PrisonTaskSubmitter.isPrimaryThread() ) {
+    				checkPlayerDefaultRank( rankPlayer );
+    			}
+    			else {
+    				PrisonTaskSubmitter.runTaskLater( () -> {
+    					checkPlayerDefaultRank( rankPlayer );
+    				}, 0 );
+    			}
+    		}
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Unloads the extra offline players on a timer, instead of checking all 
+     * of the loaded players each time a player is loaded or quits.  This runs 
+     * on the primary thread since it needs to check who is online.
+     * </p>
+     */
+    private void submitEvictTask() {
+    	
+    	if ( evictTaskId != 0 ) {
+    		PrisonTaskSubmitter.cancelTask( evictTaskId );
+    	}
+    	
+    	long intervalTicks = 20L * Math.max( 1, Prison.get().getPlatform().getConfigInt( 
+    			PLAYER_LOADING_EVICT_INTERVAL_CONFIG_NAME, PLAYER_LOADING_EVICT_INTERVAL_VALUE ) );
+    	
+    	evictTaskId = PrisonTaskSubmitter.runTaskTimer( () -> {
+    		if ( evictOfflinePlayers() > 0 ) {
+    			savePlayerIndex();
+    		}
+    	}, intervalTicks, intervalTicks );
+    }
+    
+    /**
+     * <p>Unloads the offline players that have not been used for the longest 
+     * time, once there are more than the maxOfflinePlayers loaded.  They are 
+     * saved if they have changed.  This only applies when lazy loading.
+     * </p>
+     * 
+     * @return The number of players that were unloaded.
+     */
+    public int evictOfflinePlayers() {
+    	int evicted = 0;
+    	
+    	if ( !isLazyLoading() ) {
+    		return evicted;
+    	}
+    	
+    	List<RankPlayer> offline = new ArrayList<>();
+    	
+    	for ( RankPlayer rankPlayer : playersByUuid.values() ) {
+    		
+    		if ( !Prison.get().getPlatform().getPlayer( rankPlayer.getUUID() ).isPresent() ) {
+    			offline.add( rankPlayer );
+    		}
+    	}
+    	
+    	if ( offline.size() > getMaxOfflinePlayers() ) {
+    		
+    		// Least recently used first:
+    		offline.sort( Comparator.comparingLong( 
+    				rankPlayer -> playersLastAccessed.getOrDefault( rankPlayer.getUUID(), 0L ) ) );
+    		
+    		int count = offline.size() - getMaxOfflinePlayers();
+    		
+    		for ( int i = 0; i < count; i++ ) {
+    			
+    			unloadPlayer( offline.get( i ) );
+    			evicted++;
+    		}
+    	}
+    	
+    	return evicted;
+    }
+    
+    private void unloadPlayer( RankPlayer rankPlayer ) {
+    	
+    	savePlayer( rankPlayer );
+    	
+    	synchronized( getPlayersByName() ) {
+    		
+    		players.remove( rankPlayer );
+    		
+    		playersByName.remove( rankPlayer.getUUID().toString(), rankPlayer );
+    		if ( rankPlayer.getDisplayName() != null ) {
+    			playersByName.remove( rankPlayer.getDisplayName(), rankPlayer );
+    		}
+    		
+    		playersByUuid.remove( rankPlayer.getUUID(), rankPlayer );
+    		playersLastAccessed.remove( rankPlayer.getUUID() );
+    	}
+    	
+    	for ( PlayerRank pRank : rankPlayer.getLadderRanks().values() ) {
+    		
+    		if ( pRank.getRank() != null ) {
+    			pRank.getRank().removePlayer( rankPlayer );
+    		}
+    	}
+    }
+    
+    /**
+     * <p>Processes every player in batches, including the players that are not
+     * loaded when lazy loading.  The players that are not loaded are read in 
+     * batches of the batchSize, and they are released once the consumer is done
+     * with their batch, so they are not kept in memory.  The players that are
+     * already loaded are provided as is.  If the consumer changes a player, 
+     * then it must save them.
+     * </p>
+     * 
+     * <p>If not lazy loading, then this is the same as processing getPlayers().
+     * </p>
+     * 
+     * @param consumer
+     * @return The number of players processed.
+     */
+    public int forEachPlayerBatch( Consumer<List<RankPlayer>> consumer ) {
+    	int count = 0;
+    	
+    	if ( !isLazyLoading() ) {
+    		
+    		List<RankPlayer> all;
+    		synchronized( getPlayersByName() ) {
+    			all = new ArrayList<>( players );
+    		}
+    		
+    		for ( int i = 0; i < all.size(); i += getBatchSize() ) {
+    			
+    			List<RankPlayer> batch = all.subList( i, Math.min( all.size(), i + getBatchSize() ) );
+    			consumer.accept( batch );
+    			count += batch.size();
+    		}
+    		
+    		return count;
+    	}
+    	
+    	List<RankPlayer> batch = new ArrayList<>();
+    	List<RankPlayer> unloaded = new ArrayList<>();
+    	
+    	for ( RankPlayerIndexEntry entry : playerIndex.getEntries() ) {
+    		
+    		RankPlayer rankPlayer = playersByUuid.get( entry.getUuid() );
+    		
+    		if ( rankPlayer == null ) {
+    			rankPlayer = loadIndexedPlayer( entry );
+    			
+    			if ( rankPlayer != null ) {
+    				unloaded.add( rankPlayer );
+    			}
+    		}
+    		
+    		if ( rankPlayer != null ) {
+    			batch.add( rankPlayer );
+    		}
+    		
+    		if ( batch.size() >= getBatchSize() ) {
+    			count += processBatch( consumer, batch, unloaded );
+    		}
+    	}
+    	
+    	if ( batch.size() > 0 ) {
+    		count += processBatch( consumer, batch, unloaded );
+    	}
+    	
+    	return count;
+    }
+    
+    private int processBatch( Consumer<List<RankPlayer>> consumer, 
+    				List<RankPlayer> batch, List<RankPlayer> unloaded ) {
+    	int count = batch.size();
+    	
+    	consumer.accept( batch );
+    	
+    	// The players that were not loaded may have been added to their ranks 
+    	// if the consumer changed their ranks, so remove them.  If that player 
+    	// was loaded in the meantime, then make sure the loaded player is still
+    	// in their ranks:
+    	for ( RankPlayer rankPlayer : unloaded ) {
+    		
+    		RankPlayer loaded = playersByUuid.get( rankPlayer.getUUID() );
+    		
+    		if ( loaded != rankPlayer ) {
+    			
+    			for ( PlayerRank pRank : rankPlayer.getLadderRanks().values() ) {
+    				if ( pRank.getRank() != null ) {
+    					pRank.getRank().removePlayer( rankPlayer );
+    				}
+    			}
+    			
+    			if ( loaded != null ) {
+    				for ( PlayerRank pRank : loaded.getLadderRanks().values() ) {
+    					if ( pRank.getRank() != null ) {
+    						pRank.getRank().addPlayer( loaded, false );
+    					}
+    				}
+    			}
+    		}
+    	}
+    	
+    	batch.clear();
+    	unloaded.clear();
+    	
+    	return count;
+    }
+    
+    /**
+     * <p>Returns true if the player is one of the loaded players, which is all of 
+     * the players unless lazy loading is enabled.
+     * </p>
+     * 
+     * @param rankPlayer
+     * @return
+     */
+    public boolean isLoaded( RankPlayer rankPlayer ) {
+    	return rankPlayer != null && playersByUuid.get( rankPlayer.getUUID() ) == rankPlayer;
+    }
+    
+    /**
+     * <p>Returns true if the player has a player file, even if they are not 
+     * loaded.
+     * </p>
+     * 
+     * @param uuid
+     * @return
+     */
+    public boolean hasPlayer( UUID uuid ) {
+    	return uuid != null && 
+    			(playersByUuid.containsKey( uuid ) || 
+    			 playerIndex != null && playerIndex.get( uuid ) != null);
+    }
+    
+    /**
+     * <p>The number of players that have player files.  When lazy loading, 
+     * most of them will not be loaded.
+     * </p>
+     * 
+     * @return
+     */
+    public int getPlayerCount() {
+    	return isLazyLoading() && playerIndex != null ? 
+    			playerIndex.size() : players.size();
+    }
+    
+    public void savePlayerIndex() {
+    	if ( playerIndex != null ) {
+    		try {
+    			playerIndex.save();
+    		}
+    		catch ( IOException e ) {
+    			Output.get().logError( "Ranks: Unable to save the player index: " + 
+    					playerIndex.getIndexFile().getAbsolutePath() + " " + e.getMessage(), e );
+    		}
+    	}
+    }
     
-
     /**
      * Saves a {@link RankPlayer} to disk.
      *
@@ -170,6 +593,10 @@ public class PlayerManager
     		collection.save(playerFile, RankPlayerFactory.toDocument( player ) );
     		
     		player.setDirty( false );
+    		
+    		if ( playerIndex != null ) {
+    			playerIndex.put( player.getUUID(), player.getDisplayName(), playerFile );
+    		}
     	}
 //    	RankPlayerFactory rankPlayerFactory = new RankPlayerFactory();
     	
@@ -197,7 +624,12 @@ public class PlayerManager
      * @see #savePlayer(RankPlayer, String)
      */
     public void savePlayers() throws IOException {
-        for (RankPlayer player : players) {
+    	List<RankPlayer> loaded;
+    	synchronized( getPlayersByName() ) {
+    		loaded = new ArrayList<>( players );
+    	}
+    	
+        for (RankPlayer player : loaded) {
         	
         	// Catch exceptions if a failed save so other players can be saved:
             try {
@@ -215,6 +647,8 @@ public class PlayerManager
 //				Output.get().logError(errorMessage, e);
 			}
         }
+        
+        savePlayerIndex();
     }
     
     /**
@@ -257,8 +691,17 @@ public class PlayerManager
      * Getters & Setters
      */
 
+    /**
+     * <p>Returns a copy of the loaded players, since players may be loaded by 
+     * another thread while the caller goes through them.
+     * </p>
+     * 
+     * @return
+     */
     public List<RankPlayer> getPlayers() {
-        return players;
+    	synchronized( getPlayersByName() ) {
+    		return new ArrayList<>( players );
+    	}
     }
 
     public TreeMap<String, RankPlayer> getPlayersByName() {
@@ -273,6 +716,31 @@ public class PlayerManager
 		return playerErrors;
 	}
 
+	public RankPlayerIndex getPlayerIndex() {
+		return playerIndex;
+	}
+
+	public boolean isLazyLoading() {
+		return lazyLoading;
+	}
+	public void setLazyLoading( boolean lazyLoading ) {
+		this.lazyLoading = lazyLoading;
+	}
+
+	public int getMaxOfflinePlayers() {
+		return maxOfflinePlayers;
+	}
+	public void setMaxOfflinePlayers( int maxOfflinePlayers ) {
+		this.maxOfflinePlayers = Math.max( 0, maxOfflinePlayers );
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+	public void setBatchSize( int batchSize ) {
+		this.batchSize = Math.max( 1, batchSize );
+	}
+
 	/** 
      * <p>Get the player, if they don't exist, add them.
      * </p>
@@ -293,24 +761,43 @@ public class PlayerManager
     	
     	if ( results == null ) {
     		
-    		for ( RankPlayer rankPlayer : players ) {
-    			if ( uid != null && rankPlayer.getUUID().equals(uid) || 
-    					
-    					!playerName.isEmpty() &&
-    					rankPlayer.getDisplayName() != null &&
-    					rankPlayer.getDisplayName().equalsIgnoreCase( playerName ) ) {
+    		// Look up by the uuid, then by the name ignoring case, using the index
+    		// so the players do not have to be searched.  If the player is not 
+    		// loaded yet, then load them:
+    		RankPlayer rankPlayer = uid == null ? null : playersByUuid.get( uid );
+    		
+    		if ( rankPlayer == null && playerIndex != null ) {
+    			
+    			RankPlayerIndexEntry entry = playerIndex.get( uid );
+    			
+    			if ( entry == null && !playerName.isEmpty() ) {
+    				entry = playerIndex.findByName( playerName );
+    			}
+    			
+    			if ( entry != null ) {
+    				rankPlayer = playersByUuid.get( entry.getUuid() );
     				
-    				// This checks to see if they have a new name, if so, then adds it to the history:
-    				// But the UID must match:
-    				if ( uid != null && rankPlayer.getUUID().equals(uid) ) {
-    					rankPlayer.setEnableDirty( true );
-    					rankPlayer.setDirty( rankPlayer.checkName( playerName ) );
+    				if ( rankPlayer == null ) {
+    					rankPlayer = loadPlayer( entry );
     				}
-    				
-    				results = rankPlayer;
-    				break;
     			}
     		}
+    		
+    		if ( rankPlayer != null ) {
+    			
+    			// This checks to see if they have a new name, if so, then adds it to the history:
+    			// But the UID must match:
+    			if ( uid != null && rankPlayer.getUUID().equals(uid) ) {
+    				rankPlayer.setEnableDirty( true );
+    				rankPlayer.setDirty( rankPlayer.checkName( playerName ) );
+    			}
+    			
+    			results = rankPlayer;
+    		}
+    	}
+    	
+    	if ( results != null ) {
+    		playersLastAccessed.put( results.getUUID(), System.currentTimeMillis() );
     	}
     	
 //    	Optional<RankPlayer> results = players.stream().filter(
@@ -397,7 +884,7 @@ public class PlayerManager
         			
         			rankPlayerFactory.firstJoin( newPlayer );
         			
-        			players.add(newPlayer);
+        			registerPlayer( newPlayer );
         			getPlayersByName().put( playerName, newPlayer );
         			
         			savePlayer(newPlayer);
@@ -435,6 +922,19 @@ public class PlayerManager
         getPlayer(player.getUUID(), player.getName());
         
     }
+    
+    @Subscribe 
+    public void onPlayerQuit(PlayerQuitEvent event) {
+    	
+    	// The player is now offline, so they may be unloaded by the evict task if 
+    	// there are too many offline players loaded.
+    	if ( isLazyLoading() ) {
+    		
+    		PrisonTaskSubmitter.runTaskLater( () -> {
+    			savePlayerIndex();
+    		}, 1 );
+    	}
+    }
 
     
 
@@ -1549,6 +2049,17 @@ public class PlayerManager
 						}
 						break;
 						
+					case prison_rank_top_n_position:
+					case prison_rtnp:
+						{
+							// The player's position within topN, starting with 1, or blank if 
+							// they are not in topN:
+							int position = TopNPlayers.getInstance().getTopNPosition( rankPlayer );
+							
+							results = position < 0 ? "" : Integer.toString( position + 1 );
+						}
+						break;
+						
 					case prison_rc:
 					case prison_rankup_cost:
 					case prison_rc_laddername:
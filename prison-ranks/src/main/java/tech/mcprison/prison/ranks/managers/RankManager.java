@@ -364,8 +364,10 @@ public class RankManager
         	
         	RankPlayerFactory rankPlayerFactory = new RankPlayerFactory();
         	
-            // Move each player in this ladder to the new rank
-            PrisonRanks.getInstance().getPlayerManager().getPlayers().forEach(rankPlayer -> {
+            // Move each player in this ladder to the new rank.  The players are 
+            // processed in batches so the players that are not loaded can be included:
+            PrisonRanks.getInstance().getPlayerManager().forEachPlayerBatch( players -> 
+            		players.forEach(rankPlayer -> {
             	PlayerRank pRank = rankPlayerFactory.getRank( rankPlayer, ladder );
             	if ( pRank != null && pRank.getRank() != null ) {
             		
@@ -397,7 +399,7 @@ public class RankManager
             			PrisonAPI.debug( localManagerLog.localize() );
             		}
             	}
-            });
+            }));
             
             
             // ... remove it from each ladder it was in...
@@ -0,0 +1,317 @@
+package tech.mcprison.prison.ranks.managers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>An index of all of the rank players that are stored within the players
+ * collection, by UUID and by name, so a player's document can be found 
+ * without reading all of the documents.  The index is saved to a file, one
+ * player per line, so at startup only the documents that are not already 
+ * within the index need to be read.
+ * </p>
+ * 
+ * <p>The names are matched ignoring their case, since players are looked up 
+ * by the names that are typed in to commands.
+ * </p>
+ *
+ */
+public class RankPlayerIndex
+{
+	public static final String INDEX_FILE_NAME = "rankPlayerIndex.txt";
+	
+	private final File indexFile;
+	
+	private final Map<UUID, RankPlayerIndexEntry> entries;
+	private final Map<String, UUID> names;
+	
+	private boolean dirty = false;
+	
+	public RankPlayerIndex( File indexFile ) {
+		super();
+		
+		this.indexFile = indexFile;
+		
+		this.entries = new LinkedHashMap<>();
+		this.names = new LinkedHashMap<>();
+	}
+	
+	/**
+	 * <p>Loads the index from its file.  If the file does not exist, then the 
+	 * index is empty and all of the documents will be read the first time it is
+	 * synchronized.  Any line that cannot be read is skipped, and that player
+	 * will be added back when the index is synchronized.
+	 * </p>
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void load() 
+			throws IOException {
+		
+		entries.clear();
+		names.clear();
+		dirty = false;
+		
+		if ( indexFile == null || !indexFile.exists() ) {
+			return;
+		}
+		
+		try ( BufferedReader reader = Files.newBufferedReader( indexFile.toPath(), StandardCharsets.UTF_8 ) ) {
+			
+			String line;
+			while ( (line = reader.readLine()) != null ) {
+				
+				String[] parts = line.split( "\t", -1 );
+				
+				if ( parts.length == 3 ) {
+					try {
+						UUID uuid = UUID.fromString( parts[1] );
+						String name = parts[2].isEmpty() ? null : parts[2];
+						
+						putEntry( new RankPlayerIndexEntry( uuid, name, parts[0] ) );
+					}
+					catch ( IllegalArgumentException e ) {
+						// Skip it.  It will be added back when synchronized.
+						dirty = true;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>Saves the index to its file, if it has changed since it was loaded or
+	 * last saved.  The index is written to a temp file first, so an incomplete
+	 * index is never left behind.
+	 * </p>
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void save() 
+			throws IOException {
+		
+		if ( !dirty || indexFile == null ) {
+			return;
+		}
+		
+		File tempFile = new File( indexFile.getParentFile(), indexFile.getName() + ".tmp" );
+		
+		try ( BufferedWriter writer = Files.newBufferedWriter( tempFile.toPath(), StandardCharsets.UTF_8 ) ) {
+			
+			for ( RankPlayerIndexEntry entry : entries.values() ) {
+				
+				writer.write( entry.getKey() );
+				writer.write( '\t' );
+				writer.write( entry.getUuid().toString() );
+				writer.write( '\t' );
+				writer.write( entry.getName() == null ? "" : entry.getName() );
+				writer.newLine();
+			}
+		}
+		
+		try {
+			Files.move( tempFile.toPath(), indexFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch ( AtomicMoveNotSupportedException e ) {
+			Files.move( tempFile.toPath(), indexFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING );
+		}
+		
+		dirty = false;
+	}
+	
+	/**
+	 * <p>Brings the index up to date with the documents that exist.  The 
+	 * players whose documents no longer exist are removed, and the documents
+	 * that are not within the index are read so they can be added.  
+	 * </p>
+	 * 
+	 * @param keys All of the keys within the players collection.
+	 * @param loader Reads a document by its key.
+	 * @return The number of documents that had to be read.
+	 */
+	public synchronized int synchronize( List<String> keys, Function<String, Document> loader ) {
+		int documentsRead = 0;
+		
+		Set<String> existingKeys = new HashSet<>( keys );
+		
+		List<UUID> removed = new ArrayList<>();
+		Set<String> indexedKeys = new HashSet<>();
+		
+		for ( RankPlayerIndexEntry entry : entries.values() ) {
+			if ( existingKeys.contains( entry.getKey() ) ) {
+				indexedKeys.add( entry.getKey() );
+			}
+			else {
+				removed.add( entry.getUuid() );
+			}
+		}
+		
+		for ( UUID uuid : removed ) {
+			remove( uuid );
+		}
+		
+		for ( String key : keys ) {
+			
+			if ( !indexedKeys.contains( key ) ) {
+				
+				Document document = loader.apply( key );
+				documentsRead++;
+				
+				RankPlayerIndexEntry entry = fromDocument( key, document );
+				
+				if ( entry != null ) {
+					putEntry( entry );
+					dirty = true;
+				}
+			}
+		}
+		
+		return documentsRead;
+	}
+	
+	@SuppressWarnings( "unchecked" )
+	private RankPlayerIndexEntry fromDocument( String key, Document document ) {
+		RankPlayerIndexEntry results = null;
+		
+		if ( document != null && document.get( "uid" ) != null ) {
+			
+			try {
+				UUID uuid = UUID.fromString( (String) document.get( "uid" ) );
+				
+				String name = null;
+				
+				Object namesList = document.get( "names" );
+				if ( namesList instanceof List && !((List<Object>) namesList).isEmpty() ) {
+					
+					List<Object> nameList = (List<Object>) namesList;
+					Object last = nameList.get( nameList.size() - 1 );
+					
+					if ( last instanceof Map ) {
+						name = (String) ((Map<String, Object>) last).get( "name" );
+					}
+				}
+				
+				results = new RankPlayerIndexEntry( uuid, name, key );
+			}
+			catch ( IllegalArgumentException | ClassCastException e ) {
+				// Not a valid player document, so it cannot be indexed.
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Adds or updates a player within the index.
+	 * </p>
+	 * 
+	 * @param uuid
+	 * @param name
+	 * @param key
+	 */
+	public synchronized void put( UUID uuid, String name, String key ) {
+		
+		RankPlayerIndexEntry current = entries.get( uuid );
+		
+		if ( current == null || 
+				!key.equals( current.getKey() ) ||
+				name != null && !name.equals( current.getName() ) ) {
+			
+			putEntry( new RankPlayerIndexEntry( uuid, 
+					name == null && current != null ? current.getName() : name, key ) );
+			dirty = true;
+		}
+	}
+	
+	private void putEntry( RankPlayerIndexEntry entry ) {
+		
+		RankPlayerIndexEntry old = entries.put( entry.getUuid(), entry );
+		
+		if ( old != null && old.getName() != null ) {
+			names.remove( old.getName().toLowerCase(), old.getUuid() );
+		}
+		
+		if ( entry.getName() != null ) {
+			names.put( entry.getName().toLowerCase(), entry.getUuid() );
+		}
+	}
+	
+	public synchronized void remove( UUID uuid ) {
+		
+		RankPlayerIndexEntry old = entries.remove( uuid );
+		
+		if ( old != null ) {
+			
+			if ( old.getName() != null ) {
+				names.remove( old.getName().toLowerCase(), uuid );
+			}
+			dirty = true;
+		}
+	}
+	
+	public synchronized RankPlayerIndexEntry get( UUID uuid ) {
+		return uuid == null ? null : entries.get( uuid );
+	}
+	
+	/**
+	 * <p>Finds a player by their last known name, ignoring the case.
+	 * </p>
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public synchronized RankPlayerIndexEntry findByName( String name ) {
+		RankPlayerIndexEntry results = null;
+		
+		if ( name != null ) {
+			UUID uuid = names.get( name.toLowerCase() );
+			
+			if ( uuid != null ) {
+				results = entries.get( uuid );
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>A copy of all of the entries, so the players can be processed without
+	 * holding on to the index.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public synchronized List<RankPlayerIndexEntry> getEntries() {
+		return new ArrayList<>( entries.values() );
+	}
+	
+	public synchronized int size() {
+		return entries.size();
+	}
+	
+	public synchronized boolean isDirty() {
+		return dirty;
+	}
+	
+	public File getIndexFile() {
+		return indexFile;
+	}
+}
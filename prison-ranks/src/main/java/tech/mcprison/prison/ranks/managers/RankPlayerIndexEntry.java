@@ -0,0 +1,49 @@
+package tech.mcprison.prison.ranks.managers;
+
+import java.util.UUID;
+
+/**
+ * <p>One player within the RankPlayerIndex.  This is only what is needed to 
+ * find the player's document without reading it.
+ * </p>
+ *
+ */
+public class RankPlayerIndexEntry
+{
+	private final UUID uuid;
+	private final String name;
+	private final String key;
+	
+	public RankPlayerIndexEntry( UUID uuid, String name, String key ) {
+		super();
+		
+		this.uuid = uuid;
+		this.name = name;
+		this.key = key;
+	}
+
+	public UUID getUuid() {
+		return uuid;
+	}
+
+	/**
+	 * <p>The player's last known name.  This may be null if the player has 
+	 * never had a name.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * <p>The key of the player's document within the players collection.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public String getKey() {
+		return key;
+	}
+}
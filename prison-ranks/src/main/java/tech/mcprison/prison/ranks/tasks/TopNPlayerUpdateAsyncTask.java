@@ -11,7 +11,7 @@ public class TopNPlayerUpdateAsyncTask
 	
 	private boolean forceReload = true;
 	
-//	private boolean startup = true;
+	private boolean startup = true;
 	
 	public TopNPlayerUpdateAsyncTask( TopNPlayers topNPlayers ) {
 		super();
@@ -33,11 +33,14 @@ public class TopNPlayerUpdateAsyncTask
 	@Override
 	public void run() {
 		
-//		if ( startup ) {
-//			startup = false;
-//			
-//			topNPlayers.loadSaveFile();
-//		}
+		if ( startup ) {
+			startup = false;
+			
+			// Only need to reload all of the players if the topN log was empty:
+			if ( topNPlayers.loadSaveFile() ) {
+				forceReload = false;
+			}
+		}
 		
 		if ( forceReload ) {
 			topNPlayers.forceReloadAllPlayers();
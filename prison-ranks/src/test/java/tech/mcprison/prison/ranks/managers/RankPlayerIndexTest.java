@@ -0,0 +1,104 @@
+package tech.mcprison.prison.ranks.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tech.mcprison.prison.store.Document;
+
+public class RankPlayerIndexTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private Document playerDocument( UUID uuid, String... names ) {
+		Document document = new Document();
+		document.put( "uid", uuid.toString() );
+		
+		List<Object> nameList = new ArrayList<>();
+		for ( String name : names ) {
+			Map<String, Object> nameMap = new HashMap<>();
+			nameMap.put( "name", name );
+			nameMap.put( "date", 1.0d );
+			nameList.add( nameMap );
+		}
+		document.put( "names", nameList );
+		
+		return document;
+	}
+
+	@Test
+	public void testSynchronizeOnlyReadsNewDocuments() 
+			throws IOException
+	{
+		UUID uuidA = UUID.randomUUID();
+		UUID uuidB = UUID.randomUUID();
+		
+		Map<String, Document> documents = new HashMap<>();
+		documents.put( "player_a", playerDocument( uuidA, "OldName", "Alpha" ) );
+		documents.put( "player_b", playerDocument( uuidB, "Bravo" ) );
+		
+		File indexFile = new File( folder.getRoot(), RankPlayerIndex.INDEX_FILE_NAME );
+		
+		RankPlayerIndex index = new RankPlayerIndex( indexFile );
+		index.load();
+		
+		assertEquals( 2, index.synchronize( new ArrayList<>( documents.keySet() ), documents::get ) );
+		
+		assertEquals( "player_a", index.get( uuidA ).getKey() );
+		assertEquals( uuidA, index.findByName( "ALPHA" ).getUuid() );
+		assertNull( index.findByName( "OldName" ) );
+		
+		index.save();
+		assertFalse( index.isDirty() );
+		
+		
+		// Reload the index, and only the new document should be read:
+		UUID uuidC = UUID.randomUUID();
+		documents.put( "player_c", playerDocument( uuidC, "Charlie" ) );
+		documents.remove( "player_b" );
+		
+		RankPlayerIndex reloaded = new RankPlayerIndex( indexFile );
+		reloaded.load();
+		
+		assertEquals( 2, reloaded.size() );
+		assertEquals( 1, reloaded.synchronize( new ArrayList<>( documents.keySet() ), documents::get ) );
+		
+		assertEquals( 2, reloaded.size() );
+		assertNull( reloaded.get( uuidB ) );
+		assertNull( reloaded.findByName( "bravo" ) );
+		assertEquals( "player_c", reloaded.findByName( "charlie" ).getKey() );
+	}
+
+	@Test
+	public void testRename() 
+	{
+		UUID uuid = UUID.randomUUID();
+		
+		RankPlayerIndex index = new RankPlayerIndex( null );
+		index.synchronize( Arrays.asList( "player_1" ), 
+				key -> playerDocument( uuid, "Before" ) );
+		
+		index.put( uuid, "After", "player_1" );
+		
+		assertNull( index.findByName( "Before" ) );
+		assertEquals( uuid, index.findByName( "after" ).getUuid() );
+		
+		// A null name keeps the last known name:
+		index.put( uuid, null, "player_1" );
+		assertEquals( "After", index.get( uuid ).getName() );
+	}
+}
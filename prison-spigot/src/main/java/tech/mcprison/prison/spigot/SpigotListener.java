@@ -30,6 +30,7 @@ import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerArmorStandManipulateEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
@@ -130,6 +131,23 @@ public class SpigotListener implements Listener {
 //        Bukkit.getServer().getPluginManager().registerEvents(this, SpigotPrison.getInstance());
 //    }
 
+    /**
+     * <p>This is ran on an async thread while the player is logging in.  It is 
+     * only posted if the login has not been denied by another plugin.
+     * </p>
+     * 
+     * @param e
+     */
+    @EventHandler( priority = EventPriority.MONITOR )
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent e) {
+    	if ( e.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED ) {
+    		
+    		Prison.get().getEventBus().post(
+    				new tech.mcprison.prison.internal.events.player.PlayerPreLoginEvent(
+    						e.getUniqueId(), e.getName() ));
+    	}
+    }
+
     @EventHandler 
     public void onPlayerJoin(PlayerJoinEvent e) {
         Prison.get().getEventBus().post(
@@ -42,6 +42,8 @@ import tech.mcprison.prison.PrisonCommand.RegisteredPluginsData;
 import tech.mcprison.prison.alerts.Alerts;
 import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
 import tech.mcprison.prison.backups.PrisonBackups;
+import tech.mcprison.prison.cache.EconomyLedger;
+import tech.mcprison.prison.cache.PlayerPermissionCache;
 import tech.mcprison.prison.integration.Integration;
 import tech.mcprison.prison.integration.IntegrationType;
 import tech.mcprison.prison.internal.block.PrisonBlockTypes;
@@ -347,6 +349,13 @@ public class SpigotPrison
 		
         // This is the loader for modules and commands:
         enableModulesAndCommands();
+        
+        // The economy integrations are now available, so recover any balance changes
+        // that were not applied before the server last stopped:
+        EconomyLedger.getInstance().start();
+        
+        // The permission cache takes a snapshot of each player's permissions when they join:
+        PlayerPermissionCache.getInstance();
 
         
 //        // NOTE: Put all commands within the initModulesAndCommands() function.
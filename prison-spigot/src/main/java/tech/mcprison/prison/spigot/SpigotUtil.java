@@ -248,10 +248,37 @@ public class SpigotUtil {
 	 */
 	public static HashMap<Integer, SpigotItemStack> addItemToPlayerInventory(
 															Player player, SpigotItemStack itemStack ) {
+		
+		List<SpigotItemStack> itemStacks = new ArrayList<>();
+		itemStacks.add( itemStack );
+		
+		return addItemsToPlayerInventory( player, itemStacks );
+	}
+	
+	/**
+	 * <p>Adds all of the item stacks to the player's inventory with one inventory 
+	 * write, and then places the overflow in to their backpacks.  Item stacks 
+	 * with more than the max stack size are split in to full stacks first, so 
+	 * the inventory only has to fill them in to slots.  The inventory is only 
+	 * updated once for all of the item stacks.
+	 * </p>
+	 *
+	 * <p>Used in AutoManagerFeatures.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param itemStacks
+	 * @return The items that could not be added anywhere.
+	 */
+	public static HashMap<Integer, SpigotItemStack> addItemsToPlayerInventory(
+															Player player, List<SpigotItemStack> itemStacks ) {
 		HashMap<Integer, SpigotItemStack> results = new HashMap<>();
 		
-		if ( itemStack != null && itemStack.getBukkitStack() != null ) {
-			HashMap<Integer, ItemStack> overflow = player.getInventory().addItem( itemStack.getBukkitStack() );
+		List<ItemStack> bukkitStacks = toMaxSizedStacks( itemStacks );
+		
+		if ( bukkitStacks.size() > 0 ) {
+			HashMap<Integer, ItemStack> overflow = player.getInventory().addItem( 
+											bukkitStacks.toArray( new ItemStack[0] ) );
 			player.updateInventory();
 			
 			// Insert overflow in to Prison's backpack:
@@ -311,6 +338,45 @@ public class SpigotUtil {
 		return results;
 	}
 	
+	/**
+	 * <p>Splits the item stacks in to stacks that are no larger than their max
+	 * stack size.  An item stack that already fits is not copied.
+	 * </p>
+	 * 
+	 * @param itemStacks
+	 * @return
+	 */
+	private static List<ItemStack> toMaxSizedStacks( List<SpigotItemStack> itemStacks ) {
+		List<ItemStack> results = new ArrayList<>();
+		
+		for ( SpigotItemStack itemStack : itemStacks ) {
+			
+			ItemStack bukkitStack = itemStack == null ? null : itemStack.getBukkitStack();
+			
+			if ( bukkitStack == null || bukkitStack.getAmount() <= 0 ) {
+				continue;
+			}
+			
+			int maxStackSize = bukkitStack.getMaxStackSize() > 0 ? bukkitStack.getMaxStackSize() : 64;
+			int amount = bukkitStack.getAmount();
+			
+			if ( amount <= maxStackSize ) {
+				results.add( bukkitStack );
+			}
+			else {
+				while ( amount > 0 ) {
+					ItemStack stack = bukkitStack.clone();
+					stack.setAmount( Math.min( amount, maxStackSize ) );
+					
+					results.add( stack );
+					amount -= maxStackSize;
+				}
+			}
+		}
+		
+		return results;
+	}
+	
 //	public static int countItemsInPlayerInventory(
 //								Player player, SpigotItemStack itemStackSource, 
 //								SpigotItemStack itemStackTarget, int quantity ) {
@@ -15,7 +15,9 @@ import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.features.MineBlockEvent.BlockEventType;
+import tech.mcprison.prison.output.BlockBreakTrace;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.output.Output.DebugTarget;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.block.BlockBreakPriority;
 import tech.mcprison.prison.spigot.block.SpigotBlock;
@@ -142,6 +144,14 @@ public class PrisonMinesBlockBreakEvent
 	
 	private StringBuilder debugInfo;
 	private boolean forceDebugLogging;
+	
+	/**
+	 * <p>The structured trace for this event, which is only created if this 
+	 * event is selected to be traced when it is created.  If it is null, then
+	 * nothing should be recorded in to it.
+	 * </p>
+	 */
+	private BlockBreakTrace trace;
 
 	
 	public PrisonMinesBlockBreakEvent( 
@@ -194,6 +204,7 @@ public class PrisonMinesBlockBreakEvent
 		
 		this.forceDebugLogging = false;
 		
+		this.trace = createTrace( this.debugInfo, this.spigotPlayer );
 	}
 	
 	public PrisonMinesBlockBreakEvent( Block theBlock, Player player, 
@@ -224,6 +235,20 @@ public class PrisonMinesBlockBreakEvent
 		
 		this.debugInfo = debugInfo;
 		
+		this.trace = createTrace( this.debugInfo, this.spigotPlayer );
+	}
+	
+	private static BlockBreakTrace createTrace( StringBuilder debugInfo, SpigotPlayer spigotPlayer ) {
+		BlockBreakTrace results = null;
+		
+		if ( debugInfo != null && 
+				Output.get().isDebugTraced( DebugTarget.blockBreak, spigotPlayer ) ) {
+			
+			results = new BlockBreakTrace( debugInfo, 
+					Output.get().getColorCodeDebug(), Output.get().getColorCodeWarning() );
+		}
+		
+		return results;
 	}
 
 	/**
@@ -522,6 +547,25 @@ public class PrisonMinesBlockBreakEvent
 		this.debugInfo = debugInfo;
 	}
 
+	public BlockBreakTrace getTrace() {
+		return trace;
+	}
+	public void setTrace( BlockBreakTrace trace ) {
+		this.trace = trace;
+	}
+	
+	/**
+	 * <p>Identifies if this event is being traced.  Anything that is only
+	 * needed for the debug info, and is not free to build, should only be built
+	 * when this returns true.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public boolean isTracing() {
+		return trace != null;
+	}
+
 	public boolean isForceDebugLogging() {
 		return forceDebugLogging;
 	}
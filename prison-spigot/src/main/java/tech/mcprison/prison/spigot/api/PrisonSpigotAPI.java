@@ -21,6 +21,7 @@ import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.data.PrisonSortableResults;
 import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.mines.managers.MineManager.MineSortOrder;
+import tech.mcprison.prison.mines.managers.PlayerMineCache;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.ranks.PrisonRanks;
@@ -295,19 +296,18 @@ public class PrisonSpigotAPI {
     			// Need to wrap in a Prison block so it can be used with the mines:
     			SpigotBlock spigotBlock = SpigotBlock.getSpigotBlock(block);
     			
-    			Long playerUUIDLSB = Long.valueOf( player.getUniqueId().getLeastSignificantBits() );
-
     			// Get the cached mine, if it exists:
-    			Mine mine = getPlayerCache().get( playerUUIDLSB );
+    			Mine mine = getPlayerCache().get( player.getUniqueId(), 
+    								m -> m.isInMineExact( spigotBlock.getLocation() ) );
     			
-    			if ( mine == null || !mine.isInMineExact( spigotBlock.getLocation() ) ) {
+    			if ( mine == null ) {
     				// Look for the correct mine to use. 
     				// Set mine to null so if cannot find the right one it will return a null:
     				mine = findMineLocation( spigotBlock );
     				
     				// Store the mine in the player cache if not null:
     				if ( mine != null ) {
-    					getPlayerCache().put( playerUUIDLSB, mine );
+    					getPlayerCache().put( player.getUniqueId(), mine );
     				}
     			}
     			
@@ -384,7 +384,7 @@ public class PrisonSpigotAPI {
 		return results;
 	}
 
-	private TreeMap<Long, Mine> getPlayerCache() {
+	private PlayerMineCache getPlayerCache() {
 		return getPrisonMineManager().getPlayerCache();
 	}
 
@@ -3,7 +3,6 @@ package tech.mcprison.prison.spigot.autofeatures;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Random;
@@ -32,10 +31,11 @@ import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
 import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
 import tech.mcprison.prison.autofeatures.BlockConverterOptionEventTrigger;
+import tech.mcprison.prison.autofeatures.BlockConvertersFileConfig;
 import tech.mcprison.prison.cache.PlayerCache;
 import tech.mcprison.prison.internal.block.PrisonBlock;
-import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.output.BlockBreakTrace;
 import tech.mcprison.prison.output.ChatDisplay;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.output.Output.DebugTarget;
@@ -150,29 +150,35 @@ public abstract class AutoManagerFeatures
     }
     
 	/**
-	 * <p>Prints out the debugInfo if it has anything to print.
+	 * <p>Prints out the debugInfo if it has anything to print, and if the event
+	 * was selected to be traced, or if debug logging was forced for this event.
+	 * If the event has a trace, then the trace is rendered with the debugInfo.
 	 * </p>
 	 * 
 	 * @param pmEvent
 	 * @param start
 	 */
     protected void printDebugInfo(  PrisonMinesBlockBreakEvent pmEvent, double start ) {
-		if ( pmEvent != null && pmEvent.getDebugInfo().length() > 0 ) {
+		if ( pmEvent != null && pmEvent.getDebugInfo().length() > 0 &&
+				( pmEvent.isTracing() || pmEvent.isForceDebugLogging() ) ) {
 			
 			long stop = System.nanoTime();
 			pmEvent.getDebugInfo().append( "{br}|| ### ** End Event Debug Info ** ### [" )
 					.append( (stop - start) / 1000000d )
 					.append( " ms]" );
 			
+			StringBuilder debugInfo = pmEvent.isTracing() ? 
+					pmEvent.getTrace().render() : pmEvent.getDebugInfo();
+			
 			if ( !Output.get().isDebug() && pmEvent.isForceDebugLogging() ) {
 				
-				pmEvent.getDebugInfo().insert(0, Output.get().getColorCodeDebug() );
+				debugInfo.insert(0, Output.get().getColorCodeDebug() );
 				
-				Output.get().logInfo( pmEvent.getDebugInfo().toString(), pmEvent.getSpigotPlayer() );
+				Output.get().logInfo( debugInfo.toString(), pmEvent.getSpigotPlayer() );
 			}
 			else {
 				
-				Output.get().logDebug( DebugTarget.blockBreak, pmEvent.getDebugInfo().toString(), pmEvent.getSpigotPlayer() );
+				Output.get().logDebug( DebugTarget.blockBreak, debugInfo.toString(), pmEvent.getSpigotPlayer() );
 			}
 		}
     }
@@ -383,7 +389,7 @@ public abstract class AutoManagerFeatures
 		return results;
 	}
 	
-	protected int getFortune(SpigotItemStack itemInHand, StringBuilder debugInfo ){
+	protected int getFortune(SpigotItemStack itemInHand, BlockBreakTrace trace ){
 		int fortLevel = 0;
 		boolean usedTEFortune = false;
 		
@@ -420,26 +426,23 @@ public abstract class AutoManagerFeatures
 		}
 		
 		int results = fortLevel;
-//		DecimalFormat dFmt = new DecimalFormat( "#,##0.0000" );
-		DecimalFormat iFmt = new DecimalFormat( "#,##0" );
 		
 		int maxFortuneLevel = getInteger( AutoFeatures.fortuneMultiplierMax );
-		String maxFort = "";
 		if ( maxFortuneLevel > 0 && fortLevel > maxFortuneLevel ) {
 			results = maxFortuneLevel;
-			maxFort = String.format(" max=%s result=%s", 
-					iFmt.format( maxFortuneLevel ),
-					iFmt.format( results ));
 		}
 		
 //		double fortuneMultiplierGlobal = getDouble( AutoFeatures.fortuneMultiplierGlobal );
 //		results *= fortuneMultiplierGlobal;
 		
-		String fortInfo = String.format( "(getToolFort: fort=%s%s) ",
-				iFmt.format( fortLevel ), 
-				maxFort );
-		
-		debugInfo.append( fortInfo );
+		if ( trace != null ) {
+			trace.group( "getToolFort" ).field( "fort", fortLevel );
+			
+			if ( results != fortLevel ) {
+				trace.field( "max", maxFortuneLevel ).field( "result", results );
+			}
+			trace.end();
+		}
 		
 		return results;
 	}
@@ -547,7 +550,7 @@ public abstract class AutoManagerFeatures
 		
 		isAutoBlock = (mine != null || mine == null && !limit2minesBlock) && isAutoBlock;
 		
-		if ( Output.get().isDebug( DebugTarget.blockBreak ) ) {
+		if ( pmEvent.isTracing() ) {
 			
 			pmEvent.getDebugInfo().append( "{br}||  (applyAutoEvents: " )
 				.append( pmEvent.getSpigotBlock().getBlockName() );
@@ -711,7 +714,9 @@ public abstract class AutoManagerFeatures
 		
 		int totalDrops = applyAutoEventsDetails( pmEvent );
 
-		pmEvent.getDebugInfo().append( "(autoEvents totalDrops: " + totalDrops + ") ");
+		if ( pmEvent.isTracing() ) {
+			pmEvent.getTrace().group( "autoEvents" ).field( "totalDrops", totalDrops ).end();
+		}
 
 		return applyDropsBlockBreakage( pmEvent, totalDrops );
 		
@@ -791,31 +796,39 @@ public abstract class AutoManagerFeatures
 							isBoolean( AutoFeatures.isCalculateFortuneEnabled ) ?
 									getDouble( AutoFeatures.fortuneBukkitDropsMultiplier ) :
 									1.0d;			
-			StringBuilder sb = new StringBuilder();
+			
+			// The list of drops is only built if this event is being traced:
+			StringBuilder sb = pmEvent.isTracing() ? new StringBuilder() : null;
 			for (SpigotItemStack sItemStack : drops) {
-				if ( sb.length() > 0 ) {
-					sb.append( "," );
-				}
 				int amtBukkit = sItemStack.getAmount();
 				int amt = (int) (amtBukkit * bukkitDropsMultiplier);
 				if ( amt < 1 ) {
 					amt = 1;
 				}
-				sb.append( sItemStack.getName() ).append( ":" )
-					.append( amt );
 				if ( amt != amtBukkit ) {
 					sItemStack.setAmount( amt );
-					sb.append( "(bukkitAmt:").append( amtBukkit ).append( ")" );
+				}
+				if ( sb != null ) {
+					if ( sb.length() > 0 ) {
+						sb.append( "," );
+					}
+					sb.append( sItemStack.getName() ).append( ":" )
+						.append( amt );
+					if ( amt != amtBukkit ) {
+						sb.append( "(bukkitAmt:").append( amtBukkit ).append( ")" );
+					}
 				}
 			}
-			if ( bukkitDropsMultiplier != 1.0d ) {
-				sb.insert( 0, ": " );
-				sb.insert( 0, drFmt.format( bukkitDropsMultiplier) );
-				sb.insert( 0, "bukkitDropMult=" );
+			if ( sb != null ) {
+				if ( bukkitDropsMultiplier != 1.0d ) {
+					sb.insert( 0, ": " );
+					sb.insert( 0, drFmt.format( bukkitDropsMultiplier) );
+					sb.insert( 0, "bukkitDropMult=" );
+				}
+				
+				debugInfo.append( " [autoPickupDrops:beforeFortune:: " ).append( sb ).append( "] ");
 			}
 			
-			debugInfo.append( " [autoPickupDrops:beforeFortune:: " ).append( sb ).append( "] ");
-			
 			
 			
 			
@@ -824,50 +837,59 @@ public abstract class AutoManagerFeatures
 //			calculateSilkTouch( pmEvent, itemInHand, drops );
 			
 			// Adds in additional drop items: Add Flint with gravel drops:
-			calculateDropAdditions( itemInHand, drops, pmEvent.getDebugInfo() );
+			calculateDropAdditions( itemInHand, drops, pmEvent.getTrace() );
 			
 			
 			// Add fortune to the items in the inventory
 			if ( isBoolean( AutoFeatures.isCalculateFortuneEnabled ) ) {
-				sb.setLength(0);
-				int fortuneLevel = getFortune(itemInHand, debugInfo );
+				int fortuneLevel = getFortune(itemInHand, pmEvent.getTrace() );
 
 //				debugInfo.append( "(calculateFortune: fort " + fortuneLevel + ")" );
 				
+				if ( sb != null ) {
+					sb.setLength(0);
+				}
 				for ( SpigotItemStack itemStack : drops ) {
-					if ( sb.length() > 0 ) {
-						sb.append( "," );
-					}
 					
 					// calculateFortune directly modifies the quantity on the blocks ItemStack:
-					calculateFortune( itemStack, fortuneLevel, pmEvent.getDebugInfo() );
+					calculateFortune( itemStack, fortuneLevel, pmEvent.getTrace() );
 					
-					sb.append( itemStack.getName() )
-						.append( ":" )
-						.append( itemStack.getAmount() );
+					if ( sb != null ) {
+						if ( sb.length() > 0 ) {
+							sb.append( "," );
+						}
+						sb.append( itemStack.getName() )
+							.append( ":" )
+							.append( itemStack.getAmount() );
+					}
+				}
+				if ( sb != null ) {
+					debugInfo.append( " [totalDrops:afterFortune:: " ).append( sb ).append( "] ");
 				}
-				debugInfo.append( " [totalDrops:afterFortune:: " ).append( sb ).append( "] ");
 			}
 			
 			
 			// NOTE: This should be done after applying fortune, otherwise it will get misreadings.
-			// Merge drops so each item is only represented once before adding to the player's inventory
-			drops = mergeDrops( drops );
+			// Accumulate the drops as a count per item, so each item is only represented 
+			// once, and so smelting and blocking only has to adjust the counts:
+			DropAccumulator accumulator = new DropAccumulator( drops );
 			
 			
 			// Smelt
 			if ( isAutoSmelt ) {
 				debugInfo.append( "(autoSmelting: drops)" );
-				normalDropSmelt( drops );
+				normalDropSmelt( accumulator );
 			}
 			
 			
 			// Block
 			if ( isAutoBlock ) {
 				debugInfo.append( "(autoBlocking: drops)" );
-				normalDropBlock( drops );
+				normalDropBlock( accumulator );
 			}
 			
+			drops = accumulator.getDrops();
+			
 			String mineName = pmEvent.getMine() == null ? null : pmEvent.getMine().getName();
 			
 			// PlayerCache log block breaks:
@@ -937,6 +959,9 @@ public abstract class AutoManagerFeatures
 			// Try to autosell if enabled in any of the following ways:
 			boolean autoSell = ( forceAutoSell || autoSellBySettings || autoSellByPerm );
 			
+			// The items that could not be sold are added to the player's inventory together:
+			List<SpigotItemStack> unsold = new ArrayList<>();
+			
 			for ( SpigotItemStack itemStack : drops ) {
 				
 				count += itemStack.getAmount();
@@ -966,8 +991,13 @@ public abstract class AutoManagerFeatures
 							amount, mineName );
 
 					if ( amount != 0 ) {
-						debugInfo.append( "(sold: " + itemStack.getName() + " qty: " + itemStack.getAmount() + 
-								" value: " + dFmt.format( amount ) + ") ");
+						if ( pmEvent.isTracing() ) {
+							pmEvent.getTrace().group( "sold" )
+								.field( "item", itemStack.getName() )
+								.field( "qty", itemStack.getAmount() )
+								.field( "value", amount )
+								.end();
+						}
 						
 						// Set to zero quantity since they have all been sold.
 						itemStack.setAmount( 0 );
@@ -975,9 +1005,10 @@ public abstract class AutoManagerFeatures
 					else {
 						
 						// Unable to sell since amount was zero.  Not configured to be sold.
-						pmEvent.setDebugColorCodeWarning();
-						debugInfo.append( "(unsellable: " + itemStack.getName() + " qty: " + itemStack.getAmount() + ") ");
-						pmEvent.setDebugColorCodeDebug();
+						if ( pmEvent.isTracing() ) {
+							pmEvent.getTrace().warning( "(unsellable: " + itemStack.getName() + 
+									" qty: " + itemStack.getAmount() + ") " );
+						}
 						autosellUnsellableCount += itemStack.getAmount();
 					}
 					
@@ -994,38 +1025,42 @@ public abstract class AutoManagerFeatures
 					if ( forceAutoSell || autoSellBySettings || autoSellByPerm ) {
 						
 						// Force debug printing for this entry even if debug mode is turned off:
-						pmEvent.setForceDebugLogging( true );
-						
 						if ( !Output.get().isDebug() && 
 								isBoolean(AutoFeatures.isAutoSellLeftoversForceDebugLogging) ) {
 							pmEvent.setForceDebugLogging( true );
 						}
 						
-						pmEvent.setDebugColorCodeError();
-						
 						// Just get the calculated value for the drops... do not sell:
 						double amount = SellAllUtil.get().getItemStackValue( pmEvent.getSpigotPlayer(), itemStack );
 						autosellTotal += amount;
 
-						debugInfo.append( "{br}||  (WARNING: autosell leftovers: " + itemStack.getName() + 
-								" qty: " + itemStack.getAmount() + " value: " + dFmt.format( amount ) + 
-								" - " + 
-								( amount == 0 ? " Items NOT in sellall shop!" : " CouldNotSell?") +
-								") ");
-						pmEvent.setDebugColorCodeDebug();
+						if ( pmEvent.isTracing() || pmEvent.isForceDebugLogging() ) {
+							
+							pmEvent.setDebugColorCodeError();
+							
+							debugInfo.append( "{br}||  (WARNING: autosell leftovers: " + itemStack.getName() + 
+									" qty: " + itemStack.getAmount() + " value: " + dFmt.format( amount ) + 
+									" - " + 
+									( amount == 0 ? " Items NOT in sellall shop!" : " CouldNotSell?") +
+									") ");
+							pmEvent.setDebugColorCodeDebug();
+						}
 					}
 					
-					if ( Output.get().isDebug() && isSellallEnabled ) {
+					if ( pmEvent.isTracing() && isSellallEnabled ) {
 						
 						// Just get the calculated value for the drops... do not sell:
 						double amount = SellAllUtil.get().getItemStackValue( pmEvent.getSpigotPlayer(), itemStack );
 						autosellTotal += amount;
 						
-						debugInfo.append( " (Debug-unsold-value-check: " + itemStack.getName() + 
-								" qty: " + itemStack.getAmount() + " value: " + dFmt.format( amount ) + ") ");
+						pmEvent.getTrace().group( "Debug-unsold-value-check" )
+							.field( "item", itemStack.getName() )
+							.field( "qty", itemStack.getAmount() )
+							.field( "value", amount )
+							.end();
 					}
 					
-					HashMap<Integer, SpigotItemStack> extras = SpigotUtil.addItemToPlayerInventory( player, itemStack );
+					unsold.add( itemStack );
 				
 					
 					// Warning: The following is now obsolete since there is now a sellall function that will sell on a 
@@ -1048,14 +1083,21 @@ public abstract class AutoManagerFeatures
 //					}
 					
 					
-					dropExtra( extras, player, debugInfo, autoSell );
 //					dropExtra( player.getInventory().addItem(itemStack), player, block );
 				}
 				
 				
 			} 
 			
-			if ( count > 0 || autosellTotal > 0 ) {
+			if ( unsold.size() > 0 ) {
+				
+				HashMap<Integer, SpigotItemStack> extras = SpigotUtil.addItemsToPlayerInventory( player, unsold );
+				
+				dropExtra( extras, player, debugInfo, pmEvent.isTracing(), autoSell );
+			}
+			
+			if ( ( count > 0 || autosellTotal > 0 ) && 
+					( pmEvent.isTracing() || pmEvent.isForceDebugLogging() ) ) {
 				
 				debugInfo.append( "{br}||  [autoPickupDrops total: qty: " + count + " value: " + dFmt.format( autosellTotal ) + 
 						"  unsellableCount: " + autosellUnsellableCount );
@@ -1117,39 +1159,46 @@ public abstract class AutoManagerFeatures
 									getDouble( AutoFeatures.fortuneBukkitDropsMultiplier ) :
 									1.0d;
 			
-			StringBuilder sb = new StringBuilder();
+			// The list of drops is only built if this event is being traced:
+			StringBuilder sb = pmEvent.isTracing() ? new StringBuilder() : null;
 			for (SpigotItemStack sItemStack : drops) {
-				if ( sb.length() > 0 ) {
-					sb.append( "," );
-				}
 				int amtBukkit = sItemStack.getAmount();
 				int amt = (int) (amtBukkit * bukkitDropsMultiplier);
 				if ( amt < 1 ) {
 					amt = 1;
 				}
-				sb.append( sItemStack.getName() ).append( ":" )
-					.append( amt );
 				if ( amt != amtBukkit ) {
 					sItemStack.setAmount( amt );
-					sb.append( "(").append( amtBukkit ).append( ")" );
+				}
+				if ( sb != null ) {
+					if ( sb.length() > 0 ) {
+						sb.append( "," );
+					}
+					sb.append( sItemStack.getName() ).append( ":" )
+						.append( amt );
+					if ( amt != amtBukkit ) {
+						sb.append( "(").append( amtBukkit ).append( ")" );
+					}
 				}
 			}
-			if ( bukkitDropsMultiplier != 1.0d ) {
-				sb.insert( 0, ": " );
-				sb.insert( 0, drFmt.format( bukkitDropsMultiplier) );
-				sb.insert( 0, "bukkitDropMult=" );
+			if ( sb != null ) {
+				if ( bukkitDropsMultiplier != 1.0d ) {
+					sb.insert( 0, ": " );
+					sb.insert( 0, drFmt.format( bukkitDropsMultiplier) );
+					sb.insert( 0, "bukkitDropMult=" );
+				}
+				
+				pmEvent.getDebugInfo().append( "{br}||  [normalDrops:: " ).append( sb ).append( "] ");
 			}
 			
-			pmEvent.getDebugInfo().append( "{br}||  [normalDrops:: " ).append( sb ).append( "] ");
-			
 
 			// Need better drop calculation that is not using the getDrops function.
-			int fortuneLevel = getFortune( pmEvent.getItemInHand(), pmEvent.getDebugInfo() );
+			int fortuneLevel = getFortune( pmEvent.getItemInHand(), pmEvent.getTrace() );
 
 //			calculateSilkTouch( pmEvent.getItemInHand(), drops );
 			
 			// Adds in additional drop items: Add Flint with gravel drops:
-			calculateDropAdditions( pmEvent.getItemInHand(), drops, pmEvent.getDebugInfo() );
+			calculateDropAdditions( pmEvent.getItemInHand(), drops, pmEvent.getTrace() );
 
 			
 			if ( isBoolean( AutoFeatures.isCalculateFortuneEnabled ) ) {
@@ -1158,26 +1207,28 @@ public abstract class AutoManagerFeatures
 				for ( SpigotItemStack itemStack : drops ) {
 					
 					// calculateFortune directly modifies the quantity on the blocks ItemStack:
-					calculateFortune( itemStack, fortuneLevel, pmEvent.getDebugInfo() );
+					calculateFortune( itemStack, fortuneLevel, pmEvent.getTrace() );
 				}
 			}
 			
 			
-			// Merge drops so each item is only represented once, but has counts.
-			drops = mergeDrops( drops );
+			// Accumulate the drops so each item is only represented once, but has counts.
+			DropAccumulator accumulator = new DropAccumulator( drops );
 			
 			
 			if ( isBoolean( AutoFeatures.normalDropSmelt ) ) {
 				pmEvent.getDebugInfo().append( "(normSmelting: drops)" );
-				normalDropSmelt( drops );
+				normalDropSmelt( accumulator );
 			}
 			
 			
 			if ( isBoolean( AutoFeatures.normalDropBlock ) ) {
 				pmEvent.getDebugInfo().append( "(normBlocking: drops)" );
-				normalDropBlock( drops );
+				normalDropBlock( accumulator );
 			}
 			
+			drops = accumulator.getDrops();
+			
 			
 //			String mineName = pmEvent.getMine() == null ? null : pmEvent.getMine().getName();
 			
@@ -1209,7 +1260,13 @@ public abstract class AutoManagerFeatures
 					autosellTotal += amount;
 					
 					if ( amount != 0 ) {
-						pmEvent.getDebugInfo().append( "(sold: " + itemStack.getName() + " qty: " + itemStack.getAmount() + " value: " + amount + ") ");
+						if ( pmEvent.isTracing() ) {
+							pmEvent.getTrace().group( "sold" )
+								.field( "item", itemStack.getName() )
+								.field( "qty", itemStack.getAmount() )
+								.field( "value", amount )
+								.end();
+						}
 						
 						// Set to zero quantity since they have all been sold.
 						itemStack.setAmount( 0 );
@@ -1219,20 +1276,22 @@ public abstract class AutoManagerFeatures
 				
 				if ( itemStack.getAmount() != 0 ) {
 					
-					if ( Output.get().isDebug() ) {
+					if ( pmEvent.isTracing() ) {
 						
 						// Just get the calculated value for the drops... do not sell:
 						Player player = pmEvent.getPlayer();
 					
-						pmEvent.getDebugInfo().append( "(dropping: " + itemStack.getName() + " qty: " + itemStack.getAmount() );
+						pmEvent.getTrace().group( "dropping" )
+							.field( "item", itemStack.getName() )
+							.field( "qty", itemStack.getAmount() );
 						
 						if ( SpigotPrison.getInstance().isSellAllEnabled() ) {
 							
 							double amount = SellAllUtil.get().sellAllSell( player, itemStack, true, false, false );
 							autosellTotal += amount;
-							pmEvent.getDebugInfo().append( " value: " + amount );
+							pmEvent.getTrace().field( "value", amount );
 						}
-						pmEvent.getDebugInfo().append( ") ");
+						pmEvent.getTrace().end();
 					}
 					
 					dropAtBlock( itemStack, pmEvent.getSpigotBlock() );
@@ -1242,7 +1301,7 @@ public abstract class AutoManagerFeatures
 			}
 
 			
-			if ( count > 0 || autosellTotal > 0 ) {
+			if ( ( count > 0 || autosellTotal > 0 ) && pmEvent.isTracing() ) {
 				
 				pmEvent.getDebugInfo().append( "{br}||  [normalDrops total: qty: " + count + " value: " + autosellTotal + "] ");
 				
@@ -1446,7 +1505,7 @@ public abstract class AutoManagerFeatures
 	 * @param block
 	 */
 	protected void dropExtra( HashMap<Integer, SpigotItemStack> extra, 
-						Player player, StringBuilder debugInfo, boolean autoSell ) {
+						Player player, StringBuilder debugInfo, boolean tracing, boolean autoSell ) {
 
 		if ( SpigotPrison.getInstance().isSellAllEnabled() && (
 				 extra != null && extra.size() > 0 ||
@@ -1525,20 +1584,23 @@ public abstract class AutoManagerFeatures
 						
 						if ( amount > 0d ) {
 							
-							DecimalFormat fFmt = Prison.get().getDecimalFormat("#,##0.0000");
-							DecimalFormat dFmt = Prison.get().getDecimalFormat("#,##0.00");
-							
-							debugInfo.append( "[dropExtra sellall: value: " + dFmt.format( amount )  );
-							
-							if ( nanoTime > 0 ) {
-								final double autoSellTimeMs = ( nanoTime / 1000000.0d );
-								debugInfo.append( " sellallTiming: " )
-									.append( fFmt.format( autoSellTimeMs ) )
-									.append( " ms" );
+							if ( tracing ) {
+								
+								DecimalFormat fFmt = Prison.get().getDecimalFormat("#,##0.0000");
+								DecimalFormat dFmt = Prison.get().getDecimalFormat("#,##0.00");
+								
+								debugInfo.append( "[dropExtra sellall: value: " ).append( dFmt.format( amount ) );
+								
+								if ( nanoTime > 0 ) {
+									final double autoSellTimeMs = ( nanoTime / 1000000.0d );
+									debugInfo.append( " sellallTiming: " )
+										.append( fFmt.format( autoSellTimeMs ) )
+										.append( " ms" );
+								}
+								
+								debugInfo.append( " ] " );
 							}
 							
-							debugInfo.append( " ] " );
-							
 							//SpigotPlayer sPlayer = new SpigotPlayer( player );
 							PlayerAutoRankupTask.autoSubmitPlayerRankupTask( sPlayer, debugInfo );
 						}
@@ -1563,13 +1625,10 @@ public abstract class AutoManagerFeatures
 //				}
 					
 					// Now that something might have been sold, try to add all the extra inventory items back to the
-					// player's inventory so it is not lost then pass the moreExtras along to be handled as the
+					// player's inventory so it is not lost then pass the extras along to be handled as the
 					// configurations require.
-					HashMap<Integer, SpigotItemStack> moreExtras = new HashMap<>();
-					for (SpigotItemStack itemStack : extra.values()) {
-						moreExtras.putAll(SpigotUtil.addItemToPlayerInventory(player, itemStack));
-					}
-					extra = moreExtras;
+					extra = SpigotUtil.addItemsToPlayerInventory( player, 
+									new ArrayList<>( extra.values() ) );
 				}
 			}
 			
@@ -2188,41 +2247,17 @@ public abstract class AutoManagerFeatures
 	
 	/**
 	 * <p>This processes the normal drop smelting if it's enabled.  Only the 
-	 * List of SpigotItemStacks are needed.
+	 * accumulated drops are needed.  The smelting is applied to the counts.
 	 * </p>
 	 * 
 	 * @param drops
 	 */
-	protected void normalDropSmelt( List<SpigotItemStack> drops ) {
+	protected void normalDropSmelt( DropAccumulator drops ) {
 		
 		boolean isAll = isBoolean( AutoFeatures.smeltAllBlocks );
 		
-		Set<XMaterial> xMats = new HashSet<>();
-		for ( SpigotItemStack sItemStack : drops ) {
-			
-			if ( sItemStack.getMaterial().getBlockType() == PrisonBlockType.CustomItems ||
-				 sItemStack.getMaterial().getBlockType() == PrisonBlockType.ItemsAdder	) {
-				// cannot smelt custom blocks so skip XMaterial:
-				continue;
-			}
-			
-			XMaterial xMat = null;
-			
-			if ( sItemStack.getBukkitStack() != null ) {
-				
-				xMat = XMaterial.matchXMaterial( sItemStack.getBukkitStack() );
-			}
-			else if ( sItemStack.getMaterial() != null ) {
-				
-				xMat = SpigotCompatibility.getInstance().getXMaterial( sItemStack.getMaterial() );
-			}
-			
-			if ( xMat != null && !xMats.contains( xMat ) ) {
-				xMats.add( xMat );
-			}
-			
-		}
-		
+		// Custom items cannot be smelted, so they have no XMaterial:
+		Set<XMaterial> xMats = drops.getXMaterials();
 		
 		for ( XMaterial source : xMats ) {
 			
@@ -2232,7 +2267,7 @@ public abstract class AutoManagerFeatures
 				case COBBLESTONE:
 					if ( isAll || isBoolean( AutoFeatures.smeltCobblestone ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.STONE, 1 );
+						drops.convert( source, XMaterial.STONE, 1 );
 					}
 					break;
 					
@@ -2243,7 +2278,7 @@ public abstract class AutoManagerFeatures
 					
 					if ( isAll || isBoolean( AutoFeatures.smeltGoldOre ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.GOLD_INGOT, 1 );
+						drops.convert( source, XMaterial.GOLD_INGOT, 1 );
 					}
 					break;
 					
@@ -2252,7 +2287,7 @@ public abstract class AutoManagerFeatures
 				case RAW_IRON:
 					if ( isAll || isBoolean( AutoFeatures.smeltIronOre ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.IRON_INGOT, 1 );
+						drops.convert( source, XMaterial.IRON_INGOT, 1 );
 					}
 					break;
 					
@@ -2260,7 +2295,7 @@ public abstract class AutoManagerFeatures
 				case DEEPSLATE_COAL_ORE:
 					if ( isAll || isBoolean( AutoFeatures.smeltCoalOre ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.COAL, 1 );
+						drops.convert( source, XMaterial.COAL, 1 );
 					}
 					break;
 					
@@ -2268,7 +2303,7 @@ public abstract class AutoManagerFeatures
 				case DEEPSLATE_DIAMOND_ORE:
 					if ( isAll || isBoolean( AutoFeatures.smeltDiamondlOre ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.DIAMOND, 1 );
+						drops.convert( source, XMaterial.DIAMOND, 1 );
 					}
 					break;
 					
@@ -2276,7 +2311,7 @@ public abstract class AutoManagerFeatures
 				case DEEPSLATE_EMERALD_ORE:
 					if ( isAll || isBoolean( AutoFeatures.smeltEmeraldOre ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.EMERALD, 1 );
+						drops.convert( source, XMaterial.EMERALD, 1 );
 					}
 					break;
 					
@@ -2284,7 +2319,7 @@ public abstract class AutoManagerFeatures
 				case DEEPSLATE_LAPIS_ORE:
 					if ( isAll || isBoolean( AutoFeatures.smeltLapisOre ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.LAPIS_LAZULI, 1 );
+						drops.convert( source, XMaterial.LAPIS_LAZULI, 1 );
 					}
 					break;
 					
@@ -2292,21 +2327,21 @@ public abstract class AutoManagerFeatures
 				case DEEPSLATE_REDSTONE_ORE:
 					if ( isAll || isBoolean( AutoFeatures.smeltRedstoneOre ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.REDSTONE, 1 );
+						drops.convert( source, XMaterial.REDSTONE, 1 );
 					}
 					break;
 					
 				case NETHER_QUARTZ_ORE:
 					if ( isAll || isBoolean( AutoFeatures.smeltNetherQuartzOre ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.QUARTZ, 1 );
+						drops.convert( source, XMaterial.QUARTZ, 1 );
 					}
 					break;
 					
 				case ANCIENT_DEBRIS:
 					if ( isAll || isBoolean( AutoFeatures.smeltAncientDebris ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.NETHERITE_SCRAP, 1 );
+						drops.convert( source, XMaterial.NETHERITE_SCRAP, 1 );
 					}
 					break;
 
@@ -2316,7 +2351,7 @@ public abstract class AutoManagerFeatures
 				case RAW_COPPER:
 					if ( isAll || isBoolean( AutoFeatures.smeltCopperOre ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.COPPER_INGOT, 1);
+						drops.convert( source, XMaterial.COPPER_INGOT, 1);
 					}
 					break;
 					
@@ -2329,35 +2364,18 @@ public abstract class AutoManagerFeatures
 
 
 	/**
-	 * <p>This processed the normal drops for blocking.  Only the List of 
-	 * SpigotItemStacks are needed since everything else is self contained.
+	 * <p>This processed the normal drops for blocking.  Only the accumulated 
+	 * drops are needed since everything else is self contained.
 	 * </p>
 	 * 
 	 * @param drops
 	 */
-	protected void normalDropBlock( List<SpigotItemStack> drops ) {
+	protected void normalDropBlock( DropAccumulator drops ) {
 		
 		boolean isAll = isBoolean( AutoFeatures.smeltAllBlocks );
 		
-		Set<XMaterial> xMats = new HashSet<>();
-		for ( SpigotItemStack sItemStack : drops ) {
-			
-			if ( sItemStack.getMaterial().getBlockType() == PrisonBlockType.CustomItems ||
-					sItemStack.getMaterial().getBlockType() == PrisonBlockType.ItemsAdder	) {
-				// cannot block custom blocks so skip XMaterial:
-				continue;
-			}
-			
-			if ( sItemStack.getBukkitStack() != null ) {
-				
-				XMaterial source = XMaterial.matchXMaterial( sItemStack.getBukkitStack() );
-				
-				if ( !xMats.contains( source  ) ) {
-					xMats.add( source );
-				}
-			}
-		}
-		
+		// Custom items cannot be blocked, so they have no XMaterial:
+		Set<XMaterial> xMats = drops.getXMaterials();
 		
 		for ( XMaterial source : xMats ) {
 			
@@ -2366,84 +2384,84 @@ public abstract class AutoManagerFeatures
 				case GOLD_INGOT:
 					if ( isAll || isBoolean( AutoFeatures.blockGoldBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.GOLD_BLOCK, 9 );
+						drops.convert( source, XMaterial.GOLD_BLOCK, 9 );
 					}
 					break;
 					
 				case IRON_INGOT:
 					if ( isAll || isBoolean( AutoFeatures.blockIronBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.IRON_BLOCK, 9 );
+						drops.convert( source, XMaterial.IRON_BLOCK, 9 );
 					}
 					break;
 
 				case COAL:
 					if ( isAll || isBoolean( AutoFeatures.blockCoalBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.COAL_BLOCK, 9 );
+						drops.convert( source, XMaterial.COAL_BLOCK, 9 );
 					}
 					break;
 					
 				case DIAMOND:
 					if ( isAll || isBoolean( AutoFeatures.blockDiamondBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.DIAMOND_BLOCK, 9 );
+						drops.convert( source, XMaterial.DIAMOND_BLOCK, 9 );
 					}
 					break;
 					
 				case REDSTONE:
 					if ( isAll || isBoolean( AutoFeatures.blockRedstoneBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source,XMaterial.REDSTONE_BLOCK, 9 );
+						drops.convert( source, XMaterial.REDSTONE_BLOCK, 9 );
 					}
 					break;
 					
 				case EMERALD:
 					if ( isAll || isBoolean( AutoFeatures.blockEmeraldBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.EMERALD_BLOCK, 9 );
+						drops.convert( source, XMaterial.EMERALD_BLOCK, 9 );
 					}
 					break;
 					
 				case QUARTZ:
 					if ( isAll || isBoolean( AutoFeatures.blockQuartzBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.QUARTZ_BLOCK, 4 );
+						drops.convert( source, XMaterial.QUARTZ_BLOCK, 4 );
 					}
 					break;
 					
 				case PRISMARINE_SHARD:
 					if ( isAll || isBoolean( AutoFeatures.blockPrismarineBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.PRISMARINE, 4 );
+						drops.convert( source, XMaterial.PRISMARINE, 4 );
 					}
 					break;
 					
 				case SNOWBALL:
 					if ( isAll || isBoolean( AutoFeatures.blockSnowBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.SNOW_BLOCK, 4 );
+						drops.convert( source, XMaterial.SNOW_BLOCK, 4 );
 					}
 					break;
 					
 				case GLOWSTONE_DUST:
 					if ( isAll || isBoolean( AutoFeatures.blockGlowstone ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.GLOWSTONE, 4 );
+						drops.convert( source, XMaterial.GLOWSTONE, 4 );
 					}
 					break;
 					
 				case LAPIS_LAZULI:
 					if ( isAll || isBoolean( AutoFeatures.blockLapisBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.LAPIS_BLOCK, 9 );
+						drops.convert( source, XMaterial.LAPIS_BLOCK, 9 );
 					}
 					break;
 					
 				case COPPER_INGOT:
 					if ( isAll || isBoolean( AutoFeatures.blockCopperBlock ) ) {
 						
-						SpigotUtil.itemStackReplaceItems( drops, source, XMaterial.COPPER_BLOCK, 9 );
+						drops.convert( source, XMaterial.COPPER_BLOCK, 9 );
 					}
 					break;
 					
@@ -2534,17 +2552,11 @@ public abstract class AutoManagerFeatures
 	 * @param blocks
 	 * @param fortuneLevel
 	 */
-	protected void calculateFortune(SpigotItemStack blocks, int fortuneLevelOriginal, StringBuilder debugInfo ) {
+	protected void calculateFortune(SpigotItemStack blocks, int fortuneLevelOriginal, BlockBreakTrace trace ) {
 
 		
 		if (fortuneLevelOriginal > 0) {
 			
-			StringBuilder debugSb = new StringBuilder();
-			
-			
-			DecimalFormat dFmt = new DecimalFormat( "#,##0.0000" );
-			DecimalFormat iFmt = new DecimalFormat( "#,##0" );
-			
 			int blockCount = blocks.getAmount();
 			
 			// Apply max fortune level if setup:
@@ -2555,11 +2567,10 @@ public abstract class AutoManagerFeatures
 			// If the adjustedfortuneMultipler is greater than the permitted max value then use the max value.
 			// A zero value for fortuneMultiplierMax indicates no max should be used.
 			int fortuneMultiplierMax = getInteger( AutoFeatures.fortuneMultiplierMax );
-			String maxFort = "";
 			if ( fortuneMultiplierMax != 0d && fortuneLevel > fortuneMultiplierMax ) {
 				fortuneLevel = fortuneMultiplierMax;
-				maxFort = String.format("max=%s ", iFmt.format( fortuneMultiplierMax ));
 			}
+			boolean maxFort = fortuneLevel != fortuneLevelOriginal;
 			
 			
 			int count = blockCount;
@@ -2580,20 +2591,22 @@ public abstract class AutoManagerFeatures
 					blocks.setAmount( count );
 				}
 				
-				String msg = String.format( 
-						"(calcExtdBukkitFortune: oDrops=%s mult= %sglbMult=%s drops=%s %s) ", 
-						iFmt.format( blockCount ),
-//						iFmt.format( multiplier ),
-						maxFort,
-						dFmt.format( fortuneMultiplierGlobal ),
-						iFmt.format( count ),
-						debugSb
-					);
-				debugInfo.append( msg );
+				if ( trace != null ) {
+					trace.group( "calcExtdBukkitFortune" ).field( "oDrops", blockCount );
+					if ( maxFort ) {
+						trace.field( "max", fortuneMultiplierMax );
+					}
+					trace.field( "glbMult", fortuneMultiplierGlobal )
+						.field( "drops", count )
+						.end();
+				}
 			}
 			
 			else if ( isBoolean( AutoFeatures.isCalculateAltFortuneEnabled ) ) {
 
+				if ( trace != null ) {
+					trace.group( "calcAltFortune" );
+				}
 				
 				// Due to variations with gold and wood PickAxe need to use a dynamic
 				// Material name selection which will fit for the version of MC that is
@@ -2711,7 +2724,7 @@ public abstract class AutoManagerFeatures
 						) {
 					
 					
-					multiplier = calculateFortuneMultiplier( fortuneLevel, debugSb );
+					multiplier = calculateFortuneMultiplier( fortuneLevel, trace );
 					
 //					// multiply the multiplier:
 //					count *= multiplier;
@@ -2733,16 +2746,15 @@ public abstract class AutoManagerFeatures
 				blocks.setAmount( count );
 				
 				
-				String msg = String.format( 
-						"(calcAltFortune: blks=%s mult=%s %sglbMult=%s drops=%s %s) ", 
-						iFmt.format( blockCount ),
-						iFmt.format( multiplier ),
-						maxFort,
-						dFmt.format( fortuneMultiplierGlobal ),
-						iFmt.format( count ),
-						debugSb
-						);
-				debugInfo.append( msg );
+				if ( trace != null ) {
+					trace.field( "blks", blockCount ).field( "mult", multiplier );
+					if ( maxFort ) {
+						trace.field( "max", fortuneMultiplierMax );
+					}
+					trace.field( "glbMult", fortuneMultiplierGlobal )
+						.field( "drops", count )
+						.end();
+				}
 			}
 			
 			else if ( isBoolean( AutoFeatures.isPercentGradientFortuneEnabled ) ) {
@@ -2773,18 +2785,16 @@ public abstract class AutoManagerFeatures
 				// The count has the final value so set it as the amount:
 				blocks.setAmount( 1 + bonusBlocks );
 			
-				String msg = String.format(
-						"(gradientFortune blocks: 1 + bonusBlocks=%s == (fortLevel=%s / maxFortLevel=%s) * "
-						+ "maxBonusBlocks=%s * rnd=%s [with minPctRnd=%s]) ",
-						iFmt.format( bonusBlocks ),
-						iFmt.format( fortLevel ),
-						iFmt.format( maxFortune ),
-						iFmt.format( maxBonusBlocks ),
-						dFmt.format( rnd ),
-						dFmt.format( minPctRnd )
-						);
-				
-				debugInfo.append( msg );
+				if ( trace != null ) {
+					trace.group( "gradientFortune" )
+						.field( "bonusBlocks", bonusBlocks )
+						.field( "fortLevel", (long) fortLevel )
+						.field( "maxFortLevel", (long) maxFortune )
+						.field( "maxBonusBlocks", maxBonusBlocks )
+						.field( "rnd", rnd )
+						.field( "minPctRnd", minPctRnd )
+						.end();
+				}
 			}
 		}
 
@@ -2968,7 +2978,7 @@ public abstract class AutoManagerFeatures
 	 * @param multiplier
 	 * @return Drop quantity to apply for 1 block breakage.  
 	 */
-	private int calculateFortuneMultiplier(int fortuneLevel, StringBuilder debugInfo) {
+	private int calculateFortuneMultiplier(int fortuneLevel, BlockBreakTrace trace) {
 		int rnd = getRandom().nextInt( 100 );
 		
 		int multiplier = 1;
@@ -3063,8 +3073,6 @@ public abstract class AutoManagerFeatures
 				
 				// Use a random number that is a double:
 				double rndD = getRandom().nextDouble() * 100d;
-				
-				DecimalFormat dFmt = new DecimalFormat( "#,##0.0000" );
 
 				if ( rndD <= threshold ) {
 					// Passed the threshold, so calculate the multiplier.
@@ -3078,21 +3086,12 @@ public abstract class AutoManagerFeatures
 					
 					// The multiplier is the floor of units. Do not round up.
 					multiplier = 1 + (int) Math.floor( units );
-					
-					
-					debugInfo.append( " [rnd: " + dFmt.format( rndD ) )
-								.append( " / threshold: " + threshold )
-								.append( " / fort: " + fortuneLevel )
-								.append( " =: " + multiplier )
-								.append( "] " );
 				}
-				else {
-					
-					debugInfo.append( " [multNotApplied rnd: " + dFmt.format( rndD ) )
-								.append( " threshold: " + threshold )
-								.append( " fort: " + fortuneLevel )
-								.append( " mult: " + multiplier )
-								.append( "] " );
+				
+				if ( trace != null ) {
+					trace.field( "rnd", rndD )
+						.field( "threshold", threshold )
+						.field( "multApplied", rndD <= threshold );
 				}
 
 		}
@@ -3169,7 +3168,7 @@ public abstract class AutoManagerFeatures
 	 * @param drops
 	 */
 	private void calculateDropAdditions(SpigotItemStack itemInHand, List<SpigotItemStack> drops,
-						StringBuilder debugInfo ) {
+						BlockBreakTrace trace ) {
 		
 		if ( isBoolean( AutoFeatures.isCalculateDropAdditionsEnabled ) ) {
 			
@@ -3180,7 +3179,7 @@ public abstract class AutoManagerFeatures
 				// If gravel and has the 10% chance whereas rnd is zero, which is 1 out of 10.
 				// But if has silk touch, then never drop flint.
 				adds.addAll( 
-						calculateDropAdditionsGravelFlint( itemInHand, itemStack, drops, debugInfo ) );
+						calculateDropAdditionsGravelFlint( itemInHand, itemStack, drops, trace ) );
 			}
 			
 			if ( adds.size() > 0 ) {
@@ -3208,21 +3207,19 @@ public abstract class AutoManagerFeatures
 	private List<SpigotItemStack> calculateDropAdditionsGravelFlint(SpigotItemStack itemInHand, 
 											SpigotItemStack itemStack,
 												   List<SpigotItemStack> drops, 
-												   StringBuilder debugInfo  ) {
+												   BlockBreakTrace trace  ) {
 		List<SpigotItemStack> adds = new ArrayList<SpigotItemStack>();
 		
 		PrisonBlock gravel = SpigotUtil.getPrisonBlock( XMaterial.GRAVEL );
 		
 		if (itemStack.getMaterial().compareTo( gravel ) == 0 && !hasSilkTouch(itemInHand)) {
 
-			StringBuilder debugSb = new StringBuilder();
-			
 			int quantity = 1;
 			int threshold = 10;
 
 			// If fortune is enabled on the tool, then increase drop odds by:
 			//  1 = 14%, 2 = 25%, 3+ = 100%
-			int fortune = getFortune(itemInHand, debugSb);
+			int fortune = getFortune(itemInHand, trace);
 			switch (fortune) {
 				case 0:
 					// No additional threshold when fortune is zero:
@@ -3257,11 +3254,9 @@ public abstract class AutoManagerFeatures
 				SpigotItemStack flintStack = new SpigotItemStack( quantity, flint );
 				adds.add(flintStack);
 
-				debugInfo.append( "(add flint drop: qty=" )
-						.append( quantity )
-						.append( " [)" )
-						.append( debugSb )
-						.append( "])" );
+				if ( trace != null ) {
+					trace.group( "addFlintDrop" ).field( "qty", quantity ).end();
+				}
 			}
 			
 		}
@@ -3359,7 +3354,7 @@ public abstract class AutoManagerFeatures
 	public void removeEventTriggerBlocksFromExplosions( PrisonMinesBlockBreakEvent pmEvent ) {
 		
 		if ( pmEvent.getUnprocessedRawBlocks().size() > 0 &&
-				AutoFeaturesWrapper.getBlockConvertersInstance().getEventTriggerBlockNames().size() > 0 ) {
+				AutoFeaturesWrapper.getBlockConvertersInstance().getLookup().getEventTriggerBlockNames().size() > 0 ) {
 			
 			long start = System.currentTimeMillis();
 			
@@ -3368,14 +3363,14 @@ public abstract class AutoManagerFeatures
 			
 			TreeMap<String,Integer> blockCounts = new TreeMap<>();
 
-			List<String> blockNamesToRemove = AutoFeaturesWrapper.getBlockConvertersInstance().getEventTriggerBlockNames();
+			BlockConvertersFileConfig bcConfig = AutoFeaturesWrapper.getBlockConvertersInstance();
 			List<Block> removeBlocks = new ArrayList<>();
 			
 			for (Block block : pmEvent.getUnprocessedRawBlocks()) {
 				SpigotBlock sBlock = SpigotBlock.getSpigotBlock( block );
 				String blockName = sBlock.getBlockName().toLowerCase();
 				
-				if ( blockNamesToRemove.contains( blockName ) ) {
+				if ( bcConfig.isEventTriggerBlockName( blockName ) ) {
 					removeBlocks.add( block );
 					
 					if ( !blockCounts.containsKey(blockName) ) {
@@ -0,0 +1,323 @@
+package tech.mcprison.prison.spigot.autofeatures;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.cryptomorin.xseries.XMaterial;
+
+import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+import tech.mcprison.prison.spigot.block.SpigotItemStack;
+import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
+
+/**
+ * <p>Holds the drops of one block break event as a count for each item,
+ * instead of as a list of ItemStacks.  Adding a drop for an item that is
+ * already in the accumulator only adds to its count, and the smelting and
+ * blocking conversions are applied to the counts, so no ItemStacks are
+ * created or searched for while the drops are being processed.
+ * </p>
+ *
+ * <p>The first ItemStack that is added for each item is kept, and it is
+ * reused to hold the final count when the drops are materialized, so the
+ * item's meta data is not lost.  Items are identified by their name, the
+ * same as with mergeDrops().
+ * </p>
+ *
+ * <p>Within the accumulator, the items are matched by the name of their
+ * XMaterial, and the XMaterial of an item is only resolved once.
+ * </p>
+ *
+ */
+public class DropAccumulator
+{
+	private final Map<String, DropCount> drops;
+
+	public DropAccumulator() {
+		super();
+
+		this.drops = new LinkedHashMap<>();
+	}
+
+	public DropAccumulator( List<SpigotItemStack> drops ) {
+		this();
+
+		for ( SpigotItemStack drop : drops ) {
+			add( drop );
+		}
+	}
+
+	/**
+	 * <p>Adds the item stack's amount to the count of its item.
+	 * </p>
+	 *
+	 * @param itemStack
+	 */
+	public void add( SpigotItemStack itemStack ) {
+
+		if ( itemStack != null && itemStack.getAmount() > 0 ) {
+
+			String key = itemStack.getName();
+
+			DropCount dropCount = drops.get( key );
+
+			if ( dropCount == null ) {
+				drops.put( key, new DropCount( itemStack, this ) );
+			}
+			else {
+				dropCount.add( itemStack.getAmount() );
+			}
+		}
+	}
+
+	/**
+	 * <p>Converts all of the source items to the target item, at the ratio of
+	 * source items per target item.  The remainder that cannot be converted
+	 * stays as the source item.  This is used for both smelting, with a ratio
+	 * of 1, and blocking.  If the target item cannot be created, then all of 
+	 * the source items are kept.
+	 * </p>
+	 *
+	 * @param source
+	 * @param target
+	 * @param ratio
+	 */
+	public void convert( XMaterial source, XMaterial target, int ratio ) {
+
+		convert( source.name(), target.name(), ratio, () -> createItemStack( target ) );
+	}
+
+	/**
+	 * <p>Converts the source items to the target item, where the items are 
+	 * identified by their XMaterial names.  The targetFactory is only used 
+	 * if there are no target items yet.
+	 * </p>
+	 *
+	 * @param sourceName
+	 * @param targetName
+	 * @param ratio
+	 * @param targetFactory Creates one of the target item, or returns null if
+	 * 				it cannot be created.
+	 */
+	protected void convert( String sourceName, String targetName, int ratio,
+					Supplier<SpigotItemStack> targetFactory ) {
+
+		int sourceCount = 0;
+		DropCount sourceDrop = null;
+		DropCount targetDrop = null;
+
+		Iterator<DropCount> itr = drops.values().iterator();
+		while ( itr.hasNext() ) {
+			DropCount dropCount = itr.next();
+
+			String materialName = dropCount.getMaterialName();
+
+			if ( sourceName.equals( materialName ) ) {
+				sourceCount += dropCount.getCount();
+
+				if ( sourceDrop == null ) {
+					sourceDrop = dropCount;
+				}
+				else {
+					itr.remove();
+				}
+			}
+			else if ( targetName.equals( materialName ) && targetDrop == null ) {
+				targetDrop = dropCount;
+			}
+		}
+
+		if ( sourceDrop == null ) {
+			return;
+		}
+
+		// All of the source items are now held by the sourceDrop:
+		sourceDrop.setCount( sourceCount );
+
+		int targetCount = ratio < 1 ? 0 : sourceCount / ratio;
+
+		if ( targetCount == 0 ) {
+			return;
+		}
+
+		if ( targetDrop == null ) {
+			SpigotItemStack sItemStack = targetFactory.get();
+
+			if ( sItemStack != null ) {
+				targetDrop = new DropCount( sItemStack, this );
+				targetDrop.setCount( 0 );
+
+				drops.put( sItemStack.getName(), targetDrop );
+			}
+		}
+
+		// Only remove the source items once they have a target to go to:
+		if ( targetDrop != null ) {
+			targetDrop.add( targetCount );
+
+			sourceDrop.setCount( sourceCount - (targetCount * ratio) );
+		}
+	}
+
+	private SpigotItemStack createItemStack( XMaterial target ) {
+		SpigotItemStack results = null;
+
+		org.bukkit.inventory.ItemStack iStack = target.parseItem();
+
+		if ( iStack != null ) {
+			iStack.setAmount( 1 );
+
+			results = new SpigotItemStack( iStack );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Resolves the XMaterial name of an item.  Custom items cannot be 
+	 * smelted or blocked, so they do not have an XMaterial, and a null is 
+	 * returned for them.
+	 * </p>
+	 *
+	 * @param itemStack
+	 * @return
+	 */
+	protected String getMaterialName( SpigotItemStack itemStack ) {
+		XMaterial xMat = null;
+
+		PrisonBlockType blockType = itemStack.getMaterial() == null ? null :
+										itemStack.getMaterial().getBlockType();
+
+		if ( blockType != PrisonBlockType.CustomItems &&
+				blockType != PrisonBlockType.ItemsAdder ) {
+
+			try {
+				if ( itemStack.getBukkitStack() != null ) {
+
+					xMat = XMaterial.matchXMaterial( itemStack.getBukkitStack() );
+				}
+				else if ( itemStack.getMaterial() != null ) {
+
+					xMat = SpigotCompatibility.getInstance().getXMaterial( itemStack.getMaterial() );
+				}
+			}
+			catch ( Exception e ) {
+
+				// Ignore: Enchanting plugins assign custom data values which can cause a
+				//         mis-mapping on pre v1.13 platforms.  These cannot be converted.
+			}
+		}
+
+		return xMat == null ? null : xMat.name();
+	}
+
+	/**
+	 * <p>The XMaterials of all of the items that have a count.  Custom items
+	 * do not have an XMaterial so they are not included.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public Set<XMaterial> getXMaterials() {
+		Set<XMaterial> results = new LinkedHashSet<>();
+
+		for ( DropCount dropCount : drops.values() ) {
+			String materialName = dropCount.getMaterialName();
+
+			if ( materialName != null && dropCount.getCount() > 0 ) {
+				results.add( XMaterial.valueOf( materialName ) );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Materializes the counts in to one ItemStack per item, with the total
+	 * count as its amount.  These stacks may be larger than the item's max
+	 * stack size, and they are only split when they are added to an inventory.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public List<SpigotItemStack> getDrops() {
+		List<SpigotItemStack> results = new ArrayList<>( drops.size() );
+
+		for ( DropCount dropCount : drops.values() ) {
+
+			if ( dropCount.getCount() > 0 ) {
+				results.add( dropCount.toItemStack() );
+			}
+		}
+
+		return results;
+	}
+
+	public int getTotalCount() {
+		int results = 0;
+
+		for ( DropCount dropCount : drops.values() ) {
+			results += dropCount.getCount();
+		}
+
+		return results;
+	}
+
+	private static class DropCount {
+
+		private final SpigotItemStack itemStack;
+		private final DropAccumulator accumulator;
+		private int count;
+
+		private String materialName;
+		private boolean materialResolved = false;
+
+		public DropCount( SpigotItemStack itemStack, DropAccumulator accumulator ) {
+			super();
+
+			this.itemStack = itemStack;
+			this.accumulator = accumulator;
+			this.count = itemStack.getAmount();
+		}
+
+		public void add( int amount ) {
+			count += amount;
+		}
+
+		/**
+		 * <p>The XMaterial name is only resolved once for each item.
+		 * </p>
+		 *
+		 * @return
+		 */
+		public String getMaterialName() {
+
+			if ( !materialResolved ) {
+				materialResolved = true;
+
+				materialName = accumulator.getMaterialName( itemStack );
+			}
+
+			return materialName;
+		}
+
+		public SpigotItemStack toItemStack() {
+			if ( itemStack.getAmount() != count ) {
+				itemStack.setAmount( count );
+			}
+			return itemStack;
+		}
+
+		public int getCount() {
+			return count;
+		}
+		public void setCount( int count ) {
+			this.count = count;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package tech.mcprison.prison.spigot.block;
+
+import java.util.List;
+
+import org.bukkit.Bukkit;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockPhysicsEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+
+import tech.mcprison.prison.mines.PrisonMines;
+import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.spigot.SpigotPrison;
+
+/**
+ * <p>Marks the chunk sections within the mines that have had a block change,
+ * so the mine sweeper only has to check those sections instead of the whole
+ * mine.  The physics events are included since a plugin that sets a block
+ * to air, without firing a block break event, will still cause a physics
+ * update for the blocks next to it.
+ * </p>
+ *
+ * <p>All of these listeners are at MONITOR, so they only observe the events
+ * and never change them.  The events are ignored right away if no mine has 
+ * the mine sweeper enabled.  Otherwise the mine is looked up by the block's 
+ * coordinates, and nothing is marked unless the mine has the mine sweeper 
+ * enabled.
+ * </p>
+ *
+ */
+public class MineSweeperDirtyListener
+	implements Listener
+{
+
+	public void registerEvents() {
+
+		SpigotPrison prison = SpigotPrison.getInstance();
+
+		Bukkit.getServer().getPluginManager().registerEvents( this, prison );
+
+		prison.getRegisteredBlockListeners().add( this );
+	}
+
+	@EventHandler(priority=EventPriority.MONITOR, ignoreCancelled=true)
+	public void onBlockBreak( BlockBreakEvent e ) {
+		markDirty( e.getBlock(), false );
+	}
+
+	@EventHandler(priority=EventPriority.MONITOR, ignoreCancelled=true)
+	public void onBlockPhysics( BlockPhysicsEvent e ) {
+		markDirty( e.getBlock(), true );
+	}
+
+	@EventHandler(priority=EventPriority.MONITOR, ignoreCancelled=true)
+	public void onBlockFade( BlockFadeEvent e ) {
+		markDirty( e.getBlock(), false );
+	}
+
+	@EventHandler(priority=EventPriority.MONITOR, ignoreCancelled=true)
+	public void onEntityChangeBlock( EntityChangeBlockEvent e ) {
+		markDirty( e.getBlock(), false );
+	}
+
+	@EventHandler(priority=EventPriority.MONITOR, ignoreCancelled=true)
+	public void onBlockExplode( BlockExplodeEvent e ) {
+		markDirty( e.blockList() );
+	}
+
+	@EventHandler(priority=EventPriority.MONITOR, ignoreCancelled=true)
+	public void onEntityExplode( EntityExplodeEvent e ) {
+		markDirty( e.blockList() );
+	}
+
+	private void markDirty( List<Block> blocks ) {
+		
+		PrisonMines prisonMines = PrisonMines.getInstance();
+		
+		if ( prisonMines == null || prisonMines.getMineManager() == null ||
+				!prisonMines.getMineManager().isMineSweeperInUse() ) {
+			return;
+		}
+
+		for ( Block block : blocks ) {
+			markDirty( block, false );
+		}
+	}
+
+	private void markDirty( Block block, boolean includeNeighbors ) {
+
+		PrisonMines prisonMines = PrisonMines.getInstance();
+
+		if ( block == null || prisonMines == null || !prisonMines.isEnabled() ||
+				prisonMines.getMineManager() == null ||
+				!prisonMines.getMineManager().isMineSweeperInUse() ) {
+			return;
+		}
+
+		int x = block.getX();
+		int y = block.getY();
+		int z = block.getZ();
+
+		Mine mine = prisonMines.findMineLocationExact( block.getWorld().getName(), x, y, z );
+
+		if ( mine != null ) {
+
+			mine.markMineSweeperDirty( x, y, z, includeNeighbors );
+		}
+	}
+}
@@ -1,7 +1,10 @@
 package tech.mcprison.prison.spigot.block;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Random;
 
 import org.bukkit.block.Block;
@@ -24,6 +27,7 @@ import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
 import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.features.MineBlockEvent.BlockEventType;
+import tech.mcprison.prison.output.BlockBreakTrace;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.output.Output.DebugTarget;
 import tech.mcprison.prison.spigot.SpigotPrison;
@@ -238,21 +242,13 @@ public abstract class OnBlockBreakEventCore
 
 		if ( pmEvent.getMine() != null ) {
 			
+			List<MineTargetPrisonBlock> targetBlocks = getAllTargetBlocks( pmEvent );
+			
 			// Count the blocks that were mined:
-			countBlocksMined( pmEvent, pmEvent.getTargetBlock() );
+			countBlocksMined( pmEvent, targetBlocks );
 			
 			// process the prison blockEvents commands:
-			processPrisonBlockEventCommands( pmEvent, pmEvent.getTargetBlock() );
-
-			
-			for ( MineTargetPrisonBlock teBlock : pmEvent.getTargetExplodedBlocks() ) {
-				
-				// Count the blocks that were mined:
-				countBlocksMined( pmEvent, teBlock );
-				
-				// process the prison blockEvents commands:
-				processPrisonBlockEventCommands( pmEvent, teBlock );
-			}
+			processPrisonBlockEventCommands( pmEvent, targetBlocks );
 			
 			checkZeroBlockReset( pmEvent.getMine() );
 			
@@ -389,8 +385,12 @@ public abstract class OnBlockBreakEventCore
 		
 		
 		SpigotItemStack itemInHand = pmEvent.getItemInHand();
-		debugInfo.append( "itemInHand=[" +
-					( itemInHand == null ? "AIR" : itemInHand.getDebugInfo()) + "] ");
+		
+		BlockBreakTrace trace = pmEvent.getTrace();
+		if ( trace != null ) {
+			trace.field( "itemInHand", 
+					( itemInHand == null ? "AIR" : itemInHand.getDebugInfo()) );
+		}
 		
 		
 		// Since BlastUseEvent (crazy enchant) does not identify the block that is initially 
@@ -416,7 +416,7 @@ public abstract class OnBlockBreakEventCore
 			boolean targetBlockAlreadyMined = false;
 			
 			// Get the mine's targetBlock:
-			MineTargetPrisonBlock targetBlock = mine.getTargetPrisonBlock( sBlockHit );
+			MineTargetPrisonBlock targetBlock = getTargetPrisonBlock( mine, sBlockHit );
 			pmEvent.setTargetBlock( targetBlock );
 			
 			// NOTE: I have no idea why 25 blocks and less should be bypassed for validation:
@@ -585,21 +585,43 @@ public abstract class OnBlockBreakEventCore
 			// of the blocks could be marked as being mined but then never processed.
 			if ( results ) {
 				
+				String hitWorldName = sBlockHit == null ? null : 
+										sBlockHit.getLocation().getWorld().getName();
+				int hitX = sBlockHit == null ? 0 : sBlockHit.getLocation().getBlockX();
+				int hitY = sBlockHit == null ? 0 : sBlockHit.getLocation().getBlockY();
+				int hitZ = sBlockHit == null ? 0 : sBlockHit.getLocation().getBlockZ();
+				
 				for ( Block bukkitBlock : pmEvent.getUnprocessedRawBlocks() ) 
 				{
-					SpigotBlock sBlockMined = SpigotBlock.getSpigotBlock( bukkitBlock );
+					if ( sBlockHit == null || bukkitBlock == null ) {
+						continue;
+					}
+					
+					String worldName = bukkitBlock.getWorld().getName();
+					int x = bukkitBlock.getX();
+					int y = bukkitBlock.getY();
+					int z = bukkitBlock.getZ();
 					
 					// Thanks to CrazyEnchant, there is no telling which block was actually hit, so 
 					// if using CrazyEnchant one of the unprocessedRawBlocks may be the same as the
 					// pmEvent.getSpigotBlock(), so ignore if both are the same.
-					// Compare the locations...
-					if ( sBlockHit != null && sBlockMined != null &&
-							!sBlockHit.getLocation().equals( sBlockMined.getLocation() ) ) {
+					// Compare the coordinates before wrapping the block, so the blocks 
+					// that are skipped, or are outside of the mine, are never wrapped.
+					if ( x == hitX && y == hitY && z == hitZ && 
+							worldName.equalsIgnoreCase( hitWorldName ) ) {
+						continue;
+					}
+					
+					if ( !mine.isInMineExact( worldName, x, y, z ) ) {
+						outsideOfMine++;
+						continue;
+					}
+					
+					SpigotBlock sBlockMined = SpigotBlock.getSpigotBlock( bukkitBlock );
+					
+					if ( sBlockMined != null ) {
 						
-						if ( !mine.isInMineExact( sBlockMined.getLocation() ) ) {
-							outsideOfMine++;
-						}
-						else if ( BlockUtils.getInstance().isUnbreakable( sBlockMined ) ) {
+						if ( BlockUtils.getInstance().isUnbreakable( sBlockMined ) ) {
 							
 							unbreakable++;
 						}
@@ -615,7 +637,7 @@ public abstract class OnBlockBreakEventCore
 						else {
 							
 							// Get the mine's targetBlock:
-							MineTargetPrisonBlock targetExplodedBlock = mine.getTargetPrisonBlock( sBlockMined );
+							MineTargetPrisonBlock targetExplodedBlock = getTargetPrisonBlock( mine, sBlockMined );
 							
 							boolean matchedExplodedBlocks = isBlockAMatch( targetExplodedBlock, sBlockMined );
 							
@@ -701,45 +723,32 @@ public abstract class OnBlockBreakEventCore
 			}
 			
 			
-			if ( pmEvent.getExplodedBlocks().size() > 0 ) {
-				
-				debugInfo.append( "VALIDATED_BLOCKS_IN_EXPLOSION (" + 
-							pmEvent.getExplodedBlocks().size() + 
-						" blocks) " );
-			}
-			if ( unbreakable > 0 ) {
-				
-				pmEvent.setDebugColorCodeWarning();
-				debugInfo.append( "UNBREAKABLE_BLOCK_UTILS (" + unbreakable + 
-						" blocks, event not canceled) " );
-				pmEvent.setDebugColorCodeDebug();
-			}
-			if ( outsideOfMine > 0 ) {
-				
-				debugInfo.append( "BLOCKS_OUTSIDE_OF_MINE (" + outsideOfMine + 
-						" blocks, event not canceled) " );
-			}
-			if ( alreadyMined > 0 ) {
-				
-				debugInfo.append( "BLOCKS_ALREADY_MINED (" + alreadyMined + 
-						" ) " );
-			}
-			if ( monitorNotAir > 0 ) {
-				
-				debugInfo.append( "MONITOR_BLOCKS_NOT_AIR (" + monitorNotAir + 
-						" ) " );
-			}
-			if ( noTargetBlock > 0 ) {
+			if ( trace != null ) {
 				
-				debugInfo.append( "NO_TARGET_BLOCKS (" + noTargetBlock + 
-						" ) " );
-			}
-			if ( blockTypeNotExpected > 0 ) {
-				
-				pmEvent.setDebugColorCodeWarning();
-				debugInfo.append( "BLOCK_TYPE_NOT_EXPECTED__CANNOT_PROCESS (" + blockTypeNotExpected + 
-						" ) " );
-				pmEvent.setDebugColorCodeDebug();
+				if ( pmEvent.getExplodedBlocks().size() > 0 ) {
+					trace.group( "VALIDATED_BLOCKS_IN_EXPLOSION" )
+						.field( "blocks", pmEvent.getExplodedBlocks().size() ).end();
+				}
+				if ( unbreakable > 0 ) {
+					trace.warning( "UNBREAKABLE_BLOCK_UTILS (" + unbreakable + 
+							" blocks, event not canceled) " );
+				}
+				if ( outsideOfMine > 0 ) {
+					trace.group( "BLOCKS_OUTSIDE_OF_MINE" ).field( "blocks", outsideOfMine ).end();
+				}
+				if ( alreadyMined > 0 ) {
+					trace.group( "BLOCKS_ALREADY_MINED" ).field( "blocks", alreadyMined ).end();
+				}
+				if ( monitorNotAir > 0 ) {
+					trace.group( "MONITOR_BLOCKS_NOT_AIR" ).field( "blocks", monitorNotAir ).end();
+				}
+				if ( noTargetBlock > 0 ) {
+					trace.group( "NO_TARGET_BLOCKS" ).field( "blocks", noTargetBlock ).end();
+				}
+				if ( blockTypeNotExpected > 0 ) {
+					trace.warning( "BLOCK_TYPE_NOT_EXPECTED__CANNOT_PROCESS (" + blockTypeNotExpected + 
+							" ) " );
+				}
 			}
 			
 			
@@ -777,11 +786,12 @@ public abstract class OnBlockBreakEventCore
 		}
 		
 		
-		debugInfo.append( " blocks(" )
-			.append( pmEvent.getBlock() == null ? "0" : "1" )
-			.append( "+" )
-			.append( pmEvent.getExplodedBlocks().size() )
-			.append( ") " );
+		if ( trace != null ) {
+			trace.group( "blocks" )
+				.field( "target", pmEvent.getBlock() == null ? 0 : 1 )
+				.field( "exploded", pmEvent.getExplodedBlocks().size() )
+				.end();
+		}
 
 		if ( isToolDisabled( pmEvent.getPlayer() ) ) {
 			
@@ -951,28 +961,24 @@ public abstract class OnBlockBreakEventCore
 				}
 			}
 			
-			countBlocksMined( pmEvent, sBlockHit );
+			// The hit block and the exploded blocks are counted, and have their 
+			// block events processed, as one batch:
+			List<MineTargetPrisonBlock> targetBlocks = getAllTargetBlocks( pmEvent );
+			
+			countBlocksMined( pmEvent, targetBlocks );
 				
 			if ( isBlockEvents ) {
-				processPrisonBlockEventCommands( pmEvent, sBlockHit );
+				processPrisonBlockEventCommands( pmEvent, targetBlocks );
 			}
 			
 			debugInfo.append( "(MONITOR - singular) " );
 			
 			if ( pmEvent.getExplodedBlocks().size() > 0 ) {
 				
-				for ( SpigotBlock sBlock : pmEvent.getExplodedBlocks() ) {
-    				
-					countBlocksMined( pmEvent, sBlock );
-						
-					if ( isBlockEvents ) {
-						processPrisonBlockEventCommands( pmEvent, sBlock );
-					}
+    			if ( trace != null ) {
+    				trace.group( "MONITOR - Exploded Blocks - finalized" )
+    					.field( "blocks", pmEvent.getExplodedBlocks().size() ).end();
     			}
-
-    			debugInfo.append( "(MONITOR - " + 
-						pmEvent.getExplodedBlocks().size() +
-							" Exploded Blocks - finalized) " );
 			}
 
 			
@@ -1115,24 +1121,63 @@ public abstract class OnBlockBreakEventCore
 	
 	
 	/**
-	 * <p>Performs block counts.
+	 * <p>Returns the event's target block, followed by all of the exploded
+	 * target blocks, so they can be processed as one batch.
 	 * </p>
 	 * 
-	 * @param block
-	 * @param mine
+	 * @param pmEvent
+	 * @return
+	 */
+	private List<MineTargetPrisonBlock> getAllTargetBlocks( PrisonMinesBlockBreakEvent pmEvent ) {
+		List<MineTargetPrisonBlock> results = 
+				new ArrayList<>( pmEvent.getTargetExplodedBlocks().size() + 1 );
+		
+		if ( pmEvent.getTargetBlock() != null ) {
+			results.add( pmEvent.getTargetBlock() );
+		}
+		results.addAll( pmEvent.getTargetExplodedBlocks() );
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Performs block counts for all of the target blocks of one event.  The
+	 * mine's counts are incremented for each block, but the player's counts are
+	 * added once per block type, instead of once per block.
+	 * </p>
+	 * 
+	 * @param pmEvent
+	 * @param targetBlocks
 	 */
-	private void countBlocksMined( PrisonMinesBlockBreakEvent pmEvent, SpigotBlock block ) {
+	private void countBlocksMined( PrisonMinesBlockBreakEvent pmEvent, 
+					List<MineTargetPrisonBlock> targetBlocks ) {
 		
-		if ( pmEvent.getMine() != null && block != null ) {
+		if ( pmEvent.getMine() != null && targetBlocks.size() > 0 ) {
 			
 			Mine mine = pmEvent.getMine();
 			
-			// Good chance the block was already counted, but just in case it wasn't:
-			MineTargetPrisonBlock targetBlock = mine.getTargetPrisonBlock( block );
+			Map<PrisonBlockStatusData, int[]> blockCounts = new LinkedHashMap<>();
 			
-			// Record the block break counts:
-			countBlocksMined( pmEvent, targetBlock );
-
+			for ( MineTargetPrisonBlock targetBlock : targetBlocks ) {
+				
+				// Increment the block break counts if they have not been processed before.
+				// Since the function return true if it can count the block, then we can 
+				// then have the player counts be incremented.
+				if ( targetBlock != null && 
+						targetBlock.getPrisonBlock() != null && 
+						!targetBlock.isCounted() &&
+						mine.incrementBlockMiningCount( targetBlock ) ) {
+					
+					blockCounts.computeIfAbsent( targetBlock.getPrisonBlock(), 
+										k -> new int[1] )[0]++;
+				}
+			}
+			
+			for ( Entry<PrisonBlockStatusData, int[]> blockCount : blockCounts.entrySet() ) {
+				
+				PlayerCache.getInstance().addPlayerBlocks( pmEvent.getSpigotPlayer(), 
+						mine.getName(), blockCount.getKey(), blockCount.getValue()[0] );
+			}
 		}
 	}
 	
@@ -1163,39 +1208,25 @@ public abstract class OnBlockBreakEventCore
 		return results;
 	}
 	
-	
-	private void processPrisonBlockEventCommands( 
-			PrisonMinesBlockBreakEvent pmEvent, SpigotBlock spigotBlock ) {
-		
-		if ( pmEvent.getMine() != null && spigotBlock != null ) {
-			
-			Mine mine = pmEvent.getMine();
-
-			MineTargetPrisonBlock targetBlock = mine.getTargetPrisonBlock( spigotBlock );
-			
-			if ( targetBlock != null ) {
-				
-				processPrisonBlockEventCommands( pmEvent, targetBlock );
-				
-			}
-		}
-	}
-	
+	/**
+	 * <p>Processes the prison blockEvents for all of the target blocks of one 
+	 * event as one batch, so all of their commands are submitted together.
+	 * </p>
+	 * 
+	 * @param pmEvent
+	 * @param targetBlocks
+	 */
 	private void processPrisonBlockEventCommands( PrisonMinesBlockBreakEvent pmEvent, 
-					MineTargetPrisonBlock targetBlock ) {
+					List<MineTargetPrisonBlock> targetBlocks ) {
 
 		// Do not allow MONITOR or ACCESSMONITOR to process the block events:
-		if ( targetBlock != null && pmEvent.getMine() != null &&
+		if ( targetBlocks.size() > 0 && pmEvent.getMine() != null &&
 				pmEvent.getBbPriority() != BlockBreakPriority.MONITOR &&
 				pmEvent.getBbPriority() != BlockBreakPriority.ACCESSMONITOR ) {
 			
 			Mine mine = pmEvent.getMine();
 			
-			SpigotBlock sBlock = (SpigotBlock) targetBlock.getMinedBlock();
-			PrisonBlock pBlock = sBlock == null ? null : sBlock.getPrisonBlock();
-			
-			mine.processBlockBreakEventCommands( pBlock,
-					targetBlock, 
+			mine.processBlockBreakEventCommands( targetBlocks, 
 					pmEvent.getSpigotPlayer(), 
 					pmEvent.getBlockEventType(), 
 					pmEvent.getTriggered() );
@@ -1262,7 +1293,9 @@ public abstract class OnBlockBreakEventCore
 		AutoManagerFeatures aMan = SpigotPrison.getInstance().getAutoFeatures();
 		int totalDrops = aMan.calculateNormalDrop( pmEvent );
 		
-		pmEvent.getDebugInfo().append( "(normalDrops totalDrops: " + totalDrops + ") ");
+		if ( pmEvent.isTracing() ) {
+			pmEvent.getTrace().group( "normalDrops" ).field( "totalDrops", totalDrops ).end();
+		}
 		
 		return applyDropsBlockBreakage( pmEvent, totalDrops );
 	}
@@ -1272,7 +1305,10 @@ public abstract class OnBlockBreakEventCore
 		boolean success = false;
 	
 		// The explodedBlocks list have already been validated as being within the mine:
-		pmEvent.getDebugInfo().append( "(applyDropsBlockBreakage multi-blocks: " + pmEvent.getTargetExplodedBlocks().size() + ") ");
+		if ( pmEvent.isTracing() ) {
+			pmEvent.getTrace().group( "applyDropsBlockBreakage" )
+				.field( "multi-blocks", pmEvent.getTargetExplodedBlocks().size() ).end();
+		}
 		
 
 		// Process the blockBreakage which actually breaks the block, calculates and gives the player xp, 
@@ -1402,7 +1438,7 @@ public abstract class OnBlockBreakEventCore
 			
 			// Calculate XP for all blocks if enabled:
 			int totalXp = xpCalculateXP( pmEvent );
-			xpGivePlayerXp( pmEvent.getSpigotPlayer(), totalXp, pmEvent.getDebugInfo() );
+			xpGivePlayerXp( pmEvent.getSpigotPlayer(), totalXp, pmEvent );
 
 			
 			int blocksMined = (pmEvent.getTargetBlock() == null ? 0 : 1 ) + pmEvent.getTargetExplodedBlocks().size();
@@ -1625,7 +1661,7 @@ public abstract class OnBlockBreakEventCore
 	 * @param totalXp
 	 * @param debugInfo
 	 */
-	protected void xpGivePlayerXp(SpigotPlayer player, int totalXp, StringBuilder debugInfo ) {
+	protected void xpGivePlayerXp(SpigotPlayer player, int totalXp, PrisonMinesBlockBreakEvent pmEvent ) {
 		
 		if ( totalXp > 0 ) {
 			
@@ -1641,7 +1677,10 @@ public abstract class OnBlockBreakEventCore
 				player.giveExp( totalXp );
 			}
 			
-			debugInfo.append( "(xp " + totalXp + ( giveXpOrbs ? "Orbs" : "direct") + ") " );
+			if ( pmEvent.isTracing() ) {
+				pmEvent.getDebugInfo().append( "(xp " ).append( totalXp )
+						.append( giveXpOrbs ? "Orbs" : "direct" ).append( ") " );
+			}
 		}
 		
 	}
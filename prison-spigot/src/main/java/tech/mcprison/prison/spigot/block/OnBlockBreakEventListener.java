@@ -121,6 +121,8 @@ public class OnBlockBreakEventListener
 	
 	private PrisonDebugBlockInspector pdBlockInspector;
 	
+	private MineSweeperDirtyListener mineSweeperListener;
+	
 	
 	
 	
@@ -273,6 +275,10 @@ public class OnBlockBreakEventListener
 			
 		}
 		
+		// Tracks the mine sections that have changed so the mine sweeper only checks those:
+		mineSweeperListener = new MineSweeperDirtyListener();
+		mineSweeperListener.registerEvents();
+		
 		pdBlockInspector = PrisonDebugBlockInspector.getInstance();
 		pdBlockInspector.getClass();
 		
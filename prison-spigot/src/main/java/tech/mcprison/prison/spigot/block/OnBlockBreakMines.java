@@ -20,6 +20,7 @@ import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.mines.managers.PlayerMineCache;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotUtil;
@@ -190,12 +191,13 @@ public class OnBlockBreakMines
 	
 	public Mine findMine( UUID playerUUID, SpigotBlock sBlock, List<Block> altBlocksSource, PrisonMinesBlockBreakEvent pmEvent )
 	{
-		Long playerUUIDLSB = Long.valueOf( playerUUID.getLeastSignificantBits() );
-
+		PlayerMineCache playerCache = getPlayerCache();
+		
 		// Get the cached mine, if it exists:
-		Mine mine = getPlayerCache().get( playerUUIDLSB );
+		Mine mine = playerCache == null ? null : 
+			playerCache.get( playerUUID, m -> sBlock == null || m.isInMineExact( sBlock.getLocation() ) );
 		
-		if ( mine == null || sBlock != null && !mine.isInMineExact( sBlock.getLocation() ) )
+		if ( mine == null )
 		{
 			// Look for the correct mine to use.
 			// Set mine to null so if cannot find the right one it will return a
@@ -229,9 +231,9 @@ public class OnBlockBreakMines
 			}
 
 			// Store the mine in the player cache if not null:
-			if ( mine != null )
+			if ( mine != null && playerCache != null )
 			{
-				getPlayerCache().put( playerUUIDLSB, mine );
+				playerCache.put( playerUUID, mine );
 			}
 		}
 
@@ -351,7 +353,7 @@ public class OnBlockBreakMines
 				}
 				else {
 					
-					MineTargetPrisonBlock targetBlock = mine.getTargetPrisonBlock( sBlock );
+					MineTargetPrisonBlock targetBlock = getTargetPrisonBlock( mine, sBlock );
 					
 					if ( targetBlock != null ) {
 						
@@ -478,6 +480,36 @@ public class OnBlockBreakMines
 	
 	
 	
+	/**
+	 * <p>Gets the mine's target block using the bukkit block's coordinates so
+	 * there is no need to build a prison Location, or a world wrapper, for 
+	 * every block that is looked up.  This is used for every block within an 
+	 * explosion event, so it needs to be as light as possible.
+	 * </p>
+	 * 
+	 * @param mine
+	 * @param sBlock
+	 * @return
+	 */
+	public MineTargetPrisonBlock getTargetPrisonBlock( Mine mine, SpigotBlock sBlock ) {
+		MineTargetPrisonBlock results = null;
+		
+		if ( mine != null && sBlock != null ) {
+			
+			Block bBlock = sBlock.getWrapper();
+			
+			if ( bBlock == null ) {
+				results = mine.getTargetPrisonBlock( sBlock );
+			}
+			else {
+				results = mine.getTargetPrisonBlock( bBlock.getWorld().getName(), 
+									bBlock.getX(), bBlock.getY(), bBlock.getZ() );
+			}
+		}
+		
+		return results;
+	}
+	
 	/**
 	 * <p>Checks only if the names match.  Does not check locations within any worlds.
 	 * </p>
@@ -665,15 +697,38 @@ public class OnBlockBreakMines
 	}
 
 	
+	/**
+	 * <p>Uses the bukkit block's coordinates when they are available, so a 
+	 * prison Location does not have to be created to search the mines' 
+	 * spatial index.
+	 * </p>
+	 * 
+	 * @param block
+	 * @return
+	 */
 	private Mine findMineLocation( SpigotBlock block ) {
-		return getPrisonMineManager() == null || block == null || block.getLocation() == null ? 
-				null : getPrisonMineManager().findMineLocationExact( block.getLocation() );
+		Mine results = null;
+		
+		if ( getPrisonMineManager() != null && block != null ) {
+			
+			Block bBlock = block.getWrapper();
+			
+			if ( bBlock != null ) {
+				results = getPrisonMineManager().findMineLocationExact( 
+						bBlock.getWorld().getName(), bBlock.getX(), bBlock.getY(), bBlock.getZ() );
+			}
+			else if ( block.getLocation() != null ) {
+				results = getPrisonMineManager().findMineLocationExact( block.getLocation() );
+			}
+		}
+		
+		return results;
 	}
 	
 
-	private TreeMap<Long, Mine> getPlayerCache() {
+	private PlayerMineCache getPlayerCache() {
 		return getPrisonMineManager() == null ? 
-				new TreeMap<Long, Mine>() :
+				null :
 				getPrisonMineManager().getPlayerCache();
 	}
 
@@ -11,6 +11,7 @@ import org.bukkit.inventory.ItemStack;
 import com.cryptomorin.xseries.XMaterial;
 
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotUtil;
 import tech.mcprison.prison.spigot.autofeatures.AutoManagerFeatures;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
@@ -273,7 +274,7 @@ public class OnBlockBreakPlayerManualCore
 		if ( autoSmelt && source != null && target != null ) {
 			
 			HashMap<Integer, SpigotItemStack> overflow = SpigotUtil.itemStackReplaceItems( p, source, target, 1 );
-			dropExtra( overflow, p, debugInfo, false );
+			dropExtra( overflow, p, debugInfo, Output.get().isDebug(), false );
 
 		}
 	}
@@ -289,7 +290,7 @@ public class OnBlockBreakPlayerManualCore
 
 		if ( autoBlock && source != null && target != null ) {
 			HashMap<Integer, SpigotItemStack> overflow = SpigotUtil.itemStackReplaceItems( p, source, target, ratio );
-			dropExtra( overflow, p, debugInfo, false );
+			dropExtra( overflow, p, debugInfo, Output.get().isDebug(), false );
 			
 		}
 	}
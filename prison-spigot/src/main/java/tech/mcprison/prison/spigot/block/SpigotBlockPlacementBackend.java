@@ -0,0 +1,32 @@
+package tech.mcprison.prison.spigot.block;
+
+import tech.mcprison.prison.internal.block.MineResetType;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
+import tech.mcprison.prison.spigot.game.SpigotWorld;
+
+/**
+ * <p>A way of placing a range of the target blocks of a mine within the world. 
+ * This is always called from bukkit's synchronous thread, and each backend 
+ * is responsible for logging any errors that it encounters so one bad block 
+ * does not stop the rest of the reset.
+ * </p>
+ *
+ */
+public interface SpigotBlockPlacementBackend {
+
+	/**
+	 * <p>Places the target blocks from the startOffset (inclusive) to the 
+	 * endOffset (exclusive).
+	 * </p>
+	 * 
+	 * @param targetBlocks
+	 * @param startOffset
+	 * @param endOffset
+	 * @param resetType
+	 * @param world
+	 */
+	public void setBlocks( MineTargetBlockStore targetBlocks, 
+			int startOffset, int endOffset, MineResetType resetType, 
+			SpigotWorld world );
+	
+}
@@ -0,0 +1,215 @@
+package tech.mcprison.prison.spigot.block;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.bukkit.Chunk;
+
+import com.cryptomorin.xseries.XMaterial;
+
+import tech.mcprison.prison.internal.block.MineResetType;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+import tech.mcprison.prison.internal.block.PrisonBlockTypes.InternalBlockTypes;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
+import tech.mcprison.prison.spigot.game.SpigotWorld;
+
+/**
+ * <p>Places the blocks grouped by chunk section instead of in the order of
+ * the reset.  The reset order goes across a whole layer of the mine before
+ * going to the next layer, so a large mine will go through every chunk on
+ * every layer.  This sorts each slice by chunk and section, so each chunk is
+ * only looked up once per slice, and the blocks are taken directly from the
+ * chunk without creating a Location or a SpigotBlock for each one.
+ * </p>
+ *
+ * <p>Each PrisonBlock is resolved to its XMaterial only once per reset, instead
+ * of going through the compatibility cache for every block.  Like the 
+ * standard placement, the blocks are placed without physics updates.  Custom
+ * blocks are still placed through their integrations one at a time.
+ * </p>
+ *
+ */
+public class SpigotBlockPlacementChunkOrdered
+	implements SpigotBlockPlacementBackend {
+
+	/**
+	 * <p>The chunk coordinates are stored relative to the first block in the
+	 * slice, with this bias so they are always positive.  This supports
+	 * mines up to 16,384 blocks wide.
+	 * </p>
+	 */
+	private static final int CHUNK_BIAS = 1 << 10;
+	private static final int CHUNK_MASK = (1 << 11) - 1;
+
+	/**
+	 * <p>Marks a PrisonBlock that cannot be placed, such as IGNORE, or a block
+	 * that does not exist on this version of spigot.
+	 * </p>
+	 */
+	private static final Object UNRESOLVED = new Object();
+
+	/**
+	 * <p>The resolved blocks for each MineTargetBlockStore.  The mines generate
+	 * a new store for each reset, so the old stores are released when the
+	 * mine no longer uses them.
+	 * </p>
+	 */
+	private final Map<MineTargetBlockStore, Map<PrisonBlock, Object>> resolvedBlocks;
+
+	/**
+	 * <p>Reused for each slice, so the sort does not need to allocate.
+	 * </p>
+	 */
+	private long[] sortKeys;
+
+	public SpigotBlockPlacementChunkOrdered() {
+		super();
+
+		this.resolvedBlocks = new WeakHashMap<>();
+
+		this.sortKeys = new long[0];
+	}
+
+	@Override
+	public void setBlocks( MineTargetBlockStore targetBlocks,
+			int startOffset, int endOffset, MineResetType resetType,
+			SpigotWorld world ) {
+
+		Map<PrisonBlock, Object> resolved =
+				resolvedBlocks.computeIfAbsent( targetBlocks, store -> new IdentityHashMap<>() );
+
+		int count = sortSlice( targetBlocks, startOffset, endOffset, resetType );
+
+		int current = -1;
+		try
+		{
+			org.bukkit.World bukkitWorld = world.getWrapper();
+
+			Chunk chunk = null;
+			long chunkKey = -1;
+
+			for ( int i = 0; i < count; i++ ) {
+
+				int offset = (int) sortKeys[i];
+				current = offset;
+
+				int x = targetBlocks.getX( offset );
+				int y = targetBlocks.getY( offset );
+				int z = targetBlocks.getZ( offset );
+
+				// The section is in the lowest 8 bits of the key, so ignore it:
+				long key = (sortKeys[i] >>> 32) >>> 8;
+
+				if ( chunk == null || key != chunkKey ) {
+					chunk = bukkitWorld.getChunkAt( x >> 4, z >> 4 );
+					chunkKey = key;
+				}
+
+				org.bukkit.block.Block bBlock = chunk.getBlock( x & 0x0f, y, z & 0x0f );
+
+				PrisonBlock pBlock = targetBlocks.getPrisonBlock( offset, resetType );
+
+				if ( pBlock.getBlockType() == PrisonBlockType.minecraft ) {
+
+					Object xMat = resolve( resolved, pBlock );
+
+					if ( xMat != UNRESOLVED ) {
+
+						// No physics update:
+						SpigotCompatibility.getInstance().updateSpigotBlock( (XMaterial) xMat, bBlock );
+					}
+				}
+				else {
+
+					new SpigotBlock( bBlock, pBlock ).setPrisonBlock( pBlock );
+				}
+			}
+		}
+		catch ( Exception e ) {
+
+			PrisonBlock pBlock = current < 0 ? null : targetBlocks.getPrisonBlock( current, resetType );
+			String resetTypeBlockName = pBlock == null ? "null" : pBlock.getBlockName();
+
+			Output.get().logError(
+					String.format( "SpigotWorld.setBlocks (chunk) Exception: offsets: %d to %d  " +
+							"resetType: %s  %s :: %s",
+							startOffset, endOffset, resetType.name(), resetTypeBlockName,
+							e.getMessage() ), e );
+		}
+	}
+
+	/**
+	 * <p>Fills the sortKeys with the offsets of the blocks to be placed within
+	 * this slice, and sorts them by chunk and then by section.  The chunk and
+	 * section are in the upper 32 bits of each key, and the offset is in the
+	 * lower 32 bits.
+	 * </p>
+	 *
+	 * @return The number of blocks to be placed.
+	 */
+	private int sortSlice( MineTargetBlockStore targetBlocks,
+			int startOffset, int endOffset, MineResetType resetType ) {
+
+		int length = Math.max( 0, endOffset - startOffset );
+
+		if ( sortKeys.length < length ) {
+			sortKeys = new long[ length ];
+		}
+
+		int count = 0;
+
+		int chunkX0 = 0;
+		int chunkZ0 = 0;
+
+		for ( int offset = startOffset; offset < endOffset; offset++ ) {
+
+			if ( !targetBlocks.contains( offset ) ||
+					targetBlocks.getPrisonBlock( offset, resetType ) == null ) {
+				continue;
+			}
+
+			int chunkX = targetBlocks.getX( offset ) >> 4;
+			int chunkZ = targetBlocks.getZ( offset ) >> 4;
+			int section = targetBlocks.getY( offset ) >> 4;
+
+			if ( count == 0 ) {
+				chunkX0 = chunkX;
+				chunkZ0 = chunkZ;
+			}
+
+			long key = ((long) ((chunkX - chunkX0 + CHUNK_BIAS) & CHUNK_MASK) << 19) |
+					   ((long) ((chunkZ - chunkZ0 + CHUNK_BIAS) & CHUNK_MASK) << 8) |
+					   (section & 0xff);
+
+			sortKeys[count++] = (key << 32) | offset;
+		}
+
+		Arrays.sort( sortKeys, 0, count );
+
+		return count;
+	}
+
+	private Object resolve( Map<PrisonBlock, Object> resolved, PrisonBlock pBlock ) {
+
+		Object results = resolved.get( pBlock );
+
+		if ( results == null ) {
+
+			XMaterial xMat =
+					pBlock.getBlockName().equalsIgnoreCase( InternalBlockTypes.IGNORE.name() ) ?
+							null :
+							SpigotCompatibility.getInstance().getXMaterial( pBlock );
+
+			results = xMat == null ? UNRESOLVED : xMat;
+
+			resolved.put( pBlock, results );
+		}
+
+		return results;
+	}
+}
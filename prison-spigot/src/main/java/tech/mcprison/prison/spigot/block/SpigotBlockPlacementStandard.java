@@ -0,0 +1,66 @@
+package tech.mcprison.prison.spigot.block;
+
+import tech.mcprison.prison.internal.block.MineResetType;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.spigot.game.SpigotWorld;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>Places each block one at a time, in the order of the reset, by getting
+ * the block from the world and then setting the PrisonBlock on it.  This
+ * supports all block types, including the custom blocks.
+ * </p>
+ *
+ */
+public class SpigotBlockPlacementStandard
+	implements SpigotBlockPlacementBackend {
+
+	@Override
+	public void setBlocks( MineTargetBlockStore targetBlocks, 
+			int startOffset, int endOffset, MineResetType resetType, 
+			SpigotWorld world ) {
+		
+		int current = -1;
+		try
+		{
+			for ( int offset = startOffset; offset < endOffset; offset++ )
+			{
+				current = offset;
+				
+				if ( targetBlocks.contains( offset ) ) {
+					
+					final PrisonBlock pBlock = targetBlocks.getPrisonBlock( offset, resetType );
+					
+					if ( pBlock != null ) {
+						
+						Location location = new Location( world, 
+								targetBlocks.getX( offset ), 
+								targetBlocks.getY( offset ), 
+								targetBlocks.getZ( offset ) );
+						
+						SpigotBlock sBlock = (SpigotBlock) world.getBlockAt( location );
+//						SpigotBlock sBlock = (SpigotBlock) location.getBlockAt();
+						
+						sBlock.setPrisonBlock( pBlock );
+					}
+				}
+				
+			}
+		}
+		catch ( Exception e ) {
+
+			PrisonBlockStatusData blk = current < 0 ? null : targetBlocks.getPrisonBlock( current );
+			String blkName = blk == null ? "null" : blk.getBlockName();
+			PrisonBlock pBlock = current < 0 ? null : targetBlocks.getPrisonBlock( current, resetType );
+			String resetTypeBlockName = pBlock == null ? "null" : pBlock.getBlockName();
+
+			Output.get().logError(
+					String.format( "SpigotWorld.setBlocks Exception: %s  resetType: %s  %s :: %s",
+							blkName, resetType.name(), resetTypeBlockName, e.getMessage() ), e );
+		}
+	}
+
+}
@@ -1,81 +1,95 @@
 package tech.mcprison.prison.spigot.block;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.bukkit.scheduler.BukkitRunnable;
 
 import tech.mcprison.prison.internal.PrisonStatsElapsedTimeNanos;
+import tech.mcprison.prison.internal.block.MineBlockPlacementStrategy;
 import tech.mcprison.prison.internal.block.MineResetType;
-import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
-import tech.mcprison.prison.internal.block.PrisonBlock;
-import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.game.SpigotWorld;
-import tech.mcprison.prison.util.Location;
 
 public class SpigotBlockSetSynchronously {
 
-	public void setBlocksSynchronously( List<MineTargetPrisonBlock> tBlocks, MineResetType resetType, 
-			PrisonStatsElapsedTimeNanos nanos, SpigotWorld world ) {
+	private SpigotBlockPlacementBackend standardBackend;
+	private SpigotBlockPlacementBackend chunkBackend;
+	
+	/**
+	 * <p>The targetBlocks store is not copied since the mine will replace the 
+	 * whole store when it generates a new block list, so the store that is 
+	 * passed here will not change while this slice is waiting to run.
+	 * </p>
+	 * 
+	 * @param targetBlocks
+	 * @param startOffset
+	 * @param endOffset
+	 * @param resetType
+	 * @param nanos
+	 * @param strategy
+	 * @param world
+	 */
+	public void setBlocksSynchronously( MineTargetBlockStore targetBlocks, 
+			int startOffset, int endOffset, MineResetType resetType, 
+			PrisonStatsElapsedTimeNanos nanos, MineBlockPlacementStrategy strategy, 
+			SpigotWorld world ) {
 	
-		List<MineTargetPrisonBlock> tBlocksCloned = new ArrayList<>();
-		for ( MineTargetPrisonBlock mtpb : tBlocks ) {
-			
-			tBlocksCloned.add( mtpb );
-		}
-		
 		new BukkitRunnable() {
 			@Override
 			public void run() {
 				
-				long start = System.nanoTime();
-				
-				MineTargetPrisonBlock current = null;
-				try
-				{
-					for ( MineTargetPrisonBlock tBlock : tBlocksCloned )
-					{
-						current = tBlock;
-						
-						if ( tBlock != null && tBlock.getLocation() != null ) {
-							
-							final PrisonBlock pBlock = tBlock.getPrisonBlock( resetType );
-							
-							if ( pBlock != null ) {
-								
-								Location location = tBlock.getLocation();
-								
-								SpigotBlock sBlock = (SpigotBlock) world.getBlockAt( location );
-//							SpigotBlock sBlock = (SpigotBlock) location.getBlockAt();
-								
-								sBlock.setPrisonBlock( pBlock );
-							}
-						}
-						
-					}
-				}
-				catch ( Exception e ) {
-
-                    String blkName = current.getPrisonBlock().getBlockName();
-                    PrisonBlock pBlock = current.getPrisonBlock( resetType );
-                    String resetTypeBlockName = pBlock == null ? "null" : pBlock.getBlockName();
-
-                    Output.get().logError(
-                            String.format( "SpigotWorld.setBlocksSynchronously Exception: %s  resetType: %s  %s :: %s",
-                                    blkName, resetType.name(), resetTypeBlockName, e.getMessage() ), e );
-                }
-				
-				long elapsedNanos = System.nanoTime() - start;
-				
-					
-				if ( nanos != null ) {
-					nanos.addNanos( elapsedNanos );
-				}
-				
+				setBlocks( targetBlocks, startOffset, endOffset, resetType, nanos, strategy, world );
 			}
 		}.runTaskLater( SpigotPrison.getInstance(), 0 );
 		
 	}
+	
+	/**
+	 * <p>Places the blocks on the current thread, which must be bukkit's 
+	 * synchronous thread, with the backend for the placement strategy.
+	 * </p>
+	 * 
+	 * @param targetBlocks
+	 * @param startOffset
+	 * @param endOffset
+	 * @param resetType
+	 * @param nanos
+	 * @param strategy
+	 * @param world
+	 */
+	public void setBlocks( MineTargetBlockStore targetBlocks, 
+			int startOffset, int endOffset, MineResetType resetType, 
+			PrisonStatsElapsedTimeNanos nanos, MineBlockPlacementStrategy strategy, 
+			SpigotWorld world ) {
+		
+		long start = System.nanoTime();
+		
+		getBackend( strategy ).setBlocks( targetBlocks, startOffset, endOffset, resetType, world );
+		
+		long elapsedNanos = System.nanoTime() - start;
+		
+			
+		if ( nanos != null ) {
+			nanos.addNanos( elapsedNanos );
+		}
+	}
+	
+	private SpigotBlockPlacementBackend getBackend( MineBlockPlacementStrategy strategy ) {
+		SpigotBlockPlacementBackend results = null;
+		
+		if ( strategy == MineBlockPlacementStrategy.chunk ) {
+			if ( chunkBackend == null ) {
+				chunkBackend = new SpigotBlockPlacementChunkOrdered();
+			}
+			results = chunkBackend;
+		}
+		else {
+			if ( standardBackend == null ) {
+				standardBackend = new SpigotBlockPlacementStandard();
+			}
+			results = standardBackend;
+		}
+		
+		return results;
+	}
 
 }
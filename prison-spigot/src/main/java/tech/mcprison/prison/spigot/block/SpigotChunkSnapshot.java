@@ -0,0 +1,44 @@
+package tech.mcprison.prison.spigot.block;
+
+import org.bukkit.ChunkSnapshot;
+
+import tech.mcprison.prison.internal.block.PrisonChunkSnapshot;
+import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
+
+/**
+ * <p>Wraps a bukkit ChunkSnapshot so it can be read by the mines module from
+ * an async task.  The world coordinates are converted to the coordinates
+ * within the chunk.
+ * </p>
+ *
+ */
+public class SpigotChunkSnapshot
+	implements PrisonChunkSnapshot
+{
+	private final ChunkSnapshot chunkSnapshot;
+
+	public SpigotChunkSnapshot( ChunkSnapshot chunkSnapshot ) {
+		super();
+
+		this.chunkSnapshot = chunkSnapshot;
+	}
+
+	@Override
+	public int getChunkX() {
+		return chunkSnapshot.getX();
+	}
+
+	@Override
+	public int getChunkZ() {
+		return chunkSnapshot.getZ();
+	}
+
+	@Override
+	public boolean isAir( int x, int y, int z ) {
+		return SpigotCompatibility.getInstance().isAir( chunkSnapshot, x & 15, y, z & 15 );
+	}
+
+	public ChunkSnapshot getChunkSnapshot() {
+		return chunkSnapshot;
+	}
+}
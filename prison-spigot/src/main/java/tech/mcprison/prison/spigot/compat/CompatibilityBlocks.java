@@ -1,5 +1,6 @@
 package tech.mcprison.prison.spigot.compat;
 
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.block.Block;
 import org.bukkit.inventory.ItemStack;
 
@@ -101,6 +102,20 @@ public interface CompatibilityBlocks
      * @return
      */
 	public void setCustomModelData( ItemStack itemStack, int customModelData );
+	
+	/**
+	 * <p>Returns true if the block within the chunk snapshot is air.  The x and z
+	 * coordinates are relative to the chunk, from 0 to 15.  This does not access 
+	 * the world, so it can be called from an async task.
+	 * </p>
+	 * 
+	 * @param chunkSnapshot
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public boolean isAir( ChunkSnapshot chunkSnapshot, int x, int y, int z );
 
 
 }
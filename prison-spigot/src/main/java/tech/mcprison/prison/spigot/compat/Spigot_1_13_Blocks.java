@@ -1,5 +1,6 @@
 package tech.mcprison.prison.spigot.compat;
 
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
@@ -483,4 +484,11 @@ public abstract class Spigot_1_13_Blocks
 //        }
 //        return null;
     }
+    
+    @Override
+    public boolean isAir( ChunkSnapshot chunkSnapshot, int x, int y, int z ) {
+    	Material type = chunkSnapshot.getBlockType( x, y, z );
+    	
+    	return type == Material.AIR || type == Material.CAVE_AIR || type == Material.VOID_AIR;
+    }
 }
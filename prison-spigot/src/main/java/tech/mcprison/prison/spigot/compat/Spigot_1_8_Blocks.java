@@ -1,5 +1,8 @@
 package tech.mcprison.prison.spigot.compat;
 
+import java.lang.reflect.Method;
+
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
@@ -19,6 +22,8 @@ public abstract class Spigot_1_8_Blocks
 	extends Spigot_1_8_Player 
 	implements CompatibilityBlocks {
 
+	private Method chunkSnapshotGetBlockTypeId = null;
+
 
 //	/**
 //	 * <p>This function provides a minecraft v1.8 way of getting
@@ -798,6 +803,31 @@ public abstract class Spigot_1_8_Blocks
 		
 	}
 
-
+    /**
+     * <p>Spigot 1.8 through 1.12 only provides the block's type id from the 
+     * chunk snapshot, and that function no longer exists with 1.13, so it has 
+     * to be called through reflection.  A type id of zero is air.
+     * </p>
+     */
+    @Override
+    public boolean isAir( ChunkSnapshot chunkSnapshot, int x, int y, int z ) {
+    	boolean results = false;
+    	
+    	try {
+    		if ( chunkSnapshotGetBlockTypeId == null ) {
+    			chunkSnapshotGetBlockTypeId = ChunkSnapshot.class.getMethod( 
+    					"getBlockTypeId", int.class, int.class, int.class );
+    		}
+    		
+    		Object typeId = chunkSnapshotGetBlockTypeId.invoke( chunkSnapshot, x, y, z );
+    		
+    		results = typeId instanceof Integer && ((Integer) typeId).intValue() == 0;
+    	}
+    	catch ( ReflectiveOperationException | IllegalArgumentException e ) {
+    		// Cannot check the block, so assume it is not air so it is not counted.
+    	}
+    	
+    	return results;
+    }
     
 }
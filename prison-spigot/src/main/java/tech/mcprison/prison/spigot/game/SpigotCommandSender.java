@@ -29,6 +29,7 @@ import org.bukkit.permissions.PermissionAttachmentInfo;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
+import tech.mcprison.prison.cache.PlayerPermissionCache;
 import tech.mcprison.prison.integration.PermissionIntegration;
 import tech.mcprison.prison.internal.CommandSender;
 import tech.mcprison.prison.internal.Player;
@@ -115,6 +116,13 @@ public class SpigotCommandSender implements CommandSender {
 	@Override
 	public void recalculatePermissions() {
 		bukkitSender.recalculatePermissions();
+		
+		if ( bukkitSender instanceof org.bukkit.entity.Player ) {
+			
+			// The player's permissions may have changed, so drop their snapshot:
+			PlayerPermissionCache.getInstance().invalidate( 
+					((org.bukkit.entity.Player) bukkitSender).getUniqueId() );
+		}
 	}
 	
 
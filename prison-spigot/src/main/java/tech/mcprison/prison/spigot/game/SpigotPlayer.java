@@ -38,6 +38,7 @@ import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
 import tech.mcprison.prison.autofeatures.PlayerMessaging.MessageType;
 import tech.mcprison.prison.cache.PlayerCache;
 import tech.mcprison.prison.cache.PlayerCachePlayerData;
+import tech.mcprison.prison.cache.PlayerPermissionCache;
 import tech.mcprison.prison.file.JsonFileIO;
 import tech.mcprison.prison.integration.EconomyCurrencyIntegration;
 import tech.mcprison.prison.integration.EconomyIntegration;
@@ -932,7 +933,7 @@ public class SpigotPlayer
 					afw.isBoolean(AutoFeatures.isAutoSellPerBlockBreakEnabled) &&
 					!"disable".equalsIgnoreCase( perm ) &&
 					!"false".equalsIgnoreCase( perm ) &&
-					hasPermission( perm );
+					PlayerPermissionCache.getInstance().hasPermission( this, perm );
 		}
 		
 
@@ -29,13 +29,16 @@ import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.PrisonStatsElapsedTimeNanos;
 import tech.mcprison.prison.internal.World;
 import tech.mcprison.prison.internal.block.Block;
+import tech.mcprison.prison.internal.block.MineBlockPlacementStrategy;
 import tech.mcprison.prison.internal.block.MineResetType;
-import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
 import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonChunkSnapshot;
 import tech.mcprison.prison.spigot.SpigotUtil;
 import tech.mcprison.prison.spigot.block.SpigotBlockGetAtLocation;
 import tech.mcprison.prison.spigot.block.SpigotBlockSetAsynchronously;
 import tech.mcprison.prison.spigot.block.SpigotBlockSetSynchronously;
+import tech.mcprison.prison.spigot.block.SpigotChunkSnapshot;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
 import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
 import tech.mcprison.prison.util.Location;
@@ -145,20 +148,91 @@ public class SpigotWorld implements World {
 	 * thread so the block updates will be thread safe.
 	 * </p>
 	 * 
-	 * <p>The MineTargetPrisonBlock List should be a fairly short list of blocks that
-	 * will be updated in one synchronous slice.
+	 * <p>The range of offsets within the MineTargetBlockStore should be a fairly 
+	 * short range of blocks that will be updated in one synchronous slice.
 	 * </p>
 	 * 
 	 */
 	@Override
-	public void setBlocksSynchronously( List<MineTargetPrisonBlock> tBlocks, MineResetType resetType, 
+	public void setBlocksSynchronously( MineTargetBlockStore targetBlocks, 
+			int startOffset, int endOffset, MineResetType resetType, 
 			PrisonStatsElapsedTimeNanos nanos ) {
 		
+		setBlocksSynchronously( targetBlocks, startOffset, endOffset, resetType, nanos, 
+						MineBlockPlacementStrategy.standard );
+	}
+	
+	/**
+	 * <p>The same as setBlocksSynchronously(), but the blocks are placed with the 
+	 * backend that is selected by the strategy.
+	 * </p>
+	 * 
+	 */
+	@Override
+	public void setBlocksSynchronously( MineTargetBlockStore targetBlocks, 
+			int startOffset, int endOffset, MineResetType resetType, 
+			PrisonStatsElapsedTimeNanos nanos, MineBlockPlacementStrategy strategy ) {
+		
+		getSetBlockSync().setBlocksSynchronously( targetBlocks, startOffset, endOffset, 
+						resetType, nanos, strategy, this );
+		
+	}
+	
+	/**
+	 * <p>Places the blocks immediately, so this must be called from bukkit's 
+	 * synchronous thread.
+	 * </p>
+	 * 
+	 */
+	@Override
+	public void setBlocks( MineTargetBlockStore targetBlocks, 
+			int startOffset, int endOffset, MineResetType resetType, 
+			PrisonStatsElapsedTimeNanos nanos ) {
+		
+		setBlocks( targetBlocks, startOffset, endOffset, resetType, nanos, 
+						MineBlockPlacementStrategy.standard );
+	}
+	
+	/**
+	 * <p>Places the blocks immediately with the backend that is selected by the 
+	 * strategy, so this must be called from bukkit's synchronous thread.
+	 * </p>
+	 * 
+	 */
+	@Override
+	public void setBlocks( MineTargetBlockStore targetBlocks, 
+			int startOffset, int endOffset, MineResetType resetType, 
+			PrisonStatsElapsedTimeNanos nanos, MineBlockPlacementStrategy strategy ) {
+		
+		getSetBlockSync().setBlocks( targetBlocks, startOffset, endOffset, 
+						resetType, nanos, strategy, this );
+		
+	}
+	
+	/**
+	 * <p>The chunk is not loaded if it is not already loaded.  The height map and
+	 * the biomes are not included in the snapshot since only the blocks are needed.
+	 * </p>
+	 * 
+	 */
+	@Override
+	public PrisonChunkSnapshot getChunkSnapshot( int chunkX, int chunkZ ) {
+		PrisonChunkSnapshot results = null;
+		
+		if ( bukkitWorld.isChunkLoaded( chunkX, chunkZ ) ) {
+			
+			results = new SpigotChunkSnapshot( 
+					bukkitWorld.getChunkAt( chunkX, chunkZ ).getChunkSnapshot( false, false, false ) );
+		}
+		
+		return results;
+	}
+	
+	private SpigotBlockSetSynchronously getSetBlockSync() {
 		if ( setBlockSync == null ) {
 			setBlockSync = new SpigotBlockSetSynchronously();
 		}
-		setBlockSync.setBlocksSynchronously(tBlocks, resetType, nanos, this );
-		
+		return setBlockSync;
 	}
 
 	
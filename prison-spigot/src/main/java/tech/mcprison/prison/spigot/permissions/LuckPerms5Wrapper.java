@@ -13,6 +13,8 @@ import org.bukkit.plugin.RegisteredServiceProvider;
 
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.context.DefaultContextKeys;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
 import net.luckperms.api.model.data.DataMutateResult;
 import net.luckperms.api.model.user.User;
 import net.luckperms.api.model.user.UserManager;
@@ -22,6 +24,7 @@ import net.luckperms.api.node.types.InheritanceNode;
 import net.luckperms.api.node.types.PermissionNode;
 import net.luckperms.api.node.types.WeightNode;
 import net.luckperms.api.query.QueryOptions;
+import tech.mcprison.prison.cache.PlayerPermissionCache;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
 
@@ -53,6 +56,12 @@ public class LuckPerms5Wrapper
 		
 //		LuckPerms api = provider.getProvider();
 		api = provider.getProvider();
+		
+		// Drop the permission snapshots when LuckPerms recalculates the permissions:
+		api.getEventBus().subscribe( UserDataRecalculateEvent.class, 
+				event -> PlayerPermissionCache.getInstance().invalidate( event.getUser().getUniqueId() ) );
+		api.getEventBus().subscribe( GroupDataRecalculateEvent.class, 
+				event -> PlayerPermissionCache.getInstance().invalidateAll() );
 	}
 	
     protected void addPermission(Player holder, String permission) {
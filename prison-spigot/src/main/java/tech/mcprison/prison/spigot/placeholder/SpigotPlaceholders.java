@@ -10,6 +10,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.output.Output;
@@ -19,6 +20,7 @@ import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
 import tech.mcprison.prison.placeholders.PlaceholderManagerUtils;
 import tech.mcprison.prison.placeholders.PlaceholderStatsData;
+import tech.mcprison.prison.placeholders.PlaceholderValueCache;
 import tech.mcprison.prison.placeholders.Placeholders;
 import tech.mcprison.prison.placeholders.PlaceholdersStats;
 import tech.mcprison.prison.ranks.PrisonRanks;
@@ -71,6 +73,11 @@ public class SpigotPlaceholders
 		}
 	}
 	
+	private boolean isDisablePlayerPlaceholdersInExcludedWorlds() {
+		return Prison.get().getPlatform().getConfigBooleanFalse( 
+				"prisonCommandHandler.disable-player-placeholders-in-excluded-worlds" );
+	}
+	
 	private boolean ignorePlayerInDisabledWorlds( SpigotPlayer sPlayer ) {
 		boolean results = false;
 		
@@ -83,8 +90,7 @@ public class SpigotPlaceholders
 		
 		if ( worldName != null && sPlayer.isOnline() ) {
 			
-			boolean disable = Prison.get().getPlatform().getConfigBooleanFalse( 
-					"prisonCommandHandler.disable-player-placeholders-in-excluded-worlds" );
+			boolean disable = isDisablePlayerPlaceholdersInExcludedWorlds();
 			if ( disable ) {
 				List<String> excludedWorlds = Prison.get().getPlatform()
 								.getConfigStringArray( "prisonCommandHandler.exclude-worlds" );
@@ -226,11 +232,47 @@ public class SpigotPlaceholders
      */
     @Override
     public String placeholderTranslate( UUID playerUuid, String playerName, String placeholderText ) {
-    	PlaceholderIdentifier identifier = new PlaceholderIdentifier( placeholderText );
-    	identifier.setPlayer(playerUuid, playerName);
     	
-    	return processPlaceholderIdentifier( identifier );
+    	PlaceholderValueCache valueCache = PlaceholderValueCache.getInstance();
+    	
+    	String results = valueCache.get( playerUuid, placeholderText );
+    	
+    	if ( results == null ) {
+    		
+    		long epoch = valueCache.getEpoch();
+    		long nanoStart = System.nanoTime();
+    		
+    		PlaceholderIdentifier identifier = new PlaceholderIdentifier( placeholderText );
+    		identifier.setPlayer(playerUuid, playerName);
+    		
+    		results = processPlaceholderIdentifier( identifier );
+    		
+    		cacheValue( valueCache, playerUuid, placeholderText, identifier, results, 
+    						epoch, System.nanoTime() - nanoStart );
+    	}
+    	
+    	return results;
 	}
+    
+    /**
+     * <p>Stores the value of the placeholder in the value cache, but only if the
+     * placeholder was matched.
+     * </p>
+     * 
+     */
+    private void cacheValue( PlaceholderValueCache valueCache, UUID playerUuid, String placeholderText,
+    				PlaceholderIdentifier identifier, String value, long epoch, long computeNanos ) {
+    	
+    	if ( identifier.isFoundAMatch() && identifier.getPlaceholderKey() != null ) {
+    		
+    		PlaceholderStatsData stats = PlaceholdersStats.getInstance()
+    							.getPlaceholders().get( identifier.getIdentifier() );
+    		
+    		valueCache.put( playerUuid, placeholderText, 
+    				identifier.getPlaceholderKey().getPlaceholder(), stats, 
+    				value, epoch, computeNanos );
+    	}
+    }
 
     // NOTE: This is obsolete since the player should always be included:
 //    /**
@@ -450,15 +492,43 @@ public class SpigotPlaceholders
 	private String replaceAllPlaceholders(UUID playerUuid, String playerName, String rawText, final Matcher matcher) {
 		String results = rawText;
 		
+		PlaceholderValueCache valueCache = PlaceholderValueCache.getInstance();
+		
 		while (matcher.find()) {
 			final String placeholderText = matcher.group(1);
+			
+			// The cached value is the value before the disabled world check, so 
+			// the check is always applied to the player's current world:
+			String replacementText = valueCache.get( playerUuid, placeholderText );
+			
+			if ( replacementText != null ) {
+				
+				if ( isDisablePlayerPlaceholdersInExcludedWorlds() && playerUuid != null ) {
+					
+					Player player = Prison.get().getPlatform().getPlayer( playerUuid ).orElse( null );
+					
+					if ( player != null && player instanceof SpigotPlayer &&
+							ignorePlayerInDisabledWorlds( (SpigotPlayer) player ) ) {
+						replacementText = "";
+					}
+				}
+				
+				results = results.replace( placeholderText, replacementText );
+				continue;
+			}
+			
+			long epoch = valueCache.getEpoch();
+			long nanoStart = System.nanoTime();
 
 			PlaceholderIdentifier identifier = new PlaceholderIdentifier( placeholderText );
 			identifier.setPlayer(playerUuid, playerName);
 			
-			String replacementText = processPlaceholderIdentifier(identifier);
+			replacementText = processPlaceholderIdentifier(identifier);
 			if ( identifier.isFoundAMatch() ) {
 				
+				cacheValue( valueCache, playerUuid, placeholderText, identifier, replacementText, 
+								epoch, System.nanoTime() - nanoStart );
+				
 				if ( identifier.getPlayer() != null &&
 						identifier.getPlayer() instanceof SpigotPlayer &&
 						ignorePlayerInDisabledWorlds( (SpigotPlayer) identifier.getPlayer() )) {
@@ -626,6 +696,8 @@ public class SpigotPlaceholders
 		
 		PlaceholderManagerUtils.getInstance().reloadPlaceholderBarConfig();
 		
+		PlaceholderValueCache.getInstance().reloadConfig();
+		
 		initializePlaceholderManagers();
     	
     	if ( PrisonRanks.getInstance() != null && PrisonRanks.getInstance().isEnabled() ) {
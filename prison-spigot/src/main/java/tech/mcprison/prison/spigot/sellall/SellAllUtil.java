@@ -21,6 +21,7 @@ import com.cryptomorin.xseries.XSound;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
+import tech.mcprison.prison.cache.PlayerPermissionCache;
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
 import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
 import tech.mcprison.prison.integration.EconomyCurrencyIntegration;
@@ -460,10 +461,10 @@ public class SellAllUtil
 //        }
 
         // Get Multiplier from multipliers permission's if there's any.
-        List<String> perms = sPlayer.getPermissions("prison.sellall.multiplier.");
+        double[] permValues = PlayerPermissionCache.getInstance()
+                .getNumericValues(sPlayer, "prison.sellall.multiplier.");
         double multiplierExtraByPerms = 0;
-        for (String multByPerm : perms) {
-            double multByPermDouble = Double.parseDouble(multByPerm.substring(26));
+        for (double multByPermDouble : permValues) {
             if (!isSellAllPermissionMultiplierOnlyHigherEnabled) {
                 multiplierExtraByPerms += multByPermDouble;
             } else if (multByPermDouble > multiplierExtraByPerms) {
@@ -25,8 +25,8 @@ import tech.mcprison.prison.bombs.MineBombData;
 import tech.mcprison.prison.bombs.MineBombEffectsData;
 import tech.mcprison.prison.bombs.MineBombEffectsData.EffectState;
 import tech.mcprison.prison.bombs.MineBombs;
-import tech.mcprison.prison.bombs.MineBombs.ExplosionOrientation;
-import tech.mcprison.prison.bombs.MineBombs.ExplosionShape;
+import tech.mcprison.prison.mines.PrisonMines;
+import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.api.ExplosiveBlockBreakEvent;
@@ -35,6 +35,7 @@ import tech.mcprison.prison.spigot.block.SpigotItemStack;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.game.SpigotWorld;
 import tech.mcprison.prison.spigot.spiget.BluesSpigetSemVerComparator;
+import tech.mcprison.prison.util.Bounds;
 import tech.mcprison.prison.util.Location;
 import tech.mcprison.prison.util.Text;
 
@@ -334,84 +335,21 @@ public class PrisonUtilsMineBombsTasks
 			{
 				List<org.bukkit.block.Block> blocks = new ArrayList<>();
 				
-				// Calculate all the locations that are included in the explosion:
-				List<Location> blockLocations = null;
-
-				
-				ExplosionShape shape = ExplosionShape.fromString( bomb.getExplosionShape() );
-				
-				switch ( shape )
-				{
-					case cube:
-						{
-							blockLocations = mBombs.calculateCube( location, 
-									bomb.getRadius() );
-							break;
-						}
-					
-					case ring_x:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner(),
-								ExplosionOrientation.x_axis );
-						break;
-					}
-					case ring_y:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner(),
-								ExplosionOrientation.y_axis );
-						break;
-					}
-					case ring_z:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner(),
-								ExplosionOrientation.z_axis );
-						break;
-					}
-
-					
-					case disk_x:
-						{
-							blockLocations = mBombs.calculateSphere( location, 
-									bomb.getRadius(), false, 0,
-									ExplosionOrientation.x_axis );
-							break;
-						}
-					case disk_y:
-						{
-							blockLocations = mBombs.calculateSphere( location, 
-									bomb.getRadius(), false, 0,
-									ExplosionOrientation.y_axis );
-							break;
-						}
-					case disk_z:
-						{
-							blockLocations = mBombs.calculateSphere( location, 
-									bomb.getRadius(), false, 0,
-									ExplosionOrientation.z_axis );
-							break;
-						}
-						
-						
-					
-					case sphereHollow:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner() );
-						break;
-					}
-					
-					case sphere:
-					default:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), false );
-						break;
+				// Only the blocks within the mine can be broken by the explosion, so 
+				// clip the explosion to the mine's bounds if the bomb is within a mine:
+				Bounds clip = null;
+				if ( PrisonMines.getInstance() != null && PrisonMines.getInstance().isEnabled() ) {
+					Mine mine = PrisonMines.getInstance().findMineLocation( location );
+					if ( mine != null && !mine.isVirtual() ) {
+						clip = mine.getBounds();
 					}
 				}
-
+				
+				// Calculate all the locations that are included in the explosion.  The 
+				// shape of the explosion is precalculated, so it is only translated to
+				// the bomb's location:
+				List<Location> blockLocations = mBombs.calculateExplosion( bomb, location, clip );
+				
 				
 				SpigotWorld world = (SpigotWorld) location.getWorld();
 
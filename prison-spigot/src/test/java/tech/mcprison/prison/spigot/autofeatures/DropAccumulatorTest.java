@@ -0,0 +1,133 @@
+package tech.mcprison.prison.spigot.autofeatures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.spigot.block.SpigotItemStack;
+
+public class DropAccumulatorTest
+{
+	/**
+	 * <p>Uses the block names as the material names, so the items do not
+	 * need a server to resolve their XMaterials.
+	 * </p>
+	 */
+	private static class TestDropAccumulator
+			extends DropAccumulator {
+
+		@Override
+		protected String getMaterialName( SpigotItemStack itemStack ) {
+			return itemStack.getMaterial().getBlockName().toUpperCase();
+		}
+	}
+
+	private SpigotItemStack item( String blockName, int amount ) {
+		SpigotItemStack itemStack = new SpigotItemStack( (org.bukkit.inventory.ItemStack) null );
+
+		itemStack.setMaterial( new PrisonBlock( blockName ) );
+		itemStack.setAmount( amount );
+
+		return itemStack;
+	}
+
+	private int count( DropAccumulator drops, String blockName ) {
+		int results = 0;
+
+		for ( SpigotItemStack drop : drops.getDrops() ) {
+			if ( drop.getMaterial().getBlockName().equalsIgnoreCase( blockName ) ) {
+				results += drop.getAmount();
+			}
+		}
+
+		return results;
+	}
+
+	@Test
+	public void mergesByItem() {
+		DropAccumulator drops = new TestDropAccumulator();
+
+		SpigotItemStack cobblestone = item( "cobblestone", 3 );
+
+		drops.add( cobblestone );
+		drops.add( item( "stone", 2 ) );
+		drops.add( item( "cobblestone", 5 ) );
+		drops.add( item( "stone", 0 ) );
+		drops.add( null );
+
+		List<SpigotItemStack> results = drops.getDrops();
+
+		assertEquals( 2, results.size() );
+		assertEquals( 10, drops.getTotalCount() );
+
+		// The first stack of each item holds the total:
+		assertSame( cobblestone, results.get( 0 ) );
+		assertEquals( 8, results.get( 0 ).getAmount() );
+		assertEquals( 2, results.get( 1 ).getAmount() );
+	}
+
+	@Test
+	public void convertsToExistingTarget() {
+		DropAccumulator drops = new TestDropAccumulator();
+
+		drops.add( item( "iron_ingot", 10 ) );
+		drops.add( item( "iron_block", 1 ) );
+		drops.add( item( "iron_ingot", 9 ) );
+
+		drops.convert( "IRON_INGOT", "IRON_BLOCK", 9, () -> {
+			fail( "The target already exists" );
+			return null;
+		});
+
+		assertEquals( 1, count( drops, "iron_ingot" ) );
+		assertEquals( 3, count( drops, "iron_block" ) );
+		assertEquals( 2, drops.getDrops().size() );
+	}
+
+	@Test
+	public void convertsToNewTarget() {
+		DropAccumulator drops = new TestDropAccumulator();
+
+		drops.add( item( "iron_ore", 4 ) );
+
+		drops.convert( "IRON_ORE", "IRON_INGOT", 1, () -> item( "iron_ingot", 1 ) );
+
+		assertEquals( 0, count( drops, "iron_ore" ) );
+		assertEquals( 4, count( drops, "iron_ingot" ) );
+		assertEquals( 1, drops.getDrops().size() );
+	}
+
+	@Test
+	public void keepsSourceWhenTargetCannotBeCreated() {
+		DropAccumulator drops = new TestDropAccumulator();
+
+		drops.add( item( "gold_ingot", 12 ) );
+		drops.add( item( "gold_ingot", 7 ) );
+
+		drops.convert( "GOLD_INGOT", "GOLD_BLOCK", 9, () -> null );
+
+		assertEquals( 19, count( drops, "gold_ingot" ) );
+		assertEquals( 0, count( drops, "gold_block" ) );
+		assertEquals( 19, drops.getTotalCount() );
+	}
+
+	@Test
+	public void keepsRemainderBelowRatio() {
+		DropAccumulator drops = new TestDropAccumulator();
+
+		drops.add( item( "redstone", 8 ) );
+
+		drops.convert( "REDSTONE", "REDSTONE_BLOCK", 9, () -> {
+			fail( "Nothing can be converted" );
+			return null;
+		});
+
+		assertEquals( 8, count( drops, "redstone" ) );
+		assertEquals( 1, drops.getDrops().size() );
+	}
+}